@@ -0,0 +1,183 @@
+package epj2.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The immutable, typed configuration of the application, built once at startup from all properties files:
+ * {@value FileConfig#FILE_NAME}, {@value MapConfig#FILE_NAME}, {@value PricingConfig#FILE_NAME},
+ * {@value ReportConfig#FILE_NAME}, {@value SimulationConfig#FILE_NAME} and {@value #FAULT_DESCRIPTIONS_FILE_NAME}.
+ * Every value is parsed and validated once, and numbers that are always used in the same form (for example percentages
+ * as shares) are precomputed, so the rest of the application reads plain final fields instead of looking up and parsing
+ * strings on every call. If any value is missing or invalid, the configuration is not built and all problems are
+ * reported together.
+ *
+ * The configuration of each properties file is a separate immutable section, so a snapshot can be shared by any number of threads.
+ * The pricing and report sections can be {@link #reloadPricingAndReports() reloaded} while the simulation is running
+ * (see {@link ConfigWatcher}): a new snapshot that shares all other sections is published by swapping a single reference,
+ * so readers never lock, and code that took a snapshot (for example an invoice that is being priced) keeps a consistent
+ * view until it is done. All other sections are only read at startup.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public final class AppConfig {
+	/** The name of the properties file with the fault descriptions. */
+	public static final String FAULT_DESCRIPTIONS_FILE_NAME = "faultDescriptions.properties";
+	/** The current configuration, built at startup and replaced when the pricing or report settings are reloaded. */
+	private static final AtomicReference<AppConfig> CURRENT = new AtomicReference<>(load());
+	/** The file paths and the invoice and loader settings. */
+	private final FileConfig files;
+	/** The city map settings. */
+	private final MapConfig map;
+	/** The rental pricing settings. */
+	private final PricingConfig pricing;
+	/** The report settings. */
+	private final ReportConfig reports;
+	/** The simulation settings. */
+	private final SimulationConfig simulation;
+	/** The descriptions of the faults that can occur. */
+	private final List<String> faultDescriptions;
+
+	/**
+	 * Constructs a configuration from its sections.
+	 *
+	 * @param files the file paths and the invoice and loader settings.
+	 * @param map the city map settings.
+	 * @param pricing the rental pricing settings.
+	 * @param reports the report settings.
+	 * @param simulation the simulation settings.
+	 * @param faultDescriptions the descriptions of the faults that can occur.
+	 */
+	private AppConfig(FileConfig files, MapConfig map, PricingConfig pricing, ReportConfig reports,
+			SimulationConfig simulation, List<String> faultDescriptions) {
+		this.files = files;
+		this.map = map;
+		this.pricing = pricing;
+		this.reports = reports;
+		this.simulation = simulation;
+		this.faultDescriptions = faultDescriptions;
+	}
+
+	/**
+	 * Returns the current configuration.
+	 *
+	 * @return the configuration.
+	 */
+	public static AppConfig get() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Reads and validates all properties files.
+	 *
+	 * @return the new configuration.
+	 * @throws IllegalArgumentException if any value is missing or invalid, with the messages of all such values.
+	 */
+	public static AppConfig load() {
+		List<String> errors = new ArrayList<>();
+		FileConfig files = new FileConfig(errors);
+		MapConfig map = new MapConfig(errors);
+		PricingConfig pricing = new PricingConfig(map.getZoneNames(), errors);
+		ReportConfig reports = new ReportConfig(errors);
+		SimulationConfig simulation = new SimulationConfig(errors);
+		List<String> faultDescriptions = loadFaultDescriptions(errors);
+		ConfigReader.validate(errors);
+		return new AppConfig(files, map, pricing, reports, simulation, faultDescriptions);
+	}
+
+	/**
+	 * Reads the pricing and report settings again and publishes a new configuration with them.
+	 * If any of the values is missing or invalid, for example because the file is read while it is being saved,
+	 * the current configuration is kept.
+	 *
+	 * @return {@code true} if a new configuration was published; {@code false} if the current one was kept.
+	 */
+	public static boolean reloadPricingAndReports() {
+		List<String> errors = new ArrayList<>();
+		PricingConfig pricing = new PricingConfig(get().map.getZoneNames(), errors);
+		ReportConfig reports = new ReportConfig(errors);
+		try {
+			ConfigReader.validate(errors);
+		}
+		catch (IllegalArgumentException e) {
+			System.out.println("Keeping the current pricing and report configuration. " + e.getMessage());
+			return false;
+		}
+		CURRENT.updateAndGet(config -> new AppConfig(config.files, config.map, pricing, reports, config.simulation, config.faultDescriptions));
+		return true;
+	}
+
+	/**
+	 * Reads the fault descriptions {@code FAULT_1}, {@code FAULT_2}... up to the first missing number.
+	 *
+	 * @param errors the list to which the messages of missing or invalid values are added.
+	 * @return the fault descriptions.
+	 */
+	private static List<String> loadFaultDescriptions(List<String> errors) {
+		ConfigReader reader = new ConfigReader(FAULT_DESCRIPTIONS_FILE_NAME, errors);
+		List<String> descriptions = new ArrayList<>();
+		for (int i = 1; reader.containsKey("FAULT_" + i); i++) {
+			descriptions.add(reader.getString("FAULT_" + i, ""));
+		}
+		if (descriptions.isEmpty()) {
+			reader.error("FAULT_1", "is missing");
+		}
+		return List.copyOf(descriptions);
+	}
+
+	/**
+	 * Returns the file paths and the invoice and loader settings.
+	 *
+	 * @return the file configuration.
+	 */
+	public FileConfig getFiles() {
+		return files;
+	}
+
+	/**
+	 * Returns the city map settings.
+	 *
+	 * @return the map configuration.
+	 */
+	public MapConfig getMap() {
+		return map;
+	}
+
+	/**
+	 * Returns the rental pricing settings.
+	 *
+	 * @return the pricing configuration.
+	 */
+	public PricingConfig getPricing() {
+		return pricing;
+	}
+
+	/**
+	 * Returns the report settings.
+	 *
+	 * @return the report configuration.
+	 */
+	public ReportConfig getReports() {
+		return reports;
+	}
+
+	/**
+	 * Returns the simulation settings.
+	 *
+	 * @return the simulation configuration.
+	 */
+	public SimulationConfig getSimulation() {
+		return simulation;
+	}
+
+	/**
+	 * Returns the descriptions of the faults that can occur ({@code FAULT_1}, {@code FAULT_2}...).
+	 *
+	 * @return the unmodifiable list of fault descriptions.
+	 */
+	public List<String> getFaultDescriptions() {
+		return faultDescriptions;
+	}
+}
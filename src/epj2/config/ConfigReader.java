@@ -0,0 +1,259 @@
+package epj2.config;
+
+import java.util.List;
+
+import epj2.util.PropertiesManager;
+
+/**
+ * Reads and validates the values of a single properties file while a configuration snapshot is being built.
+ * Every value is parsed once into its type. Instead of failing on the first invalid value, the reader collects
+ * a message for every missing or invalid value, so all problems of the configuration are reported at once by
+ * {@link #validate(List)}.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+final class ConfigReader {
+	/** The manager of the properties file. */
+	private final PropertiesManager propertiesManager;
+	/** The name of the properties file, used in the messages. */
+	private final String fileName;
+	/** The messages of all missing or invalid values, shared by all readers of a configuration. */
+	private final List<String> errors;
+
+	/**
+	 * Constructs a reader of the specified properties file.
+	 *
+	 * @param fileName the name of the properties file on the classpath.
+	 * @param errors the list to which the messages of missing or invalid values are added.
+	 */
+	ConfigReader(String fileName, List<String> errors) {
+		this.propertiesManager = new PropertiesManager(fileName);
+		this.fileName = fileName;
+		this.errors = errors;
+	}
+
+	/**
+	 * Returns the trimmed value of a property.
+	 *
+	 * @param key the key of the property.
+	 * @param defaultValue the value returned if the property is missing or blank.
+	 * @return the value of the property, or the default value.
+	 */
+	String getString(String key, String defaultValue) {
+		String value = propertiesManager.getProperty(key);
+		return value == null || value.isBlank() ? defaultValue : value.trim();
+	}
+
+	/**
+	 * Returns the trimmed value of a property that must be set.
+	 *
+	 * @param key the key of the property.
+	 * @return the value of the property, or {@code null} if it is missing.
+	 */
+	String getRequiredString(String key) {
+		String value = getString(key, null);
+		if (value == null) {
+			error(key, "is missing");
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the value of a property that must be set, as a {@code double} that is not smaller than the minimum.
+	 *
+	 * @param key the key of the property.
+	 * @param min the smallest valid value.
+	 * @return the value of the property, or {@code 0.0} if it is missing or invalid.
+	 */
+	double getDouble(String key, double min) {
+		String value = getRequiredString(key);
+		return value == null ? 0.0 : parseDouble(key, value, min, 0.0);
+	}
+
+	/**
+	 * Returns the value of a property as a {@code double} that is not smaller than the minimum.
+	 *
+	 * @param key the key of the property.
+	 * @param min the smallest valid value.
+	 * @param defaultValue the value returned if the property is missing.
+	 * @return the value of the property, or the default value if it is missing or invalid.
+	 */
+	double getDouble(String key, double min, double defaultValue) {
+		String value = getString(key, null);
+		return value == null ? defaultValue : parseDouble(key, value, min, defaultValue);
+	}
+
+	/**
+	 * Returns the value of a property that must be set, as an {@code int} that is not smaller than the minimum.
+	 *
+	 * @param key the key of the property.
+	 * @param min the smallest valid value.
+	 * @return the value of the property, or {@code 0} if it is missing or invalid.
+	 */
+	int getInt(String key, int min) {
+		String value = getRequiredString(key);
+		return value == null ? 0 : (int) parseLong(key, value, min, Integer.MAX_VALUE, 0);
+	}
+
+	/**
+	 * Returns the value of a property as an {@code int} that is not smaller than the minimum.
+	 *
+	 * @param key the key of the property.
+	 * @param min the smallest valid value.
+	 * @param defaultValue the value returned if the property is missing.
+	 * @return the value of the property, or the default value if it is missing or invalid.
+	 */
+	int getInt(String key, int min, int defaultValue) {
+		String value = getString(key, null);
+		return value == null ? defaultValue : (int) parseLong(key, value, min, Integer.MAX_VALUE, defaultValue);
+	}
+
+	/**
+	 * Returns the value of a property as a {@code long} that is not smaller than the minimum.
+	 *
+	 * @param key the key of the property.
+	 * @param min the smallest valid value.
+	 * @param defaultValue the value returned if the property is missing.
+	 * @return the value of the property, or the default value if it is missing or invalid.
+	 */
+	long getLong(String key, long min, long defaultValue) {
+		String value = getString(key, null);
+		return value == null ? defaultValue : parseLong(key, value, min, Long.MAX_VALUE, defaultValue);
+	}
+
+	/**
+	 * Returns the value of a property as a {@code boolean}.
+	 *
+	 * @param key the key of the property.
+	 * @param defaultValue the value returned if the property is missing.
+	 * @return the value of the property, or the default value if it is missing or invalid.
+	 */
+	boolean getBoolean(String key, boolean defaultValue) {
+		String value = getString(key, null);
+		if (value == null) {
+			return defaultValue;
+		}
+		if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+			error(key, "must be true or false: " + value);
+			return defaultValue;
+		}
+		return Boolean.parseBoolean(value);
+	}
+
+	/**
+	 * Returns the value of a property that must be one of the allowed values, in upper case.
+	 *
+	 * @param key the key of the property.
+	 * @param defaultValue the value returned if the property is missing.
+	 * @param allowedValues the allowed values, in upper case.
+	 * @return the value of the property, or the default value if it is missing or not allowed.
+	 */
+	String getChoice(String key, String defaultValue, String... allowedValues) {
+		String value = getString(key, null);
+		if (value == null) {
+			return defaultValue;
+		}
+		for (String allowedValue : allowedValues) {
+			if (allowedValue.equalsIgnoreCase(value)) {
+				return allowedValue;
+			}
+		}
+		error(key, "must be one of " + String.join(", ", allowedValues) + ": " + value);
+		return defaultValue;
+	}
+
+	/**
+	 * Checks whether a property is set.
+	 *
+	 * @param key the key of the property.
+	 * @return {@code true} if the property is set; {@code false} otherwise.
+	 */
+	boolean containsKey(String key) {
+		return propertiesManager.containsKey(key);
+	}
+
+	/**
+	 * Adds the message of an invalid value.
+	 *
+	 * @param key the key of the property.
+	 * @param message the description of the problem.
+	 */
+	void error(String key, String message) {
+		errors.add(fileName + ": " + key + " " + message);
+	}
+
+	/**
+	 * Checks that no missing or invalid value was found while the configuration was built.
+	 *
+	 * @param errors the messages of all missing or invalid values.
+	 * @throws IllegalArgumentException if there is at least one message, with all messages.
+	 */
+	static void validate(List<String> errors) {
+		if (!errors.isEmpty()) {
+			throw new IllegalArgumentException("Invalid configuration:" + System.lineSeparator() + " - "
+					+ String.join(System.lineSeparator() + " - ", errors));
+		}
+	}
+
+	/**
+	 * Parses a {@code double} value.
+	 *
+	 * @param key the key of the property.
+	 * @param value the value of the property.
+	 * @param min the smallest valid value.
+	 * @param defaultValue the value returned if the value is invalid.
+	 * @return the parsed value, or the default value.
+	 */
+	private double parseDouble(String key, String value, double min, double defaultValue) {
+		try {
+			double number = Double.parseDouble(value);
+			if (Double.isNaN(number) || Double.isInfinite(number) || number < min) {
+				error(key, "must be a number not smaller than " + min + ": " + value);
+				return defaultValue;
+			}
+			return number;
+		}
+		catch (NumberFormatException e) {
+			error(key, "is not a number: " + value);
+			return defaultValue;
+		}
+	}
+
+	/**
+	 * Parses an integer value. Values written as a decimal number with no fractional part (for example {@code 3.0})
+	 * are accepted as well.
+	 *
+	 * @param key the key of the property.
+	 * @param value the value of the property.
+	 * @param min the smallest valid value.
+	 * @param max the largest valid value.
+	 * @param defaultValue the value returned if the value is invalid.
+	 * @return the parsed value, or the default value.
+	 */
+	private long parseLong(String key, String value, long min, long max, long defaultValue) {
+		long number;
+		try {
+			number = Long.parseLong(value);
+		}
+		catch (NumberFormatException e) {
+			try {
+				double decimal = Double.parseDouble(value);
+				if (decimal != Math.rint(decimal) || Math.abs(decimal) > Long.MAX_VALUE) {
+					error(key, "is not a whole number: " + value);
+					return defaultValue;
+				}
+				number = (long) decimal;
+			}
+			catch (NumberFormatException notANumber) {
+				error(key, "is not a number: " + value);
+				return defaultValue;
+			}
+		}
+		if (number < min || number > max) {
+			error(key, "must be between " + min + " and " + max + ": " + value);
+			return defaultValue;
+		}
+		return number;
+	}
+}
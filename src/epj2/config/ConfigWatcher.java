@@ -0,0 +1,164 @@
+package epj2.config;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches {@value PricingConfig#FILE_NAME} and {@value ReportConfig#FILE_NAME} and reloads the pricing and report
+ * settings of the {@link AppConfig} when one of them changes, so coefficients such as {@code DISCOUNT_PROM},
+ * {@code DISTANCE_WIDE} or {@code MAINTENANCE_COEF} can be changed during a running simulation.
+ * The files are found on the classpath, in the same place from which the configuration was loaded, and their
+ * directories are registered with a {@link WatchService}. Because editors often save a file in several steps, the watcher
+ * waits until no event has arrived for {@value #QUIET_PERIOD_MILLIS} ms and then reloads once. A change that leaves a file
+ * invalid is reported and ignored; the next valid change is applied.
+ *
+ * The watcher runs on its own daemon thread, so it never delays the simulation and does not keep the application alive.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public final class ConfigWatcher implements Runnable {
+	/** The time (in milliseconds) without file events after which the changed files are reloaded. */
+	private static final long QUIET_PERIOD_MILLIS = 200;
+	/** The names of the watched files. */
+	private static final String[] WATCHED_FILES = {PricingConfig.FILE_NAME, ReportConfig.FILE_NAME};
+	/** The watch service that receives the file events. */
+	private final WatchService watchService;
+	/** The names of the watched files in every registered directory. */
+	private final Map<Path, Set<Path>> watchedFilesByDirectory;
+
+	/**
+	 * Constructs a watcher.
+	 *
+	 * @param watchService the watch service with which the directories are registered.
+	 * @param watchedFilesByDirectory the names of the watched files in every registered directory.
+	 */
+	private ConfigWatcher(WatchService watchService, Map<Path, Set<Path>> watchedFilesByDirectory) {
+		this.watchService = watchService;
+		this.watchedFilesByDirectory = watchedFilesByDirectory;
+	}
+
+	/**
+	 * Starts watching the pricing and report properties files on a daemon thread.
+	 *
+	 * @return the started watcher, or {@code null} if none of the files is a file on disk that can be watched.
+	 */
+	public static ConfigWatcher start() {
+		Map<Path, Set<Path>> watchedFilesByDirectory = new HashMap<>();
+		for (String fileName : WATCHED_FILES) {
+			Path path = findFile(fileName);
+			if (path == null) {
+				System.out.println("Cannot watch " + fileName + ", it is not a file on disk.");
+				continue;
+			}
+			watchedFilesByDirectory.computeIfAbsent(path.getParent(), directory -> new HashSet<>()).add(path.getFileName());
+		}
+		if (watchedFilesByDirectory.isEmpty()) {
+			return null;
+		}
+		try {
+			WatchService watchService = FileSystems.getDefault().newWatchService();
+			for (Path directory : watchedFilesByDirectory.keySet()) {
+				directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+			}
+			ConfigWatcher watcher = new ConfigWatcher(watchService, watchedFilesByDirectory);
+			Thread thread = new Thread(watcher, "config-watcher");
+			thread.setDaemon(true);
+			thread.start();
+			return watcher;
+		}
+		catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * Stops watching the files.
+	 */
+	public void close() {
+		try {
+			watchService.close();
+		}
+		catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Waits for changes of the watched files and reloads the configuration after every burst of changes,
+	 * until the watcher is closed or the thread is interrupted.
+	 */
+	@Override
+	public void run() {
+		try {
+			while (true) {
+				boolean changed = handleEvents(watchService.take());
+				WatchKey key;
+				while ((key = watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+					changed |= handleEvents(key);
+				}
+				if (changed && AppConfig.reloadPricingAndReports()) {
+					System.out.println("Reloaded the pricing and report configuration.");
+				}
+			}
+		}
+		catch (ClosedWatchServiceException e) {
+			// The watcher was closed.
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Takes the events of a watch key and resets the key.
+	 *
+	 * @param key the signalled watch key.
+	 * @return {@code true} if one of the watched files changed.
+	 */
+	private boolean handleEvents(WatchKey key) {
+		Set<Path> watchedFiles = watchedFilesByDirectory.getOrDefault((Path) key.watchable(), Set.of());
+		boolean changed = false;
+		for (WatchEvent<?> event : key.pollEvents()) {
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW || watchedFiles.contains(event.context())) {
+				changed = true;
+			}
+		}
+		key.reset();
+		return changed;
+	}
+
+	/**
+	 * Finds a properties file on the classpath.
+	 *
+	 * @param fileName the name of the properties file.
+	 * @return the path to the file, or {@code null} if it is not found or is not a file on disk (for example in a JAR file).
+	 */
+	private static Path findFile(String fileName) {
+		URL url = Thread.currentThread().getContextClassLoader().getResource(fileName);
+		if (url == null || !"file".equals(url.getProtocol())) {
+			return null;
+		}
+		try {
+			return Path.of(url.toURI()).toAbsolutePath();
+		}
+		catch (URISyntaxException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+}
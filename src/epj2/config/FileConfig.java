@@ -0,0 +1,270 @@
+package epj2.config;
+
+import java.util.List;
+
+/**
+ * An immutable, typed snapshot of the file paths and of the invoice and loader settings ({@value #FILE_NAME}).
+ * Optional settings that are missing get the default values that earlier versions used.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public final class FileConfig {
+	/** The name of the properties file. */
+	public static final String FILE_NAME = "filePaths.properties";
+	/** The loader mode in which files are read line by line. */
+	public static final String SEQUENTIAL = "SEQUENTIAL";
+	/** The loader mode in which files are memory-mapped and parsed in chunks on several threads. */
+	public static final String PARALLEL = "PARALLEL";
+	/** The directory of the daily reports. */
+	private final String dailyReportsDir;
+	/** The directory of the summary report. */
+	private final String summaryReportDir;
+	/** The directory of the top vehicle reports. */
+	private final String topVehiclesDir;
+	/** The directory of the invoice text files. */
+	private final String invoicesDir;
+	/** The CSV file with the rentals. */
+	private final String rentalsFilePath;
+	/** The CSV file with the vehicles. */
+	private final String vehiclesFilePath;
+	/** Indicates whether the CSV files are parsed in chunks on several threads. */
+	private final boolean parallelLoader;
+	/** The size of a chunk of a CSV file in bytes. */
+	private final long loaderChunkSize;
+	/** Indicates whether invoice text files are written. */
+	private final boolean invoiceTextOutput;
+	/** The largest number of invoices waiting to be written. */
+	private final int invoiceQueueCapacity;
+	/** The largest number of invoices written in one batch. */
+	private final int invoiceFlushSize;
+	/** The longest time, in milliseconds, that an invoice waits for other invoices of its batch. */
+	private final int invoiceFlushIntervalMillis;
+	/** Indicates whether invoices are appended to the invoice journal. */
+	private final boolean invoiceJournalOutput;
+	/** The directory of the invoice journal. */
+	private final String invoiceJournalDir;
+	/** The largest size of a journal segment in bytes. */
+	private final long invoiceJournalSegmentSize;
+	/** The invoice numbering mode. */
+	private final String invoiceNumbering;
+	/** The ID of this node, or an empty string. */
+	private final String invoiceNodeID;
+	/** The file of the invoice number high-water marks, or {@code null} if they are not saved. */
+	private final String invoiceSequenceFile;
+	/** The number of threads that parse invoice files. */
+	private final int invoiceParserThreads;
+	/** The daily rollup file, or {@code null} if there is no rollup. */
+	private final String dailyRollupFile;
+
+	/**
+	 * Reads the file settings.
+	 *
+	 * @param errors the list to which the messages of missing or invalid values are added.
+	 */
+	FileConfig(List<String> errors) {
+		ConfigReader reader = new ConfigReader(FILE_NAME, errors);
+		dailyReportsDir = reader.getRequiredString("DAILY_REPORTS_DIR");
+		summaryReportDir = reader.getRequiredString("SUMMARY_REPORT_DIR");
+		topVehiclesDir = reader.getRequiredString("TOP_VEHICLES_DIR");
+		invoicesDir = reader.getRequiredString("INVOICES_DIR");
+		rentalsFilePath = reader.getRequiredString("RENTALS_FILE_PATH");
+		vehiclesFilePath = reader.getRequiredString("VEHICLES_FILE_PATH");
+		parallelLoader = PARALLEL.equals(reader.getChoice("LOADER_MODE", SEQUENTIAL, SEQUENTIAL, PARALLEL));
+		loaderChunkSize = reader.getLong("LOADER_CHUNK_SIZE", 1, 64L << 20);
+		invoiceTextOutput = reader.getBoolean("INVOICE_TEXT_OUTPUT", false);
+		invoiceQueueCapacity = reader.getInt("INVOICE_QUEUE_CAPACITY", 1, 8192);
+		invoiceFlushSize = reader.getInt("INVOICE_FLUSH_SIZE", 1, 256);
+		invoiceFlushIntervalMillis = reader.getInt("INVOICE_FLUSH_INTERVAL_MS", 0, 50);
+		invoiceJournalOutput = reader.getBoolean("INVOICE_JOURNAL_OUTPUT", true);
+		invoiceJournalDir = invoiceJournalOutput ? reader.getRequiredString("INVOICE_JOURNAL_DIR") : reader.getString("INVOICE_JOURNAL_DIR", null);
+		invoiceJournalSegmentSize = reader.getLong("INVOICE_JOURNAL_SEGMENT_SIZE", 1, 64L << 20);
+		invoiceNumbering = reader.getChoice("INVOICE_NUMBERING", "GLOBAL", "GLOBAL", "DAILY");
+		invoiceNodeID = reader.getString("INVOICE_NODE_ID", "");
+		invoiceSequenceFile = reader.getString("INVOICE_SEQUENCE_FILE", null);
+		int threads = reader.getInt("INVOICE_PARSER_THREADS", 0, 0);
+		invoiceParserThreads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		dailyRollupFile = reader.getString("DAILY_ROLLUP_FILE", null);
+	}
+
+	/**
+	 * Returns the directory of the daily reports ({@code DAILY_REPORTS_DIR}).
+	 *
+	 * @return the directory path.
+	 */
+	public String getDailyReportsDir() {
+		return dailyReportsDir;
+	}
+
+	/**
+	 * Returns the directory of the summary report ({@code SUMMARY_REPORT_DIR}).
+	 *
+	 * @return the directory path.
+	 */
+	public String getSummaryReportDir() {
+		return summaryReportDir;
+	}
+
+	/**
+	 * Returns the directory of the top vehicle reports ({@code TOP_VEHICLES_DIR}).
+	 *
+	 * @return the directory path.
+	 */
+	public String getTopVehiclesDir() {
+		return topVehiclesDir;
+	}
+
+	/**
+	 * Returns the directory of the invoice text files ({@code INVOICES_DIR}).
+	 *
+	 * @return the directory path.
+	 */
+	public String getInvoicesDir() {
+		return invoicesDir;
+	}
+
+	/**
+	 * Returns the CSV file with the rentals ({@code RENTALS_FILE_PATH}).
+	 *
+	 * @return the file path.
+	 */
+	public String getRentalsFilePath() {
+		return rentalsFilePath;
+	}
+
+	/**
+	 * Returns the CSV file with the vehicles ({@code VEHICLES_FILE_PATH}).
+	 *
+	 * @return the file path.
+	 */
+	public String getVehiclesFilePath() {
+		return vehiclesFilePath;
+	}
+
+	/**
+	 * Indicates whether the CSV files are parsed in chunks on several threads ({@code LOADER_MODE=PARALLEL}).
+	 *
+	 * @return {@code true} in the parallel loader mode; {@code false} in the sequential mode.
+	 */
+	public boolean isParallelLoader() {
+		return parallelLoader;
+	}
+
+	/**
+	 * Returns the size of a chunk of a CSV file in the parallel loader mode ({@code LOADER_CHUNK_SIZE}).
+	 *
+	 * @return the chunk size in bytes.
+	 */
+	public long getLoaderChunkSize() {
+		return loaderChunkSize;
+	}
+
+	/**
+	 * Indicates whether invoice text files are written during the simulation ({@code INVOICE_TEXT_OUTPUT}, off by default).
+	 * Without them, invoices are only appended to the journal and written as text by {@code InvoiceExport} on demand.
+	 *
+	 * @return {@code true} if invoice text files are written.
+	 */
+	public boolean isInvoiceTextOutput() {
+		return invoiceTextOutput;
+	}
+
+	/**
+	 * Returns the largest number of invoices waiting to be written ({@code INVOICE_QUEUE_CAPACITY}).
+	 *
+	 * @return the capacity of the invoice queue.
+	 */
+	public int getInvoiceQueueCapacity() {
+		return invoiceQueueCapacity;
+	}
+
+	/**
+	 * Returns the largest number of invoices written in one batch ({@code INVOICE_FLUSH_SIZE}).
+	 *
+	 * @return the batch size.
+	 */
+	public int getInvoiceFlushSize() {
+		return invoiceFlushSize;
+	}
+
+	/**
+	 * Returns the longest time that an invoice waits for other invoices of its batch ({@code INVOICE_FLUSH_INTERVAL_MS}).
+	 *
+	 * @return the flush interval in milliseconds.
+	 */
+	public int getInvoiceFlushIntervalMillis() {
+		return invoiceFlushIntervalMillis;
+	}
+
+	/**
+	 * Indicates whether invoices are appended to the invoice journal ({@code INVOICE_JOURNAL_OUTPUT}).
+	 *
+	 * @return {@code true} if the journal is written.
+	 */
+	public boolean isInvoiceJournalOutput() {
+		return invoiceJournalOutput;
+	}
+
+	/**
+	 * Returns the directory of the invoice journal ({@code INVOICE_JOURNAL_DIR}).
+	 *
+	 * @return the directory path.
+	 */
+	public String getInvoiceJournalDir() {
+		return invoiceJournalDir;
+	}
+
+	/**
+	 * Returns the largest size of a journal segment ({@code INVOICE_JOURNAL_SEGMENT_SIZE}).
+	 *
+	 * @return the segment size in bytes.
+	 */
+	public long getInvoiceJournalSegmentSize() {
+		return invoiceJournalSegmentSize;
+	}
+
+	/**
+	 * Returns the invoice numbering mode ({@code INVOICE_NUMBERING}).
+	 *
+	 * @return {@code GLOBAL} or {@code DAILY}.
+	 */
+	public String getInvoiceNumbering() {
+		return invoiceNumbering;
+	}
+
+	/**
+	 * Returns the ID of this node, which prefixes every invoice number ({@code INVOICE_NODE_ID}).
+	 *
+	 * @return the node ID, or an empty string.
+	 */
+	public String getInvoiceNodeID() {
+		return invoiceNodeID;
+	}
+
+	/**
+	 * Returns the file of the invoice number high-water marks ({@code INVOICE_SEQUENCE_FILE}).
+	 *
+	 * @return the file path, or {@code null} if the high-water marks are not saved.
+	 */
+	public String getInvoiceSequenceFile() {
+		return invoiceSequenceFile;
+	}
+
+	/**
+	 * Returns the number of threads that parse invoice files ({@code INVOICE_PARSER_THREADS}).
+	 *
+	 * @return the number of threads; the number of available processors if the property is missing or 0.
+	 */
+	public int getInvoiceParserThreads() {
+		return invoiceParserThreads;
+	}
+
+	/**
+	 * Returns the daily rollup file ({@code DAILY_ROLLUP_FILE}).
+	 *
+	 * @return the file path, or {@code null} if there is no rollup.
+	 */
+	public String getDailyRollupFile() {
+		return dailyRollupFile;
+	}
+}
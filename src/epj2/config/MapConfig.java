@@ -0,0 +1,162 @@
+package epj2.config;
+
+import java.util.List;
+
+/**
+ * An immutable, typed snapshot of the city map settings ({@value #FILE_NAME}): the size of the map, the zones
+ * and their rectangles, and the route planner.
+ * The zones are listed in the {@code ZONES} property in order of priority, and the rectangles of every zone except the first
+ * are parsed from its {@code ZONE_<NAME>} property ({@code startRow,startCol,endRow,endCol;...}). If the {@code NARROW}
+ * zone has no rectangles of its own, its rectangle is taken from the {@code NARROW_START_ROW..NARROW_END_COL} properties.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public final class MapConfig {
+	/** The name of the properties file. */
+	public static final String FILE_NAME = "mapDimensions.properties";
+	/** The route planner that uses Manhattan routes. */
+	public static final String MANHATTAN = "MANHATTAN";
+	/** The route planner that plans routes around the obstacles of the route map with A*. */
+	public static final String ASTAR = "ASTAR";
+	/** The size of the map (number of rows and columns). */
+	private final int mapSize;
+	/** The bounds of the narrow area of the city: start row, start column, end row and end column. */
+	private final int[] narrowBounds;
+	/** The names of the zones in upper case, in order of priority. */
+	private final String[] zoneNames;
+	/** The rectangles of every zone, indexed as the zone names, as {startRow, startCol, endRow, endCol} arrays. */
+	private final int[][][] zoneRectangles;
+	/** The route planner, {@code MANHATTAN} or {@code ASTAR}. */
+	private final String routePlanner;
+	/** The grid file of the A* route planner on the classpath. */
+	private final String routeMapFile;
+	/** The number of cached routes, or 0 if routes are not cached. */
+	private final int routeCacheSize;
+
+	/**
+	 * Reads the map settings.
+	 *
+	 * @param errors the list to which the messages of missing or invalid values are added.
+	 */
+	MapConfig(List<String> errors) {
+		ConfigReader reader = new ConfigReader(FILE_NAME, errors);
+		mapSize = reader.getInt("MAP_SIZE", 1);
+		narrowBounds = new int[] {reader.getInt("NARROW_START_ROW", 0), reader.getInt("NARROW_START_COL", 0),
+				reader.getInt("NARROW_END_ROW", 0), reader.getInt("NARROW_END_COL", 0)};
+		zoneNames = reader.getString("ZONES", "WIDE,NARROW").split(",");
+		zoneRectangles = new int[zoneNames.length][][];
+		for (int zone = 0; zone < zoneNames.length; zone++) {
+			zoneNames[zone] = zoneNames[zone].trim().toUpperCase();
+			zoneRectangles[zone] = zone == 0 ? new int[0][] : parseRectangles(reader, zoneNames[zone]);
+		}
+		routePlanner = reader.getChoice("ROUTE_PLANNER", MANHATTAN, MANHATTAN, ASTAR);
+		routeMapFile = ASTAR.equals(routePlanner) ? reader.getRequiredString("ROUTE_MAP_FILE") : reader.getString("ROUTE_MAP_FILE", null);
+		routeCacheSize = reader.getInt("ROUTE_CACHE_SIZE", 0, 0);
+	}
+
+	/**
+	 * Parses the rectangles of the specified zone.
+	 *
+	 * @param reader the reader of the map properties file.
+	 * @param zoneName the name of the zone.
+	 * @return the rectangles of the zone as {startRow, startCol, endRow, endCol} arrays.
+	 */
+	private int[][] parseRectangles(ConfigReader reader, String zoneName) {
+		String key = "ZONE_" + zoneName;
+		String value = reader.getString(key, null);
+		if (value == null && !reader.containsKey(key) && "NARROW".equals(zoneName)) {
+			return new int[][] {narrowBounds.clone()};
+		}
+		if (value == null) {
+			return new int[0][];
+		}
+		String[] parts = value.split(";");
+		int[][] rectangles = new int[parts.length][];
+		for (int i = 0; i < parts.length; i++) {
+			String[] bounds = parts[i].split(",");
+			rectangles[i] = new int[4];
+			if (bounds.length != 4) {
+				reader.error(key, "has an invalid rectangle: " + parts[i]);
+				continue;
+			}
+			try {
+				for (int j = 0; j < 4; j++) {
+					rectangles[i][j] = Integer.parseInt(bounds[j].trim());
+				}
+			}
+			catch (NumberFormatException e) {
+				reader.error(key, "has an invalid rectangle: " + parts[i]);
+			}
+		}
+		return rectangles;
+	}
+
+	/**
+	 * Returns the size of the map ({@code MAP_SIZE}).
+	 *
+	 * @return the number of rows and columns.
+	 */
+	public int getMapSize() {
+		return mapSize;
+	}
+
+	/**
+	 * Returns the bounds of the narrow area of the city from the {@code NARROW_START_ROW..NARROW_END_COL} properties.
+	 *
+	 * @return the start row, start column, end row and end column.
+	 */
+	public int[] getNarrowBounds() {
+		return narrowBounds.clone();
+	}
+
+	/**
+	 * Returns the names of the zones ({@code ZONES}).
+	 *
+	 * @return the names of the zones in upper case, in order of priority.
+	 */
+	public String[] getZoneNames() {
+		return zoneNames.clone();
+	}
+
+	/**
+	 * Returns the rectangles of a zone. The first zone is the default zone and has no rectangles.
+	 *
+	 * @param zone the index of the zone.
+	 * @return the rectangles of the zone as {startRow, startCol, endRow, endCol} arrays.
+	 */
+	public int[][] getZoneRectangles(int zone) {
+		int[][] rectangles = new int[zoneRectangles[zone].length][];
+		for (int i = 0; i < rectangles.length; i++) {
+			rectangles[i] = zoneRectangles[zone][i].clone();
+		}
+		return rectangles;
+	}
+
+	/**
+	 * Indicates whether routes are planned with A* around the obstacles of the route map ({@code ROUTE_PLANNER=ASTAR}).
+	 *
+	 * @return {@code true} for the A* route planner; {@code false} for Manhattan routes.
+	 */
+	public boolean isAStarRoutePlanner() {
+		return ASTAR.equals(routePlanner);
+	}
+
+	/**
+	 * Returns the grid file of the A* route planner ({@code ROUTE_MAP_FILE}).
+	 *
+	 * @return the name of the file on the classpath.
+	 */
+	public String getRouteMapFile() {
+		return routeMapFile;
+	}
+
+	/**
+	 * Returns the number of cached routes ({@code ROUTE_CACHE_SIZE}).
+	 *
+	 * @return the size of the route cache, or 0 if routes are not cached.
+	 */
+	public int getRouteCacheSize() {
+		return routeCacheSize;
+	}
+}
@@ -0,0 +1,102 @@
+package epj2.config;
+
+import java.util.List;
+
+/**
+ * An immutable, typed snapshot of the rental pricing settings ({@value #FILE_NAME}).
+ * Besides the unit price of every vehicle type and the discount and promotion percentages, it holds the price factor
+ * of every zone of the city, read from the {@code DISTANCE_<ZONE>} property of the zone (for example
+ * {@code DISTANCE_WIDE} and {@code DISTANCE_NARROW}) and stored in an array indexed by zone.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public final class PricingConfig {
+	/** The name of the properties file. */
+	public static final String FILE_NAME = "rentalPricing.properties";
+	/** The unit rental price of a car. */
+	private final double carUnitPrice;
+	/** The unit rental price of a bike. */
+	private final double bikeUnitPrice;
+	/** The unit rental price of a scooter. */
+	private final double scooterUnitPrice;
+	/** The price factor of every zone of the city, indexed by zone. */
+	private final double[] areaFactors;
+	/** The discount percentage. */
+	private final double discountPercentage;
+	/** The promotion percentage. */
+	private final double promotionPercentage;
+
+	/**
+	 * Reads the pricing settings.
+	 *
+	 * @param zoneNames the names of the zones of the city, in order of priority.
+	 * @param errors the list to which the messages of missing or invalid values are added.
+	 */
+	PricingConfig(String[] zoneNames, List<String> errors) {
+		ConfigReader reader = new ConfigReader(FILE_NAME, errors);
+		carUnitPrice = reader.getDouble("CAR_UNIT_PRICE", 0.0);
+		bikeUnitPrice = reader.getDouble("BIKE_UNIT_PRICE", 0.0);
+		scooterUnitPrice = reader.getDouble("SCOOTER_UNIT_PRICE", 0.0);
+		areaFactors = new double[zoneNames.length];
+		for (int zone = 0; zone < zoneNames.length; zone++) {
+			areaFactors[zone] = reader.getDouble("DISTANCE_" + zoneNames[zone], 0.0);
+		}
+		discountPercentage = reader.getDouble("DISCOUNT", 0.0);
+		promotionPercentage = reader.getDouble("DISCOUNT_PROM", 0.0);
+	}
+
+	/**
+	 * Returns the unit rental price of a car ({@code CAR_UNIT_PRICE}).
+	 *
+	 * @return the unit price.
+	 */
+	public double getCarUnitPrice() {
+		return carUnitPrice;
+	}
+
+	/**
+	 * Returns the unit rental price of a bike ({@code BIKE_UNIT_PRICE}).
+	 *
+	 * @return the unit price.
+	 */
+	public double getBikeUnitPrice() {
+		return bikeUnitPrice;
+	}
+
+	/**
+	 * Returns the unit rental price of a scooter ({@code SCOOTER_UNIT_PRICE}).
+	 *
+	 * @return the unit price.
+	 */
+	public double getScooterUnitPrice() {
+		return scooterUnitPrice;
+	}
+
+	/**
+	 * Returns the price factor of every zone of the city ({@code DISTANCE_<ZONE>}).
+	 *
+	 * @return the price factors, indexed by zone.
+	 */
+	public double[] getAreaFactors() {
+		return areaFactors.clone();
+	}
+
+	/**
+	 * Returns the discount percentage ({@code DISCOUNT}).
+	 *
+	 * @return the discount percentage.
+	 */
+	public double getDiscountPercentage() {
+		return discountPercentage;
+	}
+
+	/**
+	 * Returns the promotion percentage ({@code DISCOUNT_PROM}).
+	 *
+	 * @return the promotion percentage.
+	 */
+	public double getPromotionPercentage() {
+		return promotionPercentage;
+	}
+}
@@ -0,0 +1,102 @@
+package epj2.config;
+
+import java.util.List;
+
+import epj2.model.vehicle.*;
+
+/**
+ * An immutable, typed snapshot of the report settings ({@value #FILE_NAME}).
+ * The expenses and tax percentages are converted once into shares of the revenue, and the repair cost coefficient
+ * of a vehicle is returned by its type, so reports only multiply final fields.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public final class ReportConfig {
+	/** The name of the properties file. */
+	public static final String FILE_NAME = "reportConfig.properties";
+	/** The maintenance cost as a share of the revenue. */
+	private final double maintenanceCoefficient;
+	/** The repair cost of a car as a share of its purchase price. */
+	private final double carRepairCoefficient;
+	/** The repair cost of a bike as a share of its purchase price. */
+	private final double bikeRepairCoefficient;
+	/** The repair cost of a scooter as a share of its purchase price. */
+	private final double scooterRepairCoefficient;
+	/** The company expenses as a share of the revenue. */
+	private final double expensesShare;
+	/** The tax as a share of the profit. */
+	private final double taxShare;
+	/** The number of top vehicles reported for each vehicle type. */
+	private final int topK;
+
+	/**
+	 * Reads the report settings.
+	 *
+	 * @param errors the list to which the messages of missing or invalid values are added.
+	 */
+	ReportConfig(List<String> errors) {
+		ConfigReader reader = new ConfigReader(FILE_NAME, errors);
+		maintenanceCoefficient = reader.getDouble("MAINTENANCE_COEF", 0.0);
+		carRepairCoefficient = reader.getDouble("CAR_REPAIR_COEF", 0.0);
+		bikeRepairCoefficient = reader.getDouble("BIKE_REPAIR_COEF", 0.0);
+		scooterRepairCoefficient = reader.getDouble("SCOOTER_REPAIR_COEF", 0.0);
+		expensesShare = reader.getDouble("EXPENSES_PERCENTAGE", 0.0) / 100.0;
+		taxShare = reader.getDouble("TAX_PERCENTAGE", 0.0) / 100.0;
+		topK = reader.getInt("TOP_K", 1);
+	}
+
+	/**
+	 * Returns the maintenance cost as a share of the revenue ({@code MAINTENANCE_COEF}).
+	 *
+	 * @return the maintenance coefficient.
+	 */
+	public double getMaintenanceCoefficient() {
+		return maintenanceCoefficient;
+	}
+
+	/**
+	 * Returns the repair cost of a vehicle as a share of its purchase price
+	 * ({@code CAR_REPAIR_COEF}, {@code BIKE_REPAIR_COEF} or {@code SCOOTER_REPAIR_COEF}).
+	 *
+	 * @param vehicle the vehicle.
+	 * @return the repair cost coefficient of the type of the vehicle, or 0.0 for an unknown type.
+	 */
+	public double getRepairCoefficient(Vehicle vehicle) {
+		if (vehicle instanceof Car) {
+			return carRepairCoefficient;
+		} else if (vehicle instanceof Bike) {
+			return bikeRepairCoefficient;
+		} else if (vehicle instanceof Scooter) {
+			return scooterRepairCoefficient;
+		}
+		return 0.0;
+	}
+
+	/**
+	 * Returns the company expenses as a share of the revenue ({@code EXPENSES_PERCENTAGE} / 100).
+	 *
+	 * @return the expenses share.
+	 */
+	public double getExpensesShare() {
+		return expensesShare;
+	}
+
+	/**
+	 * Returns the tax as a share of the profit ({@code TAX_PERCENTAGE} / 100).
+	 *
+	 * @return the tax share.
+	 */
+	public double getTaxShare() {
+		return taxShare;
+	}
+
+	/**
+	 * Returns the number of top vehicles reported for each vehicle type ({@code TOP_K}).
+	 *
+	 * @return the number of top vehicles, at least 1.
+	 */
+	public int getTopK() {
+		return topK;
+	}
+}
@@ -0,0 +1,111 @@
+package epj2.config;
+
+import java.util.List;
+
+/**
+ * An immutable, typed snapshot of the simulation settings ({@value #FILE_NAME}).
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public final class SimulationConfig {
+	/** The name of the properties file. */
+	public static final String FILE_NAME = "simulation.properties";
+	/** The simulation mode in which rentals are events on a single virtual timeline. */
+	public static final String EVENT = "EVENT";
+	/** The simulation mode with one task per rental. */
+	public static final String THREADED = "THREADED";
+	/** Indicates whether every rental runs as its own task. */
+	private final boolean threaded;
+	/** The ratio between virtual and wall-clock time. */
+	private final double speedFactor;
+	/** The virtual pause (in seconds) between two rounds of rentals. */
+	private final double slotPauseSeconds;
+	/** The kind of executor that runs rentals in the threaded mode. */
+	private final String executor;
+	/** The maximum number of rentals that run at the same time in the threaded mode, or 0 for the default. */
+	private final int maxParallelism;
+	/** Indicates whether rentals of the same user run one after another in the threaded mode. */
+	private final boolean userDependencies;
+	/** Indicates whether the pricing and report settings are reloaded when their files change. */
+	private final boolean configReload;
+
+	/**
+	 * Reads the simulation settings.
+	 *
+	 * @param errors the list to which the messages of missing or invalid values are added.
+	 */
+	SimulationConfig(List<String> errors) {
+		ConfigReader reader = new ConfigReader(FILE_NAME, errors);
+		threaded = THREADED.equals(reader.getChoice("SIMULATION_MODE", EVENT, EVENT, THREADED));
+		speedFactor = reader.getDouble("SPEED_FACTOR", 0.0);
+		slotPauseSeconds = reader.getDouble("SLOT_PAUSE_SECONDS", 0.0, 0.0);
+		executor = reader.getChoice("EXECUTOR", "VIRTUAL", "VIRTUAL", "PLATFORM");
+		maxParallelism = reader.getInt("MAX_PARALLELISM", 0, 0);
+		userDependencies = reader.getBoolean("USER_DEPENDENCIES", false);
+		configReload = reader.getBoolean("CONFIG_RELOAD", false);
+	}
+
+	/**
+	 * Indicates whether every rental runs as its own task ({@code SIMULATION_MODE=THREADED}).
+	 *
+	 * @return {@code true} in the threaded mode; {@code false} in the event-driven mode.
+	 */
+	public boolean isThreaded() {
+		return threaded;
+	}
+
+	/**
+	 * Returns the ratio between virtual and wall-clock time ({@code SPEED_FACTOR}).
+	 *
+	 * @return the speed factor (1 for real time, 0 for as fast as possible).
+	 */
+	public double getSpeedFactor() {
+		return speedFactor;
+	}
+
+	/**
+	 * Returns the virtual pause between two rounds of rentals ({@code SLOT_PAUSE_SECONDS}).
+	 *
+	 * @return the pause in seconds.
+	 */
+	public double getSlotPauseSeconds() {
+		return slotPauseSeconds;
+	}
+
+	/**
+	 * Returns the kind of executor that runs rentals in the threaded mode ({@code EXECUTOR}).
+	 *
+	 * @return {@code VIRTUAL} or {@code PLATFORM}.
+	 */
+	public String getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Returns the maximum number of rentals that run at the same time in the threaded mode ({@code MAX_PARALLELISM}).
+	 *
+	 * @return the maximum parallelism, or 0 for the default of the executor.
+	 */
+	public int getMaxParallelism() {
+		return maxParallelism;
+	}
+
+	/**
+	 * Indicates whether rentals of the same user run one after another in the threaded mode ({@code USER_DEPENDENCIES}).
+	 *
+	 * @return {@code true} if rentals of a user depend on each other.
+	 */
+	public boolean isUserDependencies() {
+		return userDependencies;
+	}
+
+	/**
+	 * Indicates whether the pricing and report settings are reloaded when their files change ({@code CONFIG_RELOAD}).
+	 *
+	 * @return {@code true} if a {@link ConfigWatcher} is started with the simulation.
+	 */
+	public boolean isConfigReload() {
+		return configReload;
+	}
+}
@@ -4,23 +4,38 @@ import javax.swing.*;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.io.File;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+import epj2.service.report.DailyReport;
+import epj2.service.report.DailyRollup;
+import epj2.service.report.ReportTotals;
+
 /**
  * This is a {@code JFrame} subclass that displays the daily reports in a tabbed format.
- * Each tab contains a table displaying the report data for specific date
+ * Each tab contains a table displaying the report data for specific date.
+ * Reports can also be read from the persistent {@link DailyRollup}: only the days of the selected date range
+ * are loaded, when the range is shown.
  * 
  * @author Jelena Maletić
  * @version 29.8.2024.
  */
-public class DailyReportDisplay extends JFrame {
+public final class DailyReportDisplay extends JFrame {
 	/**
 	 * Serial version UID for serialization.
 	 * This value is used to verify the compatibility of serialized data during deserialization.
 	 */
     private static final long serialVersionUID = 1L;
+    /** The format of the dates in the tab titles and in the date range fields. */
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+    /** The number of days shown when the rollup display is opened. */
+    private static final int DEFAULT_RANGE_DAYS = 30;
+    /** The tabbed pane with a tab for every date. */
+    private final JTabbedPane tabbedPane = new JTabbedPane();
     
     /**
      * Constructs a {@code DailyReportDisplay} frame to display daily reports in a tabbed format.
@@ -40,8 +55,79 @@ public class DailyReportDisplay extends JFrame {
         setTitle("Daily Reports");
         setSize(800, 600);
         setLocationRelativeTo(null);
-        JTabbedPane tabbedPane = new JTabbedPane();
         tabbedPane.setBackground(Color.decode("#436F95")); 
+        showReports(reportData);
+        getContentPane().setBackground(Color.decode("#A7C9E4")); 
+        add(tabbedPane);
+        setVisible(true);
+    }
+    
+    /**
+     * Constructs a {@code DailyReportDisplay} frame that loads the daily reports from a persistent rollup file, one date range at a time.
+     * The frame shows the last {@value #DEFAULT_RANGE_DAYS} days of the rollup; another range can be entered above the tabs.
+     * 
+     * @param rollupFile the daily rollup file.
+     */
+    public DailyReportDisplay(File rollupFile) {
+        setTitle("Daily Reports");
+        setSize(800, 600);
+        setLocationRelativeTo(null);
+        tabbedPane.setBackground(Color.decode("#436F95")); 
+        LocalDate to = DailyRollup.getLastDate(rollupFile);
+        if (to == null) {
+        	to = LocalDate.now();
+        }
+        LocalDate from = to.minusDays(DEFAULT_RANGE_DAYS - 1);
+        JTextField fromField = new JTextField(from.format(DATE_FORMAT), 10);
+        JTextField toField = new JTextField(to.format(DATE_FORMAT), 10);
+        JButton showButton = new JButton("Show");
+        showButton.addActionListener(e -> {
+        	try {
+        		loadRange(rollupFile, LocalDate.parse(fromField.getText().trim(), DATE_FORMAT),
+        				LocalDate.parse(toField.getText().trim(), DATE_FORMAT));
+        	}
+        	catch (DateTimeParseException ex) {
+        		JOptionPane.showMessageDialog(this, "Dates must have the format dd.MM.yyyy", "Daily Reports", JOptionPane.ERROR_MESSAGE);
+        	}
+        });
+        JPanel rangePanel = new JPanel();
+        rangePanel.setBackground(Color.decode("#A7C9E4"));
+        rangePanel.add(new JLabel("From:"));
+        rangePanel.add(fromField);
+        rangePanel.add(new JLabel("To:"));
+        rangePanel.add(toField);
+        rangePanel.add(showButton);
+        loadRange(rollupFile, from, to);
+        getContentPane().setBackground(Color.decode("#A7C9E4")); 
+        add(rangePanel, BorderLayout.NORTH);
+        add(tabbedPane, BorderLayout.CENTER);
+        setVisible(true);
+    }
+    
+    /**
+     * Loads the reports of a date range from the rollup file and shows them instead of the current tabs.
+     * 
+     * @param rollupFile the daily rollup file.
+     * @param from the first date (inclusive).
+     * @param to the last date (inclusive).
+     */
+    private void loadRange(File rollupFile, LocalDate from, LocalDate to) {
+    	Map<LocalDate, String> reportData = new LinkedHashMap<>();
+    	for (Map.Entry<LocalDate, ReportTotals> entry : DailyRollup.readRange(rollupFile, from, to).entrySet()) {
+    		reportData.put(entry.getKey(), DailyReport.formatReport(entry.getKey(), entry.getValue()));
+    	}
+    	showReports(reportData);
+    }
+    
+    /**
+     * Replaces the tabs with a tab for every date of the report data.
+     * Each line in the report string should follow the format: "description: amount".
+     * 
+     * @param reportData a map where each key is a {@code LocalDate} representing the date of the report, and each
+     *                   value is a string containing the report content for that date.
+     */
+    private void showReports(Map<LocalDate, String> reportData) {
+        tabbedPane.removeAll();
         for (LocalDate date : reportData.keySet()) {
             JPanel panel = new JPanel(new BorderLayout());
             panel.setBackground(Color.decode("#A7C9E4"));
@@ -66,10 +152,7 @@ public class DailyReportDisplay extends JFrame {
             JScrollPane scrollPane = new JScrollPane(table);
             panel.add(scrollPane, BorderLayout.CENTER);
 
-            tabbedPane.addTab(date.format(DateTimeFormatter.ofPattern("dd.MM.yyyy")), panel);
+            tabbedPane.addTab(date.format(DATE_FORMAT), panel);
         }
-        getContentPane().setBackground(Color.decode("#A7C9E4")); 
-        add(tabbedPane);
-        setVisible(true);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,307 @@
+package epj2.gui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+
+import epj2.util.MapUtil;
+
+/**
+ * A single component that paints the whole city map.
+ * The state of the map is kept in primitive arrays (the zone of every cell and the labels of the vehicles in it),
+ * and a cell that changes only repaints its own rectangle, so the map scales to large cities without creating
+ * a component, border or listener for every cell. Only the cells inside the clip are painted.
+ * The map is scaled to fit the component; the mouse wheel zooms in and out around the cursor, dragging pans
+ * the zoomed map, and a double click shows the whole map again. Tooltips are computed on demand from the hovered cell.
+ * All methods must be called on the Event Dispatch Thread.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public final class MapCanvas extends JComponent {
+
+	private static final long serialVersionUID = 1L;
+	/** Background colors of the zones of the map, indexed by zone (wide area, narrow area, further zones). */
+	private static final Color[] ZONE_COLORS = {Color.decode("#B0CCE5"), Color.decode("#8EB5D7"),
+			Color.decode("#6C9DC8"), Color.decode("#4F86B8")};
+	/** The background color of a cell with vehicles. */
+	private static final Color VEHICLE_COLOR = Color.GREEN;
+	/** The font of the vehicle labels. */
+	private static final Font VEHICLE_FONT = new Font("Arial", Font.BOLD, 8);
+	/** The smallest size of a cell (in pixels) in which the cell borders are painted. */
+	private static final int MIN_BORDER_CELL_SIZE = 4;
+	/** The smallest size of a cell (in pixels) in which the vehicle labels are painted. */
+	private static final int MIN_TEXT_CELL_SIZE = 12;
+	/** The largest zoom factor. */
+	private static final double MAX_ZOOM = 32.0;
+	/** The factor by which one step of the mouse wheel zooms in or out. */
+	private static final double ZOOM_STEP = 1.25;
+	/** The size of the map (number of rows and columns). */
+	private final int mapSize;
+	/** The zone of every cell, stored row by row. */
+	private final byte[] zones;
+	/** The labels of the vehicles in every cell, stored row by row, or {@code null} for an empty cell. */
+	private final String[] vehicleLabels;
+	/** The zoom factor, 1 when the whole map fits the component. */
+	private double zoom = 1.0;
+	/** The column coordinate (in cells) shown in the center of the component. */
+	private double centerCol;
+	/** The row coordinate (in cells) shown in the center of the component. */
+	private double centerRow;
+	/** The last position of the mouse while the map is dragged. */
+	private Point dragPoint;
+
+	/**
+	 * Constructs a canvas that shows the map of the specified size without vehicles.
+	 * The zone of every cell is taken from {@link MapUtil#zoneOf(int, int)}.
+	 *
+	 * @param mapSize the size of the map (number of rows and columns).
+	 */
+	public MapCanvas(int mapSize) {
+		this.mapSize = mapSize;
+		this.zones = new byte[mapSize * mapSize];
+		this.vehicleLabels = new String[mapSize * mapSize];
+		for (int row = 0; row < mapSize; row++) {
+			for (int col = 0; col < mapSize; col++) {
+				zones[row * mapSize + col] = (byte) (MapUtil.zoneOf(row, col) % ZONE_COLORS.length);
+			}
+		}
+		centerCol = centerRow = mapSize / 2.0;
+		setOpaque(true);
+		setBackground(Color.WHITE);
+		setFont(VEHICLE_FONT);
+		ToolTipManager.sharedInstance().registerComponent(this);
+		MouseAdapter mouseHandler = new MouseAdapter() {
+			@Override
+			public void mousePressed(MouseEvent e) {
+				dragPoint = e.getPoint();
+			}
+			@Override
+			public void mouseReleased(MouseEvent e) {
+				dragPoint = null;
+			}
+			@Override
+			public void mouseDragged(MouseEvent e) {
+				if (dragPoint != null) {
+					pan(e.getX() - dragPoint.x, e.getY() - dragPoint.y);
+					dragPoint = e.getPoint();
+				}
+			}
+			@Override
+			public void mouseWheelMoved(MouseWheelEvent e) {
+				zoom(Math.pow(ZOOM_STEP, -e.getPreciseWheelRotation()), e.getX(), e.getY());
+			}
+			@Override
+			public void mouseClicked(MouseEvent e) {
+				if (e.getClickCount() == 2) {
+					resetView();
+				}
+			}
+		};
+		addMouseListener(mouseHandler);
+		addMouseMotionListener(mouseHandler);
+		addMouseWheelListener(mouseHandler);
+	}
+
+	/**
+	 * Shows the specified vehicles in a cell, replacing the vehicles shown before, and repaints only that cell.
+	 * A cell with vehicles is green; an empty cell has the color of its zone.
+	 *
+	 * @param cell the index of the cell ({@code row * mapSize + column}).
+	 * @param labels the labels of the vehicles in the cell, or {@code null} if the cell is empty.
+	 */
+	public void showVehicles(int cell, String labels) {
+		vehicleLabels[cell] = labels;
+		int row = cell / mapSize;
+		int col = cell % mapSize;
+		int x = cellX(col);
+		int y = cellY(row);
+		repaint(x, y, cellX(col + 1) - x, cellY(row + 1) - y);
+	}
+
+	/**
+	 * Zooms the map by the specified factor, keeping the point under the given position in place.
+	 *
+	 * @param factor the factor by which the zoom is multiplied.
+	 * @param x the x coordinate of the fixed point in the component.
+	 * @param y the y coordinate of the fixed point in the component.
+	 */
+	public void zoom(double factor, int x, int y) {
+		double newZoom = Math.max(1.0, Math.min(MAX_ZOOM, zoom * factor));
+		double col = colAt(x);
+		double row = rowAt(y);
+		zoom = newZoom;
+		if (zoom == 1.0) {
+			resetView();
+			return;
+		}
+		centerCol = col - (x - getWidth() / 2.0) / getCellSize();
+		centerRow = row - (y - getHeight() / 2.0) / getCellSize();
+		clampCenter();
+		repaint();
+	}
+
+	/**
+	 * Moves the map by the specified number of pixels.
+	 *
+	 * @param dx the horizontal distance in pixels.
+	 * @param dy the vertical distance in pixels.
+	 */
+	public void pan(int dx, int dy) {
+		centerCol -= dx / getCellSize();
+		centerRow -= dy / getCellSize();
+		clampCenter();
+		repaint();
+	}
+
+	/**
+	 * Shows the whole map again, without zoom.
+	 */
+	public void resetView() {
+		zoom = 1.0;
+		centerCol = centerRow = mapSize / 2.0;
+		repaint();
+	}
+
+	/**
+	 * Returns the tooltip of the hovered cell: its position and the vehicles in it.
+	 *
+	 * @param e the mouse event with the position of the cursor.
+	 * @return the tooltip text, or {@code null} if the cursor is outside the map.
+	 */
+	@Override
+	public String getToolTipText(MouseEvent e) {
+		int col = (int) Math.floor(colAt(e.getX()));
+		int row = (int) Math.floor(rowAt(e.getY()));
+		if (row < 0 || row >= mapSize || col < 0 || col >= mapSize) {
+			return null;
+		}
+		String labels = vehicleLabels[row * mapSize + col];
+		return labels == null ? "(" + row + ", " + col + ")" : "(" + row + ", " + col + ") " + labels;
+	}
+
+	/**
+	 * Paints the cells that intersect the clip: their zone or vehicle color, their borders and the vehicle labels.
+	 *
+	 * @param g the graphics context.
+	 */
+	@Override
+	protected void paintComponent(Graphics g) {
+		Rectangle clip = g.getClipBounds();
+		if (clip == null) {
+			clip = new Rectangle(0, 0, getWidth(), getHeight());
+		}
+		g.setColor(getBackground());
+		g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+		int firstCol = Math.max(0, (int) Math.floor(colAt(clip.x)));
+		int lastCol = Math.min(mapSize - 1, (int) Math.floor(colAt(clip.x + clip.width)));
+		int firstRow = Math.max(0, (int) Math.floor(rowAt(clip.y)));
+		int lastRow = Math.min(mapSize - 1, (int) Math.floor(rowAt(clip.y + clip.height)));
+		double cellSize = getCellSize();
+		boolean borders = cellSize >= MIN_BORDER_CELL_SIZE;
+		boolean text = cellSize >= MIN_TEXT_CELL_SIZE;
+		FontMetrics metrics = g.getFontMetrics(VEHICLE_FONT);
+		g.setFont(VEHICLE_FONT);
+
+		for (int row = firstRow; row <= lastRow; row++) {
+			int y = cellY(row);
+			int height = cellY(row + 1) - y;
+			// Neighbouring cells of the same color are filled together, so a zoomed-out map needs few calls.
+			int runStart = firstCol;
+			for (int col = firstCol + 1; col <= lastCol + 1; col++) {
+				Color color = getCellColor(row * mapSize + runStart);
+				if (col > lastCol || getCellColor(row * mapSize + col) != color) {
+					g.setColor(color);
+					g.fillRect(cellX(runStart), y, cellX(col) - cellX(runStart), height);
+					runStart = col;
+				}
+			}
+			if (!borders) {
+				continue;
+			}
+			for (int col = firstCol; col <= lastCol; col++) {
+				int x = cellX(col);
+				int width = cellX(col + 1) - x;
+				String labels = vehicleLabels[row * mapSize + col];
+				g.setColor(Color.BLACK);
+				g.drawRect(x, y, width - 1, height - 1);
+				if (text && labels != null) {
+					g.setColor(Color.BLACK);
+					g.clipRect(x + 1, y + 1, width - 2, height - 2);
+					g.drawString(labels, x + 2, y + (height + metrics.getAscent() - metrics.getDescent()) / 2);
+					g.setClip(clip);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the color in which a cell is filled.
+	 *
+	 * @param cell the index of the cell.
+	 * @return the vehicle color if the cell has vehicles, otherwise the color of its zone.
+	 */
+	private Color getCellColor(int cell) {
+		return vehicleLabels[cell] == null ? ZONE_COLORS[zones[cell]] : VEHICLE_COLOR;
+	}
+
+	/**
+	 * Returns the size of a cell in pixels at the current zoom.
+	 *
+	 * @return the cell size.
+	 */
+	private double getCellSize() {
+		return Math.max(1, Math.min(getWidth(), getHeight())) * zoom / mapSize;
+	}
+
+	/**
+	 * Returns the x coordinate of the left edge of a column.
+	 *
+	 * @param col the column index (or {@code mapSize} for the right edge of the map).
+	 * @return the x coordinate in the component.
+	 */
+	private int cellX(int col) {
+		return (int) Math.floor(getWidth() / 2.0 + (col - centerCol) * getCellSize());
+	}
+
+	/**
+	 * Returns the y coordinate of the top edge of a row.
+	 *
+	 * @param row the row index (or {@code mapSize} for the bottom edge of the map).
+	 * @return the y coordinate in the component.
+	 */
+	private int cellY(int row) {
+		return (int) Math.floor(getHeight() / 2.0 + (row - centerRow) * getCellSize());
+	}
+
+	/**
+	 * Returns the column coordinate (in cells) at an x coordinate of the component.
+	 *
+	 * @param x the x coordinate.
+	 * @return the column coordinate, with the fraction of the cell.
+	 */
+	private double colAt(int x) {
+		return centerCol + (x - getWidth() / 2.0) / getCellSize();
+	}
+
+	/**
+	 * Returns the row coordinate (in cells) at a y coordinate of the component.
+	 *
+	 * @param y the y coordinate.
+	 * @return the row coordinate, with the fraction of the cell.
+	 */
+	private double rowAt(int y) {
+		return centerRow + (y - getHeight() / 2.0) / getCellSize();
+	}
+
+	/**
+	 * Keeps the center of the view on the map, so the map cannot be dragged out of the component.
+	 */
+	private void clampCenter() {
+		centerCol = Math.max(0.0, Math.min(mapSize, centerCol));
+		centerRow = Math.max(0.0, Math.min(mapSize, centerRow));
+	}
+}
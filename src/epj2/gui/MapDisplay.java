@@ -3,11 +3,17 @@ package epj2.gui;
 import javax.swing.*;
 
 import epj2.model.vehicle.*;
+import epj2.service.report.DailyReport;
+import epj2.service.report.LiveReportAggregate;
+import epj2.service.report.SummaryReport;
+import epj2.service.report.TopVehicleReport;
+import epj2.simulation.PositionSink;
 import epj2.util.MapUtil;
 
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.File;
 import java.time.LocalDate;
 import java.util.Map;
 import java.util.List;
@@ -18,12 +24,18 @@ import java.util.List;
  * This class extends {@code JFrame} and sets up the main window for the application. 
  * It includes panels for displaying vehicle information, faults, and reports
  * and provides buttons for accessing these functionalities. 
- * The class also manages the display of vehicles on a grid representing the city map.
+ * The class also manages the display of vehicles on a {@link MapCanvas} representing the city map
+ * and receives vehicle positions from the simulation as a {@link PositionSink}.
+ * Simulation threads never touch Swing components: positions are written into a {@link VehiclePositionBuffer},
+ * and a single Swing {@link Timer} repaints the cells that changed since the previous frame on the Event Dispatch Thread,
+ * {@value #FRAMES_PER_SECOND} times per second.
+ * If a {@link LiveReportAggregate} is set, the report buttons stay enabled during the simulation and show the reports
+ * of all invoices issued so far.
  * 
  * @author Jelena Maletić
  * @version 2.9.2024.
  */
-public class MapDisplay extends JFrame {
+public class MapDisplay extends JFrame implements PositionSink {
 	/**
 	 * Serial version UID for serialization.
 	 * This value is used to verify the compatibility of serialized data during deserialization.
@@ -31,20 +43,22 @@ public class MapDisplay extends JFrame {
     private static final long serialVersionUID = 1L;
     /** Size of the city map (number of rows and columns) */
     private static final int MAP_SIZE = MapUtil.getMapSize();
-    /** Index of the row representing the start of the narrow part of the city */
-    private static final int START_ROW = MapUtil.getNarrowStartRow();
-    /** Index of the row representing the end of the narrow part of the city */
-    private static final int END_ROW = MapUtil.getNarrowEndRow();
-    /** Index of the column representing the start of the narrow part of the city */
-    private static final int START_COL = MapUtil.getNarrowStartCol();
-    /** Index of the column representing the end of the narrow part of the city */
-    private static final int END_COL = MapUtil.getNarrowEndCol();;
+    /** The number of frames in which the map is rendered per second. */
+    private static final int FRAMES_PER_SECOND = 30;
     /** Map of the city */
-    private final MapCell[][] labels = new MapCell[MAP_SIZE][MAP_SIZE];
+    private final MapCanvas mapCanvas = new MapCanvas(MAP_SIZE);
+    /** The vehicles in every cell, written by the simulation threads and rendered by {@link #frameTimer}. */
+    private final transient VehiclePositionBuffer positionBuffer = new VehiclePositionBuffer(MAP_SIZE);
+    /** The timer that renders the changed cells on the Event Dispatch Thread. */
+    private final Timer frameTimer = new Timer(1000 / FRAMES_PER_SECOND, e -> renderFrame());
     /** A map storing daily report data categorized by date.*/
     private Map<LocalDate, String> dailyReportData;
     /** The summary report data as a string. */
     private String summaryReportData;
+    /** The live totals of the reports while the simulation is running, or {@code null}. */
+    private transient LiveReportAggregate liveReports;
+    /** The persistent daily rollup shown after the simulation, or {@code null} to show only the daily reports of the run. */
+    private File dailyRollupFile;
     /** A map where the keys are vehicle IDs and the values are {@link Vehicle} objects. */
     private Map<String, Vehicle> vehicles;
     /** List of faulty vehicles */
@@ -63,7 +77,7 @@ public class MapDisplay extends JFrame {
     /**
      * Constructs a {@code MapDisplay} instance, setting up the main window and initializing its components.
      * The constructor configures the layout of the frame, creates and arranges panels for the title, vehicle information,
-     * report information, city name and map display.
+     * report information, city name and map display, and starts the frame timer of the map.
      */
     public MapDisplay() {
         setTitle("ePJ2 e-mobility");
@@ -90,6 +104,8 @@ public class MapDisplay extends JFrame {
 
         pack();
         setVisible(true);
+        frameTimer.setCoalesce(true);
+        frameTimer.start();
     }
     
     /**
@@ -239,7 +255,9 @@ public class MapDisplay extends JFrame {
         buttonSummR.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                SummaryReportDisplay summaryReportDisplay = new SummaryReportDisplay(summaryReportData);
+                String reportData = summaryReportData == null && liveReports != null
+                		? SummaryReport.collectReportData(liveReports.snapshot()) : summaryReportData;
+                SummaryReportDisplay summaryReportDisplay = new SummaryReportDisplay(reportData);
                 summaryReportDisplay.setVisible(true);
             }
         });
@@ -247,7 +265,16 @@ public class MapDisplay extends JFrame {
         buttonDailyR.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                DailyReportDisplay dailyReportDisplay = new DailyReportDisplay(dailyReportData);
+                DailyReportDisplay dailyReportDisplay;
+                if (dailyReportData == null && liveReports != null) {
+                	dailyReportDisplay = new DailyReportDisplay(DailyReport.collectReportData(liveReports.snapshot()));
+                }
+                else if (dailyRollupFile != null) {
+                	dailyReportDisplay = new DailyReportDisplay(dailyRollupFile);
+                }
+                else {
+                	dailyReportDisplay = new DailyReportDisplay(dailyReportData);
+                }
                 dailyReportDisplay.setVisible(true);
             }
         });
@@ -255,7 +282,9 @@ public class MapDisplay extends JFrame {
         buttonTopVR.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                TopVehicleDisplay topVehicleDisplay = new TopVehicleDisplay();
+                TopVehicleDisplay topVehicleDisplay = summaryReportData == null && liveReports != null
+                		? new TopVehicleDisplay(TopVehicleReport.selectTopVehicles(vehicles, liveReports.snapshot(), TopVehicleReport.getTopK()))
+                		: new TopVehicleDisplay();
                 topVehicleDisplay.setVisible(true);
             }
         });
@@ -291,64 +320,89 @@ public class MapDisplay extends JFrame {
     }
     
     /**
-     * Creates and returns the panel displaying the city map as a grid of {@code MapCell} instances.
+     * Creates and returns the panel displaying the city map on a {@link MapCanvas}.
      * Each cell represents a location on the map and can display vehicle information.
-     * City map has narrow and wide area. 
+     * City map has narrow and wide area. The map can be zoomed with the mouse wheel and panned by dragging.
      *
      * @return the panel displaying the city map
      */
     private JPanel createMapPanel() {
-        JPanel centerPanel = new JPanel();
-        centerPanel.setLayout(new GridLayout(MAP_SIZE, MAP_SIZE));
+        JPanel centerPanel = new JPanel(new BorderLayout());
         centerPanel.setBackground(Color.WHITE);
-        for (int row = 0; row < MAP_SIZE; row++) {
-            for (int col = 0; col < MAP_SIZE; col++) {
-                labels[row][col] = new MapCell(row, col);
-                labels[row][col].setMapColor(row >= START_ROW && row <= END_ROW && col >= START_COL && col <= END_COL);
-                centerPanel.add(labels[row][col]);
-            }
-        }
+        centerPanel.add(mapCanvas, BorderLayout.CENTER);
         return centerPanel;
     }
     
+    /**
+     * Repaints the cells that changed since the previous frame. Runs on the Event Dispatch Thread.
+     */
+    private void renderFrame() {
+    	positionBuffer.drainDirtyCells(cell -> mapCanvas.showVehicles(cell, positionBuffer.getLabels(cell)));
+    }
+    
     /**
      * Updates the display of a vehicle at the specified position on the map.
-     * The cell at the given position is updated with the vehicle's information(ID and battery level) and new color.
+     * The vehicle's information (ID and battery level) is added to the cell in the position buffer, and the cell
+     * is shown in the next frame. Can be called from any thread.
      *
      * @param x the row index of the cell to update
      * @param y the column index of the cell to update
      * @param vehicleId the ID of the vehicle to display
      * @param vehicleBattery the battery level of the vehicle to display
      */
+    @Override
     public void updateVehiclePosition(int x, int y, String vehicleId, int vehicleBattery) {
-        MapCell cell = labels[x][y];
-        cell.updateVehicle(vehicleId, vehicleBattery);
+        positionBuffer.addVehicle(x, y, vehicleId, vehicleBattery);
     }
     
     /**
      * Clears the display of a vehicle at the specified position on the map.
-     * The cell at the given position is cleared of vehicle information and reset to its default color based on its
-     * position on the map.
+     * The cell is cleared in the position buffer, and in the next frame it is shown without vehicle information, 
+     * in the default color of its position on the map. Can be called from any thread.
      *
      * @param x the row index of the cell to clear
      * @param y the column index of the cell to clear
      */
+    @Override
     public void clearVehiclePosition(int x, int y) {
-        MapCell cell = labels[x][y];
-        cell.clearVehicle();
-        cell.setMapColor(x >= START_ROW && x <= END_ROW && y >= START_COL && y <= END_COL);
+        positionBuffer.clearCell(x, y);
     }
     
     /**
      * Enables or disables the buttons in the display.
+     * If live reports are set, the report buttons are never disabled.
+     * Can be called from any thread; the buttons are changed on the Event Dispatch Thread.
      *
      * @param enable {@code true} to enable the buttons, {@code false} to disable them
      */
     public void enableButtons(boolean enable) {
+    	if (!SwingUtilities.isEventDispatchThread()) {
+    		SwingUtilities.invokeLater(() -> enableButtons(enable));
+    		return;
+    	}
+    	boolean enableReports = enable || liveReports != null;
         buttonFaults.setEnabled(enable);
-        buttonSummR.setEnabled(enable);
-        buttonDailyR.setEnabled(enable);
-        buttonTopVR.setEnabled(enable);
+        buttonSummR.setEnabled(enableReports);
+        buttonDailyR.setEnabled(enableReports);
+        buttonTopVR.setEnabled(enableReports);
+    }
+    
+    /**
+     * Sets the persistent daily rollup, from which the daily reports are loaded by date range after the simulation.
+     * 
+     * @param dailyRollupFile the daily rollup file, or {@code null} to show only the daily reports of the run
+     */
+    public void setDailyRollupFile(File dailyRollupFile) {
+    	this.dailyRollupFile = dailyRollupFile;
+    }
+    
+    /**
+     * Sets the live totals of the reports, which the report buttons show until the final report data is set.
+     * 
+     * @param liveReports the live totals of the reports, or {@code null}
+     */
+    public void setLiveReports(LiveReportAggregate liveReports) {
+    	this.liveReports = liveReports;
     }
     
     /**
@@ -6,6 +6,7 @@ import epj2.model.vehicle.*;
 import epj2.service.report.TopVehicleReport;
 
 import java.awt.*;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -30,10 +31,20 @@ public class TopVehicleDisplay extends JFrame {
      * It also populates the frame with vehicle data.
      */
     public TopVehicleDisplay() {
+        this(null);
+    }
+    
+    /**
+     * Constructs a {@code TopVehicleDisplay} frame that shows the specified top vehicles instead of the serialized ones,
+     * for example the top vehicles selected from the live report totals while the simulation is running.
+     * 
+     * @param topVehicles the most profitable vehicles of each type, or {@code null} to read them from the serialized files.
+     */
+    public TopVehicleDisplay(Map<Class<? extends Vehicle>, List<Vehicle>> topVehicles) {
         setTitle("Most profitable vehicles");
         setSize(800, 600);
         setLocationRelativeTo(null);
-        displayVehicles();
+        displayVehicles(topVehicles);
         setVisible(true);
     }
     
@@ -42,10 +53,12 @@ public class TopVehicleDisplay extends JFrame {
      * Creates a {@code JTextArea} to display the details of the most profitable vehicles,
      * formatted with specific font and color. The text area is added to a {@code JScrollPane},
      * which is then added to the frame.
-     * The method retrieves vehicle data from serialized files
+     * The method retrieves vehicle data from serialized files, unless the vehicles are specified,
      * and then appends the details for each vehicle type (Scooter, Bike, Car) to the text area.
+     * 
+     * @param topVehicles the most profitable vehicles of each type, or {@code null} to read them from the serialized files.
      */
-    private void displayVehicles() {
+    private void displayVehicles(Map<Class<? extends Vehicle>, List<Vehicle>> topVehicles) {
         JTextArea textArea = new JTextArea();
         textArea.setEditable(false);
         textArea.setFont(new Font("Arial", Font.BOLD, 14));
@@ -56,7 +69,7 @@ public class TopVehicleDisplay extends JFrame {
         JScrollPane scrollPane = new JScrollPane(textArea);
         add(scrollPane, BorderLayout.CENTER);
         
-        Map<Class<? extends Vehicle>, Vehicle> vehicles = TopVehicleReport.deserializeAllVehicles();
+        Map<Class<? extends Vehicle>, List<Vehicle>> vehicles = topVehicles != null ? topVehicles : TopVehicleReport.deserializeAllVehicles();
         
         appendVehicleDetails(textArea, "Scooters", vehicles, Scooter.class);
         appendVehicleDetails(textArea, "Bikes", vehicles, Bike.class);
@@ -69,13 +82,12 @@ public class TopVehicleDisplay extends JFrame {
      * 
      * @param textArea the JTextArea to which vehicle details will be appended
      * @param title a string representing the header for the vehicle type section
-     * @param vehicles a map where the keys are vehicle types (classes extending {@code Vehicle}) and the values are the most profitable vehicles of each type.
+     * @param vehicles a map where the keys are vehicle types (classes extending {@code Vehicle}) and the values are the most profitable vehicles of each type, from the highest revenue to the lowest.
      * @param vehicleType a class representing the type of vehicles to be included in this section
      */
-    private void appendVehicleDetails(JTextArea textArea, String title, Map<Class<? extends Vehicle>, Vehicle> vehicles, Class<? extends Vehicle> vehicleType) {
+    private void appendVehicleDetails(JTextArea textArea, String title, Map<Class<? extends Vehicle>, List<Vehicle>> vehicles, Class<? extends Vehicle> vehicleType) {
         textArea.append(title + ":\n");
-        vehicles.values().stream()
-            .filter(vehicleType::isInstance)
+        vehicles.getOrDefault(vehicleType, List.of())
             .forEach(vehicle -> textArea.append(vehicle.toString() + "\n"));
         textArea.append("\n");
     }
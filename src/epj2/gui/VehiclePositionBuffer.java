@@ -0,0 +1,115 @@
+package epj2.gui;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntConsumer;
+
+/**
+ * A thread-safe buffer of the vehicles shown in every cell of the city map, written by the simulation threads
+ * and read by the map display on the Event Dispatch Thread.
+ * Every cell holds the labels of the vehicles in it ({@code ID (battery)}, separated by spaces), which is updated with
+ * a compare-and-set, so rental threads never lock. A cell that changes is marked dirty and queued once; the display
+ * {@link #drainDirtyCells(IntConsumer) drains} the queue once per frame and shows the latest state of every dirty cell,
+ * so any number of changes of a cell between two frames are rendered as a single update.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public final class VehiclePositionBuffer {
+	/** The size of the map (number of rows and columns). */
+	private final int mapSize;
+	/** The labels of the vehicles in every cell, stored row by row, or {@code null} for an empty cell. */
+	private final AtomicReferenceArray<String> cellLabels;
+	/** Whether every cell, stored row by row, is waiting in the queue of dirty cells (1) or not (0). */
+	private final AtomicIntegerArray dirtyFlags;
+	/** The cells that changed since the last frame, each at most once. */
+	private final ConcurrentLinkedQueue<Integer> dirtyCells = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Constructs an empty buffer.
+	 *
+	 * @param mapSize the size of the map (number of rows and columns).
+	 */
+	public VehiclePositionBuffer(int mapSize) {
+		this.mapSize = mapSize;
+		this.cellLabels = new AtomicReferenceArray<>(mapSize * mapSize);
+		this.dirtyFlags = new AtomicIntegerArray(mapSize * mapSize);
+	}
+
+	/**
+	 * Adds a vehicle to a cell, after the vehicles that are already in it.
+	 *
+	 * @param x the row index of the cell.
+	 * @param y the column index of the cell.
+	 * @param vehicleId the ID of the vehicle.
+	 * @param vehicleBattery the battery level of the vehicle.
+	 */
+	public void addVehicle(int x, int y, String vehicleId, int vehicleBattery) {
+		int cell = x * mapSize + y;
+		String label = vehicleId + " (" + vehicleBattery + ")";
+		cellLabels.accumulateAndGet(cell, label, (existing, added) -> existing == null ? added : existing + " " + added);
+		markDirty(cell);
+	}
+
+	/**
+	 * Removes all vehicles from a cell.
+	 *
+	 * @param x the row index of the cell.
+	 * @param y the column index of the cell.
+	 */
+	public void clearCell(int x, int y) {
+		int cell = x * mapSize + y;
+		cellLabels.set(cell, null);
+		markDirty(cell);
+	}
+
+	/**
+	 * Returns the labels of the vehicles in a cell.
+	 *
+	 * @param cell the index of the cell ({@code row * mapSize + column}).
+	 * @return the labels of the vehicles, or {@code null} if the cell is empty.
+	 */
+	public String getLabels(int cell) {
+		return cellLabels.get(cell);
+	}
+
+	/**
+	 * Returns the size of the map.
+	 *
+	 * @return the number of rows and columns.
+	 */
+	public int getMapSize() {
+		return mapSize;
+	}
+
+	/**
+	 * Passes every cell that changed since the last call to the consumer, once.
+	 * A cell is unmarked before it is passed on, so a change made while the cell is being rendered marks it again
+	 * and it is rendered in the next frame as well.
+	 *
+	 * @param consumer receives the index of every dirty cell ({@code row * mapSize + column}).
+	 * @return the number of dirty cells.
+	 */
+	public int drainDirtyCells(IntConsumer consumer) {
+		int count = 0;
+		Integer cell;
+		while ((cell = dirtyCells.poll()) != null) {
+			dirtyFlags.set(cell, 0);
+			consumer.accept(cell);
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Queues a cell, unless it is already waiting to be rendered.
+	 *
+	 * @param cell the index of the cell.
+	 */
+	private void markDirty(int cell) {
+		if (dirtyFlags.compareAndSet(cell, 0, 1)) {
+			dirtyCells.add(cell);
+		}
+	}
+}
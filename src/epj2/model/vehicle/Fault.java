@@ -1,11 +1,10 @@
 package epj2.model.vehicle;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
-import epj2.util.PropertiesManager;
+import epj2.config.AppConfig;
 
 /**
  * The Fault class represents a fault or malfunction that can occur in a vehicle.
@@ -18,30 +17,14 @@ import epj2.util.PropertiesManager;
  * @version 1.9.2024.
  */
 public class Fault implements Cloneable {
-	/**
-	 * Manages the properties file used by the Fault class.
-	 * This instance is used to load fault descriptions.
-	 */
-	private static PropertiesManager propertiesManager;
 	/** Fault descriptions */
-	private static final List<String> FAULT_DESCRIPTIONS = new ArrayList<>();
+	private static final List<String> FAULT_DESCRIPTIONS = AppConfig.get().getFaultDescriptions();
 	/** A brief description of the fault */
 	private String description;
 	/** The date and time when the fault occurred. */
 	private LocalDateTime dateTime;
 	
 
-    // Static block to initialize fault descriptions from properties file.
-	static{
-		propertiesManager = new PropertiesManager("faultDescriptions.properties");
-		int i = 1;
-        while (propertiesManager.containsKey("FAULT_" + i)) {
-            FAULT_DESCRIPTIONS.add(propertiesManager.getProperty("FAULT_" + i));
-            i++;
-        }
-	}
-	
-	
 	/**
      * Constructs a new Fault with the specified description and date and time.
      * 
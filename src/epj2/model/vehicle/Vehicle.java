@@ -1,10 +1,11 @@
 package epj2.model.vehicle;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
 
+import epj2.util.ManhattanRoute;
 import epj2.util.MapUtil;
+import epj2.util.Route;
+import epj2.util.RoutePlanner;
 
 import java.io.Serializable;
 
@@ -48,6 +49,8 @@ public abstract class Vehicle implements Serializable, Cloneable {
 	 * This holds information about any issues or defects the vehicle may have.
 	 */
 	protected Fault fault;
+	/** The route planner used by all vehicles, by default the one configured for the city map. */
+	private static volatile RoutePlanner routePlanner = MapUtil.getRoutePlanner();
 	
 	/**
 	 * Constructs a new vehicle with the specified attributes.
@@ -207,50 +210,47 @@ public abstract class Vehicle implements Serializable, Cloneable {
     }
     
     /**
-     * Finds a path from the start coordinates to the end coordinates.
-     * The path is represented as a list of integer arrays, where each array
-     * contains the x and y coordinates of a point in the path.
-     * The method calculates the path by first moving horizontally from the starting x-coordinate 
-     * to the ending x-coordinate, and then vertically from the starting y-coordinate to the 
-     * ending y-coordinate. The resulting path is a series of points that represent the straight 
-     * line traversal between the start and end coordinates. 
+     * Finds a path from the start coordinates to the end coordinates with the route planner of all vehicles.
+     * By default the path first moves horizontally from the starting x-coordinate to the ending x-coordinate, 
+     * and then vertically from the starting y-coordinate to the ending y-coordinate, as a {@link ManhattanRoute}.
+     * If an obstacle-aware planner is configured, the path avoids the cells this type of vehicle cannot use.
      * 
      * @param start the starting coordinates as an array of two integers [x, y].
      * @param end the ending coordinates as an array of two integers [x, y].
-     * @return a list of integer arrays representing the path from start to end location.
+     * @return the route from start to end location.
      */
-    public List<int[]> findPath(int[] start, int[] end) {
-        List<int[]> path = new ArrayList<>();
-        int x1 = start[0];
-        int y1 = start[1];
-        int x2 = end[0];
-        int y2 = end[1];
-        if (x1 != x2) {
-            int stepX = x1 < x2 ? 1 : -1;
-            for (int x = x1; x != x2; x += stepX) {
-                path.add(new int[]{x, y1});
-            }
-        }
-        if (y1 != y2) {
-            int stepY = y1 < y2 ? 1 : -1;
-            for (int y = y1; y != y2; y += stepY) {
-                path.add(new int[]{x2, y});
-            }
-        }
-        path.add(new int[]{x2, y2});
-        return path;
+    public Route findPath(int[] start, int[] end) {
+        return routePlanner.plan(start[0], start[1], end[0], end[1], getClass());
+    }
+    
+    /**
+     * Returns the route planner used by all vehicles.
+     * 
+     * @return the route planner.
+     */
+    public static RoutePlanner getRoutePlanner() {
+        return routePlanner;
+    }
+    
+    /**
+     * Sets the route planner used by all vehicles.
+     * 
+     * @param planner the new route planner.
+     */
+    public static void setRoutePlanner(RoutePlanner planner) {
+        routePlanner = planner;
     }
     
     /**
      * Checks if the path from start to end coordinates is within the wide area of the city.
+     * The path is the route that {@link #findPath(int[], int[])} plans for this vehicle.
      * 
      * @param start the starting coordinates as an array of two integers [x, y].
      * @param end the ending coordinates as an array of two integers [x, y].
      * @return {@code true} if the path is within the wide area, {@code false} otherwise.
      */
     public boolean isPathInWideArea(int[] start, int[] end) {
-        List<int[]> path = findPath(start, end);
-        return MapUtil.isPathInWideArea(path);
+        return findPath(start, end).isInWideArea();
     }
     
     /**
@@ -258,12 +258,12 @@ public abstract class Vehicle implements Serializable, Cloneable {
      * The total duration, which represents the total time of vehicle movement along the path,
      * is divided by the number of cells in the path to determine the time spent per cell.
      * 
-     * @param path the list of coordinates representing the path.
+     * @param path the route of the vehicle.
      * @param durationSeconds the total duration in seconds, which corresponds to the total time of vehicle movement.
      * @return the time in seconds per cell, or 0 if the path is empty.
      */
-    public double calculateTimePerCell(List<int[]> path, double durationSeconds) {
-        int numberOfCells = path.size();
+    public double calculateTimePerCell(Route path, double durationSeconds) {
+        int numberOfCells = path.length();
         if (numberOfCells == 0) {
             System.out.println("Warning: The path is empty. Returning 0.");
             return 0;
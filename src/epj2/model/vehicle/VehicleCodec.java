@@ -0,0 +1,421 @@
+package epj2.model.vehicle;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact, versioned binary codec for vehicles and their faults, with an explicit writer and reader for every field
+ * and no reflection, so the format does not depend on the shape of the classes the way Java serialization does.
+ *
+ * A vehicle is written as its type tag, the length of its body and the body: the fields of {@link Vehicle}
+ * (ID, producer, model, purchase price, battery level and the optional {@link Fault}) followed by the fields of its type.
+ * Lengths, counts and small integers are written as variable-length integers (7 bits per byte), so most of them take one byte.
+ * Because every body carries its length, a reader skips fields added by a newer version and vehicles of unknown types,
+ * so files of a newer version are read as well, with the fields known to this version.
+ * Fields added in a later version are written after the existing ones and read only if the version of the data has them.
+ * A newer version may therefore only add fields at the end of a vehicle body; a change of the layout of the file itself
+ * needs a new magic number.
+ *
+ * A top vehicle file holds the top vehicles of all types: a header (magic and version), the number of types, and for
+ * every type its tag, the number of vehicles and the vehicles, from the highest revenue to the lowest.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public final class VehicleCodec {
+	/** The magic number at the start of a top vehicle file ("EPJV"). */
+	public static final int MAGIC = 0x45504A56;
+	/** The version of the format written by this codec. */
+	public static final int VERSION = 1;
+	/** The type tag of a {@link Car}. */
+	private static final byte CAR = 1;
+	/** The type tag of a {@link Bike}. */
+	private static final byte BIKE = 2;
+	/** The type tag of a {@link Scooter}. */
+	private static final byte SCOOTER = 3;
+
+	/**
+	 * Prevents instantiation.
+	 */
+	private VehicleCodec() {
+	}
+
+	/**
+	 * Writes the top vehicles of all types to a single file.
+	 * The file is written to a temporary file first and then moved over the old one.
+	 *
+	 * @param file the top vehicle file.
+	 * @param topVehicles the top vehicles of each type, from the highest revenue to the lowest.
+	 * @throws IOException if the file cannot be written.
+	 * @throws IllegalArgumentException if a vehicle type is unknown.
+	 */
+	public static void writeTopVehicles(File file, Map<Class<? extends Vehicle>, List<Vehicle>> topVehicles) throws IOException {
+		File temporary = new File(file.getAbsoluteFile().getParentFile(), file.getName() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(topVehicles.size());
+			for (Map.Entry<Class<? extends Vehicle>, List<Vehicle>> entry : topVehicles.entrySet()) {
+				out.writeByte(getTypeTag(entry.getKey()));
+				writeVehicles(out, entry.getValue());
+			}
+		}
+		Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Reads the top vehicles of all types from a file written by {@link #writeTopVehicles(File, Map)}.
+	 * Types unknown to this version are skipped, and so are the fields that a newer version added to a vehicle.
+	 *
+	 * @param file the top vehicle file.
+	 * @return the top vehicles of each type, from the highest revenue to the lowest.
+	 * @throws IOException if the file cannot be read or is not a top vehicle file.
+	 */
+	public static Map<Class<? extends Vehicle>, List<Vehicle>> readTopVehicles(File file) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC) {
+				throw new IOException("Not a top vehicle file: " + file.getName());
+			}
+			int version = Math.min(in.readInt(), VERSION);
+			Map<Class<? extends Vehicle>, List<Vehicle>> topVehicles = new LinkedHashMap<>();
+			int typeCount = in.readInt();
+			for (int i = 0; i < typeCount; i++) {
+				Class<? extends Vehicle> type = getType(in.readByte());
+				List<Vehicle> vehicles = readVehicles(in, version);
+				if (type != null) {
+					topVehicles.put(type, vehicles);
+				}
+			}
+			return topVehicles;
+		}
+	}
+
+	/**
+	 * Writes a list of vehicles, preceded by their number.
+	 *
+	 * @param out the output.
+	 * @param vehicles the vehicles.
+	 * @throws IOException if the vehicles cannot be written.
+	 */
+	public static void writeVehicles(DataOutput out, List<Vehicle> vehicles) throws IOException {
+		writeVarInt(out, vehicles.size());
+		for (Vehicle vehicle : vehicles) {
+			writeVehicle(out, vehicle);
+		}
+	}
+
+	/**
+	 * Reads a list of vehicles written by {@link #writeVehicles(DataOutput, List)}. Vehicles of unknown types are skipped.
+	 *
+	 * @param in the input.
+	 * @param version the version of the data.
+	 * @return the vehicles.
+	 * @throws IOException if the vehicles cannot be read.
+	 */
+	public static List<Vehicle> readVehicles(DataInput in, int version) throws IOException {
+		int count = readVarInt(in);
+		List<Vehicle> vehicles = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			Vehicle vehicle = readVehicle(in, version);
+			if (vehicle != null) {
+				vehicles.add(vehicle);
+			}
+		}
+		return vehicles;
+	}
+
+	/**
+	 * Writes a single vehicle: its type tag, the length of its body and the body.
+	 *
+	 * @param out the output.
+	 * @param vehicle the vehicle.
+	 * @throws IOException if the vehicle cannot be written.
+	 * @throws IllegalArgumentException if the vehicle type is unknown.
+	 */
+	public static void writeVehicle(DataOutput out, Vehicle vehicle) throws IOException {
+		byte tag = getTypeTag(vehicle.getClass());
+		ByteArrayOutputStream body = new ByteArrayOutputStream(128);
+		DataOutputStream bodyOut = new DataOutputStream(body);
+		writeString(bodyOut, vehicle.getID());
+		writeString(bodyOut, vehicle.getProducer());
+		writeString(bodyOut, vehicle.getModel());
+		bodyOut.writeDouble(vehicle.getPurchasePrice());
+		writeVarInt(bodyOut, vehicle.getCurrentBatteryLevel());
+		writeFault(bodyOut, vehicle.getFault());
+		switch (tag) {
+			case CAR:
+				Car car = (Car) vehicle;
+				writeDate(bodyOut, car.getPurchaseDate());
+				writeString(bodyOut, car.getDescription());
+				writeVarInt(bodyOut, car.getMaxPassengers());
+				break;
+			case BIKE:
+				Bike bike = (Bike) vehicle;
+				writeVarInt(bodyOut, bike.getRangePerCharge());
+				writeVarInt(bodyOut, bike.getDistanceCovered());
+				break;
+			default:
+				writeVarInt(bodyOut, ((Scooter) vehicle).getMaxSpeed());
+				break;
+		}
+		out.writeByte(tag);
+		writeVarInt(out, body.size());
+		out.write(body.toByteArray());
+	}
+
+	/**
+	 * Reads a single vehicle written by {@link #writeVehicle(DataOutput, Vehicle)}.
+	 * Fields after the ones known to this version are skipped.
+	 *
+	 * @param in the input.
+	 * @param version the version of the data.
+	 * @return the vehicle, or {@code null} if its type is unknown.
+	 * @throws IOException if the vehicle cannot be read.
+	 */
+	public static Vehicle readVehicle(DataInput in, int version) throws IOException {
+		byte tag = in.readByte();
+		byte[] body = new byte[readVarInt(in)];
+		in.readFully(body);
+		if (getType(tag) == null) {
+			return null;
+		}
+		DataInputStream bodyIn = new DataInputStream(new ByteArrayInputStream(body));
+		String id = readString(bodyIn);
+		String producer = readString(bodyIn);
+		String model = readString(bodyIn);
+		double purchasePrice = bodyIn.readDouble();
+		int batteryLevel = readVarInt(bodyIn);
+		Fault fault = readFault(bodyIn);
+		Vehicle vehicle;
+		switch (tag) {
+			case CAR:
+				Car car = new Car(id, producer, purchasePrice, model, readDate(bodyIn), readString(bodyIn));
+				car.setMaxPassengers(readVarInt(bodyIn));
+				vehicle = car;
+				break;
+			case BIKE:
+				Bike bike = new Bike(id, producer, purchasePrice, model, readVarInt(bodyIn));
+				bike.setDistanceCovered(readVarInt(bodyIn));
+				vehicle = bike;
+				break;
+			default:
+				vehicle = new Scooter(id, producer, purchasePrice, model, readVarInt(bodyIn));
+				break;
+		}
+		vehicle.setCurrentBatteryLevel(batteryLevel);
+		vehicle.setFault(fault);
+		return vehicle;
+	}
+
+	/**
+	 * Writes an optional fault: a presence flag, the description and the date and time.
+	 *
+	 * @param out the output.
+	 * @param fault the fault, or {@code null}.
+	 * @throws IOException if the fault cannot be written.
+	 */
+	private static void writeFault(DataOutput out, Fault fault) throws IOException {
+		out.writeBoolean(fault != null);
+		if (fault != null) {
+			writeString(out, fault.getDescription());
+			LocalDateTime dateTime = fault.getDateTime();
+			out.writeBoolean(dateTime != null);
+			if (dateTime != null) {
+				out.writeLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+				out.writeInt(dateTime.getNano());
+			}
+		}
+	}
+
+	/**
+	 * Reads an optional fault written by {@link #writeFault(DataOutput, Fault)}.
+	 *
+	 * @param in the input.
+	 * @return the fault, or {@code null}.
+	 * @throws IOException if the fault cannot be read.
+	 */
+	private static Fault readFault(DataInput in) throws IOException {
+		if (!in.readBoolean()) {
+			return null;
+		}
+		String description = readString(in);
+		LocalDateTime dateTime = null;
+		if (in.readBoolean()) {
+			long epochSecond = in.readLong();
+			dateTime = LocalDateTime.ofEpochSecond(epochSecond, in.readInt(), ZoneOffset.UTC);
+		}
+		return new Fault(description, dateTime);
+	}
+
+	/**
+	 * Writes an optional date as a variable-length integer: 0 for a missing date, otherwise the zigzag-encoded
+	 * epoch day plus one.
+	 *
+	 * @param out the output.
+	 * @param date the date, or {@code null}.
+	 * @throws IOException if the date cannot be written.
+	 */
+	private static void writeDate(DataOutput out, LocalDate date) throws IOException {
+		if (date == null) {
+			writeVarLong(out, 0);
+			return;
+		}
+		long day = date.toEpochDay();
+		writeVarLong(out, ((day << 1) ^ (day >> 63)) + 1);
+	}
+
+	/**
+	 * Reads an optional date written by {@link #writeDate(DataOutput, LocalDate)}.
+	 *
+	 * @param in the input.
+	 * @return the date, or {@code null}.
+	 * @throws IOException if the date cannot be read.
+	 */
+	private static LocalDate readDate(DataInput in) throws IOException {
+		long value = readVarLong(in);
+		if (value == 0) {
+			return null;
+		}
+		long zigzag = value - 1;
+		return LocalDate.ofEpochDay((zigzag >>> 1) ^ -(zigzag & 1));
+	}
+
+	/**
+	 * Writes a non-negative integer in 7-bit groups, least significant group first.
+	 *
+	 * @param out the output.
+	 * @param value the value; negative values are written as large unsigned values.
+	 * @throws IOException if the value cannot be written.
+	 */
+	private static void writeVarInt(DataOutput out, int value) throws IOException {
+		writeVarLong(out, value & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Reads an integer written by {@link #writeVarInt(DataOutput, int)}.
+	 *
+	 * @param in the input.
+	 * @return the value.
+	 * @throws IOException if the value cannot be read.
+	 */
+	private static int readVarInt(DataInput in) throws IOException {
+		return (int) readVarLong(in);
+	}
+
+	/**
+	 * Writes an unsigned long in 7-bit groups, least significant group first.
+	 *
+	 * @param out the output.
+	 * @param value the value.
+	 * @throws IOException if the value cannot be written.
+	 */
+	private static void writeVarLong(DataOutput out, long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			out.writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.writeByte((int) value);
+	}
+
+	/**
+	 * Reads an unsigned long written by {@link #writeVarLong(DataOutput, long)}.
+	 *
+	 * @param in the input.
+	 * @return the value.
+	 * @throws IOException if the value cannot be read or is too long.
+	 */
+	private static long readVarLong(DataInput in) throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			byte b = in.readByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed variable-length integer");
+	}
+
+	/**
+	 * Writes an optional string: a presence flag and the string in modified UTF-8.
+	 *
+	 * @param out the output.
+	 * @param value the string, or {@code null}.
+	 * @throws IOException if the string cannot be written.
+	 */
+	private static void writeString(DataOutput out, String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+	/**
+	 * Reads an optional string written by {@link #writeString(DataOutput, String)}.
+	 *
+	 * @param in the input.
+	 * @return the string, or {@code null}.
+	 * @throws IOException if the string cannot be read.
+	 */
+	private static String readString(DataInput in) throws IOException {
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+
+	/**
+	 * Returns the type tag of a vehicle class.
+	 *
+	 * @param type the vehicle class.
+	 * @return the type tag.
+	 * @throws IllegalArgumentException if the vehicle type is unknown.
+	 */
+	private static byte getTypeTag(Class<? extends Vehicle> type) {
+		if (type == Car.class) {
+			return CAR;
+		}
+		else if (type == Bike.class) {
+			return BIKE;
+		}
+		else if (type == Scooter.class) {
+			return SCOOTER;
+		}
+		throw new IllegalArgumentException("Unknown vehicle type");
+	}
+
+	/**
+	 * Returns the vehicle class of a type tag.
+	 *
+	 * @param tag the type tag.
+	 * @return the vehicle class, or {@code null} if the tag is unknown.
+	 */
+	private static Class<? extends Vehicle> getType(byte tag) {
+		switch (tag) {
+			case CAR:
+				return Car.class;
+			case BIKE:
+				return Bike.class;
+			case SCOOTER:
+				return Scooter.class;
+			default:
+				return null;
+		}
+	}
+}
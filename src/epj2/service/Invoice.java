@@ -1,48 +1,70 @@
 package epj2.service;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
-import java.io.PrintWriter;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
-import epj2.model.user.*;
-import epj2.model.vehicle.*;
-import epj2.util.PropertiesManager;
+import epj2.config.AppConfig;
+import epj2.config.FileConfig;
+import epj2.util.ZoneMap;
 
 /**
  * Represents an invoice generated for a rental transaction. This class handles the creation of invoices, 
  * including storing the invoices in a specified directory.
+ * Every invoice is published to the {@link InvoiceLedger} as an {@link InvoiceRecord}, which is what reports are based on.
+ * An {@link InvoiceEntry} snapshot of the invoice is handed over to the {@link InvoiceWriter}, which appends it to the
+ * binary {@link InvoiceJournal} ({@code INVOICE_JOURNAL_OUTPUT}) and writes the invoice text file ({@code INVOICE_TEXT_OUTPUT})
+ * in batches on its own thread, so rental threads never wait for file I/O.
+ * Invoice numbers are issued by the {@link InvoiceSequence}, which saves a reserved block of numbers before it issues them
+ * ({@code INVOICE_NUMBERING}, {@code INVOICE_NODE_ID} and {@code INVOICE_SEQUENCE_FILE}).
+ * Invoices of every run are added to the invoices directory and the journal, so a run that replays the same rentals
+ * must start from clean directories; otherwise a warning is printed, because readers would count those rentals twice.
  *
  * @author Jelena Maletić
  * @version 1.9.2024.
  */
 public class Invoice {
-	/**
-	 * Manages the properties file used by the Invoice class.
-	 * This instance is used to load configurations such as file paths for storing invoices.
-	 */
-	private static PropertiesManager propertiesManager;
 	/**
 	 * Path to the directory where invoices are stored.
-	 * This path is retrieved from the properties file.
+	 * This path is retrieved from the file configuration.
 	 */
 	private static String invoicesDirPath;
 	/**
-	 * Counter for generating unique invoice numbers.
-	 * This static field is incremented with each new Invoice instance to ensure each invoice has a unique number.
+	 * The sequence of invoice numbers.
+	 * It is shared by all rental threads and issues every invoice a unique number without locking.
 	 */
-	private static int invoiceCounter = 0;
-	/** The unique number assigned to invoice. */
-	private int invoiceNumber;
+	private static InvoiceSequence invoiceSequence;
+	/** The unique number assigned to invoice, including its prefix. */
+	private String invoiceNumber;
     /** The rental transaction associated with this invoice. */
     private Rental rental;
+    /** Indicates whether invoice text files are written. */
+    private static boolean textOutputEnabled;
+    /** Indicates whether invoices are appended to the invoice journal. */
+    private static boolean journalOutputEnabled;
+    /** The writer of invoice files, or {@code null} if no invoice files are written. */
+    private static InvoiceWriter invoiceWriter;
     
-    // Static block to initialize propertiesManager and invoicesDirPath
+    // Static block to initialize invoicesDirPath, invoiceSequence (saved at shutdown), the enabled outputs and invoiceWriter
     static {
-    	propertiesManager = new PropertiesManager("filePaths.properties");
-        invoicesDirPath = propertiesManager.getProperty("INVOICES_DIR");
+    	FileConfig fileConfig = AppConfig.get().getFiles();
+        invoicesDirPath = fileConfig.getInvoicesDir();
+        invoiceSequence = new InvoiceSequence(fileConfig.getInvoiceNumbering(), fileConfig.getInvoiceNodeID(),
+        		fileConfig.getInvoiceSequenceFile());
+        Runtime.getRuntime().addShutdownHook(new Thread(invoiceSequence::saveIssued, "invoice-sequence-save"));
+        textOutputEnabled = fileConfig.isInvoiceTextOutput();
+        journalOutputEnabled = fileConfig.isInvoiceJournalOutput();
+        if (textOutputEnabled || journalOutputEnabled) {
+        	InvoiceJournal journal = journalOutputEnabled ? new InvoiceJournal(fileConfig.getInvoiceJournalDir(),
+        			fileConfig.getInvoiceJournalSegmentSize()) : null;
+        	invoiceWriter = InvoiceWriter.start(textOutputEnabled ? invoicesDirPath : null, journal,
+        			fileConfig.getInvoiceQueueCapacity(), fileConfig.getInvoiceFlushSize(),
+        			fileConfig.getInvoiceFlushIntervalMillis(), null);
+        }
+        File[] earlierTextFiles = new File(invoicesDirPath).listFiles((dir, name) -> name.endsWith(".txt"));
+        boolean earlierJournal = journalOutputEnabled && !InvoiceJournal.listSegments(new File(fileConfig.getInvoiceJournalDir())).isEmpty();
+        if ((textOutputEnabled && earlierTextFiles != null && earlierTextFiles.length > 0) || earlierJournal) {
+        	System.out.println("Warning: Invoices of an earlier run are present in " + invoicesDirPath + ". The invoices of this run are added"
+        			+ " to them; if the same rentals are run again, start from a clean directory, or they are counted twice.");
+        }
     }
     
     /**
@@ -52,136 +74,44 @@ public class Invoice {
      * @param rental the rental transaction for which the invoice is being created.
      */
     public Invoice(Rental rental) {
-        invoiceCounter++;
-        this.invoiceNumber = invoiceCounter;
+        this.invoiceNumber = invoiceSequence.next(rental.getDateTime().toLocalDate());
         this.rental = rental;
-        File folder = new File(invoicesDirPath);
-        if (!folder.exists()) {
-            folder.mkdirs();
-        }
     }
     
     /**
-     * Generates an invoice for a rental transaction and writes it to a file.
-     * The invoice file is created in the specified directory with a filename based on the user's name 
-     * and rental date and time. 
-     * Invoice file is in .txt format.
+     * Generates an invoice for a rental transaction.
+     * The prices are calculated once with the current {@link PricingTable}, the {@link InvoiceRecord} of the invoice is published to the {@link InvoiceLedger}
+     * and a snapshot of the invoice is handed over to the background writer, if any invoice output is enabled.
      *
-     * Details included in the invoice:
-     * -User's name and document details if required
-     * -Rented vehicle type and ID
-     * -Start and end locations of the rental
-     * -City zone (wide or narrow area) affecting pricing
-     * -Duration of the rental in seconds.
-     * -Base price calculation
-     * -Distance price
-     * -Discounts and promotions applied
-     * -Total amount due for payment
-     * -Date and time of invoice issuance
-     * -Invoice number
-     * -Information about faults, if any have occurred
+     * @param zone the index of the zone of the rental in the {@link ZoneMap}.
+     *             This affects the pricing calculations based on the area of the city.
+     */
+    public void generateInvoice(int zone) {
+    	PriceBreakdown price = PriceCalculation.getPricingTable().price(rental, zone);
+    	InvoiceEntry entry = InvoiceEntry.of(invoiceNumber, rental, price);
+        InvoiceLedger.publish(entry.toRecord());
+        if (invoiceWriter != null) {
+        	invoiceWriter.submit(entry);
+        }
+    }
+    
+    /**
+     * Generates an invoice for a rental transaction that occurred either in the wide or in the narrow area of the city.
      *
      * @param isWideArea Indicates whether the rental occurred in a wide area of the city.
      *                   This affects the pricing calculations based on the area of the city.
      */
     public void generateInvoice(boolean isWideArea) {
-    	Vehicle vehicle = rental.getVehicle();
-    	User user = rental.getUser();
-    	String userName = user.getName();
-    	boolean hasDiscount = user.ishasDiscount();
-    	LocalDateTime dateTime = rental.getDateTime();
-    	int[] startLocation = rental.getStartLocation();
-    	int[] endLocation = rental.getEndLocation();
-    	double durationSeconds = rental.getDurationSeconds();
-    	boolean hasPromotion = rental.isHasPromotion();
-        String invoiceFileName = generateInvoiceFileName(userName, dateTime);
-        File invoiceFile = new File(invoicesDirPath + File.separator + invoiceFileName);
-        try {
-        	PrintWriter outInvoice = new PrintWriter(new BufferedWriter(new FileWriter(invoiceFile)));
-            outInvoice.println("======================================================");
-            outInvoice.println("              e-mobility company ePJ2");
-            outInvoice.println("                     Java City");
-            outInvoice.println("------------------------------------------------------");
-            outInvoice.println("			  INVOICE");
-            outInvoice.println("User: " + userName);
-            if (vehicle.requiresDocuments()) {
-            	if(user.getDocumentType().equals(DocumentType.PASSPORT)) {
-            		outInvoice.println("Passport number " + user.getDocumentNumber());
-            	}
-            	else if(user.getDocumentType().equals(DocumentType.ID_CARD)) {
-            		outInvoice.println("ID card number " + user.getDocumentNumber());
-            	}
-            	outInvoice.println("Driver’s license number " + user.getDrivingLicenseNumber());
-            }
-            outInvoice.println("------------------------------------------------------");
-            outInvoice.print("Rented vehicle: ");
-            if (vehicle instanceof Car) {
-                outInvoice.println("Car " + vehicle.getModel() + "," + vehicle.getID());
-            } 
-            else if (vehicle instanceof Bike) {
-            	outInvoice.println("Bike " + vehicle.getModel() + "," + vehicle.getID());
-            } 
-            else if (vehicle instanceof Scooter) {
-            	outInvoice.println("Scooter " + vehicle.getModel() + "," + vehicle.getID());
-            }
-            outInvoice.println("Start location: (" + startLocation[0] + "," + startLocation[1] + ")");
-            outInvoice.println("Destination: (" + endLocation[0] + "," + endLocation[1] + ")");
-            outInvoice.print("City zone: ");
-            if(isWideArea) {
-            	outInvoice.println("wide city area");
-            }
-            else outInvoice.println("narrow city area");
-            outInvoice.println("Ride duration [s]: " + durationSeconds);
-            outInvoice.println("------------------------------------------------------");
-            double basePrice = PriceCalculation.calculateBasePrice(vehicle, durationSeconds);
-            double distancePrice = PriceCalculation.calculateDistancePrice(basePrice, isWideArea);
-            double discountAmount = PriceCalculation.calculateDiscount(distancePrice, hasDiscount);
-            double promotionAmount = PriceCalculation.calculatePromotion(distancePrice, hasPromotion);
-            outInvoice.println("Base price: " + PriceCalculation.calculateUnitPrice(vehicle) + " * " + durationSeconds + " = " + basePrice);
-            if(isWideArea) {
-            	outInvoice.println("Rate for wide area of the city: " + PriceCalculation.getWideAreaFactor());
-            }
-            else outInvoice.println("Rate for narrow area of the city: " + PriceCalculation.getNarrowAreaFactor());
-            outInvoice.println("Amount: " + PriceCalculation.calculateDistancePrice(basePrice, isWideArea) + " EUR");
-            if(hasDiscount) {
-            	outInvoice.println("Discount: " + PriceCalculation.getDiscountPercentage() + "% (" + discountAmount + " EUR)");
-            }
-            if(hasPromotion) {
-            	outInvoice.println("Promotion: " + PriceCalculation.getPromotionPercentage() + "% (" + promotionAmount + " EUR)");
-            }
-            outInvoice.println("------------------------------------------------------");
-            outInvoice.println("Total price: " + PriceCalculation.calculateTotalPrice(distancePrice, discountAmount, promotionAmount) + " EUR");
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy/HH-mm");
-            String formattedDateTime = dateTime.format(formatter);
-            outInvoice.println("Date and time: " + formattedDateTime);
-            outInvoice.println("Invoice number: " + invoiceNumber);
-            if(vehicle.getFault()!=null) {
-            	outInvoice.println("------------------------------------------------------");
-            	outInvoice.println("Fault: " + vehicle.getFault().getDescription());
-            	outInvoice.println("We apologize for the inconvenience. ");
-            }
-            outInvoice.println("======================================================");
-            outInvoice.println("           *THANK YOU FOR USING OUR SERVICE*");
-            outInvoice.println("------------------------------------------------------");
-            outInvoice.close();
-        }
-        catch(Exception ex) {
-        	ex.printStackTrace();
-        }
+    	generateInvoice(PriceCalculation.getPricingTable().getZone(isWideArea));
     }
-
-    /** 
-     * Generates the invoice name based on the user's name, date and time of issuance, and unique invoice number.
-     * File is in .txt format.
-     * 
-     * @param userName the name of the user to whom this invoice is issued.
-     * @param dateTime date and time of invoice issuance
-     * @return name of the invoice file
+    
+    /**
+     * Waits until all invoices handed over to the invoice writer have been written to the journal and text files.
      */
-    private String generateInvoiceFileName(String userName, LocalDateTime dateTime) {
-    	DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy_HH-mm");
-        String formattedDateTime = dateTime.format(formatter);
-        return formattedDateTime + "_" + userName + invoiceNumber + ".txt";
+    public static void awaitTextOutput() {
+    	if (invoiceWriter != null) {
+    		invoiceWriter.flush();
+    	}
     }
 }
 
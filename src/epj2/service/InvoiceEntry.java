@@ -0,0 +1,510 @@
+package epj2.service;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import epj2.model.user.DocumentType;
+import epj2.model.user.User;
+import epj2.model.vehicle.*;
+import epj2.util.MapUtil;
+import epj2.util.ZoneMap;
+
+/**
+ * An immutable snapshot of everything shown on an issued invoice.
+ * The snapshot is taken when the invoice is issued, so it can be written later on another thread, stored in the
+ * {@link InvoiceJournal} and turned back into the same invoice text by the export tool.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public final class InvoiceEntry {
+	/** The format of the date and time printed on the invoice. */
+	private static final DateTimeFormatter INVOICE_DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy/HH-mm");
+	/** The format of the date and time in the invoice file name. */
+	private static final DateTimeFormatter FILE_NAME_DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy_HH-mm");
+	/** The unique number of the invoice, including its prefix. */
+	private final String invoiceNumber;
+	/** The date and time of the rental. */
+	private final LocalDateTime issueDate;
+	/** The name of the user. */
+	private final String userName;
+	/** The type of the user's document, or {@code null} if the vehicle does not require documents. */
+	private final DocumentType documentType;
+	/** The number of the user's document, or {@code null} if the vehicle does not require documents. */
+	private final String documentNumber;
+	/** The number of the user's driving license, or {@code null} if the vehicle does not require documents. */
+	private final String drivingLicenseNumber;
+	/** The type of the rented vehicle ("Car", "Bike" or "Scooter"), or an empty string if the type is unknown. */
+	private final String vehicleType;
+	/** The model of the rented vehicle. */
+	private final String vehicleModel;
+	/** The ID of the rented vehicle. */
+	private final String vehicleID;
+	/** The start location as [x, y]. */
+	private final int[] startLocation;
+	/** The end location as [x, y]. */
+	private final int[] endLocation;
+	/** The name of the city zone of the rental, as listed in the {@link ZoneMap}. */
+	private final String zoneName;
+	/** The duration of the rental in seconds. */
+	private final double durationSeconds;
+	/** The unit rental price of the vehicle. */
+	private final double unitPrice;
+	/** The base price of the rental. */
+	private final double basePrice;
+	/** The price factor of the city zone. */
+	private final double areaFactor;
+	/** The price for the city zone. */
+	private final double distancePrice;
+	/** Indicates whether the user is entitled to a discount. */
+	private final boolean hasDiscount;
+	/** The discount percentage. */
+	private final double discountPercentage;
+	/** The discount amount. */
+	private final double discountAmount;
+	/** Indicates whether a promotion applies to the rental. */
+	private final boolean hasPromotion;
+	/** The promotion percentage. */
+	private final double promotionPercentage;
+	/** The promotion amount. */
+	private final double promotionAmount;
+	/** The total price of the rental. */
+	private final double totalPrice;
+	/** The description of the vehicle fault, or {@code null} if no fault occurred. */
+	private final String faultDescription;
+
+	/**
+	 * Constructs an invoice entry from all values shown on the invoice.
+	 *
+	 * @param invoiceNumber the unique number of the invoice, including its prefix.
+	 * @param issueDate the date and time of the rental.
+	 * @param userName the name of the user.
+	 * @param documentType the type of the user's document, or {@code null} if the vehicle does not require documents.
+	 * @param documentNumber the number of the user's document, or {@code null}.
+	 * @param drivingLicenseNumber the number of the user's driving license, or {@code null}.
+	 * @param vehicleType the type of the rented vehicle, or an empty string if the type is unknown.
+	 * @param vehicleModel the model of the rented vehicle.
+	 * @param vehicleID the ID of the rented vehicle.
+	 * @param startLocation the start location as [x, y].
+	 * @param endLocation the end location as [x, y].
+	 * @param zoneName the name of the city zone of the rental.
+	 * @param durationSeconds the duration of the rental in seconds.
+	 * @param unitPrice the unit rental price of the vehicle.
+	 * @param basePrice the base price of the rental.
+	 * @param areaFactor the price factor of the city zone.
+	 * @param distancePrice the price for the city zone.
+	 * @param hasDiscount {@code true} if the user is entitled to a discount.
+	 * @param discountPercentage the discount percentage.
+	 * @param discountAmount the discount amount.
+	 * @param hasPromotion {@code true} if a promotion applies to the rental.
+	 * @param promotionPercentage the promotion percentage.
+	 * @param promotionAmount the promotion amount.
+	 * @param totalPrice the total price of the rental.
+	 * @param faultDescription the description of the vehicle fault, or {@code null} if no fault occurred.
+	 */
+	public InvoiceEntry(String invoiceNumber, LocalDateTime issueDate, String userName, DocumentType documentType,
+			String documentNumber, String drivingLicenseNumber, String vehicleType, String vehicleModel, String vehicleID,
+			int[] startLocation, int[] endLocation, String zoneName, double durationSeconds, double unitPrice,
+			double basePrice, double areaFactor, double distancePrice, boolean hasDiscount, double discountPercentage,
+			double discountAmount, boolean hasPromotion, double promotionPercentage, double promotionAmount,
+			double totalPrice, String faultDescription) {
+		this.invoiceNumber = invoiceNumber;
+		this.issueDate = issueDate;
+		this.userName = userName;
+		this.documentType = documentType;
+		this.documentNumber = documentNumber;
+		this.drivingLicenseNumber = drivingLicenseNumber;
+		this.vehicleType = vehicleType;
+		this.vehicleModel = vehicleModel;
+		this.vehicleID = vehicleID;
+		this.startLocation = startLocation.clone();
+		this.endLocation = endLocation.clone();
+		this.zoneName = zoneName;
+		this.durationSeconds = durationSeconds;
+		this.unitPrice = unitPrice;
+		this.basePrice = basePrice;
+		this.areaFactor = areaFactor;
+		this.distancePrice = distancePrice;
+		this.hasDiscount = hasDiscount;
+		this.discountPercentage = discountPercentage;
+		this.discountAmount = discountAmount;
+		this.hasPromotion = hasPromotion;
+		this.promotionPercentage = promotionPercentage;
+		this.promotionAmount = promotionAmount;
+		this.totalPrice = totalPrice;
+		this.faultDescription = faultDescription;
+	}
+
+	/**
+	 * Takes a snapshot of the invoice of a finished rental.
+	 *
+	 * @param invoiceNumber the unique number of the invoice, including its prefix.
+	 * @param rental the finished rental.
+	 * @param price the prices of the rental.
+	 * @return the invoice entry.
+	 */
+	public static InvoiceEntry of(String invoiceNumber, Rental rental, PriceBreakdown price) {
+		Vehicle vehicle = rental.getVehicle();
+		User user = rental.getUser();
+		boolean requiresDocuments = vehicle.requiresDocuments();
+		Fault fault = vehicle.getFault();
+		return new InvoiceEntry(invoiceNumber, rental.getDateTime(), user.getName(),
+				requiresDocuments ? user.getDocumentType() : null,
+				requiresDocuments ? user.getDocumentNumber() : null,
+				requiresDocuments ? user.getDrivingLicenseNumber() : null,
+				getVehicleType(vehicle), vehicle.getModel(), vehicle.getID(),
+				rental.getStartLocation(), rental.getEndLocation(),
+				MapUtil.getZoneMap().getZoneName(price.getZone()), rental.getDurationSeconds(),
+				price.getUnitPrice(), price.getBasePrice(), price.getAreaFactor(), price.getDistancePrice(),
+				user.ishasDiscount(), price.getPricingTable().getDiscountPercentage(), price.getDiscountAmount(),
+				rental.isHasPromotion(), price.getPricingTable().getPromotionPercentage(), price.getPromotionAmount(),
+				price.getTotalPrice(), fault != null ? fault.getDescription() : null);
+	}
+
+	/**
+	 * Returns the type of the vehicle as shown on the invoice.
+	 *
+	 * @param vehicle the vehicle.
+	 * @return "Car", "Bike" or "Scooter", or an empty string if the type is unknown.
+	 */
+	private static String getVehicleType(Vehicle vehicle) {
+		if (vehicle instanceof Car) {
+			return "Car";
+		}
+		else if (vehicle instanceof Bike) {
+			return "Bike";
+		}
+		else if (vehicle instanceof Scooter) {
+			return "Scooter";
+		}
+		return "";
+	}
+
+	/**
+	 * Converts the entry into the {@link InvoiceRecord} used for generating reports.
+	 *
+	 * @return the record of the invoice.
+	 */
+	public InvoiceRecord toRecord() {
+		return new InvoiceRecord(totalPrice, hasDiscount ? discountAmount : 0.0, hasPromotion ? promotionAmount : 0.0,
+				getCityZone(), vehicleID, issueDate, faultDescription != null);
+	}
+
+	/**
+	 * Returns the name of the invoice file, based on the date and time of the rental, the user's name and the invoice number.
+	 *
+	 * @return the name of the invoice file.
+	 */
+	public String getFileName() {
+		return issueDate.format(FILE_NAME_DATE_FORMAT) + "_" + userName + invoiceNumber + ".txt";
+	}
+
+	/**
+	 * Formats the text of the invoice.
+	 *
+	 * Details included in the invoice:
+	 * -User's name and document details if required
+	 * -Rented vehicle type and ID
+	 * -Start and end locations of the rental
+	 * -City zone (for example wide or narrow area) affecting pricing
+	 * -Duration of the rental in seconds.
+	 * -Base price calculation
+	 * -Distance price
+	 * -Discounts and promotions applied
+	 * -Total amount due for payment
+	 * -Date and time of invoice issuance
+	 * -Invoice number
+	 * -Information about faults, if any have occurred
+	 *
+	 * @return the text of the invoice.
+	 */
+	public String toText() {
+		StringWriter invoiceText = new StringWriter(1024);
+		PrintWriter outInvoice = new PrintWriter(invoiceText);
+		outInvoice.println("======================================================");
+		outInvoice.println("              e-mobility company ePJ2");
+		outInvoice.println("                     Java City");
+		outInvoice.println("------------------------------------------------------");
+		outInvoice.println("			  INVOICE");
+		outInvoice.println("User: " + userName);
+		if (documentType != null) {
+			if (documentType.equals(DocumentType.PASSPORT)) {
+				outInvoice.println("Passport number " + documentNumber);
+			}
+			else if (documentType.equals(DocumentType.ID_CARD)) {
+				outInvoice.println("ID card number " + documentNumber);
+			}
+			outInvoice.println("Driver’s license number " + drivingLicenseNumber);
+		}
+		outInvoice.println("------------------------------------------------------");
+		outInvoice.print("Rented vehicle: ");
+		if (!vehicleType.isEmpty()) {
+			outInvoice.println(vehicleType + " " + vehicleModel + "," + vehicleID);
+		}
+		outInvoice.println("Start location: (" + startLocation[0] + "," + startLocation[1] + ")");
+		outInvoice.println("Destination: (" + endLocation[0] + "," + endLocation[1] + ")");
+		outInvoice.print("City zone: ");
+		outInvoice.println(getCityZone());
+		outInvoice.println("Ride duration [s]: " + durationSeconds);
+		outInvoice.println("------------------------------------------------------");
+		outInvoice.println("Base price: " + unitPrice + " * " + durationSeconds + " = " + basePrice);
+		outInvoice.println("Rate for " + zoneName.toLowerCase() + " area of the city: " + areaFactor);
+		outInvoice.println("Amount: " + distancePrice + " EUR");
+		if (hasDiscount) {
+			outInvoice.println("Discount: " + discountPercentage + "% (" + discountAmount + " EUR)");
+		}
+		if (hasPromotion) {
+			outInvoice.println("Promotion: " + promotionPercentage + "% (" + promotionAmount + " EUR)");
+		}
+		outInvoice.println("------------------------------------------------------");
+		outInvoice.println("Total price: " + totalPrice + " EUR");
+		outInvoice.println("Date and time: " + issueDate.format(INVOICE_DATE_FORMAT));
+		outInvoice.println("Invoice number: " + invoiceNumber);
+		if (faultDescription != null) {
+			outInvoice.println("------------------------------------------------------");
+			outInvoice.println("Fault: " + faultDescription);
+			outInvoice.println("We apologize for the inconvenience. ");
+		}
+		outInvoice.println("======================================================");
+		outInvoice.println("           *THANK YOU FOR USING OUR SERVICE*");
+		outInvoice.println("------------------------------------------------------");
+		outInvoice.close();
+		return invoiceText.toString();
+	}
+
+	/**
+	 * Returns the city zone label of the invoice, for example {@code "wide city area"}.
+	 *
+	 * @return the city zone label.
+	 */
+	public String getCityZone() {
+		return ZoneMap.toCityAreaLabel(zoneName);
+	}
+
+	/**
+	 * Returns the unique number of the invoice.
+	 *
+	 * @return the invoice number, including its prefix.
+	 */
+	public String getInvoiceNumber() {
+		return invoiceNumber;
+	}
+
+	/**
+	 * Returns the date and time of the rental.
+	 *
+	 * @return the issue date and time of the invoice.
+	 */
+	public LocalDateTime getIssueDate() {
+		return issueDate;
+	}
+
+	/**
+	 * Returns the name of the user.
+	 *
+	 * @return the user's name.
+	 */
+	public String getUserName() {
+		return userName;
+	}
+
+	/**
+	 * Returns the type of the user's document.
+	 *
+	 * @return the document type, or {@code null} if the vehicle does not require documents.
+	 */
+	public DocumentType getDocumentType() {
+		return documentType;
+	}
+
+	/**
+	 * Returns the number of the user's document.
+	 *
+	 * @return the document number, or {@code null} if the vehicle does not require documents.
+	 */
+	public String getDocumentNumber() {
+		return documentNumber;
+	}
+
+	/**
+	 * Returns the number of the user's driving license.
+	 *
+	 * @return the driving license number, or {@code null} if the vehicle does not require documents.
+	 */
+	public String getDrivingLicenseNumber() {
+		return drivingLicenseNumber;
+	}
+
+	/**
+	 * Returns the type of the rented vehicle.
+	 *
+	 * @return "Car", "Bike" or "Scooter", or an empty string if the type is unknown.
+	 */
+	public String getVehicleType() {
+		return vehicleType;
+	}
+
+	/**
+	 * Returns the model of the rented vehicle.
+	 *
+	 * @return the vehicle model.
+	 */
+	public String getVehicleModel() {
+		return vehicleModel;
+	}
+
+	/**
+	 * Returns the ID of the rented vehicle.
+	 *
+	 * @return the vehicle ID.
+	 */
+	public String getVehicleID() {
+		return vehicleID;
+	}
+
+	/**
+	 * Returns the start location.
+	 *
+	 * @return a copy of the start location as [x, y].
+	 */
+	public int[] getStartLocation() {
+		return startLocation.clone();
+	}
+
+	/**
+	 * Returns the end location.
+	 *
+	 * @return a copy of the end location as [x, y].
+	 */
+	public int[] getEndLocation() {
+		return endLocation.clone();
+	}
+
+	/**
+	 * Returns the name of the city zone of the rental.
+	 *
+	 * @return the zone name.
+	 */
+	public String getZoneName() {
+		return zoneName;
+	}
+
+	/**
+	 * Returns the duration of the rental in seconds.
+	 *
+	 * @return the duration in seconds.
+	 */
+	public double getDurationSeconds() {
+		return durationSeconds;
+	}
+
+	/**
+	 * Returns the unit rental price of the vehicle.
+	 *
+	 * @return the unit price.
+	 */
+	public double getUnitPrice() {
+		return unitPrice;
+	}
+
+	/**
+	 * Returns the base price of the rental.
+	 *
+	 * @return the base price.
+	 */
+	public double getBasePrice() {
+		return basePrice;
+	}
+
+	/**
+	 * Returns the price factor of the city zone.
+	 *
+	 * @return the area factor.
+	 */
+	public double getAreaFactor() {
+		return areaFactor;
+	}
+
+	/**
+	 * Returns the price for the city zone.
+	 *
+	 * @return the distance price.
+	 */
+	public double getDistancePrice() {
+		return distancePrice;
+	}
+
+	/**
+	 * Returns whether the user is entitled to a discount.
+	 *
+	 * @return {@code true} if a discount applies.
+	 */
+	public boolean isHasDiscount() {
+		return hasDiscount;
+	}
+
+	/**
+	 * Returns the discount percentage.
+	 *
+	 * @return the discount percentage.
+	 */
+	public double getDiscountPercentage() {
+		return discountPercentage;
+	}
+
+	/**
+	 * Returns the discount amount.
+	 *
+	 * @return the discount amount.
+	 */
+	public double getDiscountAmount() {
+		return discountAmount;
+	}
+
+	/**
+	 * Returns whether a promotion applies to the rental.
+	 *
+	 * @return {@code true} if a promotion applies.
+	 */
+	public boolean isHasPromotion() {
+		return hasPromotion;
+	}
+
+	/**
+	 * Returns the promotion percentage.
+	 *
+	 * @return the promotion percentage.
+	 */
+	public double getPromotionPercentage() {
+		return promotionPercentage;
+	}
+
+	/**
+	 * Returns the promotion amount.
+	 *
+	 * @return the promotion amount.
+	 */
+	public double getPromotionAmount() {
+		return promotionAmount;
+	}
+
+	/**
+	 * Returns the total price of the rental.
+	 *
+	 * @return the total price.
+	 */
+	public double getTotalPrice() {
+		return totalPrice;
+	}
+
+	/**
+	 * Returns the description of the vehicle fault.
+	 *
+	 * @return the fault description, or {@code null} if no fault occurred.
+	 */
+	public String getFaultDescription() {
+		return faultDescription;
+	}
+}
@@ -0,0 +1,480 @@
+package epj2.service;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import epj2.model.user.DocumentType;
+import epj2.util.ZoneMap;
+
+/**
+ * An append-only journal of issued invoices, stored as fixed-size binary records in segment files.
+ * A segment ({@code invoices-000001.journal}, {@code invoices-000002.journal}...) starts with a {@value #HEADER_SIZE}-byte
+ * header and holds records of {@value #RECORD_SIZE} bytes, so record {@code i} is at offset {@code HEADER_SIZE + i * RECORD_SIZE}.
+ * When a segment would grow beyond the configured size, a new segment is started; a journal opened by a new run
+ * always starts a new segment, so existing segments are never modified.
+ *
+ * Next to every segment there is a sidecar index ({@code invoices-000001.index}) with the record numbers of the
+ * invoices of every date and every vehicle. The index is written once, when the segment is closed or the next segment
+ * is started; readers scan the records of a segment that were appended after its index was written (or that has no index yet).
+ * Records are appended in batches with a single sequential write by one writer thread; appending and closing are
+ * synchronized, so the journal can be closed from a shutdown hook.
+ * The journal is read by {@link epj2.util.InvoiceJournalReader}.
+ *
+ * Record layout (big-endian): issue date in epoch seconds (long), start and end location (4 ints),
+ * duration, unit price, base price, area factor, distance price, discount percentage, discount amount,
+ * promotion percentage, promotion amount and total price (10 doubles), flags, document type and vehicle type (3 bytes),
+ * one reserved byte, and the zero-padded UTF-8 strings invoice number, user name, document number, driving license number,
+ * vehicle model, vehicle ID, zone name and fault description.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public class InvoiceJournal {
+	/** The magic number at the start of every segment ("EPJI"). */
+	public static final int SEGMENT_MAGIC = 0x45504A49;
+	/** The magic number at the start of every index ("EPJX"). */
+	public static final int INDEX_MAGIC = 0x45504A58;
+	/** The version of the record layout. Version 2 stores the invoice number as a string, so it can carry a prefix. */
+	public static final int VERSION = 2;
+	/** The size of the segment header in bytes: magic, version, record size and a reserved int. */
+	public static final int HEADER_SIZE = 16;
+	/** The file name extension of segments. */
+	public static final String SEGMENT_EXTENSION = ".journal";
+	/** The file name extension of sidecar indexes. */
+	public static final String INDEX_EXTENSION = ".index";
+	/** The length of the invoice number field in bytes. */
+	private static final int INVOICE_NUMBER_LENGTH = 32;
+	/** The length of the user name field in bytes. */
+	private static final int USER_NAME_LENGTH = 32;
+	/** The length of the document number and driving license number fields in bytes. */
+	private static final int DOCUMENT_LENGTH = 24;
+	/** The length of the vehicle model field in bytes. */
+	private static final int MODEL_LENGTH = 32;
+	/** The length of the vehicle ID field in bytes. */
+	private static final int VEHICLE_ID_LENGTH = 16;
+	/** The length of the zone name field in bytes. */
+	private static final int ZONE_NAME_LENGTH = 16;
+	/** The length of the fault description field in bytes. */
+	private static final int FAULT_LENGTH = 64;
+	/** The offset of the start and end location in a record. */
+	private static final int LOCATIONS_OFFSET = 8;
+	/** The offset of the prices in a record. */
+	private static final int PRICES_OFFSET = LOCATIONS_OFFSET + 4 * 4;
+	/** The offset of the flags, document type and vehicle type in a record. */
+	private static final int FLAGS_OFFSET = PRICES_OFFSET + 10 * 8;
+	/** The offset of the first string field (the invoice number) in a record. */
+	private static final int STRINGS_OFFSET = FLAGS_OFFSET + 4;
+	/** The offset of the vehicle ID field in a record. */
+	private static final int VEHICLE_ID_OFFSET = STRINGS_OFFSET + INVOICE_NUMBER_LENGTH + USER_NAME_LENGTH + 2 * DOCUMENT_LENGTH + MODEL_LENGTH;
+	/** The size of a record in bytes. */
+	public static final int RECORD_SIZE = VEHICLE_ID_OFFSET + VEHICLE_ID_LENGTH + ZONE_NAME_LENGTH + FAULT_LENGTH;
+	/** The flag of invoices for vehicles that require documents. */
+	private static final int FLAG_DOCUMENTS = 1;
+	/** The flag of invoices with a discount. */
+	private static final int FLAG_DISCOUNT = 2;
+	/** The flag of invoices with a promotion. */
+	private static final int FLAG_PROMOTION = 4;
+	/** The flag of invoices for vehicles that had a fault. */
+	private static final int FLAG_FAULT = 8;
+	/** The types of vehicles, indexed by their code in a record. */
+	private static final String[] VEHICLE_TYPES = {"", "Car", "Bike", "Scooter"};
+	/** The directory of the journal. */
+	private final File directory;
+	/** The largest size of a segment in bytes, at most 2 GB so that a segment can be mapped into memory at once. */
+	private final long segmentSize;
+	/** The number of the current segment. */
+	private int segmentNumber;
+	/** The channel of the current segment, or {@code null} if no segment has been started yet. */
+	private FileChannel segment;
+	/** The number of records in the current segment. */
+	private int recordCount;
+	/** The record numbers of the current segment by date (epoch day). */
+	private final Map<Long, List<Integer>> recordsByDate = new TreeMap<>();
+	/** The record numbers of the current segment by vehicle ID. */
+	private final Map<String, List<Integer>> recordsByVehicle = new HashMap<>();
+
+	/**
+	 * Opens a journal in the specified directory. The first appended batch starts a new segment after the existing ones.
+	 *
+	 * @param directoryPath the path to the directory of the journal.
+	 * @param segmentSize the largest size of a segment in bytes.
+	 */
+	public InvoiceJournal(String directoryPath, long segmentSize) {
+		this.directory = new File(directoryPath);
+		this.segmentSize = Math.min(Math.max(segmentSize, HEADER_SIZE + RECORD_SIZE), Integer.MAX_VALUE);
+		if (!directory.exists()) {
+			directory.mkdirs();
+		}
+		for (File file : listSegments(directory)) {
+			segmentNumber = Math.max(segmentNumber, getSegmentNumber(file));
+		}
+	}
+
+	/**
+	 * Appends a batch of invoices to the journal with as few sequential writes as possible, starting new segments
+	 * when needed.
+	 *
+	 * @param entries the invoices to be appended.
+	 * @throws IOException if the journal cannot be written.
+	 */
+	public synchronized void append(List<InvoiceEntry> entries) throws IOException {
+		int next = 0;
+		while (next < entries.size()) {
+			if (segment == null || segment.size() + RECORD_SIZE > segmentSize) {
+				startSegment();
+			}
+			int count = (int) Math.min(entries.size() - next, (segmentSize - segment.size()) / RECORD_SIZE);
+			ByteBuffer batch = ByteBuffer.allocate(count * RECORD_SIZE);
+			for (int i = 0; i < count; i++) {
+				InvoiceEntry entry = entries.get(next + i);
+				encode(entry, batch);
+				indexRecord(entry, recordCount++);
+			}
+			batch.flip();
+			while (batch.hasRemaining()) {
+				segment.write(batch);
+			}
+			segment.force(false);
+			next += count;
+		}
+	}
+
+	/**
+	 * Writes the sidecar index of the current segment and closes the segment.
+	 * A later append starts a new segment.
+	 *
+	 * @throws IOException if the index cannot be written or the segment cannot be closed.
+	 */
+	public synchronized void close() throws IOException {
+		if (segment != null) {
+			try {
+				writeIndex();
+			}
+			finally {
+				segment.close();
+				segment = null;
+			}
+		}
+	}
+
+	/**
+	 * Closes the current segment and starts the next one with a new header.
+	 *
+	 * @throws IOException if the segment cannot be created.
+	 */
+	private void startSegment() throws IOException {
+		close();
+		segmentNumber++;
+		recordCount = 0;
+		recordsByDate.clear();
+		recordsByVehicle.clear();
+		segment = FileChannel.open(getSegmentFile(directory, segmentNumber).toPath(),
+				StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		header.putInt(SEGMENT_MAGIC).putInt(VERSION).putInt(RECORD_SIZE).putInt(0).flip();
+		while (header.hasRemaining()) {
+			segment.write(header);
+		}
+	}
+
+	/**
+	 * Adds a record of the current segment to the in-memory index.
+	 *
+	 * @param entry the invoice of the record.
+	 * @param record the number of the record in the segment.
+	 */
+	private void indexRecord(InvoiceEntry entry, int record) {
+		recordsByDate.computeIfAbsent(entry.getIssueDate().toLocalDate().toEpochDay(), day -> new ArrayList<>()).add(record);
+		recordsByVehicle.computeIfAbsent(entry.getVehicleID(), id -> new ArrayList<>()).add(record);
+	}
+
+	/**
+	 * Writes the sidecar index of the current segment to a temporary file and moves it over the previous index,
+	 * so readers never see a partially written index.
+	 *
+	 * @throws IOException if the index cannot be written.
+	 */
+	private void writeIndex() throws IOException {
+		File indexFile = getIndexFile(directory, segmentNumber);
+		File temporaryFile = new File(directory, indexFile.getName() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)))) {
+			out.writeInt(INDEX_MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(recordCount);
+			out.writeInt(recordsByDate.size());
+			for (Map.Entry<Long, List<Integer>> date : recordsByDate.entrySet()) {
+				out.writeLong(date.getKey());
+				writeRecords(out, date.getValue());
+			}
+			out.writeInt(recordsByVehicle.size());
+			for (Map.Entry<String, List<Integer>> vehicle : recordsByVehicle.entrySet()) {
+				out.writeUTF(vehicle.getKey());
+				writeRecords(out, vehicle.getValue());
+			}
+		}
+		Files.move(temporaryFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Writes a list of record numbers to the index.
+	 *
+	 * @param out the index stream.
+	 * @param records the record numbers.
+	 * @throws IOException if the index cannot be written.
+	 */
+	private static void writeRecords(DataOutputStream out, List<Integer> records) throws IOException {
+		out.writeInt(records.size());
+		for (int record : records) {
+			out.writeInt(record);
+		}
+	}
+
+	/**
+	 * Encodes an invoice into a record at the current position of the buffer.
+	 *
+	 * @param entry the invoice.
+	 * @param buffer the buffer with at least {@value #RECORD_SIZE} bytes remaining.
+	 */
+	public static void encode(InvoiceEntry entry, ByteBuffer buffer) {
+		int[] start = entry.getStartLocation();
+		int[] end = entry.getEndLocation();
+		buffer.putLong(entry.getIssueDate().toEpochSecond(ZoneOffset.UTC));
+		buffer.putInt(start[0]).putInt(start[1]).putInt(end[0]).putInt(end[1]);
+		buffer.putDouble(entry.getDurationSeconds());
+		buffer.putDouble(entry.getUnitPrice());
+		buffer.putDouble(entry.getBasePrice());
+		buffer.putDouble(entry.getAreaFactor());
+		buffer.putDouble(entry.getDistancePrice());
+		buffer.putDouble(entry.getDiscountPercentage());
+		buffer.putDouble(entry.getDiscountAmount());
+		buffer.putDouble(entry.getPromotionPercentage());
+		buffer.putDouble(entry.getPromotionAmount());
+		buffer.putDouble(entry.getTotalPrice());
+		int flags = (entry.getDocumentType() != null ? FLAG_DOCUMENTS : 0) | (entry.isHasDiscount() ? FLAG_DISCOUNT : 0)
+				| (entry.isHasPromotion() ? FLAG_PROMOTION : 0) | (entry.getFaultDescription() != null ? FLAG_FAULT : 0);
+		buffer.put((byte) flags);
+		buffer.put((byte) (entry.getDocumentType() != null ? entry.getDocumentType().ordinal() : 0));
+		buffer.put((byte) Math.max(0, List.of(VEHICLE_TYPES).indexOf(entry.getVehicleType())));
+		buffer.put((byte) 0);
+		putString(buffer, entry.getInvoiceNumber(), INVOICE_NUMBER_LENGTH);
+		putString(buffer, entry.getUserName(), USER_NAME_LENGTH);
+		putString(buffer, entry.getDocumentNumber(), DOCUMENT_LENGTH);
+		putString(buffer, entry.getDrivingLicenseNumber(), DOCUMENT_LENGTH);
+		putString(buffer, entry.getVehicleModel(), MODEL_LENGTH);
+		putString(buffer, entry.getVehicleID(), VEHICLE_ID_LENGTH);
+		putString(buffer, entry.getZoneName(), ZONE_NAME_LENGTH);
+		putString(buffer, entry.getFaultDescription(), FAULT_LENGTH);
+	}
+
+	/**
+	 * Decodes the complete invoice stored in a record.
+	 *
+	 * @param buffer the buffer containing the record.
+	 * @param offset the offset of the record in the buffer.
+	 * @return the invoice.
+	 */
+	public static InvoiceEntry decode(ByteBuffer buffer, int offset) {
+		int flags = buffer.get(offset + FLAGS_OFFSET);
+		boolean hasDocuments = (flags & FLAG_DOCUMENTS) != 0;
+		String invoiceNumber = getInvoiceNumber(buffer, offset);
+		int position = offset + STRINGS_OFFSET + INVOICE_NUMBER_LENGTH;
+		String userName = getString(buffer, position, USER_NAME_LENGTH);
+		position += USER_NAME_LENGTH;
+		String documentNumber = getString(buffer, position, DOCUMENT_LENGTH);
+		position += DOCUMENT_LENGTH;
+		String drivingLicenseNumber = getString(buffer, position, DOCUMENT_LENGTH);
+		position += DOCUMENT_LENGTH;
+		String vehicleModel = getString(buffer, position, MODEL_LENGTH);
+		position += MODEL_LENGTH;
+		String vehicleID = getString(buffer, position, VEHICLE_ID_LENGTH);
+		position += VEHICLE_ID_LENGTH;
+		String zoneName = getString(buffer, position, ZONE_NAME_LENGTH);
+		position += ZONE_NAME_LENGTH;
+		String faultDescription = getString(buffer, position, FAULT_LENGTH);
+		return new InvoiceEntry(invoiceNumber, getIssueDate(buffer, offset), userName,
+				hasDocuments ? DocumentType.values()[buffer.get(offset + FLAGS_OFFSET + 1)] : null,
+				hasDocuments ? documentNumber : null, hasDocuments ? drivingLicenseNumber : null,
+				VEHICLE_TYPES[buffer.get(offset + FLAGS_OFFSET + 2)], vehicleModel, vehicleID,
+				new int[] {buffer.getInt(offset + LOCATIONS_OFFSET), buffer.getInt(offset + LOCATIONS_OFFSET + 4)},
+				new int[] {buffer.getInt(offset + LOCATIONS_OFFSET + 8), buffer.getInt(offset + LOCATIONS_OFFSET + 12)},
+				zoneName, getDouble(buffer, offset, 0), getDouble(buffer, offset, 1), getDouble(buffer, offset, 2),
+				getDouble(buffer, offset, 3), getDouble(buffer, offset, 4),
+				(flags & FLAG_DISCOUNT) != 0, getDouble(buffer, offset, 5), getDouble(buffer, offset, 6),
+				(flags & FLAG_PROMOTION) != 0, getDouble(buffer, offset, 7), getDouble(buffer, offset, 8),
+				getDouble(buffer, offset, 9), (flags & FLAG_FAULT) != 0 ? faultDescription : null);
+	}
+
+	/**
+	 * Decodes only the fields of a record needed for reports, without decoding the other strings.
+	 *
+	 * @param buffer the buffer containing the record.
+	 * @param offset the offset of the record in the buffer.
+	 * @return the report record of the invoice.
+	 */
+	public static InvoiceRecord decodeRecord(ByteBuffer buffer, int offset) {
+		int flags = buffer.get(offset + FLAGS_OFFSET);
+		String zoneName = getString(buffer, offset + VEHICLE_ID_OFFSET + VEHICLE_ID_LENGTH, ZONE_NAME_LENGTH);
+		return new InvoiceRecord(getDouble(buffer, offset, 9),
+				(flags & FLAG_DISCOUNT) != 0 ? getDouble(buffer, offset, 6) : 0.0,
+				(flags & FLAG_PROMOTION) != 0 ? getDouble(buffer, offset, 8) : 0.0,
+				ZoneMap.toCityAreaLabel(zoneName), getVehicleID(buffer, offset), getIssueDate(buffer, offset),
+				(flags & FLAG_FAULT) != 0);
+	}
+
+	/**
+	 * Returns the invoice number stored in a record.
+	 *
+	 * @param buffer the buffer containing the record.
+	 * @param offset the offset of the record in the buffer.
+	 * @return the invoice number.
+	 */
+	public static String getInvoiceNumber(ByteBuffer buffer, int offset) {
+		return getString(buffer, offset + STRINGS_OFFSET, INVOICE_NUMBER_LENGTH);
+	}
+
+	/**
+	 * Returns the vehicle ID stored in a record.
+	 *
+	 * @param buffer the buffer containing the record.
+	 * @param offset the offset of the record in the buffer.
+	 * @return the vehicle ID.
+	 */
+	public static String getVehicleID(ByteBuffer buffer, int offset) {
+		return getString(buffer, offset + VEHICLE_ID_OFFSET, VEHICLE_ID_LENGTH);
+	}
+
+	/**
+	 * Returns the issue date stored in a record.
+	 *
+	 * @param buffer the buffer containing the record.
+	 * @param offset the offset of the record in the buffer.
+	 * @return the issue date and time.
+	 */
+	public static LocalDateTime getIssueDate(ByteBuffer buffer, int offset) {
+		return LocalDateTime.ofEpochSecond(buffer.getLong(offset), 0, ZoneOffset.UTC);
+	}
+
+	/**
+	 * Returns one of the ten price values of a record.
+	 *
+	 * @param buffer the buffer containing the record.
+	 * @param offset the offset of the record in the buffer.
+	 * @param index the index of the value, from the duration (0) to the total price (9).
+	 * @return the value.
+	 */
+	private static double getDouble(ByteBuffer buffer, int offset, int index) {
+		return buffer.getDouble(offset + PRICES_OFFSET + index * 8);
+	}
+
+	/**
+	 * Writes a string into a fixed-size field, truncated to the length of the field and padded with zeros.
+	 *
+	 * @param buffer the buffer.
+	 * @param value the string, or {@code null} for an empty field.
+	 * @param length the length of the field in bytes.
+	 */
+	private static void putString(ByteBuffer buffer, String value, int length) {
+		byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+		int size = Math.min(bytes.length, length);
+		while (size < bytes.length && size > 0 && (bytes[size] & 0xC0) == 0x80) {
+			size--;
+		}
+		buffer.put(bytes, 0, size);
+		for (int i = size; i < length; i++) {
+			buffer.put((byte) 0);
+		}
+	}
+
+	/**
+	 * Reads a string from a fixed-size field.
+	 *
+	 * @param buffer the buffer.
+	 * @param offset the offset of the field.
+	 * @param length the length of the field in bytes.
+	 * @return the string, without the padding.
+	 */
+	private static String getString(ByteBuffer buffer, int offset, int length) {
+		byte[] bytes = new byte[length];
+		buffer.get(offset, bytes);
+		int size = 0;
+		while (size < length && bytes[size] != 0) {
+			size++;
+		}
+		return new String(bytes, 0, size, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Lists the segments in a journal directory, in the order in which they were written.
+	 *
+	 * @param directory the directory of the journal.
+	 * @return the segment files.
+	 */
+	public static List<File> listSegments(File directory) {
+		File[] files = directory.listFiles((dir, name) -> name.startsWith("invoices-") && name.endsWith(SEGMENT_EXTENSION));
+		List<File> segments = new ArrayList<>();
+		if (files != null) {
+			segments.addAll(List.of(files));
+			segments.sort((first, second) -> Integer.compare(getSegmentNumber(first), getSegmentNumber(second)));
+		}
+		return segments;
+	}
+
+	/**
+	 * Returns the number of a segment from its file name.
+	 *
+	 * @param file the segment or index file.
+	 * @return the segment number.
+	 */
+	private static int getSegmentNumber(File file) {
+		String name = file.getName();
+		return Integer.parseInt(name.substring("invoices-".length(), name.lastIndexOf('.')));
+	}
+
+	/**
+	 * Returns the file of the segment with the specified number.
+	 *
+	 * @param directory the directory of the journal.
+	 * @param segmentNumber the number of the segment.
+	 * @return the segment file.
+	 */
+	private static File getSegmentFile(File directory, int segmentNumber) {
+		return new File(directory, String.format("invoices-%06d%s", segmentNumber, SEGMENT_EXTENSION));
+	}
+
+	/**
+	 * Returns the sidecar index file of a segment.
+	 *
+	 * @param directory the directory of the journal.
+	 * @param segmentNumber the number of the segment.
+	 * @return the index file.
+	 */
+	private static File getIndexFile(File directory, int segmentNumber) {
+		return new File(directory, String.format("invoices-%06d%s", segmentNumber, INDEX_EXTENSION));
+	}
+
+	/**
+	 * Returns the sidecar index file of the specified segment file.
+	 *
+	 * @param segmentFile the segment file.
+	 * @return the index file.
+	 */
+	public static File getIndexFile(File segmentFile) {
+		return getIndexFile(segmentFile.getParentFile(), getSegmentNumber(segmentFile));
+	}
+}
@@ -0,0 +1,75 @@
+package epj2.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Collects the records of all invoices issued during the simulation, so that the reporting layer
+ * can work directly with structured data instead of parsing invoice files.
+ * Records can be published from several threads at the same time.
+ * Listeners are notified of every published record on the publishing thread, so that reports can be kept up to date
+ * while the simulation is running; listeners must therefore be thread-safe.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public class InvoiceLedger {
+	/** The records of all issued invoices, in the order in which they were published. */
+	private static final List<InvoiceRecord> records = new ArrayList<>();
+	/** The listeners notified of every published record. */
+	private static final List<Consumer<InvoiceRecord>> listeners = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Publishes the record of an issued invoice and notifies all listeners.
+	 *
+	 * @param record the record of the invoice.
+	 */
+	public static void publish(InvoiceRecord record) {
+		synchronized (records) {
+			records.add(record);
+		}
+		for (Consumer<InvoiceRecord> listener : listeners) {
+			listener.accept(record);
+		}
+	}
+
+	/**
+	 * Adds a listener that is notified of every record published from now on.
+	 *
+	 * @param listener the listener; it is called on the publishing thread.
+	 */
+	public static void addListener(Consumer<InvoiceRecord> listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Removes a listener.
+	 *
+	 * @param listener the listener to be removed.
+	 */
+	public static void removeListener(Consumer<InvoiceRecord> listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Returns the records of all invoices issued so far.
+	 *
+	 * @return an unmodifiable snapshot of the records, in the order in which they were published.
+	 */
+	public static List<InvoiceRecord> getRecords() {
+		synchronized (records) {
+			return List.copyOf(records);
+		}
+	}
+
+	/**
+	 * Removes all published records.
+	 */
+	public static void clear() {
+		synchronized (records) {
+			records.clear();
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package epj2.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * A compact, immutable record of an issued invoice, containing only the information relevant for analyzing
+ * business performance. Records are published to the {@link InvoiceLedger} when an invoice is issued,
+ * so reports can be generated without writing and parsing invoice files.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public final class InvoiceRecord {
+	/** The city zone of invoices for rentals that passed through the wide city area. */
+	public static final String WIDE_CITY_AREA = "wide city area";
+	/** The city zone of invoices for rentals that stayed in the narrow city area. */
+	public static final String NARROW_CITY_AREA = "narrow city area";
+	/** The total amount to be paid. */
+	private final double totalAmount;
+	/** The discount amount applied to the total amount, or 0.0 if no discount is applied. */
+	private final double discountAmount;
+	/** The promotion amount applied to the total amount, or 0.0 if no promotion is applied. */
+	private final double promotionAmount;
+	/** The city zone in which the vehicle was used. */
+	private final String cityZone;
+	/** The ID of the vehicle related to this invoice. */
+	private final String vehicleID;
+	/** The date and time when the invoice was issued. */
+	private final LocalDateTime issueDate;
+	/** A flag indicating whether there was a fault related to the vehicle during the rental period. */
+	private final boolean hasFault;
+
+	/**
+	 * Constructs a new invoice record.
+	 *
+	 * @param totalAmount the total amount to be paid.
+	 * @param discountAmount the discount amount, or 0.0 if no discount is applied.
+	 * @param promotionAmount the promotion amount, or 0.0 if no promotion is applied.
+	 * @param cityZone the city zone in which the vehicle was used.
+	 * @param vehicleID the ID of the vehicle related to this invoice.
+	 * @param issueDate the date and time when the invoice was issued.
+	 * @param hasFault {@code true} if the vehicle had a fault during the rental period.
+	 */
+	public InvoiceRecord(double totalAmount, double discountAmount, double promotionAmount, String cityZone,
+			String vehicleID, LocalDateTime issueDate, boolean hasFault) {
+		this.totalAmount = totalAmount;
+		this.discountAmount = discountAmount;
+		this.promotionAmount = promotionAmount;
+		this.cityZone = cityZone;
+		this.vehicleID = vehicleID;
+		this.issueDate = issueDate;
+		this.hasFault = hasFault;
+	}
+
+	/**
+	 * Returns the total amount to be paid.
+	 *
+	 * @return the total amount.
+	 */
+	public double getTotalAmount() {
+		return totalAmount;
+	}
+
+	/**
+	 * Returns the discount amount applied to the invoice.
+	 *
+	 * @return the discount amount.
+	 */
+	public double getDiscountAmount() {
+		return discountAmount;
+	}
+
+	/**
+	 * Returns the promotion amount applied to the invoice.
+	 *
+	 * @return the promotion amount.
+	 */
+	public double getPromotionAmount() {
+		return promotionAmount;
+	}
+
+	/**
+	 * Returns the city zone in which the vehicle was used.
+	 *
+	 * @return the city zone.
+	 */
+	public String getCityZone() {
+		return cityZone;
+	}
+
+	/**
+	 * Returns the ID of the vehicle associated with this invoice.
+	 *
+	 * @return the vehicle ID.
+	 */
+	public String getVehicleID() {
+		return vehicleID;
+	}
+
+	/**
+	 * Returns the date and time when the invoice was issued.
+	 *
+	 * @return the issue date and time of invoice.
+	 */
+	public LocalDateTime getIssueDate() {
+		return issueDate;
+	}
+
+	/**
+	 * Returns whether the vehicle had a fault during the rental period.
+	 *
+	 * @return {@code true} if the vehicle had a fault, {@code false} otherwise.
+	 */
+	public boolean getHasFault() {
+		return hasFault;
+	}
+}
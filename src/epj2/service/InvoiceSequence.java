@@ -0,0 +1,213 @@
+package epj2.service;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Issues invoice numbers to any number of rental threads without locking.
+ * Numbers are drawn from partitions, each with its own {@link AtomicLong}, so the numbers of a partition are unique
+ * and consecutive. In {@code GLOBAL} mode there is a single partition; in {@code DAILY} mode every issue date has its own
+ * partition, and the number is prefixed with the date ({@code 20240101-7}). If a node ID is configured, it is
+ * prefixed as well ({@code A-20240101-7}), so several nodes can issue invoices into the same directory.
+ *
+ * Numbers are reserved in blocks of {@value #RESERVATION_BLOCK}: before the first number of a new block is issued,
+ * the upper bound of the block is saved to a properties file, and at start every partition continues after its saved
+ * bound. A number is therefore never issued before it is covered by a saved bound, so numbering keeps increasing across
+ * runs even if the process crashes or is killed. When the program ends normally, {@link #saveIssued()} replaces the
+ * reserved bounds with the last issued numbers, so the next run continues without a gap; only a crash leaves a gap of
+ * at most one block per partition. The file is written to a temporary file, synced to disk and moved over the old file atomically, so a crash during
+ * saving leaves the previous bounds. Only the thread that crosses into a new block saves the file; all other numbers
+ * are issued without locking.
+ *
+ * Invoices of every run are added to the invoice directory and journal. Running the same rentals again into the same
+ * directory therefore issues their invoices a second time with new numbers, and readers of the directory or journal
+ * count them twice: a replay must start from a clean {@code INVOICES_DIR} and {@code INVOICE_JOURNAL_DIR}.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public class InvoiceSequence {
+	/** The numbering mode with a single partition. */
+	public static final String GLOBAL = "GLOBAL";
+	/** The numbering mode with a partition for every issue date. */
+	public static final String DAILY = "DAILY";
+	/** The name of the partition in {@code GLOBAL} mode. */
+	private static final String GLOBAL_PARTITION = "global";
+	/** The number of invoice numbers reserved with a single save of the bounds. */
+	private static final long RESERVATION_BLOCK = 1000;
+	/** The format of the date prefix in {@code DAILY} mode. */
+	private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+	/** Indicates whether every issue date has its own partition. */
+	private final boolean daily;
+	/** The prefix of every number issued by this node, or an empty string. */
+	private final String nodePrefix;
+	/** The file in which the reserved bounds are saved, or {@code null} if they are not saved. */
+	private final File file;
+	/** The issued and reserved numbers of every partition. */
+	private final Map<String, Partition> partitions = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructs an invoice sequence and loads the saved bounds.
+	 *
+	 * @param mode the numbering mode, {@code GLOBAL} or {@code DAILY}; {@code null} means {@code GLOBAL}.
+	 * @param nodeID the ID of this node, or {@code null} or an empty string for no node prefix.
+	 * @param filePath the path to the file of the reserved bounds, or {@code null} if they are not saved.
+	 * @throws IllegalArgumentException if the mode is unknown.
+	 */
+	public InvoiceSequence(String mode, String nodeID, String filePath) {
+		if (mode != null && !mode.equalsIgnoreCase(GLOBAL) && !mode.equalsIgnoreCase(DAILY)) {
+			throw new IllegalArgumentException("Unknown invoice numbering mode: " + mode);
+		}
+		this.daily = DAILY.equalsIgnoreCase(mode);
+		this.nodePrefix = nodeID == null || nodeID.isBlank() ? "" : nodeID.trim() + "-";
+		this.file = filePath != null && !filePath.isBlank() ? new File(filePath) : null;
+		load();
+	}
+
+	/**
+	 * Issues the next invoice number.
+	 * If the number starts a new block, the block is reserved (and its bound saved) before the number is returned.
+	 *
+	 * @param issueDate the issue date of the invoice, which selects the partition in {@code DAILY} mode.
+	 * @return the invoice number, with the node and date prefix.
+	 * @throws IllegalStateException if the bound of a new block cannot be saved.
+	 */
+	public String next(LocalDate issueDate) {
+		String partitionName = daily ? issueDate.format(DAY_FORMAT) : GLOBAL_PARTITION;
+		Partition partition = partitions.computeIfAbsent(partitionName, key -> new Partition(0));
+		long number = partition.issued.incrementAndGet();
+		if (number > partition.reserved) {
+			reserve(partition, number);
+		}
+		return daily ? nodePrefix + partitionName + "-" + number : nodePrefix + number;
+	}
+
+	/**
+	 * Reserves the block that contains the specified number, unless another thread has already reserved it.
+	 * The new bound is saved before it is published, so no number above the saved bound is ever returned.
+	 *
+	 * @param partition the partition of the number.
+	 * @param number the issued number that is not covered by the reserved bound.
+	 * @throws IllegalStateException if the new bound cannot be saved.
+	 */
+	private synchronized void reserve(Partition partition, long number) {
+		if (number <= partition.reserved) {
+			return;
+		}
+		long bound = number - 1 + RESERVATION_BLOCK;
+		if (file != null) {
+			Properties properties = new Properties();
+			partitions.forEach((name, other) -> properties.setProperty(name, Long.toString(other == partition ? bound : other.reserved)));
+			try {
+				store(properties);
+			}
+			catch (IOException e) {
+				throw new IllegalStateException("Cannot save the reserved invoice numbers to " + file, e);
+			}
+		}
+		partition.reserved = bound;
+	}
+
+	/**
+	 * Saves the last issued number of every partition instead of its reserved bound, so the next run continues right
+	 * after it. It is called when the program ends; numbers issued afterwards reserve a new block first.
+	 */
+	public synchronized void saveIssued() {
+		if (file == null) {
+			return;
+		}
+		// Lowering the bounds first makes every number issued from now on wait for this method in reserve().
+		partitions.values().forEach(partition -> partition.reserved = partition.issued.get());
+		Map<Partition, Long> bounds = new HashMap<>();
+		Properties properties = new Properties();
+		partitions.forEach((name, partition) -> {
+			long bound = partition.issued.get();
+			bounds.put(partition, bound);
+			properties.setProperty(name, Long.toString(bound));
+		});
+		try {
+			store(properties);
+		}
+		catch (IOException e) {
+			e.printStackTrace();
+			return;
+		}
+		bounds.forEach((partition, bound) -> partition.reserved = bound);
+	}
+
+	/**
+	 * Writes the reserved bounds to a temporary file, syncs it to disk and moves it over the file atomically.
+	 *
+	 * @param properties the reserved bound of every partition.
+	 * @throws IOException if the file cannot be written.
+	 */
+	private void store(Properties properties) throws IOException {
+		File directory = file.getAbsoluteFile().getParentFile();
+		if (!directory.exists()) {
+			directory.mkdirs();
+		}
+		File temporary = new File(directory, file.getName() + ".tmp");
+		try (FileOutputStream out = new FileOutputStream(temporary)) {
+			properties.store(out, "Upper bound of the issued invoice numbers of every partition");
+			out.getFD().sync();
+		}
+		Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Loads the saved bounds, if the file exists. Every partition continues after its saved bound.
+	 */
+	private void load() {
+		if (file == null || !file.exists()) {
+			return;
+		}
+		Properties properties = new Properties();
+		try (InputStream in = new FileInputStream(file)) {
+			properties.load(in);
+		}
+		catch (IOException e) {
+			e.printStackTrace();
+			return;
+		}
+		for (String partition : properties.stringPropertyNames()) {
+			try {
+				partitions.put(partition, new Partition(Long.parseLong(properties.getProperty(partition).trim())));
+			}
+			catch (NumberFormatException e) {
+				System.out.println("Skipping invalid invoice sequence entry " + partition);
+			}
+		}
+	}
+
+	/**
+	 * The issued and reserved numbers of a partition.
+	 */
+	private static final class Partition {
+		/** The last issued number. */
+		private final AtomicLong issued;
+		/** The largest number covered by the saved bound; numbers up to it can be issued without saving. */
+		private volatile long reserved;
+
+		/**
+		 * Constructs a partition that continues after the specified bound.
+		 *
+		 * @param bound the saved bound of the partition, or 0 for a new partition.
+		 */
+		private Partition(long bound) {
+			this.issued = new AtomicLong(bound);
+			this.reserved = bound;
+		}
+	}
+}
@@ -0,0 +1,285 @@
+package epj2.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes invoices on a single dedicated thread, so rental threads never perform file I/O.
+ * Rental threads take an {@link InvoiceEntry} snapshot of an invoice and hand it over through a bounded queue; the writer
+ * thread collects invoices into a batch until it holds {@code flushSize} invoices or {@code flushIntervalMillis}
+ * have passed since the first one, and then writes the whole batch in one pass (group commit):
+ * the batch is appended to the {@link InvoiceJournal} with one sequential write, and, if text output is enabled,
+ * every invoice text file is written with a single write call.
+ *
+ * The writer thread is the only thread that writes files. The queue is bounded; when it is full, a rental thread
+ * neither waits nor writes the invoice itself, but adds it to an overflow list that the writer thread drains after the
+ * queue, so invoices are never dropped and are written in the order in which they were submitted. A warning is printed
+ * when the overflow list starts to fill, because it means that the disk cannot keep up with the rentals.
+ * Writers are created with {@link #start(String, InvoiceJournal, int, int, long, Runnable)}, which also starts the writer
+ * thread and registers a shutdown hook that flushes the remaining invoices and closes the journal.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public class InvoiceWriter {
+	/** The directory in which invoice text files are written, or {@code null} if text files are not written. */
+	private final File directory;
+	/** The journal to which invoices are appended, or {@code null} if there is no journal. */
+	private final InvoiceJournal journal;
+	/** The invoices waiting to be written, in the order in which they were submitted. */
+	private final BlockingQueue<PendingInvoice> queue;
+	/** The largest number of invoices written in one batch. */
+	private final int flushSize;
+	/** The longest time, in milliseconds, that an invoice waits for other invoices of its batch. */
+	private final long flushIntervalMillis;
+	/** The action run after every written batch, or {@code null}. */
+	private final Runnable batchWritten;
+	/** The invoices submitted while the queue was full, in the order in which they were submitted. Guarded by itself. */
+	private final ArrayDeque<PendingInvoice> overflow = new ArrayDeque<>();
+
+	/**
+	 * Constructs an invoice writer. The writer thread is started by {@link #start(String, InvoiceJournal, int, int, long, Runnable)}.
+	 *
+	 * @param directoryPath the path to the directory in which invoice text files are written, or {@code null} for no text files.
+	 * @param journal the journal to which invoices are appended, or {@code null} for no journal.
+	 * @param capacity the largest number of invoices waiting to be written.
+	 * @param flushSize the largest number of invoices written in one batch.
+	 * @param flushIntervalMillis the longest time, in milliseconds, that an invoice waits for other invoices of its batch.
+	 * @param batchWritten the action run on the writer thread after every written batch, or {@code null}.
+	 */
+	private InvoiceWriter(String directoryPath, InvoiceJournal journal, int capacity, int flushSize, long flushIntervalMillis,
+			Runnable batchWritten) {
+		this.directory = directoryPath != null ? new File(directoryPath) : null;
+		this.journal = journal;
+		this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+		this.flushSize = Math.max(1, flushSize);
+		this.flushIntervalMillis = Math.max(0, flushIntervalMillis);
+		this.batchWritten = batchWritten;
+	}
+
+	/**
+	 * Creates an invoice writer, starts its thread and registers a shutdown hook that flushes the remaining invoices
+	 * and closes the journal, so the index of its last segment is written.
+	 *
+	 * @param directoryPath the path to the directory in which invoice text files are written, or {@code null} for no text files.
+	 * @param journal the journal to which invoices are appended, or {@code null} for no journal.
+	 * @param capacity the largest number of invoices waiting to be written.
+	 * @param flushSize the largest number of invoices written in one batch.
+	 * @param flushIntervalMillis the longest time, in milliseconds, that an invoice waits for other invoices of its batch.
+	 * @param batchWritten the action run after every written batch, or {@code null}.
+	 * @return the started invoice writer.
+	 */
+	public static InvoiceWriter start(String directoryPath, InvoiceJournal journal, int capacity, int flushSize,
+			long flushIntervalMillis, Runnable batchWritten) {
+		InvoiceWriter writer = new InvoiceWriter(directoryPath, journal, capacity, flushSize, flushIntervalMillis, batchWritten);
+		Thread thread = new Thread(writer::run, "invoice-writer");
+		thread.setDaemon(true);
+		thread.start();
+		Runtime.getRuntime().addShutdownHook(new Thread(writer::shutdown, "invoice-writer-flush"));
+		return writer;
+	}
+
+	/**
+	 * Hands an invoice over to the writer thread without waiting.
+	 * If the queue is full, the invoice is added to the overflow list, which the writer thread drains after the queue.
+	 *
+	 * @param entry the snapshot of the invoice.
+	 */
+	public void submit(InvoiceEntry entry) {
+		enqueue(new PendingInvoice(entry, null));
+	}
+
+	/**
+	 * Waits until all invoices submitted before this call have been written.
+	 * It is called when the simulation is over and at shutdown, not by rental threads.
+	 */
+	public void flush() {
+		CountDownLatch written = new CountDownLatch(1);
+		enqueue(new PendingInvoice(null, written));
+		try {
+			written.await();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Writes the remaining invoices and closes the journal. Called by the shutdown hook.
+	 */
+	private void shutdown() {
+		flush();
+		if (journal != null) {
+			try {
+				journal.close();
+			}
+			catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Adds an invoice or a flush request to the queue, or to the overflow list if the queue is full or the overflow list
+	 * already holds earlier invoices, so the submission order is kept.
+	 *
+	 * @param invoice the invoice or flush request.
+	 */
+	private void enqueue(PendingInvoice invoice) {
+		synchronized (overflow) {
+			if (overflow.isEmpty() && queue.offer(invoice)) {
+				return;
+			}
+			if (overflow.isEmpty()) {
+				System.out.println("Warning: The invoice queue is full. Invoices are kept in memory until the writer catches up.");
+			}
+			overflow.add(invoice);
+		}
+	}
+
+	/**
+	 * Moves as many invoices as fit from the overflow list to the queue. Called only by the writer thread.
+	 */
+	private void drainOverflow() {
+		synchronized (overflow) {
+			while (!overflow.isEmpty() && queue.offer(overflow.peek())) {
+				overflow.poll();
+			}
+		}
+	}
+
+	/**
+	 * The loop of the writer thread: collects a batch of invoices and writes it, until the program ends.
+	 */
+	private void run() {
+		List<PendingInvoice> batch = new ArrayList<>(flushSize);
+		while (true) {
+			try {
+				collectBatch(batch);
+			}
+			catch (InterruptedException e) {
+				return;
+			}
+			writeBatch(batch);
+			batch.clear();
+		}
+	}
+
+	/**
+	 * Waits for the first invoice of a batch, and then adds invoices until the batch is full, the flush interval
+	 * has passed, or a flush has been requested.
+	 *
+	 * @param batch the list to which the invoices of the batch are added.
+	 * @throws InterruptedException if the writer thread is interrupted.
+	 */
+	private void collectBatch(List<PendingInvoice> batch) throws InterruptedException {
+		drainOverflow();
+		PendingInvoice invoice = queue.take();
+		batch.add(invoice);
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+		while (invoice.flushed == null && batch.size() < flushSize) {
+			long remaining = deadline - System.nanoTime();
+			drainOverflow();
+			invoice = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+			if (invoice == null) {
+				return;
+			}
+			batch.add(invoice);
+		}
+	}
+
+	/**
+	 * Writes all invoices of a batch, runs the batch action and releases the threads waiting for a flush.
+	 * An unexpected exception is printed instead of ending the writer thread, so later invoices are still written
+	 * and threads waiting for a flush are always released.
+	 *
+	 * @param batch the invoices of the batch, in the order in which they were submitted.
+	 */
+	private void writeBatch(List<PendingInvoice> batch) {
+		List<InvoiceEntry> entries = new ArrayList<>(batch.size());
+		for (PendingInvoice invoice : batch) {
+			if (invoice.entry != null) {
+				entries.add(invoice.entry);
+			}
+		}
+		try {
+			writeEntries(entries);
+			if (batchWritten != null) {
+				batchWritten.run();
+			}
+		}
+		catch (RuntimeException e) {
+			e.printStackTrace();
+		}
+		finally {
+			for (PendingInvoice invoice : batch) {
+				if (invoice.flushed != null) {
+					invoice.flushed.countDown();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Appends invoices to the journal and writes their text files, if these outputs are enabled.
+	 * Called only by the writer thread.
+	 *
+	 * @param entries the snapshots of the invoices, in the order in which they were submitted.
+	 */
+	private void writeEntries(List<InvoiceEntry> entries) {
+		if (entries.isEmpty()) {
+			return;
+		}
+		if (journal != null) {
+			try {
+				journal.append(entries);
+			}
+			catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+		if (directory != null) {
+			if (!directory.exists()) {
+				directory.mkdirs();
+			}
+			for (InvoiceEntry entry : entries) {
+				try {
+					Files.write(new File(directory, entry.getFileName()).toPath(), entry.toText().getBytes(Charset.defaultCharset()));
+				}
+				catch (IOException e) {
+					e.printStackTrace();
+				}
+			}
+		}
+	}
+
+	/**
+	 * An invoice waiting to be written, or a flush request.
+	 */
+	private static final class PendingInvoice {
+		/** The snapshot of the invoice, or {@code null} for a flush request. */
+		private final InvoiceEntry entry;
+		/** The latch released when all earlier invoices have been written, or {@code null} for an invoice. */
+		private final CountDownLatch flushed;
+
+		/**
+		 * Constructs a pending invoice or a flush request.
+		 *
+		 * @param entry the snapshot of the invoice, or {@code null} for a flush request.
+		 * @param flushed the latch of a flush request, or {@code null} for an invoice.
+		 */
+		private PendingInvoice(InvoiceEntry entry, CountDownLatch flushed) {
+			this.entry = entry;
+			this.flushed = flushed;
+		}
+	}
+}
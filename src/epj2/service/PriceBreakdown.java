@@ -0,0 +1,133 @@
+package epj2.service;
+
+/**
+ * The immutable result of pricing a single rental with a {@link PricingTable}.
+ * It contains every amount shown on the invoice, together with the pricing table it was calculated with,
+ * so that the invoice always shows the rates that were actually applied.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public final class PriceBreakdown {
+	/** The pricing table the prices were calculated with. */
+	private final PricingTable pricingTable;
+	/** The index of the zone of the rental. */
+	private final int zone;
+	/** The unit rental price of the vehicle. */
+	private final double unitPrice;
+	/** The base price (unit price multiplied by the duration), or 0.0 if the vehicle had a fault. */
+	private final double basePrice;
+	/** The price factor of the city area. */
+	private final double areaFactor;
+	/** The price for the city area. */
+	private final double distancePrice;
+	/** The discount amount, or 0.0 if no discount is applied. */
+	private final double discountAmount;
+	/** The promotion amount, or 0.0 if no promotion is applied. */
+	private final double promotionAmount;
+
+	/**
+	 * Constructs a new price breakdown.
+	 *
+	 * @param pricingTable the pricing table the prices were calculated with.
+	 * @param zone the index of the zone of the rental.
+	 * @param unitPrice the unit rental price of the vehicle.
+	 * @param basePrice the base price of the rental.
+	 * @param areaFactor the price factor of the city area.
+	 * @param distancePrice the price for the city area.
+	 * @param discountAmount the discount amount, or 0.0 if no discount is applied.
+	 * @param promotionAmount the promotion amount, or 0.0 if no promotion is applied.
+	 */
+	PriceBreakdown(PricingTable pricingTable, int zone, double unitPrice, double basePrice, double areaFactor, double distancePrice,
+			double discountAmount, double promotionAmount) {
+		this.pricingTable = pricingTable;
+		this.zone = zone;
+		this.unitPrice = unitPrice;
+		this.basePrice = basePrice;
+		this.areaFactor = areaFactor;
+		this.distancePrice = distancePrice;
+		this.discountAmount = discountAmount;
+		this.promotionAmount = promotionAmount;
+	}
+
+	/**
+	 * Returns the pricing table the prices were calculated with.
+	 *
+	 * @return the pricing table.
+	 */
+	public PricingTable getPricingTable() {
+		return pricingTable;
+	}
+
+	/**
+	 * Returns the index of the zone of the rental.
+	 *
+	 * @return the index of the zone.
+	 */
+	public int getZone() {
+		return zone;
+	}
+
+	/**
+	 * Returns the unit rental price of the vehicle.
+	 *
+	 * @return the unit price.
+	 */
+	public double getUnitPrice() {
+		return unitPrice;
+	}
+
+	/**
+	 * Returns the base price of the rental.
+	 *
+	 * @return the base price.
+	 */
+	public double getBasePrice() {
+		return basePrice;
+	}
+
+	/**
+	 * Returns the price factor of the city area.
+	 *
+	 * @return the area factor.
+	 */
+	public double getAreaFactor() {
+		return areaFactor;
+	}
+
+	/**
+	 * Returns the price for the city area.
+	 *
+	 * @return the distance price.
+	 */
+	public double getDistancePrice() {
+		return distancePrice;
+	}
+
+	/**
+	 * Returns the discount amount.
+	 *
+	 * @return the discount amount, or 0.0 if no discount is applied.
+	 */
+	public double getDiscountAmount() {
+		return discountAmount;
+	}
+
+	/**
+	 * Returns the promotion amount.
+	 *
+	 * @return the promotion amount, or 0.0 if no promotion is applied.
+	 */
+	public double getPromotionAmount() {
+		return promotionAmount;
+	}
+
+	/**
+	 * Returns the total rental price after applying the discount and promotion.
+	 *
+	 * @return the total price.
+	 */
+	public double getTotalPrice() {
+		return distancePrice - discountAmount - promotionAmount;
+	}
+}
@@ -1,48 +1,50 @@
 package epj2.service;
 
+import epj2.config.AppConfig;
+import epj2.config.PricingConfig;
 import epj2.model.vehicle.*;
-import epj2.util.PropertiesManager;
 
 /**
  * This class handles the financial calculations associated with the rental process
  * This class calculates rental prices for different types of vehicles, including the amounts for 
  * discounts and promotions.
+ * The pricing configuration of the {@link AppConfig} is turned into an immutable {@link PricingTable}; all methods
+ * use that snapshot instead of reading the properties file on every call. When the pricing configuration is reloaded,
+ * a new table is built the next time it is requested, while invoices that are being priced keep the table they already have.
  * 
  * @author Jelena Maletić
  * @version 1.9.2024.
  */
 public class PriceCalculation {
+	/** The snapshot of the pricing configuration used by all calculations. */
+	private static volatile PricingTable pricingTable;
+	
 	/**
-	 * Manages the properties configuration. This instance of {@link PropertiesManager}
-	 * is responsible for accessing the configuration settings stored in the properties file.
+	 * Returns the snapshot of the pricing configuration, which can be used to price one or more rentals in a single call.
+	 * If the pricing configuration has been reloaded since the table was built, a new table is built from it;
+	 * two threads may build the same table at the same time, but both tables have the same values.
+	 * 
+	 * @return the pricing table.
 	 */
-	private static PropertiesManager propertiesManager;
-	
-	 // Static block to initialize propertiesManager
-	static {
-		 propertiesManager = new PropertiesManager("rentalPricing.properties");
+	public static PricingTable getPricingTable() {
+		PricingConfig pricingConfig = AppConfig.get().getPricing();
+		PricingTable table = pricingTable;
+		if (table == null || !table.isBuiltFrom(pricingConfig)) {
+			table = PricingTable.load(pricingConfig);
+			pricingTable = table;
+		}
+		return table;
 	}
 	
     /**
-     * Determines the unit rental price of a vehicle based on its type using data from the properties file.
+     * Determines the unit rental price of a vehicle based on its type using the pricing table.
      * 
      * @param vehicle the vehicle for which the unit price is being calculated
      * @return the unit rental price for the specified vehicle type
      * @throws IllegalArgumentException if the vehicle type is unknown
      */
     public static double calculateUnitPrice(Vehicle vehicle) {
-        if (vehicle instanceof Car) {
-            return propertiesManager.getPropertyAsDouble("CAR_UNIT_PRICE");
-        } 
-        else if (vehicle instanceof Bike) {
-            return propertiesManager.getPropertyAsDouble("BIKE_UNIT_PRICE");
-        } 
-        else if (vehicle instanceof Scooter) {
-            return propertiesManager.getPropertyAsDouble("SCOOTER_UNIT_PRICE");
-        } 
-        else {
-            throw new IllegalArgumentException("Unknown vehicle type");
-        }
+        return getPricingTable().getUnitPrice(vehicle);
     }
     
     /**
@@ -61,21 +63,21 @@ public class PriceCalculation {
     }
     
     /**
-     * Returns the value of the price factor for the wide part of the city using data from the properties file.
+     * Returns the value of the price factor for the wide part of the city using the pricing table.
      * 
      * @return the price factor for the wide area
      */
     public static double getWideAreaFactor() {
-    	return propertiesManager.getPropertyAsDouble("DISTANCE_WIDE");
+    	return getPricingTable().getWideAreaFactor();
     }
     
     /**
-     * Returns the value of the price factor for the narrow part of the city using data from the properties file.
+     * Returns the value of the price factor for the narrow part of the city using the pricing table.
      * 
      * @return the price factor for the narrow area
      */
     public static double getNarrowAreaFactor() {
-    	return propertiesManager.getPropertyAsDouble("DISTANCE_NARROW");
+    	return getPricingTable().getNarrowAreaFactor();
     }
     
     /**
@@ -92,12 +94,12 @@ public class PriceCalculation {
     }
     
     /**
-     * Returns the discount percentage using data from the properties file.
+     * Returns the discount percentage using the pricing table.
      * 
      * @return the discount percentage
      */
     public static double getDiscountPercentage() {
-    	return propertiesManager.getPropertyAsDouble("DISCOUNT");
+    	return getPricingTable().getDiscountPercentage();
     }
     
     /**
@@ -115,12 +117,12 @@ public class PriceCalculation {
     }
     
     /**
-     * Returns the promotion percentage using data from the properties file.
+     * Returns the promotion percentage using the pricing table.
      * 
      * @return the promotion percentage
      */
     public static double getPromotionPercentage() {
-    	return propertiesManager.getPropertyAsDouble("DISCOUNT_PROM");
+    	return getPricingTable().getPromotionPercentage();
     }
     
     /**
@@ -0,0 +1,220 @@
+package epj2.service;
+
+import java.util.Map;
+
+import epj2.config.PricingConfig;
+import epj2.model.vehicle.*;
+import epj2.util.MapUtil;
+import epj2.util.ZoneMap;
+
+/**
+ * An immutable, typed snapshot of the rental pricing configuration.
+ * All prices and percentages are taken from the typed {@link PricingConfig}, and the unit price of a vehicle
+ * is found in a table indexed by the vehicle class instead of a chain of {@code instanceof} checks.
+ * The price factor of every zone of the {@link ZoneMap} comes from the {@code DISTANCE_<ZONE>} property
+ * (for example {@code DISTANCE_WIDE} and {@code DISTANCE_NARROW}) and is stored in an array indexed by zone.
+ * A snapshot can be shared by any number of threads.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public final class PricingTable {
+	/** The unit rental price of every vehicle class. */
+	private final Map<Class<? extends Vehicle>, Double> unitPrices;
+	/** The price factor of every zone of the city, indexed by zone. */
+	private final double[] areaFactors;
+	/** The index of the narrow area of the city. */
+	private final int narrowZone;
+	/** The discount percentage. */
+	private final double discountPercentage;
+	/** The promotion percentage. */
+	private final double promotionPercentage;
+	/** The pricing configuration the table was built from, or {@code null} if it was constructed directly. */
+	private final PricingConfig source;
+
+	/**
+	 * Constructs a new pricing table.
+	 *
+	 * @param unitPrices the unit rental price of every vehicle class.
+	 * @param areaFactors the price factor of every zone of the city, indexed by zone.
+	 * @param narrowZone the index of the narrow area of the city.
+	 * @param discountPercentage the discount percentage.
+	 * @param promotionPercentage the promotion percentage.
+	 */
+	public PricingTable(Map<Class<? extends Vehicle>, Double> unitPrices, double[] areaFactors, int narrowZone,
+			double discountPercentage, double promotionPercentage) {
+		this(unitPrices, areaFactors, narrowZone, discountPercentage, promotionPercentage, null);
+	}
+
+	/**
+	 * Constructs a new pricing table built from a pricing configuration.
+	 *
+	 * @param unitPrices the unit rental price of every vehicle class.
+	 * @param areaFactors the price factor of every zone of the city, indexed by zone.
+	 * @param narrowZone the index of the narrow area of the city.
+	 * @param discountPercentage the discount percentage.
+	 * @param promotionPercentage the promotion percentage.
+	 * @param source the pricing configuration the table is built from.
+	 */
+	private PricingTable(Map<Class<? extends Vehicle>, Double> unitPrices, double[] areaFactors, int narrowZone,
+			double discountPercentage, double promotionPercentage, PricingConfig source) {
+		this.unitPrices = Map.copyOf(unitPrices);
+		this.areaFactors = areaFactors.clone();
+		this.narrowZone = narrowZone;
+		this.discountPercentage = discountPercentage;
+		this.promotionPercentage = promotionPercentage;
+		this.source = source;
+	}
+
+	/**
+	 * Builds a pricing table from the pricing configuration, with a price factor for every zone of the city map.
+	 *
+	 * @param pricingConfig the rental pricing configuration.
+	 * @return the pricing table with the values of the configuration.
+	 */
+	public static PricingTable load(PricingConfig pricingConfig) {
+		return new PricingTable(Map.of(
+					Car.class, pricingConfig.getCarUnitPrice(),
+					Bike.class, pricingConfig.getBikeUnitPrice(),
+					Scooter.class, pricingConfig.getScooterUnitPrice()),
+				pricingConfig.getAreaFactors(),
+				MapUtil.getZoneMap().getNarrowZone(),
+				pricingConfig.getDiscountPercentage(),
+				pricingConfig.getPromotionPercentage(),
+				pricingConfig);
+	}
+
+	/**
+	 * Checks whether the table was built from the specified snapshot of the pricing configuration.
+	 *
+	 * @param pricingConfig the pricing configuration.
+	 * @return {@code true} if the table was built from exactly that snapshot; {@code false} otherwise.
+	 */
+	public boolean isBuiltFrom(PricingConfig pricingConfig) {
+		return source == pricingConfig;
+	}
+
+	/**
+	 * Returns the unit rental price of the specified vehicle.
+	 *
+	 * @param vehicle the vehicle for which the unit price is returned.
+	 * @return the unit rental price for the type of the vehicle.
+	 * @throws IllegalArgumentException if the vehicle type is unknown
+	 */
+	public double getUnitPrice(Vehicle vehicle) {
+		Double unitPrice = unitPrices.get(vehicle.getClass());
+		if (unitPrice == null) {
+			throw new IllegalArgumentException("Unknown vehicle type");
+		}
+		return unitPrice;
+	}
+
+	/**
+	 * Returns the price factor for the wide area of the city.
+	 *
+	 * @return the price factor for the wide area.
+	 */
+	public double getWideAreaFactor() {
+		return areaFactors[ZoneMap.DEFAULT_ZONE];
+	}
+
+	/**
+	 * Returns the price factor for the narrow area of the city.
+	 *
+	 * @return the price factor for the narrow area.
+	 */
+	public double getNarrowAreaFactor() {
+		return areaFactors[narrowZone];
+	}
+
+	/**
+	 * Returns the price factor of the specified zone of the city.
+	 *
+	 * @param zone the index of the zone.
+	 * @return the price factor of the zone.
+	 */
+	public double getAreaFactor(int zone) {
+		return areaFactors[zone];
+	}
+
+	/**
+	 * Returns the zone used for pricing a rental that only records whether it occurred in the wide area of the city.
+	 *
+	 * @param isWideArea {@code true} if the rental occurred in the wide area of the city.
+	 * @return the index of the wide or the narrow zone.
+	 */
+	public int getZone(boolean isWideArea) {
+		return isWideArea ? ZoneMap.DEFAULT_ZONE : narrowZone;
+	}
+
+	/**
+	 * Returns the discount percentage.
+	 *
+	 * @return the discount percentage.
+	 */
+	public double getDiscountPercentage() {
+		return discountPercentage;
+	}
+
+	/**
+	 * Returns the promotion percentage.
+	 *
+	 * @return the promotion percentage.
+	 */
+	public double getPromotionPercentage() {
+		return promotionPercentage;
+	}
+
+	/**
+	 * Calculates all prices of a single rental in one call.
+	 * The base price is the unit price multiplied by the duration, or 0.0 if the vehicle has a fault.
+	 * The distance price is the base price multiplied by the factor of the zone of the rental, and the discount and promotion
+	 * are percentages of the distance price, if they apply.
+	 *
+	 * @param vehicle the rented vehicle.
+	 * @param durationSeconds the duration of the rental in seconds.
+	 * @param zone the index of the zone of the rental.
+	 * @param hasDiscount {@code true} if the user is entitled to a discount.
+	 * @param hasPromotion {@code true} if a promotion applies to the rental.
+	 * @return the prices of the rental.
+	 */
+	public PriceBreakdown price(Vehicle vehicle, double durationSeconds, int zone, boolean hasDiscount, boolean hasPromotion) {
+		double unitPrice = getUnitPrice(vehicle);
+		double basePrice = vehicle.getFault() == null ? unitPrice * durationSeconds : 0.0;
+		double areaFactor = areaFactors[zone];
+		double distancePrice = basePrice * areaFactor;
+		double discountAmount = hasDiscount ? distancePrice * discountPercentage / 100.0 : 0.0;
+		double promotionAmount = hasPromotion ? distancePrice * promotionPercentage / 100.0 : 0.0;
+		return new PriceBreakdown(this, zone, unitPrice, basePrice, areaFactor, distancePrice, discountAmount, promotionAmount);
+	}
+
+	/**
+	 * Calculates the prices of a single rental in one call.
+	 *
+	 * @param rental the rental to be priced.
+	 * @param zone the index of the zone of the rental.
+	 * @return the prices of the rental.
+	 */
+	public PriceBreakdown price(Rental rental, int zone) {
+		return price(rental.getVehicle(), rental.getDurationSeconds(), zone, rental.getUser().ishasDiscount(), rental.isHasPromotion());
+	}
+
+	/**
+	 * Calculates the prices of several rentals in one call, all with the values of this snapshot.
+	 *
+	 * @param rentals the rentals to be priced.
+	 * @param zones the index of the zone of every rental.
+	 * @return the prices of every rental, in the same order as the rentals.
+	 * @throws IllegalArgumentException if the arrays have different lengths.
+	 */
+	public PriceBreakdown[] priceAll(Rental[] rentals, int[] zones) {
+		if (rentals.length != zones.length) {
+			throw new IllegalArgumentException("Every rental needs its city area");
+		}
+		PriceBreakdown[] prices = new PriceBreakdown[rentals.length];
+		for (int i = 0; i < rentals.length; i++) {
+			prices[i] = price(rentals[i], zones[i]);
+		}
+		return prices;
+	}
+}
@@ -1,22 +1,28 @@
 package epj2.service;
 
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Random;
-import epj2.gui.MapDisplay;
 import epj2.model.user.*;
 import epj2.model.vehicle.*;
+import epj2.simulation.PositionSink;
+import epj2.simulation.SimulationClock;
+import epj2.util.Route;
 
 /**
  * Represents a rental transaction in which a user rents a vehicle for a specified duration and route within the city.
  * This class handles the details of the rental, including the user, vehicle, 
  * start and end locations, duration, and any promotions applied.
- * This class extends {@link Thread} to allow the rental process to be executed concurrently in real-time.
+ * This class implements {@link Runnable} to allow the rental process to be executed concurrently in real-time
+ * as a task of a {@link epj2.simulation.RentalExecutor}.
+ * The individual steps of the rental are also exposed as methods, so that the rental can be driven
+ * by the {@link epj2.simulation.DiscreteEventSimulation} in virtual time.
  *
  * @author Jelena Maletić
  * @version 2.9.2024.
  */
-public class Rental extends Thread {
+public class Rental implements Runnable {
+	/** The time (in seconds) a vehicle needs to charge its battery, in addition to the time spent in the cell. */
+	public static final double CHARGING_SECONDS = 2.0;
 	/** The date and time when the rental begins. */
 	private LocalDateTime dateTime;
 	/** The user who has rented a vehicle */
@@ -31,12 +37,22 @@ public class Rental extends Thread {
     private double durationSeconds;
     /** Indicates whether the rental includes a promotion. */
     private boolean hasPromotion;
-    /** The display map used to visualize the rental route. */
-    private MapDisplay mapDisplay;
+    /** The sink that receives the positions of the vehicle, such as the map display used to visualize the rental route. */
+    private PositionSink positionSink;
     /** Indicates whether a fault occurred during the rental. */
     private boolean faultOccurred = false;
     /** Vehicle that had a fault*/
     private Vehicle faultyVehicle;
+    /** The clock that maps the virtual time of the rental to wall-clock time. */
+    private SimulationClock clock = new SimulationClock(1.0);
+    /** The path the vehicle takes from the start to the end location. */
+    private Route path;
+    /** The time (in seconds) the vehicle spends in each cell of the path. */
+    private double timePerCell;
+    /** The index of the cell in the path at which a fault may occur. */
+    private int faultIndex;
+    /** The index of the last cell of the path the vehicle entered, or -1 if it has not entered any cell yet. */
+    private int lastIndex = -1;
     
     /**
      * Constructs a Rental object with the specified parameters.
@@ -186,21 +202,40 @@ public class Rental extends Thread {
 	}
 	
 	/**
-	 * Returns the map display associated with the rental.
+	 * Returns the sink that receives the positions of the vehicle during the rental.
 	 * 
-	 * @return the map display for the rental.
+	 * @return the position sink for the rental.
 	 */
-	public MapDisplay getMapDisplay() {
-		return mapDisplay;
+	public PositionSink getPositionSink() {
+		return positionSink;
 	}
 	
 	/**
-	 * Sets the map display associated with the rental.
+	 * Sets the sink that receives the positions of the vehicle during the rental,
+	 * such as the map display or a metrics sink for headless runs.
 	 * 
-	 * @param mapDisplay the map display for the rental.
+	 * @param positionSink the position sink for the rental.
 	 */
-	public void setMapDisplay(MapDisplay mapDisplay) {
-		this.mapDisplay = mapDisplay;
+	public void setPositionSink(PositionSink positionSink) {
+		this.positionSink = positionSink;
+	}
+	
+	/**
+	 * Returns the clock that maps the virtual time of the rental to wall-clock time.
+	 * 
+	 * @return the clock of the rental.
+	 */
+	public SimulationClock getClock() {
+		return clock;
+	}
+	
+	/**
+	 * Sets the clock that maps the virtual time of the rental to wall-clock time.
+	 * 
+	 * @param clock the clock of the rental.
+	 */
+	public void setClock(SimulationClock clock) {
+		this.clock = clock;
 	}
 	
 	/**
@@ -222,22 +257,126 @@ public class Rental extends Thread {
 	}
 	
 	/**
-	 * Defines the code to be executed when the thread starts.
+	 * Plans the route of the rental.
+	 * Calculates the path the vehicle will take from the starting location to the ending location,
+	 * determines the time required to traverse each cell in the path and randomly selects
+	 * a point in the path where a fault may occur.
+	 */
+	public void beginRoute() {
+	    path = vehicle.findPath(startLocation, endLocation);
+	    timePerCell = vehicle.calculateTimePerCell(path, durationSeconds);
+	    Random random = new Random();
+	    faultIndex = random.nextInt(path.length() - 1) + 1;
+	    lastIndex = -1;
+	}
+	
+	/**
+	 * Returns the number of cells in the planned route.
+	 * 
+	 * @return the number of cells in the route.
+	 */
+	public int getRouteLength() {
+		return path.length();
+	}
+	
+	/**
+	 * Returns the time (in seconds) the vehicle spends in each cell of the planned route.
+	 * 
+	 * @return the time per cell in seconds.
+	 */
+	public double getTimePerCell() {
+		return timePerCell;
+	}
+	
+	/**
+	 * Moves the vehicle into the cell of the route with the specified index and updates its position in the position sink.
+	 * The distance covered by bikes is increased, so that their battery level can be properly updated.
+	 * 
+	 * @param index the index of the cell in the route.
+	 * @return {@code true} if the battery level is at or below 20% and the vehicle must stop to charge, {@code false} otherwise.
+	 */
+	public boolean enterCell(int index) {
+		positionSink.updateVehiclePosition(path.x(index), path.y(index), vehicle.getID(), vehicle.getCurrentBatteryLevel());
+		lastIndex = index;
+		if(vehicle instanceof Bike) {
+			((Bike) vehicle).setDistanceCovered(((Bike) vehicle).getDistanceCovered() + 1);
+		}
+		if (vehicle.getCurrentBatteryLevel() <= 20) {
+			System.out.println("Vehicle " + vehicle.getID() + " stopped to charge the battery");
+			return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Charges the battery of the vehicle after it has stopped to charge.
+	 */
+	public void chargeBattery() {
+		vehicle.chargingBattery();
+	}
+	
+	/**
+	 * Moves the vehicle out of the cell of the route with the specified index.
+	 * The battery level is decreased and, unless the vehicle breaks down in this cell, its position is cleared from the position sink.
+	 * 
+	 * @param index the index of the cell in the route.
+	 * @return {@code false} if the vehicle breaks down in this cell, {@code true} otherwise.
+	 */
+	public boolean leaveCell(int index) {
+		vehicle.decreaseBatteryLevel();
+		if (vehicle.getFault() != null && (index + 1 == faultIndex)) {
+			return false;
+		}
+		positionSink.clearVehiclePosition(path.x(index), path.y(index));
+		return true;
+	}
+	
+	/**
+	 * Records the fault of the vehicle in the cell of the route with the specified index.
+	 * 
+	 * @param index the index of the cell in the route.
+	 */
+	public void breakDown(int index) {
+		LocalDateTime faultTime = dateTime.plusSeconds((long) ((index + 1) * timePerCell));
+		vehicle.getFault().setDateTime(faultTime);
+		System.out.println("Vehicle " + vehicle.getID() + " broke down at position (" + path.x(index) + ", " + path.y(index) + ").");
+		faultOccurred = true;
+		faultyVehicle = vehicle;
+	}
+	
+	/**
+	 * Finishes the rental.
+	 * After the vehicle completes its movement, it checks whether it has traveled through the wider area of the city. 
+	 * A bill is then generated and delivered to the user. Additionally, a message is printed to the console indicating that 
+	 * the vehicle has finished its movement.
+	 */
+	public void finish() {
+	    if (faultOccurred && lastIndex >= 0) {
+	        positionSink.clearVehiclePosition(path.x(lastIndex), path.y(lastIndex));
+	    }
+	    int zone = path.zone();
+	    Invoice invoice = new Invoice(this);
+	    invoice.generateInvoice(zone);
+	    if (!faultOccurred) {
+	        System.out.println("Vehicle " + vehicle.getID() + " has reached the final position.");
+	    }
+	}
+	
+	/**
+	 * Defines the code to be executed when the rental task runs.
 	 * This method includes the logic for the rental process simulation, which will
-	 * run concurrently with other threads, managing tasks as specified in the implementation.
+	 * run concurrently with other rentals, managing tasks as specified in the implementation.
 	 * It executes the rental simulation by moving the vehicle along the path from start to end location.
 	 * This method performs the following actions:
-	 * -Calculates the path the vehicle will take from the starting location to the ending location.
-	 * -Determines the time required to traverse each cell in the path.
-	 * -Randomly selects a point in the path where a fault may occur.
-	 * -Iterates through the path, updating the vehicle's position on the map display.
+	 * -Plans the route of the rental (see {@link #beginRoute()}).
+	 * -Iterates through the path, updating the vehicle's position in the position sink.
 	 * -Simulates the vehicle's movement, adjusting the battery level and handling the charging process if necessary.
 	 * -Checks if the vehicle encounters a fault at any point in the path and updates the fault information.
-	 * -After the vehicle completes its movement, it checks whether it has traveled through the wider area of the city. 
-	 * -A bill is then generated and delivered to the user. Additionally, a message is printed to the console indicating that 
-	 *  the vehicle has finished its movement.
+	 * -Finishes the rental (see {@link #finish()}).
 	 *  
 	 * During execution:
+	 * -The time spent in each cell is measured by the simulation clock, which maps the virtual time of the rental
+	 *  to wall-clock time (real time, N times faster, or as fast as possible).
 	 * -If the vehicle's battery level drops below or equals 20%, it pauses for a charging period before continuing.
 	 * -The simulation takes into account the distance covered for bikes to properly update their battery level.
 	 * -The method captures the last position of the vehicle for proper display updates and fault handling.
@@ -245,56 +384,21 @@ public class Rental extends Thread {
 	 */
 	@Override
 	public void run() {
-	    List<int[]> path = vehicle.findPath(startLocation, endLocation);
-	    double timePerCell = vehicle.calculateTimePerCell(path, durationSeconds);
-	    Random random = new Random();
-	    int faultIndex = random.nextInt(path.size() - 1) + 1;
-	    int[] lastPosition = null; 
-	    for (int i = 0; i < path.size(); i++) {
-	        int[] position = path.get(i);
-	        int x = position[0];
-	        int y = position[1];
-	        mapDisplay.updateVehiclePosition(x, y, vehicle.getID(), vehicle.getCurrentBatteryLevel());
-	        lastPosition = position;
-	        if(vehicle instanceof Bike) {
-	        	((Bike) vehicle).setDistanceCovered(((Bike) vehicle).getDistanceCovered() + 1);
+	    beginRoute();
+	    for (int i = 0; i < path.length(); i++) {
+	        if (enterCell(i)) {
+	            clock.pause(timePerCell + CHARGING_SECONDS);
+	            chargeBattery();
 	        }
-	        if (vehicle.getCurrentBatteryLevel() <= 20) {
-	        	System.out.println("Vehicle " + vehicle.getID() + " stopped to charge the battery");
-	            try {
-	                Thread.sleep((long) (timePerCell * 1000) + 2000); 
-	            } catch (InterruptedException e) {
-	                e.printStackTrace();
-	            }
-	            vehicle.chargingBattery();
-	        } 
 	        else {
-	        	try {
-	                Thread.sleep((long) (timePerCell * 1000)); 
-	            } catch (InterruptedException e) {
-	                e.printStackTrace();
-	            }
+	            clock.pause(timePerCell);
 	        }
-	        vehicle.decreaseBatteryLevel();
-	        if (vehicle.getFault()!=null && (i + 1 == faultIndex)) {
-	            LocalDateTime faultTime = dateTime.plusSeconds((long) ((i + 1) * timePerCell));
-	            vehicle.getFault().setDateTime(faultTime);
-	            System.out.println("Vehicle " + vehicle.getID() + " broke down at position (" + x + ", " + y + ").");
-	            faultOccurred = true;
-	            faultyVehicle = vehicle;
-	            break; 
+	        if (!leaveCell(i)) {
+	            breakDown(i);
+	            break;
 	        }
-	        mapDisplay.clearVehiclePosition(x, y); 
-	    }
-	    if (faultOccurred && lastPosition != null) {
-	        mapDisplay.clearVehiclePosition(lastPosition[0], lastPosition[1]);
-	    }
-	    boolean isWideArea = vehicle.isPathInWideArea(startLocation, endLocation);
-	    Invoice invoice = new Invoice(this);
-	    invoice.generateInvoice(isWideArea);
-	    if (!faultOccurred) {
-	        System.out.println("Vehicle " + vehicle.getID() + " has reached the final position.");
 	    }
+	    finish();
 	}
 	
 }
@@ -6,10 +6,11 @@ import java.io.*;
 import java.util.List;
 import java.util.Map;
 import java.util.LinkedHashMap;
-import java.util.stream.Collectors;
 
+import epj2.config.AppConfig;
+import epj2.config.ReportConfig;
 import epj2.model.vehicle.*;
-import epj2.util.*;
+import epj2.service.InvoiceRecord;
 
 /**
  * A concrete implementation of the {@link Report} class that generates the daily reports.
@@ -17,6 +18,8 @@ import epj2.util.*;
  * calculates relevant values, and generates daily reports in the form of a text file.
  * The reports also can be displayed on a graphical user interface (GUI), as there are methods available
  * to retrieve and format report data.
+ * If {@code DAILY_ROLLUP_FILE} is set, the totals of the days of the run replace those days in the persistent {@link DailyRollup},
+ * and only the reports of those days are written again; the reports of all other days are left as they are.
  * 
  * @author Jelena Maletić
  * @version 31.8.2024. 
@@ -28,23 +31,36 @@ public class DailyReport extends Report {
 	 * and {@link String} as the value to store the report data for that date.
 	 */
     private Map<LocalDate, String> reportData;
+    /** The persistent daily rollup file, or {@code null} if there is no rollup. */
+    private File rollupFile;
+    
     /**
-   	 * Manages the properties file used by the DailyReport class.
-   	 * This instance is used to load directory path for storing files with daily reports.
-   	 */
-    private PropertiesManager propertiesManagerDR;
+     * Constructs a new {@link DailyReport} instance, collects reports data, and generates the reports.
+     *
+     * @param vehicles a map containing vehicle data, where the key is the vehicle ID and the value is the {@link Vehicle} object.
+     * @param invoices a list of {@link InvoiceRecord} objects representing the issued invoices.
+     */
+    public DailyReport(Map<String, Vehicle> vehicles, List<InvoiceRecord> invoices) {
+        this(vehicles, invoices, null);
+    }
     
     /**
-     * Constructs a new {@link DailyReport} instance, initializes the properties manager 
-     * (used to load directory path for storing daily reports), collects reports data, and generates the reports.
+     * Constructs a new {@link DailyReport} instance as a view over an already computed aggregate of the invoices.
      *
      * @param vehicles a map containing vehicle data, where the key is the vehicle ID and the value is the {@link Vehicle} object.
-     * @param invoices a list of {@link InvoiceParser} objects representing the parsed invoice data.
+     * @param invoices a list of {@link InvoiceRecord} objects representing the issued invoices.
+     * @param aggregate the aggregate of the invoices, or {@code null} if it should be computed from the invoices.
      */
-    public DailyReport(Map<String, Vehicle> vehicles, List<InvoiceParser> invoices) {
-        super(vehicles, invoices);
-        propertiesManagerDR = new PropertiesManager("filePaths.properties");
-        reportData = collectReportData();  
+    public DailyReport(Map<String, Vehicle> vehicles, List<InvoiceRecord> invoices, ReportAggregate aggregate) {
+        super(vehicles, invoices, aggregate);
+        String rollupPath = AppConfig.get().getFiles().getDailyRollupFile();
+        if (rollupPath != null) {
+        	rollupFile = new File(rollupPath);
+        	reportData = updateRollup(rollupPath, getAggregate());
+        }
+        else {
+        	reportData = collectReportData(getAggregate());
+        }
         generateReport();  
     }
 
@@ -59,7 +75,7 @@ public class DailyReport extends Report {
      */
     @Override
     protected void generateReport() {
-    	String dailyReportsPath = propertiesManagerDR.getProperty("DAILY_REPORTS_DIR");
+    	String dailyReportsPath = AppConfig.get().getFiles().getDailyReportsDir();
         File reportsDir = new File(dailyReportsPath);
         if (!reportsDir.exists()) {
             reportsDir.mkdirs();
@@ -81,35 +97,62 @@ public class DailyReport extends Report {
     /**
      * Collects and formats the daily reports data into a map that uses {@link LocalDate} as the key 
      * to represent the date of the report entry and {@link String} as the value to store the report data for that date.
-     * The function first categorizes all parsed invoices by date and then generates a report for each date based on this categorization.
+     * The function reads the totals of every date from an aggregate and generates a report for each date, so the report data
+     * can also be formatted from a {@link LiveReportAggregate} snapshot while the simulation is running, without writing report files.
      * 
+     * @param aggregate the aggregate of the invoices.
      * @return a map containing the formatted report data categorized by date.
      */
-    private Map<LocalDate, String> collectReportData() {
-        Map<LocalDate, List<InvoiceParser>> invoicesByDate = invoices.stream()
-            .collect(Collectors.groupingBy(invoice -> invoice.getIssueDate().toLocalDate()));
-        
+    public static Map<LocalDate, String> collectReportData(ReportAggregate aggregate) {
         Map<LocalDate, String> reportData = new LinkedHashMap<>();
 
-        for (LocalDate date : invoicesByDate.keySet()) {
-            List<InvoiceParser> dailyInvoices = invoicesByDate.get(date);
-
-            StringBuilder reportContent = new StringBuilder();
-            reportContent.append("Date: ").append(date.format(DateTimeFormatter.ofPattern("dd.MM.yyyy"))).append("\n");
-            reportContent.append("Total revenue: ").append(calculateTotalRevenue(dailyInvoices)).append(" EUR\n");
-            reportContent.append("Total discount: ").append(calculateTotalDiscount(dailyInvoices)).append(" EUR\n");
-            reportContent.append("Total promotion amount: ").append(calculateTotalPromotion(dailyInvoices)).append(" EUR\n");
-            reportContent.append("Total amount for wide city area: ").append(calculateCityAreaTotals(dailyInvoices, "wide city area")).append(" EUR\n");
-            reportContent.append("Total amount for narrow city area: ").append(calculateCityAreaTotals(dailyInvoices, "narrow city area")).append(" EUR\n");
-            reportContent.append("Total maintenance cost: ").append(calculateMaintenanceCost(dailyInvoices)).append(" EUR\n");
-            reportContent.append("Total repair cost: ").append(calculateRepairCost(dailyInvoices)).append(" EUR\n");
-
-            reportData.put(date, reportContent.toString());
+        for (Map.Entry<LocalDate, ReportTotals> entry : aggregate.getTotalsByDate().entrySet()) {
+            reportData.put(entry.getKey(), formatReport(entry.getKey(), entry.getValue()));
         }
 
         return reportData;
     }
     
+    /**
+     * Replaces the totals of the days of this run in the persistent daily rollup and formats the reports of those days.
+     * Days without invoices in this run are neither changed nor formatted.
+     * 
+     * @param rollupPath the path to the rollup file.
+     * @param aggregate the aggregate of the invoices of this run.
+     * @return a map containing the formatted report data of the days of this run.
+     */
+    private static Map<LocalDate, String> updateRollup(String rollupPath, ReportAggregate aggregate) {
+    	DailyRollup rollup = DailyRollup.load(rollupPath);
+    	rollup.replaceDays(aggregate.getTotalsByDate());
+    	rollup.save();
+        Map<LocalDate, String> reportData = new LinkedHashMap<>();
+        for (LocalDate date : aggregate.getTotalsByDate().keySet()) {
+        	reportData.put(date, formatReport(date, rollup.getTotals(date)));
+        }
+        return reportData;
+    }
+    
+    /**
+     * Formats the report of a single day.
+     * 
+     * @param date the date of the report.
+     * @param dailyTotals the totals of the invoices of the day.
+     * @return the formatted report data of the day.
+     */
+    public static String formatReport(LocalDate date, ReportTotals dailyTotals) {
+        ReportConfig reportConfig = AppConfig.get().getReports();
+        StringBuilder reportContent = new StringBuilder();
+        reportContent.append("Date: ").append(date.format(DateTimeFormatter.ofPattern("dd.MM.yyyy"))).append("\n");
+        reportContent.append("Total revenue: ").append(dailyTotals.getRevenue()).append(" EUR\n");
+        reportContent.append("Total discount: ").append(dailyTotals.getDiscount()).append(" EUR\n");
+        reportContent.append("Total promotion amount: ").append(dailyTotals.getPromotion()).append(" EUR\n");
+        reportContent.append("Total amount for wide city area: ").append(dailyTotals.getWideAreaRevenue()).append(" EUR\n");
+        reportContent.append("Total amount for narrow city area: ").append(dailyTotals.getNarrowAreaRevenue()).append(" EUR\n");
+        reportContent.append("Total maintenance cost: ").append(calculateMaintenanceCost(dailyTotals, reportConfig)).append(" EUR\n");
+        reportContent.append("Total repair cost: ").append(dailyTotals.getRepairCost()).append(" EUR\n");
+        return reportContent.toString();
+    }
+    
     /**
      * Returns the collected report data as a map that uses {@link LocalDate} as the key 
      * to represent the date of the report entry and {@link String} as the value to store the report data for that date.
@@ -119,4 +162,13 @@ public class DailyReport extends Report {
     public Map<LocalDate, String> getReportData() {
         return reportData;
     }
+    
+    /**
+     * Returns the persistent daily rollup file that the reports of this run were written into.
+     * 
+     * @return the rollup file, or {@code null} if there is no rollup.
+     */
+    public File getRollupFile() {
+        return rollupFile;
+    }
 }
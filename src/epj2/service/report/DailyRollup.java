@@ -0,0 +1,214 @@
+package epj2.service.report;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A persistent rollup of the daily report totals, so that past days do not have to be computed again from their invoices.
+ * The rollup is a compact binary file with one fixed-size record per day, sorted by date:
+ * the date (epoch day), the number of invoices and of invoices with a fault, and the revenue, discount, promotion,
+ * wide and narrow area revenue and repair cost of the day. The maintenance cost is derived from the revenue, as in every report.
+ *
+ * Every run {@link #replaceDays(Map) replaces} the totals of the days on which it issued invoices with the totals of its
+ * invoices; all other days are left as they are. A run is expected to contain all rentals of every date it covers (the
+ * rentals file holds whole days), so the totals of the run are the complete totals of those days. Replacing instead of
+ * adding makes the update idempotent: running the same rentals again leaves the rollup unchanged, and the daily
+ * reports agree with the summary report of the run. Because the records are sorted and have a fixed size, a {@link #readRange(File, LocalDate, LocalDate)}
+ * maps the file and finds the first day of the range with a binary search, so only the requested days are decoded.
+ * The file is written to a temporary file first and then moved over the old one, so an interrupted write never
+ * leaves a partial rollup behind.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public class DailyRollup {
+	/** The magic number at the start of a rollup file ("EPJD"). */
+	public static final int MAGIC = 0x45504A44;
+	/** The version of the record layout. */
+	public static final int VERSION = 1;
+	/** The size of the file header: magic, version, record size and a reserved int. */
+	private static final int HEADER_SIZE = 16;
+	/** The size of a record: the epoch day, two counts and the sum of every metric. */
+	private static final int RECORD_SIZE = 8 + 4 + 4 + ReportTotals.METRIC_COUNT * 8;
+	/** The rollup file. */
+	private final File file;
+	/** The totals of every day, sorted by date. */
+	private final TreeMap<LocalDate, ReportTotals> totalsByDate;
+
+	/**
+	 * Constructs a rollup with the specified totals.
+	 *
+	 * @param file the rollup file.
+	 * @param totalsByDate the totals of every day, sorted by date.
+	 */
+	private DailyRollup(File file, TreeMap<LocalDate, ReportTotals> totalsByDate) {
+		this.file = file;
+		this.totalsByDate = totalsByDate;
+	}
+
+	/**
+	 * Loads the whole rollup from a file. A missing or invalid file is treated as an empty rollup.
+	 *
+	 * @param filePath the path to the rollup file.
+	 * @return the rollup.
+	 */
+	public static DailyRollup load(String filePath) {
+		File file = new File(filePath);
+		return new DailyRollup(file, readRange(file, LocalDate.MIN, LocalDate.MAX));
+	}
+
+	/**
+	 * Replaces the totals of the days of a run with the totals of the run. Days that the run did not touch are not changed.
+	 *
+	 * @param runTotalsByDate the totals of the invoices of the run by the date on which they were issued,
+	 *                        which are the complete totals of those days.
+	 */
+	public void replaceDays(Map<LocalDate, ReportTotals> runTotalsByDate) {
+		totalsByDate.putAll(runTotalsByDate);
+	}
+
+	/**
+	 * Returns the totals of a single day.
+	 *
+	 * @param date the date.
+	 * @return the totals of the day, or {@code null} if there were no invoices on that day.
+	 */
+	public ReportTotals getTotals(LocalDate date) {
+		return totalsByDate.get(date);
+	}
+
+	/**
+	 * Writes the rollup to its file.
+	 */
+	public void save() {
+		File directory = file.getAbsoluteFile().getParentFile();
+		if (!directory.exists()) {
+			directory.mkdirs();
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + totalsByDate.size() * RECORD_SIZE);
+		buffer.putInt(MAGIC).putInt(VERSION).putInt(RECORD_SIZE).putInt(0);
+		for (Map.Entry<LocalDate, ReportTotals> entry : totalsByDate.entrySet()) {
+			ReportTotals totals = entry.getValue();
+			buffer.putLong(entry.getKey().toEpochDay());
+			buffer.putInt(totals.getInvoiceCount());
+			buffer.putInt(totals.getFaultCount());
+			for (int metric = 0; metric < ReportTotals.METRIC_COUNT; metric++) {
+				buffer.putDouble(totals.get(metric));
+			}
+		}
+		File temporary = new File(directory, file.getName() + ".tmp");
+		try {
+			Files.write(temporary.toPath(), buffer.array());
+			Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Reads the totals of all days in a range from a rollup file, without decoding the days outside the range.
+	 *
+	 * @param file the rollup file.
+	 * @param from the first date (inclusive).
+	 * @param to the last date (inclusive).
+	 * @return the totals of every day in the range that has invoices, sorted by date; empty if the file is missing or invalid.
+	 */
+	public static TreeMap<LocalDate, ReportTotals> readRange(File file, LocalDate from, LocalDate to) {
+		TreeMap<LocalDate, ReportTotals> totals = new TreeMap<>();
+		MappedByteBuffer buffer = map(file);
+		if (buffer == null) {
+			return totals;
+		}
+		long fromDay = from.equals(LocalDate.MIN) ? Long.MIN_VALUE : from.toEpochDay();
+		long toDay = to.equals(LocalDate.MAX) ? Long.MAX_VALUE : to.toEpochDay();
+		int count = (buffer.capacity() - HEADER_SIZE) / RECORD_SIZE;
+		for (int record = findFirst(buffer, count, fromDay); record < count; record++) {
+			int offset = HEADER_SIZE + record * RECORD_SIZE;
+			long day = buffer.getLong(offset);
+			if (day > toDay) {
+				break;
+			}
+			double[] sums = new double[ReportTotals.METRIC_COUNT];
+			for (int metric = 0; metric < sums.length; metric++) {
+				sums[metric] = buffer.getDouble(offset + 16 + metric * 8);
+			}
+			totals.put(LocalDate.ofEpochDay(day), new ReportTotals(sums, buffer.getInt(offset + 8), buffer.getInt(offset + 12)));
+		}
+		return totals;
+	}
+
+	/**
+	 * Returns the last date in a rollup file.
+	 *
+	 * @param file the rollup file.
+	 * @return the last date, or {@code null} if the file is missing, invalid or empty.
+	 */
+	public static LocalDate getLastDate(File file) {
+		MappedByteBuffer buffer = map(file);
+		if (buffer == null) {
+			return null;
+		}
+		int count = (buffer.capacity() - HEADER_SIZE) / RECORD_SIZE;
+		return count > 0 ? LocalDate.ofEpochDay(buffer.getLong(HEADER_SIZE + (count - 1) * RECORD_SIZE)) : null;
+	}
+
+	/**
+	 * Finds the first record on or after a day with a binary search.
+	 *
+	 * @param buffer the mapped rollup file.
+	 * @param count the number of records.
+	 * @param day the epoch day.
+	 * @return the number of the first record on or after the day, or {@code count} if there is none.
+	 */
+	private static int findFirst(MappedByteBuffer buffer, int count, long day) {
+		int low = 0;
+		int high = count;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (buffer.getLong(HEADER_SIZE + middle * RECORD_SIZE) < day) {
+				low = middle + 1;
+			}
+			else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Maps a rollup file into memory and checks its header.
+	 *
+	 * @param file the rollup file.
+	 * @return the mapped file, or {@code null} if it does not exist, cannot be read or is not a valid rollup.
+	 */
+	private static MappedByteBuffer map(File file) {
+		if (!file.exists()) {
+			return null;
+		}
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			if (channel.size() < HEADER_SIZE) {
+				return null;
+			}
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(8) != RECORD_SIZE) {
+				System.out.println("Skipping invalid daily rollup " + file.getName());
+				return null;
+			}
+			return buffer;
+		}
+		catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+}
@@ -0,0 +1,198 @@
+package epj2.service.report;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import epj2.config.AppConfig;
+import epj2.model.vehicle.*;
+import epj2.service.InvoiceLedger;
+import epj2.service.InvoiceRecord;
+
+/**
+ * Keeps the totals of all reports up to date while invoices are being issued.
+ * It is registered as a listener of the {@link InvoiceLedger}, and every published invoice is added to the totals of
+ * the same keys as in a {@link ReportAggregate} (the whole business, the day, the city zone, the vehicle type and the vehicle).
+ * The totals of every key are split into stripes of compensated (Kahan) sums, so rental threads that issue invoices
+ * at the same time mostly update separate stripes, and the totals keep the precision of a {@link ReportAggregate}.
+ *
+ * A {@link #snapshot()} can be taken at any moment, also while the simulation is running, and reports are generated
+ * from it without scanning the invoices again. Invoices are added under the read lock of a {@link ReadWriteLock}
+ * and snapshots are taken under its write lock, so every invoice is either included in all totals of a snapshot or in none.
+ * Because the invoices are summed in a different order, a snapshot can still differ from a recomputation over the same
+ * invoices by rounding in the last digit, which the report formatting does not show.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public class LiveReportAggregate implements Consumer<InvoiceRecord> {
+	/** A map containing vehicle data, where the key is the vehicle ID and the value is the {@link Vehicle} object. */
+	private final Map<String, Vehicle> vehicles;
+	/** The totals of all invoices. */
+	private final LiveTotals total = new LiveTotals();
+	/** The totals of invoices by the date on which they were issued. */
+	private final Map<LocalDate, LiveTotals> totalsByDate = new ConcurrentHashMap<>();
+	/** The totals of invoices by city zone. */
+	private final Map<String, LiveTotals> totalsByZone = new ConcurrentHashMap<>();
+	/** The totals of invoices by the type of the rented vehicle. */
+	private final Map<Class<? extends Vehicle>, LiveTotals> totalsByVehicleType = new ConcurrentHashMap<>();
+	/** The totals of invoices by the ID of the rented vehicle. */
+	private final Map<String, LiveTotals> totalsByVehicle = new ConcurrentHashMap<>();
+	/** The lock whose read lock is held while an invoice is added and whose write lock is held while a snapshot is taken. */
+	private final ReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+
+	/**
+	 * Constructs an empty live aggregate.
+	 *
+	 * @param vehicles a map containing vehicle data, where the key is the vehicle ID and the value is the {@link Vehicle} object.
+	 */
+	public LiveReportAggregate(Map<String, Vehicle> vehicles) {
+		this.vehicles = vehicles;
+	}
+
+	/**
+	 * Constructs a live aggregate and registers it as a listener of the {@link InvoiceLedger}.
+	 *
+	 * @param vehicles a map containing vehicle data, where the key is the vehicle ID and the value is the {@link Vehicle} object.
+	 * @return the registered live aggregate.
+	 */
+	public static LiveReportAggregate attach(Map<String, Vehicle> vehicles) {
+		LiveReportAggregate aggregate = new LiveReportAggregate(vehicles);
+		InvoiceLedger.addListener(aggregate);
+		return aggregate;
+	}
+
+	/**
+	 * Adds a single invoice to the totals of all keys it belongs to. Can be called from several threads at the same time.
+	 * The repair cost is calculated with the report configuration that is current when the invoice is added, so changes
+	 * of the repair cost factors apply to invoices issued after the change.
+	 *
+	 * @param invoice the invoice to be added.
+	 */
+	@Override
+	public void accept(InvoiceRecord invoice) {
+		Vehicle vehicle = vehicles.get(invoice.getVehicleID());
+		double repairCost = ReportAggregate.getRepairCost(invoice, vehicle, AppConfig.get().getReports());
+		snapshotLock.readLock().lock();
+		try {
+			total.add(invoice, repairCost);
+			totalsByDate.computeIfAbsent(invoice.getIssueDate().toLocalDate(), date -> new LiveTotals()).add(invoice, repairCost);
+			totalsByZone.computeIfAbsent(invoice.getCityZone(), zone -> new LiveTotals()).add(invoice, repairCost);
+			totalsByVehicle.computeIfAbsent(invoice.getVehicleID(), id -> new LiveTotals()).add(invoice, repairCost);
+			if (vehicle != null) {
+				totalsByVehicleType.computeIfAbsent(vehicle.getClass(), type -> new LiveTotals()).add(invoice, repairCost);
+			}
+		}
+		finally {
+			snapshotLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of invoices added so far.
+	 *
+	 * @return the number of invoices.
+	 */
+	public long getInvoiceCount() {
+		return total.getInvoiceCount();
+	}
+
+	/**
+	 * Takes a consistent snapshot of the current totals, which reports can be generated from.
+	 * Invoices that are being added wait until the snapshot has been taken.
+	 *
+	 * @return the aggregate of all invoices added so far.
+	 */
+	public ReportAggregate snapshot() {
+		snapshotLock.writeLock().lock();
+		try {
+			return new ReportAggregate(total.snapshot(), snapshot(totalsByDate), snapshot(totalsByZone),
+					snapshot(totalsByVehicleType), snapshot(totalsByVehicle));
+		}
+		finally {
+			snapshotLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Takes a snapshot of the totals of every key.
+	 *
+	 * @param <K> the type of the keys.
+	 * @param totals the live totals by key.
+	 * @return the snapshots of the totals by key.
+	 */
+	private static <K> Map<K, ReportTotals> snapshot(Map<K, LiveTotals> totals) {
+		Map<K, ReportTotals> snapshot = new HashMap<>();
+		totals.forEach((key, value) -> snapshot.put(key, value.snapshot()));
+		return snapshot;
+	}
+
+	/**
+	 * The thread-safe totals of a single key.
+	 * The invoices are spread over several {@link ReportTotals} stripes by the thread that adds them, and every stripe
+	 * is locked only while a single invoice is added to it, so rental threads rarely wait for each other. Every stripe
+	 * keeps compensated sums, and a snapshot merges the stripes with compensated summation as well.
+	 */
+	private static final class LiveTotals {
+		/** The number of stripes, a power of two close to the number of processors. */
+		private static final int STRIPE_COUNT = Integer.highestOneBit(Math.min(16, Runtime.getRuntime().availableProcessors()));
+		/** The totals of the invoices added by the threads of every stripe. */
+		private final ReportTotals[] stripes = new ReportTotals[STRIPE_COUNT];
+
+		/**
+		 * Constructs empty totals.
+		 */
+		private LiveTotals() {
+			for (int stripe = 0; stripe < stripes.length; stripe++) {
+				stripes[stripe] = new ReportTotals();
+			}
+		}
+
+		/**
+		 * Adds the amounts of a single invoice, with the same metrics as a {@link ReportAggregate}.
+		 *
+		 * @param invoice the invoice to be added.
+		 * @param repairCost the repair cost of the invoice.
+		 */
+		private void add(InvoiceRecord invoice, double repairCost) {
+			ReportTotals stripe = stripes[(int) Thread.currentThread().threadId() & (STRIPE_COUNT - 1)];
+			synchronized (stripe) {
+				ReportAggregate.addTo(stripe, invoice, repairCost);
+			}
+		}
+
+		/**
+		 * Returns the number of added invoices.
+		 *
+		 * @return the number of invoices.
+		 */
+		private long getInvoiceCount() {
+			long invoiceCount = 0;
+			for (ReportTotals stripe : stripes) {
+				synchronized (stripe) {
+					invoiceCount += stripe.getInvoiceCount();
+				}
+			}
+			return invoiceCount;
+		}
+
+		/**
+		 * Takes a snapshot of the totals.
+		 *
+		 * @return the current totals.
+		 */
+		private ReportTotals snapshot() {
+			ReportTotals snapshot = new ReportTotals();
+			for (ReportTotals stripe : stripes) {
+				synchronized (stripe) {
+					snapshot.addAll(stripe);
+				}
+			}
+			return snapshot;
+		}
+	}
+}
@@ -0,0 +1,193 @@
+package epj2.service.report;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import epj2.config.AppConfig;
+import epj2.config.ReportConfig;
+import epj2.model.vehicle.*;
+import epj2.service.InvoiceRecord;
+
+/**
+ * The result of a single aggregation pass over all invoices.
+ * Every invoice is visited exactly once and its amounts are added to the {@link ReportTotals} of every key it belongs to:
+ * the whole business, the day on which it was issued, its city zone, the type of the rented vehicle and the rented vehicle itself.
+ * Reports are views over an aggregate, so the cost of generating them is one linear scan of the invoices,
+ * regardless of how many metrics they contain.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public class ReportAggregate {
+	/** The totals of all invoices. */
+	private final ReportTotals total;
+	/** The totals of invoices by the date on which they were issued. */
+	private final Map<LocalDate, ReportTotals> totalsByDate;
+	/** The totals of invoices by city zone. */
+	private final Map<String, ReportTotals> totalsByZone;
+	/** The totals of invoices by the type of the rented vehicle. */
+	private final Map<Class<? extends Vehicle>, ReportTotals> totalsByVehicleType;
+	/** The totals of invoices by the ID of the rented vehicle, used as a revenue index of vehicles. */
+	private final Map<String, ReportTotals> totalsByVehicle;
+
+	/**
+	 * Constructs an empty aggregate.
+	 */
+	private ReportAggregate() {
+		this(new ReportTotals(), new HashMap<>(), new HashMap<>(), new HashMap<>(), new HashMap<>());
+	}
+
+	/**
+	 * Constructs an aggregate from already accumulated totals, for example a snapshot of a {@link LiveReportAggregate}.
+	 *
+	 * @param total the totals of all invoices.
+	 * @param totalsByDate the totals of invoices by the date on which they were issued.
+	 * @param totalsByZone the totals of invoices by city zone.
+	 * @param totalsByVehicleType the totals of invoices by the type of the rented vehicle.
+	 * @param totalsByVehicle the totals of invoices by the ID of the rented vehicle.
+	 */
+	ReportAggregate(ReportTotals total, Map<LocalDate, ReportTotals> totalsByDate, Map<String, ReportTotals> totalsByZone,
+			Map<Class<? extends Vehicle>, ReportTotals> totalsByVehicleType, Map<String, ReportTotals> totalsByVehicle) {
+		this.total = total;
+		this.totalsByDate = totalsByDate;
+		this.totalsByZone = totalsByZone;
+		this.totalsByVehicleType = totalsByVehicleType;
+		this.totalsByVehicle = totalsByVehicle;
+	}
+
+	/**
+	 * Aggregates all specified invoices in a single pass.
+	 * The repair costs of all invoices are calculated with the same snapshot of the report configuration.
+	 *
+	 * @param vehicles a map containing vehicle data, where the key is the vehicle ID and the value is the {@link Vehicle} object.
+	 * @param invoices a list of {@link InvoiceRecord} objects representing the issued invoices.
+	 * @return the aggregate of all invoices.
+	 */
+	public static ReportAggregate aggregate(Map<String, Vehicle> vehicles, List<InvoiceRecord> invoices) {
+		ReportAggregate aggregate = new ReportAggregate();
+		ReportConfig reportConfig = AppConfig.get().getReports();
+		for (InvoiceRecord invoice : invoices) {
+			aggregate.add(invoice, vehicles.get(invoice.getVehicleID()), reportConfig);
+		}
+		return aggregate;
+	}
+
+	/**
+	 * Adds a single invoice to the totals of all keys it belongs to.
+	 * The repair cost of a faulty vehicle is its purchase price multiplied by the repair cost factor of its type,
+	 * or zero if the vehicle is unknown.
+	 *
+	 * @param invoice the invoice to be added.
+	 * @param vehicle the rented vehicle, or {@code null} if it is unknown.
+	 * @param reportConfig the report configuration with the repair cost factors.
+	 */
+	private void add(InvoiceRecord invoice, Vehicle vehicle, ReportConfig reportConfig) {
+		double repairCost = getRepairCost(invoice, vehicle, reportConfig);
+		addTo(total, invoice, repairCost);
+		addTo(totalsByDate.computeIfAbsent(invoice.getIssueDate().toLocalDate(), date -> new ReportTotals()), invoice, repairCost);
+		addTo(totalsByZone.computeIfAbsent(invoice.getCityZone(), zone -> new ReportTotals()), invoice, repairCost);
+		addTo(totalsByVehicle.computeIfAbsent(invoice.getVehicleID(), id -> new ReportTotals()), invoice, repairCost);
+		if (vehicle != null) {
+			addTo(totalsByVehicleType.computeIfAbsent(vehicle.getClass(), type -> new ReportTotals()), invoice, repairCost);
+		}
+	}
+
+	/**
+	 * Adds the amounts of a single invoice to the specified totals.
+	 *
+	 * @param totals the totals to which the invoice is added.
+	 * @param invoice the invoice to be added.
+	 * @param repairCost the repair cost of the invoice.
+	 */
+	static void addTo(ReportTotals totals, InvoiceRecord invoice, double repairCost) {
+		double amount = invoice.getTotalAmount();
+		totals.countInvoice(invoice.getHasFault());
+		totals.add(ReportTotals.REVENUE, amount);
+		totals.add(ReportTotals.DISCOUNT, invoice.getDiscountAmount());
+		totals.add(ReportTotals.PROMOTION, invoice.getPromotionAmount());
+		if (InvoiceRecord.WIDE_CITY_AREA.equals(invoice.getCityZone())) {
+			totals.add(ReportTotals.WIDE_AREA_REVENUE, amount);
+		}
+		else if (InvoiceRecord.NARROW_CITY_AREA.equals(invoice.getCityZone())) {
+			totals.add(ReportTotals.NARROW_AREA_REVENUE, amount);
+		}
+		if (invoice.getHasFault()) {
+			totals.add(ReportTotals.REPAIR_COST, repairCost);
+		}
+	}
+
+	/**
+	 * Returns the repair cost of an invoice: the purchase price of a faulty vehicle multiplied by the repair cost factor
+	 * of its type, or zero if the vehicle had no fault or is unknown.
+	 *
+	 * @param invoice the invoice.
+	 * @param vehicle the rented vehicle, or {@code null} if it is unknown.
+	 * @param reportConfig the report configuration with the repair cost factors.
+	 * @return the repair cost.
+	 */
+	static double getRepairCost(InvoiceRecord invoice, Vehicle vehicle, ReportConfig reportConfig) {
+		if (invoice.getHasFault() && vehicle != null) {
+			return reportConfig.getRepairCoefficient(vehicle) * vehicle.getPurchasePrice();
+		}
+		return 0.0;
+	}
+
+	/**
+	 * Returns the totals of all invoices.
+	 *
+	 * @return the totals of all invoices.
+	 */
+	public ReportTotals getTotal() {
+		return total;
+	}
+
+	/**
+	 * Returns the totals of invoices by the date on which they were issued.
+	 *
+	 * @return an unmodifiable map of dates to totals.
+	 */
+	public Map<LocalDate, ReportTotals> getTotalsByDate() {
+		return Collections.unmodifiableMap(totalsByDate);
+	}
+
+	/**
+	 * Returns the totals of invoices by city zone.
+	 *
+	 * @return an unmodifiable map of city zones to totals.
+	 */
+	public Map<String, ReportTotals> getTotalsByZone() {
+		return Collections.unmodifiableMap(totalsByZone);
+	}
+
+	/**
+	 * Returns the totals of invoices by the type of the rented vehicle.
+	 *
+	 * @return an unmodifiable map of vehicle types to totals.
+	 */
+	public Map<Class<? extends Vehicle>, ReportTotals> getTotalsByVehicleType() {
+		return Collections.unmodifiableMap(totalsByVehicleType);
+	}
+
+	/**
+	 * Returns the totals of invoices by the ID of the rented vehicle.
+	 *
+	 * @return an unmodifiable map of vehicle IDs to totals.
+	 */
+	public Map<String, ReportTotals> getTotalsByVehicle() {
+		return Collections.unmodifiableMap(totalsByVehicle);
+	}
+
+	/**
+	 * Returns the total revenue generated by the vehicle with the specified ID.
+	 *
+	 * @param vehicleID the ID of the vehicle.
+	 * @return the revenue of the vehicle, or 0.0 if it has not been rented.
+	 */
+	public double getVehicleRevenue(String vehicleID) {
+		ReportTotals totals = totalsByVehicle.get(vehicleID);
+		return totals != null ? totals.getRevenue() : 0.0;
+	}
+}
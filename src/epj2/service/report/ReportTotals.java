@@ -0,0 +1,175 @@
+package epj2.service.report;
+
+/**
+ * A primitive accumulator of all invoice metrics that reports are based on, for a single key
+ * (the whole business, a single day, a city zone or a vehicle type).
+ * Every metric is stored as a compensated (Kahan) sum in plain {@code double} arrays, so the accumulated values
+ * are the same as the sums of {@link java.util.stream.DoubleStream#sum()} over the same invoices in the same order.
+ * Adding a new metric only requires a new index and a getter; the invoices are still scanned only once.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public class ReportTotals {
+	/** The index of the total revenue. */
+	static final int REVENUE = 0;
+	/** The index of the total discount amount. */
+	static final int DISCOUNT = 1;
+	/** The index of the total promotion amount. */
+	static final int PROMOTION = 2;
+	/** The index of the revenue in the wide city area. */
+	static final int WIDE_AREA_REVENUE = 3;
+	/** The index of the revenue in the narrow city area. */
+	static final int NARROW_AREA_REVENUE = 4;
+	/** The index of the total repair cost. */
+	static final int REPAIR_COST = 5;
+	/** The number of accumulated metrics. */
+	static final int METRIC_COUNT = 6;
+	/** The running sum of every metric. */
+	private final double[] sums = new double[METRIC_COUNT];
+	/** The running compensation (lost low-order bits) of every metric. */
+	private final double[] compensations = new double[METRIC_COUNT];
+	/** The number of accumulated invoices. */
+	private int invoiceCount;
+	/** The number of accumulated invoices with a fault. */
+	private int faultCount;
+
+	/**
+	 * Constructs empty totals.
+	 */
+	ReportTotals() {
+	}
+
+	/**
+	 * Constructs totals with already accumulated values, for example totals read from a {@link DailyRollup}.
+	 *
+	 * @param sums the accumulated value of every metric, indexed by metric.
+	 * @param invoiceCount the number of accumulated invoices.
+	 * @param faultCount the number of accumulated invoices with a fault.
+	 */
+	ReportTotals(double[] sums, int invoiceCount, int faultCount) {
+		System.arraycopy(sums, 0, this.sums, 0, METRIC_COUNT);
+		this.invoiceCount = invoiceCount;
+		this.faultCount = faultCount;
+	}
+
+	/**
+	 * Adds a value to the specified metric, using compensated summation.
+	 *
+	 * @param metric the index of the metric.
+	 * @param value the value to be added.
+	 */
+	void add(int metric, double value) {
+		double corrected = value - compensations[metric];
+		double sum = sums[metric] + corrected;
+		compensations[metric] = (sum - sums[metric]) - corrected;
+		sums[metric] = sum;
+	}
+
+	/**
+	 * Adds all metrics and counts of other totals, using compensated summation.
+	 *
+	 * @param other the totals to be added.
+	 */
+	void addAll(ReportTotals other) {
+		for (int metric = 0; metric < METRIC_COUNT; metric++) {
+			add(metric, other.get(metric));
+		}
+		invoiceCount += other.invoiceCount;
+		faultCount += other.faultCount;
+	}
+
+	/**
+	 * Counts one more invoice.
+	 *
+	 * @param hasFault {@code true} if the vehicle had a fault during the rental.
+	 */
+	void countInvoice(boolean hasFault) {
+		invoiceCount++;
+		if (hasFault) {
+			faultCount++;
+		}
+	}
+
+	/**
+	 * Returns the accumulated value of the specified metric.
+	 *
+	 * @param metric the index of the metric.
+	 * @return the accumulated value.
+	 */
+	double get(int metric) {
+		return sums[metric] - compensations[metric];
+	}
+
+	/**
+	 * Returns the total revenue.
+	 *
+	 * @return the total revenue.
+	 */
+	public double getRevenue() {
+		return get(REVENUE);
+	}
+
+	/**
+	 * Returns the total discount amount.
+	 *
+	 * @return the total discount amount.
+	 */
+	public double getDiscount() {
+		return get(DISCOUNT);
+	}
+
+	/**
+	 * Returns the total promotion amount.
+	 *
+	 * @return the total promotion amount.
+	 */
+	public double getPromotion() {
+		return get(PROMOTION);
+	}
+
+	/**
+	 * Returns the revenue in the wide city area.
+	 *
+	 * @return the revenue in the wide city area.
+	 */
+	public double getWideAreaRevenue() {
+		return get(WIDE_AREA_REVENUE);
+	}
+
+	/**
+	 * Returns the revenue in the narrow city area.
+	 *
+	 * @return the revenue in the narrow city area.
+	 */
+	public double getNarrowAreaRevenue() {
+		return get(NARROW_AREA_REVENUE);
+	}
+
+	/**
+	 * Returns the total repair cost of vehicles with a fault.
+	 *
+	 * @return the total repair cost.
+	 */
+	public double getRepairCost() {
+		return get(REPAIR_COST);
+	}
+
+	/**
+	 * Returns the number of accumulated invoices.
+	 *
+	 * @return the number of invoices.
+	 */
+	public int getInvoiceCount() {
+		return invoiceCount;
+	}
+
+	/**
+	 * Returns the number of accumulated invoices with a fault.
+	 *
+	 * @return the number of invoices with a fault.
+	 */
+	public int getFaultCount() {
+		return faultCount;
+	}
+}
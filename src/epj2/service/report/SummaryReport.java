@@ -4,9 +4,10 @@ import java.io.*;
 import java.util.List;
 import java.util.Map;
 
+import epj2.config.AppConfig;
+import epj2.config.ReportConfig;
 import epj2.model.vehicle.*;
-import epj2.util.InvoiceParser;
-import epj2.util.PropertiesManager;
+import epj2.service.InvoiceRecord;
 
 /**
  * A concrete implementation of the {@link Report} class that generates a summary report.
@@ -21,45 +22,51 @@ import epj2.util.PropertiesManager;
 public class SummaryReport extends Report {
 	/** The collected report data as a string. */
     private String reportData;
+    
     /**
-	 * Manages the properties file used by the SummaryReport class.
-	 * This instance is used to load directory path for storing file with summary report.
-	 */
-    private PropertiesManager propertiesManagerSR;
+     * Constructs a new {@link SummaryReport} instance, collects report data, and generates the report.
+     *
+     * @param vehicles a map containing vehicle data, where the key is the vehicle ID and the value is the {@link Vehicle} object.
+     * @param invoices a list of {@link InvoiceRecord} objects representing the issued invoices.
+     */
+    public SummaryReport(Map<String, Vehicle> vehicles, List<InvoiceRecord> invoices) {
+        this(vehicles, invoices, null);
+    }
     
     /**
-     * Constructs a new {@link SummaryReport} instance, initializes the properties manager 
-     * (used to load directory path for storing summary report), collects report data, and generates the report.
+     * Constructs a new {@link SummaryReport} instance as a view over an already computed aggregate of the invoices.
      *
      * @param vehicles a map containing vehicle data, where the key is the vehicle ID and the value is the {@link Vehicle} object.
-     * @param invoices a list of {@link InvoiceParser} objects representing the parsed invoice data.
+     * @param invoices a list of {@link InvoiceRecord} objects representing the issued invoices.
+     * @param aggregate the aggregate of the invoices, or {@code null} if it should be computed from the invoices.
      */
-    public SummaryReport(Map<String, Vehicle> vehicles, List<InvoiceParser> invoices) {
-        super(vehicles, invoices);
-        propertiesManagerSR = new PropertiesManager("filePaths.properties");
-        reportData = collectReportData();  
+    public SummaryReport(Map<String, Vehicle> vehicles, List<InvoiceRecord> invoices, ReportAggregate aggregate) {
+        super(vehicles, invoices, aggregate);
+        reportData = collectReportData(getAggregate());  
         generateReport();  
     }
     
     /**
      * Calculates the total company expenses.
      * 
-     * @param invoiceList a list of {@link InvoiceParser} objects representing the parsed invoice data.
+     * @param totals the accumulated invoice totals.
+     * @param reportConfig the snapshot of the report configuration.
      * @return the total company expenses.
      */
-    private double calculateCompanyExpenses(List<InvoiceParser> invoiceList) {
-        return calculateTotalRevenue(invoiceList) * (propertiesManager.getPropertyAsDouble("EXPENSES_PERCENTAGE")/100.0);
+    private static double calculateCompanyExpenses(ReportTotals totals, ReportConfig reportConfig) {
+        return totals.getRevenue() * reportConfig.getExpensesShare();
     }
     
     /**
      * Calculates the total tax based on the total revenue minus maintenance cost,
      * repair cost, and company expenses.
      * 
-     * @param invoiceList a list of {@link InvoiceParser} objects representing the parsed invoice data.
+     * @param totals the accumulated invoice totals.
+     * @param reportConfig the snapshot of the report configuration.
      * @return the total tax.
      */
-    private double calculateTotalTax(List<InvoiceParser> invoiceList) {
-        return (calculateTotalRevenue(invoiceList) - calculateMaintenanceCost(invoiceList) - calculateRepairCost(invoiceList) - calculateCompanyExpenses(invoiceList))* (propertiesManager.getPropertyAsDouble("TAX_PERCENTAGE")/100.0);
+    private static double calculateTotalTax(ReportTotals totals, ReportConfig reportConfig) {
+        return (totals.getRevenue() - calculateMaintenanceCost(totals, reportConfig) - totals.getRepairCost() - calculateCompanyExpenses(totals, reportConfig))* reportConfig.getTaxShare();
     }
     
     /**
@@ -72,7 +79,7 @@ public class SummaryReport extends Report {
      */
     @Override
     protected void generateReport() {
-    	String reportDirPath = propertiesManagerSR.getProperty("SUMMARY_REPORT_DIR");
+    	String reportDirPath = AppConfig.get().getFiles().getSummaryReportDir();
         File reportsDir = new File(reportDirPath);
         if (!reportsDir.exists()) {
             reportsDir.mkdirs();
@@ -87,20 +94,25 @@ public class SummaryReport extends Report {
     
     /**
      * Collects and formats the summary report data into a string.
+     * All values are read from the totals of an aggregate, so the report data can also be formatted from a
+     * {@link LiveReportAggregate} snapshot while the simulation is running, without writing the report file.
      * 
+     * @param aggregate the aggregate of the invoices.
      * @return a string containing the formatted summary report data.
      */
-    private String collectReportData() {
+    public static String collectReportData(ReportAggregate aggregate) {
+        ReportTotals totals = aggregate.getTotal();
+        ReportConfig reportConfig = AppConfig.get().getReports();
         StringBuilder reportBuilder = new StringBuilder();
-        reportBuilder.append("Total revenue: ").append(calculateTotalRevenue(invoices)).append(" EUR\n");
-        reportBuilder.append("Total discount: ").append(calculateTotalDiscount(invoices)).append(" EUR\n");
-        reportBuilder.append("Total promotion amount: ").append(calculateTotalPromotion(invoices)).append(" EUR\n");
-        reportBuilder.append("Total amount for wide city area: ").append(calculateCityAreaTotals(invoices, "wide city area")).append(" EUR\n");
-        reportBuilder.append("Total amount for narrow city area: ").append(calculateCityAreaTotals(invoices, "narrow city area")).append(" EUR\n");
-        reportBuilder.append("Total maintenance cost: ").append(calculateMaintenanceCost(invoices)).append(" EUR\n");
-        reportBuilder.append("Total repair cost: ").append(calculateRepairCost(invoices)).append(" EUR\n");
-        reportBuilder.append("Total company expenses: ").append(calculateCompanyExpenses(invoices)).append(" EUR\n");
-        reportBuilder.append("Total tax: ").append(calculateTotalTax(invoices)).append(" EUR\n");
+        reportBuilder.append("Total revenue: ").append(totals.getRevenue()).append(" EUR\n");
+        reportBuilder.append("Total discount: ").append(totals.getDiscount()).append(" EUR\n");
+        reportBuilder.append("Total promotion amount: ").append(totals.getPromotion()).append(" EUR\n");
+        reportBuilder.append("Total amount for wide city area: ").append(totals.getWideAreaRevenue()).append(" EUR\n");
+        reportBuilder.append("Total amount for narrow city area: ").append(totals.getNarrowAreaRevenue()).append(" EUR\n");
+        reportBuilder.append("Total maintenance cost: ").append(calculateMaintenanceCost(totals, reportConfig)).append(" EUR\n");
+        reportBuilder.append("Total repair cost: ").append(totals.getRepairCost()).append(" EUR\n");
+        reportBuilder.append("Total company expenses: ").append(calculateCompanyExpenses(totals, reportConfig)).append(" EUR\n");
+        reportBuilder.append("Total tax: ").append(calculateTotalTax(totals, reportConfig)).append(" EUR\n");
 
         return reportBuilder.toString();
     }
@@ -2,45 +2,58 @@ package epj2.service.report;
 
 import java.io.*;
 import java.util.*;
-import java.util.stream.Collectors;
 
+import epj2.config.AppConfig;
 import epj2.model.vehicle.*;
-import epj2.util.*;
+import epj2.service.InvoiceRecord;
 
 /**
  * A concrete implementation of the {@link Report} class that generates a top vehicle report.
- * This class identifies the vehicle that has generated the highest revenue for the company 
+ * This class identifies the vehicles that have generated the highest revenue for the company 
  * for each vehicle type and serializes those vehicles.
- * It also contains methods for deserializing the vehicles. 
+ * The number of vehicles per type is configured by {@code TOP_K}. Revenues are looked up in the per-vehicle
+ * index of the {@link ReportAggregate}, and the top vehicles of every type are selected with a bounded min-heap,
+ * so the report is linear in the number of vehicles and invoices.
+ * The top vehicles of all types are written to the single file {@value #TOP_VEHICLES_FILE} with the compact binary
+ * {@link VehicleCodec} instead of Java serialization.
+ * It also contains methods for deserializing the vehicles, which still read the {@code *_top_vehicle.ser} files
+ * of earlier versions if there is no binary file. 
  * 
  * @author Jelena Maletić
  * @version 1.9.2024. 
  */
 public class TopVehicleReport extends Report {
-	/**
-	 * Manages the properties file used by the TopVehicleReport class.
-	 * This instance is used to load directory path for storing files with serialized vehicles.
-	 */
-	private PropertiesManager propertiesManagerTVR;
 	/**
 	 * Path to the directory where files with serialized vehicles are stored.
-	 * This path is retrieved from the properties file.
+	 * This path is retrieved from the file configuration.
 	 */
-	private static String reportsDirPath;
+	private static String reportsDirPath = AppConfig.get().getFiles().getTopVehiclesDir();
+	/** The number of top vehicles reported for each vehicle type. */
+	private int topK;
+	/** The name of the file with the top vehicles of all types. */
+	public static final String TOP_VEHICLES_FILE = "top_vehicles.bin";
 	
 	/**
-     * Constructs a new {@link SummaryReport} instance, initializes the properties manager 
-     * (used to load directory path for storing files with serialized vehicles are stored),
-     * initializes the reportsDirPath using information from properties file,create the folder where 
+     * Constructs a new {@link TopVehicleReport} instance, creates the folder where 
      * files with serialized vehicles will be saved and generates the report.
      *
      * @param vehicles a map containing vehicle data, where the key is the vehicle ID and the value is the {@link Vehicle} object.
-     * @param invoices a list of {@link InvoiceParser} objects representing the parsed invoice data.
+     * @param invoices a list of {@link InvoiceRecord} objects representing the issued invoices.
      */
-    public TopVehicleReport(Map<String, Vehicle> vehicles, List<InvoiceParser> invoices) {
-        super(vehicles, invoices);
-        propertiesManagerTVR = new PropertiesManager("filePaths.properties");
-        reportsDirPath = propertiesManagerTVR.getProperty("TOP_VEHICLES_DIR");
+    public TopVehicleReport(Map<String, Vehicle> vehicles, List<InvoiceRecord> invoices) {
+        this(vehicles, invoices, null);
+    }
+    
+    /**
+     * Constructs a new {@link TopVehicleReport} instance as a view over an already computed aggregate of the invoices.
+     *
+     * @param vehicles a map containing vehicle data, where the key is the vehicle ID and the value is the {@link Vehicle} object.
+     * @param invoices a list of {@link InvoiceRecord} objects representing the issued invoices.
+     * @param aggregate the aggregate of the invoices, or {@code null} if it should be computed from the invoices.
+     */
+    public TopVehicleReport(Map<String, Vehicle> vehicles, List<InvoiceRecord> invoices, ReportAggregate aggregate) {
+        super(vehicles, invoices, aggregate);
+        topK = getTopK();
         createOutputFolder();
         generateReport();
     }
@@ -54,103 +67,131 @@ public class TopVehicleReport extends Report {
     }
     
     /**
-     * Generates a report identifying and serializing the vehicle that has
+     * Returns the number of top vehicles reported for each vehicle type ({@code TOP_K}).
+     * 
+     * @return the number of top vehicles, at least 1.
+     */
+    public static int getTopK() {
+    	return AppConfig.get().getReports().getTopK();
+    }
+    
+    /**
+     * Generates a report identifying and serializing the vehicles that have
      * generated the highest revenue for each type of vehicle.
-     * This method groups vehicles by their type and finds the vehicle with
-     * the maximum revenue for each type .
-     * It then serializes the top vehicle of each type into a file named according to the vehicle type.
+     * It writes the top vehicles of each type, from the highest revenue to the lowest, into the single file
+     * {@value #TOP_VEHICLES_FILE}.
+     * In case of an I/O error during file writing, the exception is caught and its
+     * stack trace is printed to the console. 
      */
     @Override
     protected void generateReport() {
-        Map<Class<? extends Vehicle>, List<Vehicle>> vehiclesByType = vehicles.values().stream().collect(Collectors.groupingBy(Vehicle::getClass));
-        for (Map.Entry<Class<? extends Vehicle>, List<Vehicle>> entry : vehiclesByType.entrySet()) {
-            Class<? extends Vehicle> type = entry.getKey();
-            List<Vehicle> vehicleList = entry.getValue();
-            Vehicle topVehicle = vehicleList.stream().max(Comparator.comparingDouble(this::calculateVehicleRevenue)).orElse(null);
-            if (topVehicle != null) {
-                serializeVehicle(type.getSimpleName(), topVehicle);
+        try {
+            VehicleCodec.writeTopVehicles(new File(reportsDirPath, TOP_VEHICLES_FILE), selectTopVehicles(vehicles, getAggregate(), topK));
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    /**
+     * Selects the vehicles that have generated the highest revenue for each type of vehicle, without serializing them,
+     * so the selection can also be made from a {@link LiveReportAggregate} snapshot while the simulation is running.
+     * For each type, this method keeps a min-heap of at most {@code topK} vehicles ordered by revenue:
+     * a vehicle replaces the least profitable vehicle in the heap only if its revenue is higher, so among vehicles 
+     * with the same revenue the first one found is kept.
+     * 
+     * @param vehicles a map containing vehicle data, where the key is the vehicle ID and the value is the {@link Vehicle} object.
+     * @param aggregate the aggregate of the invoices.
+     * @param topK the number of top vehicles of each type.
+     * @return the top vehicles of each type, from the highest revenue to the lowest.
+     */
+    public static Map<Class<? extends Vehicle>, List<Vehicle>> selectTopVehicles(Map<String, Vehicle> vehicles, ReportAggregate aggregate, int topK) {
+        Comparator<Vehicle> byRevenue = Comparator.comparingDouble(vehicle -> aggregate.getVehicleRevenue(vehicle.getID()));
+        Map<Class<? extends Vehicle>, PriorityQueue<Vehicle>> topVehiclesByType = new HashMap<>();
+        for (Vehicle vehicle : vehicles.values()) {
+            PriorityQueue<Vehicle> topVehicles = topVehiclesByType.computeIfAbsent(vehicle.getClass(), type -> new PriorityQueue<>(topK + 1, byRevenue));
+            if (topVehicles.size() < topK) {
+                topVehicles.add(vehicle);
+            }
+            else if (byRevenue.compare(vehicle, topVehicles.peek()) > 0) {
+                topVehicles.poll();
+                topVehicles.add(vehicle);
             }
         }
+        Map<Class<? extends Vehicle>, List<Vehicle>> result = new HashMap<>();
+        for (Map.Entry<Class<? extends Vehicle>, PriorityQueue<Vehicle>> entry : topVehiclesByType.entrySet()) {
+            ArrayList<Vehicle> topVehicles = new ArrayList<>(entry.getValue());
+            topVehicles.sort(byRevenue.reversed());
+            result.put(entry.getKey(), topVehicles);
+        }
+        return result;
     }
     
     /**
-    * Calculates the total revenue generated by a specific vehicle.
-    * This method sums up the revenue from all invoices where the vehicle's
-    * ID matches the vehicle ID provided.
+    * Returns the total revenue generated by a specific vehicle.
+    * The revenue is looked up in the per-vehicle index of the aggregate, which is built in a single pass over the invoices.
     * 
     * @param vehicle the vehicle for which the revenue is calculated
     * @return the total revenue generated by the specified vehicle
     */
     public double calculateVehicleRevenue(Vehicle vehicle) {
-        return invoices.stream().filter(invoice -> invoice.getVehicleID().equals(vehicle.getID())).mapToDouble(InvoiceParser::getTotalAmount).sum();
-    }
-    
-    /**
-     * Serializes a vehicle object to a file.
-     * This method writes the serialized representation of the specified vehicle
-     * to a file named according to the vehicle type, with a suffix "_top_vehicle.ser".
-     * The file is created in the directory specified by {@code reportsDirPath}.
-     * In case of an I/O error during file writing, the exception is caught and its
-     * stack trace is printed to the console. 
-     * 
-     * @param typeName the name of the vehicle type (used to name the file)
-     * @param vehicle the vehicle object to be serialized
-     */
-    private void serializeVehicle(String typeName, Vehicle vehicle) {
-        try {
-        	FileOutputStream writer = new FileOutputStream(reportsDirPath + File.separator + typeName + "_top_vehicle.ser");
-        	ObjectOutputStream objectWriter = new ObjectOutputStream(writer);
-            objectWriter.writeObject(vehicle);
-            objectWriter.close();
-            writer.close();
-        } 
-        catch (IOException e) {
-            e.printStackTrace();
-        }
+        return getAggregate().getVehicleRevenue(vehicle.getID());
     }
     
     /**
-     * Deserializes a vehicle object from a file.
-     * This method reads and reconstructs a vehicle object from a file named
-     * according to the specified vehicle type, with a suffix "_top_vehicle.ser".
+     * Deserializes a list of vehicles of the specified type.
+     * The vehicles are read from the file {@value #TOP_VEHICLES_FILE}; if it does not exist, this method reads the single
+     * top vehicle from a file named according to the specified vehicle type, with a suffix "_top_vehicle.ser", as written
+     * by earlier versions, and returns it as a list with one vehicle.
      * The file is located in the directory specified by {@code reportsDirPath}.
      * The exceptions are caught and their stack trace is printed to the console. 
      * 
      * @param typeName the name of the vehicle type
-     * @return the deserialized vehicle object, or {@code null} if an error occurs
+     * @return the deserialized vehicles, from the highest revenue to the lowest, or {@code null} if an error occurs
      */
-    public static Vehicle deserializeVehicle(String typeName) {
-    	ObjectInputStream ois = null;
-        try {
-        	ois = new ObjectInputStream(new FileInputStream(reportsDirPath + File.separator + typeName + "_top_vehicle.ser"));
-        	return (Vehicle) ois.readObject();
+    public static List<Vehicle> deserializeVehicles(String typeName) {
+    	File topVehiclesFile = new File(reportsDirPath, TOP_VEHICLES_FILE);
+    	if (topVehiclesFile.exists()) {
+    		try {
+    			return VehicleCodec.readTopVehicles(topVehiclesFile).get(getVehicleClassByName(typeName));
+    		}
+    		catch (IOException e) {
+    			e.printStackTrace();
+    			return null;
+    		}
+    	}
+        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(reportsDirPath + File.separator + typeName + "_top_vehicle.ser"))) {
+        	return List.of((Vehicle) ois.readObject());
         } 
-        catch (IOException | ClassNotFoundException e) {
+        catch (IOException | ClassNotFoundException | ClassCastException e) {
             e.printStackTrace();
             return null;
         }
-        finally {
-            try {
-                ois.close();
-            } 
-            catch (IOException ex) {
-                ex.printStackTrace();
-            }
-        }
     }
     
     /**
      * Deserializes all vehicle objects from serialized files in the specified directory.
-     * This method scans the directory specified by {@code reportsDirPath} for files that end with
+     * If the file {@value #TOP_VEHICLES_FILE} exists, the top vehicles of all types are read from it at once.
+     * Otherwise this method scans the directory specified by {@code reportsDirPath} for files that end with
      * "_top_vehicle.ser". For each file found, it extracts the vehicle type from the file name, 
-     * deserializes the vehicle object and maps it to the appropriate vehicle class. 
-     * The resulting map associates each vehicle class with its corresponding deserialized vehicle object.
+     * deserializes the top vehicle of the type and maps it, as a list with one vehicle, to the appropriate vehicle class. 
+     * The resulting map associates each vehicle class with its corresponding deserialized top vehicles.
      * 
-     * @return a map where keys are vehicle classes and values are the corresponding deserialized vehicle objects
+     * @return a map where keys are vehicle classes and values are the corresponding deserialized top vehicles
      */
     @SuppressWarnings("unused")
-	public static Map<Class<? extends Vehicle>, Vehicle> deserializeAllVehicles() {
-        Map<Class<? extends Vehicle>, Vehicle> vehicles = new HashMap<>();
+	public static Map<Class<? extends Vehicle>, List<Vehicle>> deserializeAllVehicles() {
+        File topVehiclesFile = new File(reportsDirPath, TOP_VEHICLES_FILE);
+        if (topVehiclesFile.exists()) {
+            try {
+                return VehicleCodec.readTopVehicles(topVehiclesFile);
+            }
+            catch (IOException e) {
+                e.printStackTrace();
+                return new HashMap<>();
+            }
+        }
+        Map<Class<? extends Vehicle>, List<Vehicle>> vehicles = new HashMap<>();
         File folder = new File(reportsDirPath);
         File[] files = folder.listFiles((dir, name) -> name.endsWith("_top_vehicle.ser"));
         if (files != null) {
@@ -158,9 +199,9 @@ public class TopVehicleReport extends Report {
                 String typeName = file.getName().replace("_top_vehicle.ser", "");
                 Class<? extends Vehicle> vehicleClass = getVehicleClassByName(typeName);
                 if (vehicleClass != null) {
-                    Vehicle vehicle = deserializeVehicle(typeName);
-                    if (vehicle != null) {
-                        vehicles.put(vehicleClass, vehicle);
+                    List<Vehicle> topVehicles = deserializeVehicles(typeName);
+                    if (topVehicles != null) {
+                        vehicles.put(vehicleClass, topVehicles);
                     }
                 }
             }
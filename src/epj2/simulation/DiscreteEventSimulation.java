@@ -0,0 +1,214 @@
+package epj2.simulation;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import epj2.service.Rental;
+
+/**
+ * A discrete-event core of the rental simulation.
+ * Instead of running every rental in its own thread and sleeping for every cell of the route, all rentals are
+ * advanced by a single loop that processes timestamped events from a priority queue in virtual time.
+ * The {@link SimulationClock} determines how much wall-clock time passes between two events, so the same
+ * history can be replayed in real time, N times faster or as fast as possible.
+ * Periods in which no rental is active are compressed to a fixed pause, which corresponds to the pause between
+ * two rounds of rentals in the original simulation.
+ * A vehicle is used by one rental at a time: a rental whose vehicle is still in use waits until the previous rental of
+ * that vehicle has finished and then starts at that virtual time, so overlapping rentals of the same vehicle never
+ * interleave their steps on the vehicle's battery and position. Waiting rentals start in the order of their start events.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public class DiscreteEventSimulation {
+	/** Number of nanoseconds in one second. */
+	private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+	/** Pending events ordered by virtual time. */
+	private final PriorityQueue<SimulationEvent> events = new PriorityQueue<>();
+	/** The clock that maps virtual time to wall-clock time. */
+	private final SimulationClock clock;
+	/** The virtual pause (in seconds) used instead of the idle periods between rentals. */
+	private final double idlePauseSeconds;
+	/** The sequence number of the next scheduled event. */
+	private long nextSequence = 0;
+	/** The number of rentals that have started and have not finished yet. */
+	private int activeRentals = 0;
+	/** The virtual time of the last processed event. */
+	private LocalDateTime currentTime;
+	/** The rentals waiting for every vehicle that is in use, by vehicle ID; a vehicle that is not in use has no entry. */
+	private final Map<String, ArrayDeque<Rental>> waitingByVehicle = new HashMap<>();
+
+	/**
+	 * Constructs a new discrete-event simulation.
+	 *
+	 * @param clock the clock that maps virtual time to wall-clock time.
+	 * @param idlePauseSeconds the virtual pause (in seconds) used instead of the idle periods between rentals.
+	 */
+	public DiscreteEventSimulation(SimulationClock clock, double idlePauseSeconds) {
+		this.clock = clock;
+		this.idlePauseSeconds = idlePauseSeconds;
+	}
+
+	/**
+	 * Schedules the start of every rental at its date and time.
+	 *
+	 * @param rentals the rentals to be simulated.
+	 */
+	public void scheduleRentals(List<Rental> rentals) {
+		for (Rental rental : rentals) {
+			schedule(rental.getDateTime(), EventType.RENTAL_START, rental, 0);
+		}
+	}
+
+	/**
+	 * Schedules a new event.
+	 *
+	 * @param time the virtual time at which the event occurs.
+	 * @param type the type of the event.
+	 * @param rental the rental to which the event belongs.
+	 * @param cellIndex the index of the route cell to which the event refers.
+	 */
+	public void schedule(LocalDateTime time, EventType type, Rental rental, int cellIndex) {
+		events.add(new SimulationEvent(time, nextSequence++, type, rental, cellIndex));
+	}
+
+	/**
+	 * Processes all scheduled events in the order of their virtual time, until the event queue is empty.
+	 */
+	public void run() {
+		while (!events.isEmpty()) {
+			SimulationEvent event = events.poll();
+			advanceTo(event.getTime());
+			process(event);
+		}
+	}
+
+	/**
+	 * Returns the virtual time of the last processed event.
+	 *
+	 * @return the current virtual time, or {@code null} if no event has been processed yet.
+	 */
+	public LocalDateTime getCurrentTime() {
+		return currentTime;
+	}
+
+	/**
+	 * Advances the virtual time to the specified time and waits for the corresponding wall-clock time.
+	 * If no rental is active, the idle period is replaced by the configured idle pause.
+	 *
+	 * @param time the virtual time of the next event.
+	 */
+	private void advanceTo(LocalDateTime time) {
+		if (currentTime != null && time.isAfter(currentTime)) {
+			if (activeRentals == 0) {
+				clock.pause(idlePauseSeconds);
+			}
+			else {
+				clock.pause(Duration.between(currentTime, time).toNanos() / NANOS_PER_SECOND);
+			}
+		}
+		if (currentTime == null || time.isAfter(currentTime)) {
+			currentTime = time;
+		}
+	}
+
+	/**
+	 * Processes a single event by applying it to its rental and scheduling the events that follow from it.
+	 *
+	 * @param event the event to be processed.
+	 */
+	private void process(SimulationEvent event) {
+		Rental rental = event.getRental();
+		int index = event.getCellIndex();
+		LocalDateTime time = event.getTime();
+		switch (event.getType()) {
+			case RENTAL_START:
+				ArrayDeque<Rental> waiting = waitingByVehicle.get(rental.getVehicle().getID());
+				if (waiting != null) {
+					waiting.add(rental);
+				}
+				else {
+					waitingByVehicle.put(rental.getVehicle().getID(), new ArrayDeque<>());
+					start(rental, time);
+				}
+				break;
+			case CELL_ENTER:
+				double timePerCell = rental.getTimePerCell();
+				if (rental.enterCell(index)) {
+					schedule(plusSeconds(time, timePerCell + Rental.CHARGING_SECONDS), EventType.BATTERY_CHARGE, rental, index);
+				}
+				else {
+					schedule(plusSeconds(time, timePerCell), EventType.CELL_EXIT, rental, index);
+				}
+				break;
+			case BATTERY_CHARGE:
+				rental.chargeBattery();
+				schedule(time, EventType.CELL_EXIT, rental, index);
+				break;
+			case CELL_EXIT:
+				if (!rental.leaveCell(index)) {
+					schedule(time, EventType.FAULT, rental, index);
+				}
+				else if (index + 1 < rental.getRouteLength()) {
+					schedule(time, EventType.CELL_ENTER, rental, index + 1);
+				}
+				else {
+					schedule(time, EventType.ARRIVAL, rental, index);
+				}
+				break;
+			case FAULT:
+				rental.breakDown(index);
+				finish(rental);
+				break;
+			case ARRIVAL:
+				finish(rental);
+				break;
+		}
+	}
+
+	/**
+	 * Starts the specified rental at the specified virtual time. The vehicle of the rental must already be marked as in use.
+	 *
+	 * @param rental the rental to be started.
+	 * @param time the virtual time at which the rental starts.
+	 */
+	private void start(Rental rental, LocalDateTime time) {
+		activeRentals++;
+		rental.beginRoute();
+		schedule(time, EventType.CELL_ENTER, rental, 0);
+	}
+
+	/**
+	 * Finishes the specified rental and hands its vehicle to the next rental waiting for it, if any.
+	 *
+	 * @param rental the rental to be finished.
+	 */
+	private void finish(Rental rental) {
+		rental.finish();
+		activeRentals--;
+		String vehicleId = rental.getVehicle().getID();
+		Rental next = waitingByVehicle.get(vehicleId).poll();
+		if (next != null) {
+			start(next, currentTime);
+		}
+		else {
+			waitingByVehicle.remove(vehicleId);
+		}
+	}
+
+	/**
+	 * Adds a fractional number of seconds to the specified time.
+	 *
+	 * @param time the time to which the seconds are added.
+	 * @param seconds the number of seconds to be added.
+	 * @return the resulting time.
+	 */
+	private static LocalDateTime plusSeconds(LocalDateTime time, double seconds) {
+		return time.plusNanos((long) (seconds * NANOS_PER_SECOND));
+	}
+}
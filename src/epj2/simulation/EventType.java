@@ -0,0 +1,22 @@
+package epj2.simulation;
+
+/**
+ * Types of events processed by the {@link DiscreteEventSimulation}.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public enum EventType {
+	/** The rental begins and the route of the vehicle is planned. */
+	RENTAL_START,
+	/** The vehicle enters a cell of its route. */
+	CELL_ENTER,
+	/** The vehicle finishes charging its battery in the current cell. */
+	BATTERY_CHARGE,
+	/** The vehicle leaves the current cell of its route. */
+	CELL_EXIT,
+	/** The vehicle breaks down in the current cell. */
+	FAULT,
+	/** The vehicle arrives at the destination. */
+	ARRIVAL
+}
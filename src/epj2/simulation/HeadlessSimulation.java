@@ -0,0 +1,100 @@
+package epj2.simulation;
+
+import java.util.List;
+import java.util.Map;
+
+import epj2.model.vehicle.Vehicle;
+import epj2.service.Invoice;
+import epj2.service.InvoiceLedger;
+import epj2.service.InvoiceRecord;
+import epj2.service.Rental;
+import epj2.service.report.*;
+import epj2.util.*;
+
+/**
+ * An entry point for running the whole rental pipeline without a graphical user interface,
+ * for example in nightly batch jobs on servers without a display.
+ * Vehicles and rentals are loaded, the simulation is run as fast as possible, invoices are generated and collected,
+ * and all reports are written from the totals that a {@link LiveReportAggregate} keeps up to date while
+ * invoices are issued. Vehicle positions are sent to a {@link MetricsPositionSink} instead of the map display.
+ * 
+ * At the end, a single machine-readable status line is printed to the standard output, for example:
+ * {@code STATUS=OK vehicles=30 rentals=42 invoices=42 faults=3 cells=512 elapsedMs=180},
+ * and the program exits with one of the following exit codes:
+ * -{@value #EXIT_OK} if the pipeline finished successfully,
+ * -{@value #EXIT_FAILURE} if the pipeline failed with an error,
+ * -{@value #EXIT_NO_INPUT} if there were no valid vehicles or rentals to process.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public class HeadlessSimulation {
+	/** Exit code of a successful run. */
+	public static final int EXIT_OK = 0;
+	/** Exit code of a run that failed with an error. */
+	public static final int EXIT_FAILURE = 1;
+	/** Exit code of a run without valid input data. */
+	public static final int EXIT_NO_INPUT = 2;
+
+	/**
+	 * Runs the headless pipeline and exits with its status code.
+	 *
+	 * @param args an array of {@code String} arguments passed from the command line (not used).
+	 */
+	public static void main(String[] args) {
+		System.exit(run());
+	}
+
+	/**
+	 * Runs the whole pipeline (load, simulate, invoice, reports) without a graphical user interface
+	 * and prints the machine-readable status line.
+	 *
+	 * @return the exit status of the run.
+	 */
+	public static int run() {
+		long startTime = System.nanoTime();
+		try {
+			Map<String, Vehicle> vehicles = VehicleLoader.loadVehiclesFromCSV();
+			List<Rental> rentals = RentalLoader.loadRentals(vehicles);
+			if (vehicles.isEmpty() || rentals.isEmpty()) {
+				printStatus("NO_INPUT", "vehicles=" + vehicles.size() + " rentals=" + rentals.size(), startTime);
+				return EXIT_NO_INPUT;
+			}
+			LiveReportAggregate liveReports = LiveReportAggregate.attach(vehicles);
+			MetricsPositionSink positionSink = new MetricsPositionSink();
+			for (Rental rental : rentals) {
+				rental.setPositionSink(positionSink);
+			}
+			RentalSimulation.runSimulation(rentals, new SimulationClock(0));
+
+			List<InvoiceRecord> invoices = InvoiceLedger.getRecords();
+			ReportAggregate aggregate = liveReports.snapshot();
+			new TopVehicleReport(vehicles, invoices, aggregate);
+			new SummaryReport(vehicles, invoices, aggregate);
+			new DailyReport(vehicles, invoices, aggregate);
+
+			Invoice.awaitTextOutput();
+			long faults = rentals.stream().filter(Rental::hasFaultOccurred).count();
+			printStatus("OK", "vehicles=" + vehicles.size() + " rentals=" + rentals.size() + " invoices=" + invoices.size()
+					+ " faults=" + faults + " cells=" + positionSink.getCellsEntered(), startTime);
+			return EXIT_OK;
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+			printStatus("FAILED", "error=" + e.getClass().getSimpleName(), startTime);
+			return EXIT_FAILURE;
+		}
+	}
+
+	/**
+	 * Prints the machine-readable status line of the run.
+	 *
+	 * @param status the status of the run.
+	 * @param details space-separated {@code key=value} pairs describing the run.
+	 * @param startTime the value of {@link System#nanoTime()} at the start of the run.
+	 */
+	private static void printStatus(String status, String details, long startTime) {
+		long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000L;
+		System.out.println("STATUS=" + status + " " + details + " elapsedMs=" + elapsedMillis);
+	}
+}
@@ -0,0 +1,60 @@
+package epj2.simulation;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link PositionSink} that does not display anything and only counts the position updates.
+ * It is used when the simulation runs without a graphical user interface.
+ * The counters can be updated from several threads at the same time.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public class MetricsPositionSink implements PositionSink {
+	/** The number of cells entered by all vehicles. */
+	private final LongAdder cellsEntered = new LongAdder();
+	/** The number of cells left by all vehicles. */
+	private final LongAdder cellsCleared = new LongAdder();
+
+	/**
+	 * Counts a vehicle entering a cell.
+	 *
+	 * @param x the row index of the cell
+	 * @param y the column index of the cell
+	 * @param vehicleId the ID of the vehicle
+	 * @param vehicleBattery the battery level of the vehicle
+	 */
+	@Override
+	public void updateVehiclePosition(int x, int y, String vehicleId, int vehicleBattery) {
+		cellsEntered.increment();
+	}
+
+	/**
+	 * Counts a vehicle leaving a cell.
+	 *
+	 * @param x the row index of the cell
+	 * @param y the column index of the cell
+	 */
+	@Override
+	public void clearVehiclePosition(int x, int y) {
+		cellsCleared.increment();
+	}
+
+	/**
+	 * Returns the number of cells entered by all vehicles.
+	 *
+	 * @return the number of cells entered.
+	 */
+	public long getCellsEntered() {
+		return cellsEntered.sum();
+	}
+
+	/**
+	 * Returns the number of cells left by all vehicles.
+	 *
+	 * @return the number of cells left.
+	 */
+	public long getCellsCleared() {
+		return cellsCleared.sum();
+	}
+}
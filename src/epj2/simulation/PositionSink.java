@@ -0,0 +1,30 @@
+package epj2.simulation;
+
+/**
+ * Receives the positions of vehicles as they move across the city map during the simulation.
+ * The map display implements this interface to animate the vehicles, while headless runs use a sink
+ * that only collects metrics.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public interface PositionSink {
+
+	/**
+	 * Called when a vehicle enters the cell at the specified position.
+	 *
+	 * @param x the row index of the cell
+	 * @param y the column index of the cell
+	 * @param vehicleId the ID of the vehicle
+	 * @param vehicleBattery the battery level of the vehicle
+	 */
+	void updateVehiclePosition(int x, int y, String vehicleId, int vehicleBattery);
+
+	/**
+	 * Called when a vehicle leaves the cell at the specified position.
+	 *
+	 * @param x the row index of the cell
+	 * @param y the column index of the cell
+	 */
+	void clearVehiclePosition(int x, int y);
+}
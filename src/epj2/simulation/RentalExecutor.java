@@ -0,0 +1,204 @@
+package epj2.simulation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Executes rentals as tasks instead of starting one platform thread per rental.
+ * Two kinds of executors are supported:
+ * -{@code VIRTUAL}: every rental runs in its own virtual thread (default),
+ * -{@code PLATFORM}: rentals run on a bounded pool of platform threads.
+ *
+ * The maximum number of rentals that run at the same time can be limited. For virtual threads
+ * the limit is enforced with a semaphore, so waiting rentals only occupy cheap virtual threads.
+ * Tasks are joined in a structured way: {@link #runAll(Collection)} returns only after every task
+ * has finished, and if one task fails the remaining tasks are cancelled and the failure is rethrown.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public class RentalExecutor implements Executor, AutoCloseable {
+	/** The executor service that runs the tasks. */
+	private final ExecutorService executorService;
+	/** Limits the number of tasks that run at the same time, or {@code null} if there is no limit. */
+	private final Semaphore permits;
+
+	/**
+	 * Constructs a rental executor backed by the specified executor service.
+	 *
+	 * @param executorService the executor service that runs the tasks.
+	 * @param maxParallelism the maximum number of tasks that run at the same time, or a non-positive value for no limit.
+	 */
+	private RentalExecutor(ExecutorService executorService, int maxParallelism) {
+		this.executorService = executorService;
+		this.permits = maxParallelism > 0 ? new Semaphore(maxParallelism) : null;
+	}
+
+	/**
+	 * Creates a rental executor that runs every task in its own virtual thread.
+	 *
+	 * @param maxParallelism the maximum number of tasks that run at the same time, or a non-positive value for no limit.
+	 * @return the rental executor backed by virtual threads.
+	 */
+	public static RentalExecutor virtualThreads(int maxParallelism) {
+		return new RentalExecutor(Executors.newVirtualThreadPerTaskExecutor(), maxParallelism);
+	}
+
+	/**
+	 * Creates a rental executor that runs tasks on a bounded pool of platform threads.
+	 *
+	 * @param maxParallelism the number of threads in the pool, or a non-positive value for the number of available processors.
+	 * @return the rental executor backed by a pool of platform threads.
+	 */
+	public static RentalExecutor platformPool(int maxParallelism) {
+		int poolSize = maxParallelism > 0 ? maxParallelism : Runtime.getRuntime().availableProcessors();
+		return new RentalExecutor(Executors.newFixedThreadPool(poolSize), 0);
+	}
+
+	/**
+	 * Creates a rental executor of the specified kind.
+	 *
+	 * @param kind the kind of the executor ({@code VIRTUAL} or {@code PLATFORM}); unknown values fall back to {@code VIRTUAL}.
+	 * @param maxParallelism the maximum number of tasks that run at the same time, or a non-positive value for the default.
+	 * @return the rental executor of the specified kind.
+	 */
+	public static RentalExecutor create(String kind, int maxParallelism) {
+		if ("PLATFORM".equalsIgnoreCase(kind)) {
+			return platformPool(maxParallelism);
+		}
+		return virtualThreads(maxParallelism);
+	}
+
+	/**
+	 * Submits a single task for execution.
+	 *
+	 * @param task the task to be executed.
+	 * @return a future representing the pending completion of the task.
+	 */
+	public Future<?> submit(Runnable task) {
+		return executorService.submit(() -> runWithPermit(task));
+	}
+
+	/**
+	 * Runs a single task and returns a future that completes when the task has finished.
+	 * This allows the rental executor to be used for dependent tasks. If the thread is interrupted while waiting for
+	 * a permit, the task is not run and the future completes exceptionally, so the limit of parallel tasks is never exceeded
+	 * and tasks that wait for the future are not blocked forever.
+	 *
+	 * @param task the task to be executed.
+	 * @return a future completed when the task has finished, or exceptionally if it failed or was not run.
+	 */
+	public CompletableFuture<Void> runAsync(Runnable task) {
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		executorService.execute(() -> {
+			try {
+				runWithPermit(task);
+				future.complete(null);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				future.completeExceptionally(e);
+			}
+			catch (Throwable e) {
+				future.completeExceptionally(e);
+			}
+		});
+		return future;
+	}
+
+	/**
+	 * Executes a single task, holding a permit while it runs if the number of parallel tasks is limited.
+	 * If the thread is interrupted while waiting for a permit, the task is skipped; use {@link #runAsync(Runnable)}
+	 * to find out whether a task has run.
+	 *
+	 * @param task the task to be executed.
+	 */
+	@Override
+	public void execute(Runnable task) {
+		executorService.execute(() -> {
+			try {
+				runWithPermit(task);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				System.out.println("Warning: A rental task was skipped because its thread was interrupted while waiting to run.");
+			}
+		});
+	}
+
+	/**
+	 * Runs all specified tasks and waits until every one of them has finished.
+	 * If a task fails, the remaining tasks are cancelled and the failure is rethrown
+	 * after all tasks have stopped.
+	 *
+	 * @param tasks the tasks to be executed.
+	 * @throws IllegalStateException if a task failed or the waiting thread was interrupted.
+	 */
+	public void runAll(Collection<? extends Runnable> tasks) {
+		List<Future<?>> futures = new ArrayList<>(tasks.size());
+		for (Runnable task : tasks) {
+			futures.add(submit(task));
+		}
+		Throwable failure = null;
+		for (Future<?> future : futures) {
+			try {
+				future.get();
+			}
+			catch (CancellationException e) {
+				// cancelled because another task has failed
+			}
+			catch (ExecutionException e) {
+				if (failure == null) {
+					failure = e.getCause();
+					futures.forEach(f -> f.cancel(true));
+				}
+			}
+			catch (InterruptedException e) {
+				futures.forEach(f -> f.cancel(true));
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for rentals", e);
+			}
+		}
+		if (failure != null) {
+			throw new IllegalStateException("Rental failed", failure);
+		}
+	}
+
+	/**
+	 * Runs the specified task while holding a permit, if the number of parallel tasks is limited.
+	 *
+	 * @param task the task to be executed.
+	 * @throws InterruptedException if the thread was interrupted while waiting for a permit.
+	 */
+	private Void runWithPermit(Runnable task) throws InterruptedException {
+		if (permits == null) {
+			task.run();
+			return null;
+		}
+		permits.acquire();
+		try {
+			task.run();
+		}
+		finally {
+			permits.release();
+		}
+		return null;
+	}
+
+	/**
+	 * Shuts down the executor and waits for all submitted tasks to finish.
+	 */
+	@Override
+	public void close() {
+		executorService.close();
+	}
+}
@@ -0,0 +1,123 @@
+package epj2.simulation;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import epj2.service.Rental;
+
+/**
+ * Schedules rentals by their dependencies instead of waiting for whole rounds of rentals.
+ * A rental only waits for the previous rental of the same vehicle and, if enabled, for the earlier rentals of the same user.
+ * Rentals that do not depend on each other run at the same time, even if they belong to different
+ * dates and times, so one long rental no longer stalls all rentals that follow it and the total
+ * time of the simulation approaches the length of the longest chain of dependent rentals.
+ * A vehicle is used by one rental at a time, even by rentals with the same date and time (in the order of the list);
+ * rentals of a user with the same date and time do not depend on each other.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public class RentalScheduler {
+	/** The executor that runs the rentals. */
+	private final RentalExecutor executor;
+	/** Indicates whether rentals of the same user are run one after another. */
+	private final boolean userDependencies;
+
+	/**
+	 * Constructs a scheduler that runs rentals on the specified executor.
+	 *
+	 * @param executor the executor that runs the rentals.
+	 * @param userDependencies {@code true} if rentals of the same user should also be run one after another.
+	 */
+	public RentalScheduler(RentalExecutor executor, boolean userDependencies) {
+		this.executor = executor;
+		this.userDependencies = userDependencies;
+	}
+
+	/**
+	 * Runs all rentals as soon as their dependencies have finished and waits until every rental has finished.
+	 * A rental that fails does not prevent the rentals that depend on it from running.
+	 *
+	 * @param rentals the rentals to be run, sorted by date and time.
+	 */
+	public void runAll(List<Rental> rentals) {
+		Map<String, CompletableFuture<Void>> lastRentalOfVehicle = new HashMap<>();
+		Map<String, DependencyChain> userChains = new HashMap<>();
+		List<CompletableFuture<Void>> futures = new ArrayList<>(rentals.size());
+		for (Rental rental : rentals) {
+			DependencyChain userChain = userDependencies ? userChains.computeIfAbsent(rental.getUser().getName(), key -> new DependencyChain()) : null;
+			List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+			CompletableFuture<Void> previousRentalOfVehicle = lastRentalOfVehicle.get(rental.getVehicle().getID());
+			if (previousRentalOfVehicle != null) {
+				dependencies.add(previousRentalOfVehicle);
+			}
+			if (userChain != null) {
+				dependencies.addAll(userChain.predecessorsOf(rental.getDateTime()));
+			}
+			CompletableFuture<Void> future = CompletableFuture.allOf(dependencies.toArray(new CompletableFuture<?>[0]))
+					.exceptionally(e -> null)
+					.thenCompose(ignored -> executor.runAsync(rental));
+			lastRentalOfVehicle.put(rental.getVehicle().getID(), future);
+			if (userChain != null) {
+				userChain.add(future);
+			}
+			futures.add(future);
+		}
+		for (CompletableFuture<Void> future : futures) {
+			try {
+				future.get();
+			}
+			catch (ExecutionException e) {
+				e.getCause().printStackTrace();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for rentals", e);
+			}
+		}
+	}
+
+	/**
+	 * Tracks the rentals of a single user, grouped by their date and time.
+	 * Rentals are added in chronological order, so only the rentals of the two latest dates and times are kept:
+	 * a new rental depends on the rentals of the latest earlier date and time, which in turn depend on all rentals before them.
+	 */
+	private static class DependencyChain {
+		/** The date and time of the latest rentals. */
+		private LocalDateTime latestDateTime;
+		/** The rentals with the latest date and time. */
+		private List<CompletableFuture<Void>> latest = new ArrayList<>();
+		/** The rentals with the date and time before the latest one. */
+		private List<CompletableFuture<Void>> previous = new ArrayList<>();
+
+		/**
+		 * Returns the rentals that must finish before a rental with the specified date and time can start,
+		 * and moves the chain to that date and time.
+		 *
+		 * @param dateTime the date and time of the new rental.
+		 * @return the rentals that the new rental depends on.
+		 */
+		private List<CompletableFuture<Void>> predecessorsOf(LocalDateTime dateTime) {
+			if (latestDateTime == null || !latestDateTime.equals(dateTime)) {
+				previous = latest;
+				latest = new ArrayList<>();
+				latestDateTime = dateTime;
+			}
+			return previous;
+		}
+
+		/**
+		 * Adds a rental with the current date and time of the chain.
+		 *
+		 * @param future the future of the rental.
+		 */
+		private void add(CompletableFuture<Void> future) {
+			latest.add(future);
+		}
+	}
+}
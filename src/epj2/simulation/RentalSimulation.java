@@ -1,11 +1,14 @@
 package epj2.simulation;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import epj2.config.AppConfig;
+import epj2.config.ConfigWatcher;
+import epj2.config.SimulationConfig;
 import epj2.gui.MapDisplay;
 import epj2.model.vehicle.Vehicle;
+import epj2.service.InvoiceLedger;
+import epj2.service.InvoiceRecord;
 import epj2.service.Rental;
 import epj2.service.report.*;
 import epj2.util.*;
@@ -21,85 +24,136 @@ import epj2.util.*;
 public class RentalSimulation {
 	/** List of faulty vehicles */
 	private static List<Vehicle> faultyVehicles = new ArrayList<>();;
+	/** The clock that maps virtual simulation time to wall-clock time. */
+	private static SimulationClock clock;
+	/** The virtual pause (in seconds) between two rounds of rentals. */
+	private static double slotPauseSeconds;
+	/** The kind of executor that runs rentals in the threaded mode ({@code VIRTUAL} or {@code PLATFORM}). */
+	private static String executorKind;
+	/** The maximum number of rentals that run at the same time in the threaded mode (non-positive for the default). */
+	private static int maxParallelism;
+	/** Indicates whether rentals of the same user run one after another in the threaded mode. */
+	private static boolean userDependencies;
+	
+	// Static block to initialize the simulation clock and the settings of the threaded mode from the simulation configuration
+	static {
+		SimulationConfig simulationConfig = AppConfig.get().getSimulation();
+		clock = new SimulationClock(simulationConfig.getSpeedFactor());
+		slotPauseSeconds = simulationConfig.getSlotPauseSeconds();
+		executorKind = simulationConfig.getExecutor();
+		maxParallelism = simulationConfig.getMaxParallelism();
+		userDependencies = simulationConfig.isUserDependencies();
+	}
 	
 	/**
 	 * Initializes the application, processes command-line arguments
 	 * and starts the main functionality of the program.
 	 * This method performs the following steps:
+	 * -Starts a {@link ConfigWatcher} if {@code CONFIG_RELOAD} is enabled, so changes of the pricing and report
+	 *  coefficients apply to the invoices and reports issued after the change, without restarting the simulation.
 	 * -Loads vehicle data from a CSV file and rental data from a specified file.
 	 * -Initializes and configures the map display with the loaded vehicle and rental data.
-	 * -Disables map display buttons, runs the simulation, and then re-enables the buttons.
-	 * -Parses invoice data from the specified directory.
+	 * -Registers a {@link LiveReportAggregate} with the {@link InvoiceLedger}, so every issued invoice updates the report
+	 *  totals and the report buttons show up-to-date reports during the simulation.
+	 * -Disables the fault button, runs the simulation (event-driven, or with one task per rental if
+	 *  {@code SIMULATION_MODE} is set to {@code THREADED}), and then re-enables the buttons.
+	 * -Generates the report files from the final live totals, without aggregating the invoices again.
 	 * -Updates the map display with the generated summary and daily reports, as well as the list of faulty vehicles.
 	 * 
 	 * @param args an array of {@code String} arguments passed from the command line during the application's execution.
 	 */
 	public static void main(String[] args) {
+	    if (AppConfig.get().getSimulation().isConfigReload()) {
+	    	ConfigWatcher.start();
+	    }
 	    Map<String, Vehicle> vehicles = VehicleLoader.loadVehiclesFromCSV();
 	    List<Rental> rentals = RentalLoader.loadRentals(vehicles);
 	    MapDisplay mapDisplay = new MapDisplay();
 	    mapDisplay.setVehicles(vehicles);
+	    LiveReportAggregate liveReports = LiveReportAggregate.attach(vehicles);
+	    mapDisplay.setLiveReports(liveReports);
 	    for (Rental rental : rentals) {
-	    	rental.setMapDisplay(mapDisplay);
+	    	rental.setPositionSink(mapDisplay);
 	    }    
 	    
 	    mapDisplay.enableButtons(false);
-	    runSimulation(rentals);
+	    if (AppConfig.get().getSimulation().isThreaded()) {
+	    	runThreadedSimulation(rentals);
+	    }
+	    else {
+	    	runSimulation(rentals);
+	    }
 	    mapDisplay.enableButtons(true);
 	    
-	    List<InvoiceParser> invoices = InvoiceParser.parseAllInvoices();
-	    new TopVehicleReport(vehicles, invoices);
-	    SummaryReport summaryReport = new SummaryReport(vehicles, invoices);
+	    List<InvoiceRecord> invoices = InvoiceLedger.getRecords();
+	    ReportAggregate aggregate = liveReports.snapshot();
+	    new TopVehicleReport(vehicles, invoices, aggregate);
+	    SummaryReport summaryReport = new SummaryReport(vehicles, invoices, aggregate);
 	    String summaryReportData = summaryReport.getReportData();
 	    mapDisplay.setSummaryReportData(summaryReportData);
-	    DailyReport dailyReport = new DailyReport(vehicles, invoices);
+	    DailyReport dailyReport = new DailyReport(vehicles, invoices, aggregate);
 	    Map<LocalDate, String> dailyReportData = dailyReport.getReportData();
 	    mapDisplay.setDailyReportData(dailyReportData);
+	    mapDisplay.setDailyRollupFile(dailyReport.getRollupFile());
 	    mapDisplay.setFaultyVehicles(faultyVehicles);
 	        
 	 }
 	
 	/**
-	 * This function initiates the vehicle rental simulation. 
-	 * First, rentals are grouped and sorted by date and time. 
-	 * Rentals scheduled for the same date and time are processed concurrently,
-	 * with each rental running in its own thread. 
-	 * After all rentals for the current date and time are complete, the system records any 
-	 * vehicle faults that occurred during these rentals 
-	 * and then waits for 5 seconds before starting the next round of rentals. 
-	 * Once all rentals have been processed, a message is displayed on the console indicating that the simulation is over.
+	 * This function initiates the event-driven vehicle rental simulation.
+	 * The start of every rental is scheduled at its date and time, and all rentals are then advanced
+	 * by a {@link DiscreteEventSimulation} in virtual time, at the speed given by the simulation clock.
+	 * Rentals scheduled for the same date and time move at the same time, unless they use the same vehicle,
+	 * and periods without active rentals are replaced by the pause between rounds of rentals.
+	 * After all rentals have been processed, the system records any vehicle faults that occurred 
+	 * and a message is displayed on the console indicating that the simulation is over.
 	 * 
 	 * @param rentals list of all rentals
 	 */
     public static void runSimulation(List<Rental> rentals) {
-        Map<LocalDateTime, List<Rental>> rentalsByDateTime = rentals.stream()
-                .collect(Collectors.groupingBy(Rental::getDateTime));
-        
-        List<LocalDateTime> sortedDateTimes = new ArrayList<>(rentalsByDateTime.keySet());
-        Collections.sort(sortedDateTimes);
-
-        for (LocalDateTime dateTime : sortedDateTimes) {
-            List<Rental> currentRentals = rentalsByDateTime.get(dateTime);
-            for (Rental rental : currentRentals) {
-                rental.start();
-            }
-            for (Rental rental : currentRentals) {
-                try {
-                    rental.join();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-            }           
-            for (Rental rental : currentRentals) {
-                if (rental.hasFaultOccurred()) {
-                    faultyVehicles.add(rental.getFaultyVehicle());
-                }
+    	runSimulation(rentals, clock);
+    }
+    
+    /**
+     * Runs the event-driven vehicle rental simulation with the specified clock.
+     * 
+     * @param rentals list of all rentals
+     * @param simulationClock the clock that maps virtual simulation time to wall-clock time
+     * @see #runSimulation(List)
+     */
+    public static void runSimulation(List<Rental> rentals, SimulationClock simulationClock) {
+    	DiscreteEventSimulation simulation = new DiscreteEventSimulation(simulationClock, slotPauseSeconds);
+    	simulation.scheduleRentals(rentals);
+    	simulation.run();
+        for (Rental rental : rentals) {
+            if (rental.hasFaultOccurred()) {
+                faultyVehicles.add(rental.getFaultyVehicle());
             }
-
-            try {
-                Thread.sleep(5000);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
+        }
+        System.out.println("The rental simulation has finished.");
+    }
+	
+	/**
+	 * This function initiates the vehicle rental simulation with one task per rental. 
+	 * Rentals are processed concurrently on a {@link RentalExecutor} (virtual threads by default,
+	 * or a bounded pool of platform threads) and scheduled by a {@link RentalScheduler}:
+	 * a rental only waits for the previous rental of the same vehicle (and for the earlier rentals of the same user, if {@code USER_DEPENDENCIES} is enabled),
+	 * while independent rentals start as soon as possible, regardless of their date and time. 
+	 * After all rentals are complete, the system records any vehicle faults that occurred during these rentals.
+	 * Once all rentals have been processed, a message is displayed on the console indicating that the simulation is over.
+	 * 
+	 * @param rentals list of all rentals, sorted by date and time
+	 */
+    public static void runThreadedSimulation(List<Rental> rentals) {
+        for (Rental rental : rentals) {
+        	rental.setClock(clock);
+        }
+        try (RentalExecutor executor = RentalExecutor.create(executorKind, maxParallelism)) {
+        	new RentalScheduler(executor, userDependencies).runAll(rentals);
+        }
+        for (Rental rental : rentals) {
+            if (rental.hasFaultOccurred()) {
+                faultyVehicles.add(rental.getFaultyVehicle());
             }
         }
         System.out.println("The rental simulation has finished.");
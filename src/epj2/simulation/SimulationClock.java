@@ -0,0 +1,67 @@
+package epj2.simulation;
+
+/**
+ * Maps virtual simulation time to wall-clock time.
+ * The clock is configured with a speed factor: a factor of 1 runs the simulation in real time, a factor of N runs it
+ * N times faster than real time and a factor of 0 (or any non-positive value) runs it as fast as possible,
+ * without any waiting.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public class SimulationClock {
+	/** Number of nanoseconds in one millisecond. */
+	private static final long NANOS_PER_MILLI = 1_000_000L;
+	/**
+	 * The ratio between virtual and wall-clock time.
+	 * Non-positive values mean that the simulation runs as fast as possible.
+	 */
+	private final double speedFactor;
+
+	/**
+	 * Constructs a clock with the specified speed factor.
+	 *
+	 * @param speedFactor the ratio between virtual and wall-clock time (1 for real time, 0 for as fast as possible).
+	 */
+	public SimulationClock(double speedFactor) {
+		this.speedFactor = speedFactor;
+	}
+
+	/**
+	 * Returns the ratio between virtual and wall-clock time.
+	 *
+	 * @return the speed factor of the clock.
+	 */
+	public double getSpeedFactor() {
+		return speedFactor;
+	}
+
+	/**
+	 * Checks whether the clock runs the simulation as fast as possible.
+	 *
+	 * @return {@code true} if the clock never waits, {@code false} otherwise.
+	 */
+	public boolean isAsFastAsPossible() {
+		return speedFactor <= 0;
+	}
+
+	/**
+	 * Blocks the calling thread for the wall-clock time that corresponds to the given amount of virtual time.
+	 * If the clock runs as fast as possible, the method returns immediately.
+	 *
+	 * @param virtualSeconds the amount of virtual time in seconds.
+	 */
+	public void pause(double virtualSeconds) {
+		if (isAsFastAsPossible() || virtualSeconds <= 0) {
+			return;
+		}
+		long totalNanos = (long) (virtualSeconds * 1_000_000_000L / speedFactor);
+		try {
+			Thread.sleep(totalNanos / NANOS_PER_MILLI, (int) (totalNanos % NANOS_PER_MILLI));
+		}
+		catch (InterruptedException e) {
+			e.printStackTrace();
+			Thread.currentThread().interrupt();
+		}
+	}
+}
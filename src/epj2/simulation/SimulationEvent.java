@@ -0,0 +1,91 @@
+package epj2.simulation;
+
+import java.time.LocalDateTime;
+
+import epj2.service.Rental;
+
+/**
+ * Represents a single timestamped event of the {@link DiscreteEventSimulation}.
+ * Events are ordered by their virtual time. Events scheduled for the same virtual time are ordered
+ * by the sequence number, that is, in the order in which they were scheduled.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public final class SimulationEvent implements Comparable<SimulationEvent> {
+	/** The virtual time at which the event occurs. */
+	private final LocalDateTime time;
+	/** The sequence number used to order events that occur at the same time. */
+	private final long sequence;
+	/** The type of the event. */
+	private final EventType type;
+	/** The rental to which the event belongs. */
+	private final Rental rental;
+	/** The index of the route cell to which the event refers. */
+	private final int cellIndex;
+
+	/**
+	 * Constructs a new event.
+	 *
+	 * @param time the virtual time at which the event occurs.
+	 * @param sequence the sequence number used to order events that occur at the same time.
+	 * @param type the type of the event.
+	 * @param rental the rental to which the event belongs.
+	 * @param cellIndex the index of the route cell to which the event refers.
+	 */
+	public SimulationEvent(LocalDateTime time, long sequence, EventType type, Rental rental, int cellIndex) {
+		this.time = time;
+		this.sequence = sequence;
+		this.type = type;
+		this.rental = rental;
+		this.cellIndex = cellIndex;
+	}
+
+	/**
+	 * Returns the virtual time at which the event occurs.
+	 *
+	 * @return the virtual time of the event.
+	 */
+	public LocalDateTime getTime() {
+		return time;
+	}
+
+	/**
+	 * Returns the type of the event.
+	 *
+	 * @return the type of the event.
+	 */
+	public EventType getType() {
+		return type;
+	}
+
+	/**
+	 * Returns the rental to which the event belongs.
+	 *
+	 * @return the rental of the event.
+	 */
+	public Rental getRental() {
+		return rental;
+	}
+
+	/**
+	 * Returns the index of the route cell to which the event refers.
+	 *
+	 * @return the index of the route cell.
+	 */
+	public int getCellIndex() {
+		return cellIndex;
+	}
+
+	/**
+	 * Compares this event with the specified event by virtual time and then by sequence number.
+	 *
+	 * @param other the event to be compared.
+	 * @return a negative integer, zero, or a positive integer as this event occurs before, at the same time as, or after the specified event.
+	 */
+	@Override
+	public int compareTo(SimulationEvent other) {
+		int result = time.compareTo(other.time);
+		return result != 0 ? result : Long.compare(sequence, other.sequence);
+	}
+}
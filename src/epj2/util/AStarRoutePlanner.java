@@ -0,0 +1,286 @@
+package epj2.util;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import epj2.model.vehicle.Car;
+import epj2.model.vehicle.Vehicle;
+
+/**
+ * A route planner that finds the shortest route around obstacles of a {@link GridMap} with the A* algorithm.
+ * Vehicles move between neighbouring cells (up, down, left and right), each move costs one step, and the
+ * Manhattan distance to the end location is used as the heuristic, so the routes are as short as possible.
+ * Cars cannot enter pedestrian zones, except at the start and the end of a route.
+ *
+ * The search uses primitive arrays only: a search borrows a set of arrays for the whole grid from a small pool and marks
+ * the cells of each search with a new generation number, so the arrays never have to be cleared. The pool keeps at most
+ * one set of arrays per available processor, so the memory does not grow with the number of rental threads (with virtual
+ * threads every rental has its own thread); if more searches run at the same time, the extra arrays are allocated for
+ * that search only and then dropped.
+ * If the end location cannot be reached, a warning is printed and the {@link ManhattanRoute} is returned.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public class AStarRoutePlanner implements RoutePlanner {
+	/** The x-offsets of the moves to neighbouring cells. */
+	private static final int[] DX = {-1, 1, 0, 0};
+	/** The y-offsets of the moves to neighbouring cells. */
+	private static final int[] DY = {0, 0, -1, 1};
+	/** The move allowed out of every one-way cell type, as an index into {@link #DX} and {@link #DY}. */
+	private static final int[] ONE_WAY_MOVE = new int[GridMap.ONE_WAY_RIGHT + 1];
+	/** The largest number of idle search arrays kept in the pool. */
+	private static final int MAX_POOLED_SEARCHES = Runtime.getRuntime().availableProcessors();
+	/** The grid of the city streets. */
+	private final GridMap grid;
+	/** The idle search arrays. */
+	private final ConcurrentLinkedQueue<Search> idleSearches = new ConcurrentLinkedQueue<>();
+	/** The number of search arrays in {@link #idleSearches}. */
+	private final AtomicInteger idleSearchCount = new AtomicInteger();
+
+	static {
+		Arrays.fill(ONE_WAY_MOVE, -1);
+		ONE_WAY_MOVE[GridMap.ONE_WAY_UP] = 0;
+		ONE_WAY_MOVE[GridMap.ONE_WAY_DOWN] = 1;
+		ONE_WAY_MOVE[GridMap.ONE_WAY_LEFT] = 2;
+		ONE_WAY_MOVE[GridMap.ONE_WAY_RIGHT] = 3;
+	}
+
+	/**
+	 * Constructs a route planner for the specified grid.
+	 *
+	 * @param grid the grid of the city streets.
+	 */
+	public AStarRoutePlanner(GridMap grid) {
+		this.grid = grid;
+	}
+
+	@Override
+	public Route plan(int startX, int startY, int endX, int endY, Class<? extends Vehicle> vehicleType) {
+		int[] cells = null;
+		if (grid.contains(startX, startY) && grid.contains(endX, endY)) {
+			Search search = borrowSearch();
+			try {
+				cells = search.run(startX * grid.getCols() + startY, endX * grid.getCols() + endY,
+						Car.class.isAssignableFrom(vehicleType));
+			}
+			finally {
+				returnSearch(search);
+			}
+		}
+		if (cells == null) {
+			System.out.println("Warning: No route from (" + startX + "," + startY + ") to (" + endX + "," + endY + ") for "
+					+ vehicleType.getSimpleName() + ". Using the direct route.");
+			return new ManhattanRoute(startX, startY, endX, endY);
+		}
+		return new PackedRoute(cells);
+	}
+
+	/**
+	 * Takes idle search arrays from the pool, or allocates new ones if the pool is empty.
+	 *
+	 * @return the search arrays, used by the calling thread only until they are returned.
+	 */
+	private Search borrowSearch() {
+		Search search = idleSearches.poll();
+		if (search == null) {
+			return new Search(grid.getRows() * grid.getCols());
+		}
+		idleSearchCount.decrementAndGet();
+		return search;
+	}
+
+	/**
+	 * Returns search arrays to the pool, unless the pool is full.
+	 *
+	 * @param search the search arrays that are no longer used.
+	 */
+	private void returnSearch(Search search) {
+		if (idleSearchCount.incrementAndGet() <= MAX_POOLED_SEARCHES) {
+			idleSearches.offer(search);
+		}
+		else {
+			idleSearchCount.decrementAndGet();
+		}
+	}
+
+	/**
+	 * The arrays of an A* search, used by one thread at a time.
+	 */
+	private final class Search {
+		/** The number of steps of the shortest known route to every cell. */
+		private final int[] steps;
+		/** The previous cell of the shortest known route to every cell. */
+		private final int[] previous;
+		/** The generation in which every cell was reached; older values of other arrays are ignored. */
+		private final int[] reached;
+		/** The generation in which every cell was closed. */
+		private final int[] closed;
+		/** The generation of the current search. */
+		private int generation;
+		/** The keys of the open cells, ordered as a binary min-heap. */
+		private long[] heapKeys = new long[256];
+		/** The open cells, in the same order as their keys. */
+		private int[] heapCells = new int[256];
+		/** The number of entries in the heap. */
+		private int heapSize;
+
+		/**
+		 * Constructs the search arrays for a grid with the specified number of cells.
+		 *
+		 * @param cellCount the number of cells of the grid.
+		 */
+		private Search(int cellCount) {
+			steps = new int[cellCount];
+			previous = new int[cellCount];
+			reached = new int[cellCount];
+			closed = new int[cellCount];
+		}
+
+		/**
+		 * Finds the shortest route between two cells.
+		 *
+		 * @param start the index of the start cell.
+		 * @param end the index of the end cell.
+		 * @param isCar {@code true} if the route may not pass through pedestrian zones.
+		 * @return the packed cells of the route, or {@code null} if the end cell cannot be reached.
+		 */
+		private int[] run(int start, int end, boolean isCar) {
+			if (++generation == 0) {
+				Arrays.fill(reached, 0);
+				Arrays.fill(closed, 0);
+				generation = 1;
+			}
+			int cols = grid.getCols();
+			int endX = end / cols;
+			int endY = end % cols;
+			heapSize = 0;
+			reach(start, 0, start, endX, endY, cols);
+			while (heapSize > 0) {
+				int cell = pop();
+				if (closed[cell] == generation) {
+					continue;
+				}
+				if (cell == end) {
+					return buildRoute(start, end, cols);
+				}
+				closed[cell] = generation;
+				int x = cell / cols;
+				int y = cell % cols;
+				int oneWayMove = ONE_WAY_MOVE[grid.getCell(cell)];
+				for (int move = 0; move < DX.length; move++) {
+					if (oneWayMove >= 0 && move != oneWayMove) {
+						continue;
+					}
+					int nextX = x + DX[move];
+					int nextY = y + DY[move];
+					if (!grid.contains(nextX, nextY)) {
+						continue;
+					}
+					int next = nextX * cols + nextY;
+					byte type = grid.getCell(next);
+					if (type == GridMap.BLOCKED || (isCar && type == GridMap.PEDESTRIAN && next != end) || closed[next] == generation) {
+						continue;
+					}
+					int nextSteps = steps[cell] + 1;
+					if (reached[next] != generation || nextSteps < steps[next]) {
+						reach(next, nextSteps, cell, endX, endY, cols);
+					}
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * Records a shorter route to a cell and adds the cell to the heap.
+		 * Cells with the same estimated length are ordered by the number of steps, descending, so cells closer
+		 * to the end location are expanded first.
+		 *
+		 * @param cell the index of the cell.
+		 * @param cellSteps the number of steps to the cell.
+		 * @param from the index of the previous cell.
+		 * @param endX the x-coordinate of the end cell.
+		 * @param endY the y-coordinate of the end cell.
+		 * @param cols the number of columns of the grid.
+		 */
+		private void reach(int cell, int cellSteps, int from, int endX, int endY, int cols) {
+			reached[cell] = generation;
+			steps[cell] = cellSteps;
+			previous[cell] = from;
+			int estimate = cellSteps + Math.abs(cell / cols - endX) + Math.abs(cell % cols - endY);
+			push(((long) estimate << 32) | (0xFFFFFFFFL - cellSteps), cell);
+		}
+
+		/**
+		 * Follows the previous cells from the end to the start cell and packs the route.
+		 *
+		 * @param start the index of the start cell.
+		 * @param end the index of the end cell.
+		 * @param cols the number of columns of the grid.
+		 * @return the packed cells of the route, from the start to the end cell.
+		 */
+		private int[] buildRoute(int start, int end, int cols) {
+			int[] route = new int[steps[end] + 1];
+			int cell = end;
+			for (int i = route.length - 1; i >= 0; i--) {
+				route[i] = PackedRoute.pack(cell / cols, cell % cols);
+				cell = previous[cell];
+			}
+			return route;
+		}
+
+		/**
+		 * Adds a cell to the heap.
+		 *
+		 * @param key the key of the cell.
+		 * @param cell the index of the cell.
+		 */
+		private void push(long key, int cell) {
+			if (heapSize == heapKeys.length) {
+				heapKeys = Arrays.copyOf(heapKeys, heapSize * 2);
+				heapCells = Arrays.copyOf(heapCells, heapSize * 2);
+			}
+			int i = heapSize++;
+			while (i > 0) {
+				int parent = (i - 1) >>> 1;
+				if (heapKeys[parent] <= key) {
+					break;
+				}
+				heapKeys[i] = heapKeys[parent];
+				heapCells[i] = heapCells[parent];
+				i = parent;
+			}
+			heapKeys[i] = key;
+			heapCells[i] = cell;
+		}
+
+		/**
+		 * Removes the cell with the smallest key from the heap.
+		 *
+		 * @return the index of the cell.
+		 */
+		private int pop() {
+			int top = heapCells[0];
+			long key = heapKeys[--heapSize];
+			int cell = heapCells[heapSize];
+			int i = 0;
+			int half = heapSize >>> 1;
+			while (i < half) {
+				int child = 2 * i + 1;
+				if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child]) {
+					child++;
+				}
+				if (key <= heapKeys[child]) {
+					break;
+				}
+				heapKeys[i] = heapKeys[child];
+				heapCells[i] = heapCells[child];
+				i = child;
+			}
+			heapKeys[i] = key;
+			heapCells[i] = cell;
+			return top;
+		}
+	}
+}
@@ -0,0 +1,145 @@
+package epj2.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import epj2.model.vehicle.Vehicle;
+
+/**
+ * A route planner that keeps the most recently used routes of another planner in a bounded LRU cache,
+ * keyed by the start location, the end location and the type of the vehicle.
+ * The same locations repeat often in the rentals, so most routes are planned only once.
+ * Routes are immutable, so a cached route is shared by all rentals that use it.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public class CachingRoutePlanner implements RoutePlanner {
+	/** The planner that plans the routes that are not in the cache. */
+	private final RoutePlanner planner;
+	/** The cached routes, from the least to the most recently used. */
+	private final Map<RouteKey, Route> routes;
+	/** The number of routes found in the cache. */
+	private long hitCount;
+	/** The number of routes planned by the underlying planner. */
+	private long missCount;
+
+	/**
+	 * Constructs a caching route planner.
+	 *
+	 * @param planner the planner that plans the routes that are not in the cache.
+	 * @param capacity the largest number of cached routes.
+	 * @throws IllegalArgumentException if the capacity is not positive.
+	 */
+	public CachingRoutePlanner(RoutePlanner planner, int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("The capacity of the route cache must be positive");
+		}
+		this.planner = planner;
+		this.routes = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<RouteKey, Route> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * Returns the cached route, or plans the route and caches it.
+	 * The route is planned outside of the lock, so rentals with different routes do not wait for each other.
+	 * As a consequence, rentals that miss the same route at the same time all plan it, and the last one replaces
+	 * the cached route with an equal one. This only costs some duplicate planning when the cache is cold.
+	 */
+	@Override
+	public Route plan(int startX, int startY, int endX, int endY, Class<? extends Vehicle> vehicleType) {
+		RouteKey key = new RouteKey(startX, startY, endX, endY, vehicleType);
+		synchronized (routes) {
+			Route route = routes.get(key);
+			if (route != null) {
+				hitCount++;
+				return route;
+			}
+			missCount++;
+		}
+		Route route = planner.plan(startX, startY, endX, endY, vehicleType);
+		synchronized (routes) {
+			routes.put(key, route);
+		}
+		return route;
+	}
+
+	/**
+	 * Returns the number of routes found in the cache.
+	 *
+	 * @return the number of cache hits.
+	 */
+	public long getHitCount() {
+		synchronized (routes) {
+			return hitCount;
+		}
+	}
+
+	/**
+	 * Returns the number of routes that were not in the cache.
+	 *
+	 * @return the number of cache misses.
+	 */
+	public long getMissCount() {
+		synchronized (routes) {
+			return missCount;
+		}
+	}
+
+	/**
+	 * Identifies a route by its start location, end location and the type of the vehicle.
+	 */
+	private static final class RouteKey {
+		/** The x-coordinate of the start location. */
+		private final int startX;
+		/** The y-coordinate of the start location. */
+		private final int startY;
+		/** The x-coordinate of the end location. */
+		private final int endX;
+		/** The y-coordinate of the end location. */
+		private final int endY;
+		/** The type of the vehicle. */
+		private final Class<? extends Vehicle> vehicleType;
+
+		/**
+		 * Constructs a key for the specified route.
+		 *
+		 * @param startX the x-coordinate of the start location.
+		 * @param startY the y-coordinate of the start location.
+		 * @param endX the x-coordinate of the end location.
+		 * @param endY the y-coordinate of the end location.
+		 * @param vehicleType the type of the vehicle.
+		 */
+		private RouteKey(int startX, int startY, int endX, int endY, Class<? extends Vehicle> vehicleType) {
+			this.startX = startX;
+			this.startY = startY;
+			this.endX = endX;
+			this.endY = endY;
+			this.vehicleType = vehicleType;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof RouteKey)) {
+				return false;
+			}
+			RouteKey key = (RouteKey) other;
+			return startX == key.startX && startY == key.startY && endX == key.endX && endY == key.endY
+					&& vehicleType == key.vehicleType;
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = 31 * startX + startY;
+			hash = 31 * hash + endX;
+			hash = 31 * hash + endY;
+			return 31 * hash + vehicleType.hashCode();
+		}
+	}
+}
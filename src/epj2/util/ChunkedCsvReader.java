@@ -0,0 +1,158 @@
+package epj2.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Reads a CSV file in parallel.
+ * The file is memory-mapped and split into chunks that end at line boundaries. Every chunk is parsed
+ * on the common {@link ForkJoinPool} by its own line parser, and the results of all chunks are returned
+ * in the order of the lines in the file, so that the caller can merge them sequentially.
+ * The first line of the file is treated as a header and skipped.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public class ChunkedCsvReader {
+	/** The largest chunk that can be mapped at once. */
+	private static final long MAX_CHUNK_SIZE = Integer.MAX_VALUE;
+	/** The default chunk size (64 MB), used if no positive chunk size is specified. */
+	private static final long DEFAULT_CHUNK_SIZE = 64L * 1024 * 1024;
+
+	/**
+	 * Parses all lines of the file (except the header) in parallel.
+	 * Every line is passed to a line parser, including empty lines. Line parsers are created by the specified
+	 * supplier, one for every chunk, so they do not have to be thread-safe.
+	 *
+	 * @param <T> the type of the result of parsing one line.
+	 * @param filePath the path to the CSV file.
+	 * @param chunkSize the approximate size of a chunk in bytes, or a non-positive value for the default size.
+	 * @param parserSupplier creates the line parser of a chunk.
+	 * @return the results of parsing every line, in file order.
+	 * @throws IOException if the file cannot be read.
+	 */
+	public static <T> List<T> parseLines(String filePath, long chunkSize, Supplier<Function<String, T>> parserSupplier) throws IOException {
+		long size = chunkSize > 0 ? Math.min(chunkSize, MAX_CHUNK_SIZE) : DEFAULT_CHUNK_SIZE;
+		try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+			List<long[]> chunks = splitIntoChunks(channel, size);
+			List<Callable<List<T>>> tasks = new ArrayList<>(chunks.size());
+			for (long[] chunk : chunks) {
+				tasks.add(() -> parseChunk(channel.map(FileChannel.MapMode.READ_ONLY, chunk[0], chunk[1] - chunk[0]), parserSupplier.get()));
+			}
+			List<T> results = new ArrayList<>();
+			for (Future<List<T>> future : ForkJoinPool.commonPool().invokeAll(tasks)) {
+				results.addAll(future.get());
+			}
+			return results;
+		}
+		catch (ExecutionException e) {
+			throw new IOException("Parsing of " + filePath + " failed", e.getCause());
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Parsing of " + filePath + " was interrupted", e);
+		}
+	}
+
+	/**
+	 * Splits the file (without the header line) into chunks that end right after a line break or at the end of the file.
+	 *
+	 * @param channel the channel of the file.
+	 * @param chunkSize the approximate size of a chunk in bytes.
+	 * @return the chunks as {start, end} pairs of byte positions.
+	 * @throws IOException if the file cannot be read.
+	 */
+	private static List<long[]> splitIntoChunks(FileChannel channel, long chunkSize) throws IOException {
+		List<long[]> chunks = new ArrayList<>();
+		long fileSize = channel.size();
+		long start = nextLineStart(channel, 0);
+		while (start < fileSize) {
+			long end = start + chunkSize >= fileSize ? fileSize : nextLineStart(channel, start + chunkSize);
+			chunks.add(new long[] {start, end});
+			start = end;
+		}
+		return chunks;
+	}
+
+	/**
+	 * Finds the position right after the first line break at or after the specified position.
+	 *
+	 * @param channel the channel of the file.
+	 * @param position the position at which the search starts.
+	 * @return the position of the start of the next line, or the size of the file if there is no further line break.
+	 * @throws IOException if the file cannot be read.
+	 */
+	private static long nextLineStart(FileChannel channel, long position) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(8192);
+		long current = position;
+		while (channel.read(buffer.clear(), current) > 0) {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				current++;
+				if (buffer.get() == '\n') {
+					return current;
+				}
+			}
+		}
+		return channel.size();
+	}
+
+	/**
+	 * Parses all lines of a mapped chunk. Line breaks ({@code \n} or {@code \r\n}) are removed, and lines are decoded as UTF-8.
+	 *
+	 * @param <T> the type of the result of parsing one line.
+	 * @param chunk the mapped chunk.
+	 * @param parser the line parser of the chunk.
+	 * @return the results of parsing every line of the chunk, in order.
+	 */
+	private static <T> List<T> parseChunk(MappedByteBuffer chunk, Function<String, T> parser) {
+		List<T> results = new ArrayList<>();
+		byte[] lineBytes = new byte[256];
+		int length = 0;
+		while (chunk.hasRemaining()) {
+			byte b = chunk.get();
+			if (b == '\n') {
+				results.add(parser.apply(decode(lineBytes, length)));
+				length = 0;
+			}
+			else {
+				if (length == lineBytes.length) {
+					lineBytes = Arrays.copyOf(lineBytes, length * 2);
+				}
+				lineBytes[length++] = b;
+			}
+		}
+		if (length > 0) {
+			results.add(parser.apply(decode(lineBytes, length)));
+		}
+		return results;
+	}
+
+	/**
+	 * Decodes a line from UTF-8, removing a trailing carriage return.
+	 *
+	 * @param bytes the bytes of the line.
+	 * @param length the number of bytes of the line.
+	 * @return the decoded line.
+	 */
+	private static String decode(byte[] bytes, int length) {
+		if (length > 0 && bytes[length - 1] == '\r') {
+			length--;
+		}
+		return new String(bytes, 0, length, StandardCharsets.UTF_8);
+	}
+}
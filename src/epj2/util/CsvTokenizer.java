@@ -0,0 +1,145 @@
+package epj2.util;
+
+import java.util.Arrays;
+
+/**
+ * A reusable, quote-aware tokenizer for single lines of a CSV file.
+ * The tokenizer splits a line on commas that are not enclosed in double quotes, without regular expressions
+ * and without creating a string for every field. Field boundaries are stored in reusable arrays, and values
+ * are only extracted when they are requested.
+ * As with {@link String#split(String)}, trailing empty fields are not counted.
+ * An instance is not thread-safe and is meant to be reused for all lines read by a single thread.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public class CsvTokenizer {
+	/** The line that is currently tokenized. */
+	private String line;
+	/** The number of fields in the current line. */
+	private int fieldCount;
+	/** The start index (inclusive) of every field, without the enclosing quotes. */
+	private int[] starts = new int[16];
+	/** The end index (exclusive) of every field, without the enclosing quotes. */
+	private int[] ends = new int[16];
+	/** Indicates whether a field is enclosed in double quotes. */
+	private boolean[] quoted = new boolean[16];
+
+	/**
+	 * Tokenizes the specified line.
+	 *
+	 * @param line the line to be tokenized.
+	 * @return the number of fields in the line.
+	 */
+	public int tokenize(String line) {
+		this.line = line;
+		fieldCount = 0;
+		int length = line.length();
+		int fieldStart = 0;
+		boolean inQuotes = false;
+		for (int i = 0; i < length; i++) {
+			char c = line.charAt(i);
+			if (c == '"') {
+				inQuotes = !inQuotes;
+			}
+			else if (c == ',' && !inQuotes) {
+				addField(fieldStart, i);
+				fieldStart = i + 1;
+			}
+		}
+		addField(fieldStart, length);
+		while (fieldCount > 0 && starts[fieldCount - 1] == ends[fieldCount - 1] && !quoted[fieldCount - 1]) {
+			fieldCount--;
+		}
+		return fieldCount;
+	}
+
+	/**
+	 * Returns the number of fields in the current line.
+	 *
+	 * @return the number of fields.
+	 */
+	public int getFieldCount() {
+		return fieldCount;
+	}
+
+	/**
+	 * Returns the value of the field with the specified index, without the enclosing quotes.
+	 *
+	 * @param index the index of the field.
+	 * @return the value of the field.
+	 */
+	public String getField(int index) {
+		return line.substring(starts[index], ends[index]);
+	}
+
+	/**
+	 * Checks whether the field with the specified index is enclosed in double quotes.
+	 *
+	 * @param index the index of the field.
+	 * @return {@code true} if the field is quoted, {@code false} otherwise.
+	 */
+	public boolean isQuoted(int index) {
+		return quoted[index];
+	}
+
+	/**
+	 * Returns the start index (inclusive) of the field with the specified index in the current line, without the enclosing quotes.
+	 *
+	 * @param index the index of the field.
+	 * @return the start index of the field.
+	 */
+	public int getStart(int index) {
+		return starts[index];
+	}
+
+	/**
+	 * Returns the end index (exclusive) of the field with the specified index in the current line, without the enclosing quotes.
+	 *
+	 * @param index the index of the field.
+	 * @return the end index of the field.
+	 */
+	public int getEnd(int index) {
+		return ends[index];
+	}
+
+	/**
+	 * Returns the line that is currently tokenized.
+	 *
+	 * @return the current line.
+	 */
+	public String getLine() {
+		return line;
+	}
+
+	/**
+	 * Checks whether the field with the specified index is equal to the specified value, ignoring case.
+	 *
+	 * @param index the index of the field.
+	 * @param value the value to compare with.
+	 * @return {@code true} if the field is equal to the value, ignoring case, {@code false} otherwise.
+	 */
+	public boolean fieldEqualsIgnoreCase(int index, String value) {
+		int length = ends[index] - starts[index];
+		return length == value.length() && line.regionMatches(true, starts[index], value, 0, length);
+	}
+
+	/**
+	 * Stores the boundaries of a field, removing the enclosing quotes if there are any.
+	 *
+	 * @param from the index of the first character of the field.
+	 * @param to the index after the last character of the field.
+	 */
+	private void addField(int from, int to) {
+		if (fieldCount == starts.length) {
+			starts = Arrays.copyOf(starts, fieldCount * 2);
+			ends = Arrays.copyOf(ends, fieldCount * 2);
+			quoted = Arrays.copyOf(quoted, fieldCount * 2);
+		}
+		boolean isQuoted = to - from >= 2 && line.charAt(from) == '"' && line.charAt(to - 1) == '"';
+		starts[fieldCount] = isQuoted ? from + 1 : from;
+		ends[fieldCount] = isQuoted ? to - 1 : to;
+		quoted[fieldCount] = isQuoted;
+		fieldCount++;
+	}
+}
@@ -0,0 +1,168 @@
+package epj2.util;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A grid of the streets of the city, loaded from a text file with one character per cell and one line per row:
+ * <ul>
+ * <li>{@code .} - a street that every vehicle can use in any direction,</li>
+ * <li>{@code #} - a blocked cell that no vehicle can enter,</li>
+ * <li>{@code P} - a pedestrian zone that bikes and scooters can use, but cars cannot,</li>
+ * <li>{@code ^ v < >} - a one-way street, which vehicles can enter from any side but only leave in the direction
+ * of the arrow ({@code ^} and {@code v} decrease and increase the x-coordinate, {@code <} and {@code >} the y-coordinate).</li>
+ * </ul>
+ * Every cell is stored in one byte, so maps of 1000x1000 cells and more take little memory.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public class GridMap {
+	/** A street that can be used in any direction. */
+	public static final byte STREET = 0;
+	/** A blocked cell. */
+	public static final byte BLOCKED = 1;
+	/** A pedestrian zone. */
+	public static final byte PEDESTRIAN = 2;
+	/** A one-way street towards a smaller x-coordinate. */
+	public static final byte ONE_WAY_UP = 3;
+	/** A one-way street towards a larger x-coordinate. */
+	public static final byte ONE_WAY_DOWN = 4;
+	/** A one-way street towards a smaller y-coordinate. */
+	public static final byte ONE_WAY_LEFT = 5;
+	/** A one-way street towards a larger y-coordinate. */
+	public static final byte ONE_WAY_RIGHT = 6;
+	/** The number of rows (x-coordinates) of the grid. */
+	private final int rows;
+	/** The number of columns (y-coordinates) of the grid. */
+	private final int cols;
+	/** The type of every cell, stored row by row. */
+	private final byte[] cells;
+
+	/**
+	 * Constructs a grid map.
+	 *
+	 * @param rows the number of rows of the grid.
+	 * @param cols the number of columns of the grid.
+	 * @param cells the type of every cell, stored row by row.
+	 */
+	public GridMap(int rows, int cols, byte[] cells) {
+		if (cells.length != rows * cols) {
+			throw new IllegalArgumentException("The grid must have " + rows * cols + " cells");
+		}
+		this.rows = rows;
+		this.cols = cols;
+		this.cells = cells;
+	}
+
+	/**
+	 * Loads a grid map from the specified file on the classpath.
+	 * Empty lines are ignored, and all other lines must have the same length.
+	 *
+	 * @param fileName the name of the map file.
+	 * @return the grid map.
+	 * @throws IOException if the file cannot be found or read.
+	 * @throws IllegalArgumentException if the file contains an unknown cell or rows of different lengths.
+	 */
+	public static GridMap load(String fileName) throws IOException {
+		InputStream input = Thread.currentThread().getContextClassLoader().getResourceAsStream(fileName);
+		if (input == null) {
+			throw new FileNotFoundException("Map file not found: " + fileName);
+		}
+		List<String> lines = new ArrayList<>();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (!line.isBlank()) {
+					lines.add(line.strip());
+				}
+			}
+		}
+		if (lines.isEmpty()) {
+			throw new IllegalArgumentException("The map file is empty: " + fileName);
+		}
+		int rows = lines.size();
+		int cols = lines.get(0).length();
+		if (rows > PackedRoute.MAX_COORDINATE + 1 || cols > PackedRoute.MAX_COORDINATE + 1) {
+			throw new IllegalArgumentException("The map is too large: " + rows + "x" + cols);
+		}
+		byte[] cells = new byte[rows * cols];
+		for (int row = 0; row < rows; row++) {
+			String line = lines.get(row);
+			if (line.length() != cols) {
+				throw new IllegalArgumentException("Row " + row + " of the map has " + line.length() + " cells instead of " + cols);
+			}
+			for (int col = 0; col < cols; col++) {
+				cells[row * cols + col] = parseCell(line.charAt(col), row, col);
+			}
+		}
+		return new GridMap(rows, cols, cells);
+	}
+
+	/**
+	 * Returns the type of the cell written as the specified character.
+	 *
+	 * @param symbol the character of the cell.
+	 * @param row the row of the cell.
+	 * @param col the column of the cell.
+	 * @return the type of the cell.
+	 * @throws IllegalArgumentException if the character is not a known cell.
+	 */
+	private static byte parseCell(char symbol, int row, int col) {
+		switch (symbol) {
+			case '.': return STREET;
+			case '#': return BLOCKED;
+			case 'P': return PEDESTRIAN;
+			case '^': return ONE_WAY_UP;
+			case 'v': return ONE_WAY_DOWN;
+			case '<': return ONE_WAY_LEFT;
+			case '>': return ONE_WAY_RIGHT;
+			default: throw new IllegalArgumentException("Unknown cell '" + symbol + "' at (" + row + "," + col + ")");
+		}
+	}
+
+	/**
+	 * Returns the number of rows (x-coordinates) of the grid.
+	 *
+	 * @return the number of rows.
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * Returns the number of columns (y-coordinates) of the grid.
+	 *
+	 * @return the number of columns.
+	 */
+	public int getCols() {
+		return cols;
+	}
+
+	/**
+	 * Checks if the specified location is on the grid.
+	 *
+	 * @param x the x-coordinate of the location.
+	 * @param y the y-coordinate of the location.
+	 * @return {@code true} if the location is on the grid, {@code false} otherwise.
+	 */
+	public boolean contains(int x, int y) {
+		return x >= 0 && y >= 0 && x < rows && y < cols;
+	}
+
+	/**
+	 * Returns the type of the cell with the specified index.
+	 *
+	 * @param cell the index of the cell ({@code x * getCols() + y}).
+	 * @return the type of the cell.
+	 */
+	public byte getCell(int cell) {
+		return cells[cell];
+	}
+}
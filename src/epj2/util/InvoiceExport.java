@@ -0,0 +1,112 @@
+package epj2.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+import epj2.config.AppConfig;
+import epj2.service.InvoiceEntry;
+
+/**
+ * A command-line tool that exports invoices from the binary invoice journal as human-readable text files,
+ * in the same format as the invoices written during the simulation.
+ * 
+ * Usage:
+ * {@code InvoiceExport [--date yyyy-MM-dd[..yyyy-MM-dd]] [--vehicle ID] [--number N] [--out directory]}
+ * Without a filter, all invoices are exported. Without {@code --out}, the invoices are written to {@code INVOICES_DIR}.
+ * The journal is read from {@code INVOICE_JOURNAL_DIR}.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public class InvoiceExport {
+	/**
+	 * Exports the invoices selected by the command-line arguments.
+	 *
+	 * @param args the command-line arguments.
+	 */
+	public static void main(String[] args) {
+		String date = null;
+		String vehicleID = null;
+		String number = null;
+		String outputDir = AppConfig.get().getFiles().getInvoicesDir();
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			switch (args[i]) {
+				case "--date": date = args[i + 1]; break;
+				case "--vehicle": vehicleID = args[i + 1]; break;
+				case "--number": number = args[i + 1]; break;
+				case "--out": outputDir = args[i + 1]; break;
+				default:
+					printUsage();
+					return;
+			}
+		}
+		if (args.length % 2 != 0) {
+			printUsage();
+			return;
+		}
+		InvoiceJournalReader reader = new InvoiceJournalReader(AppConfig.get().getFiles().getInvoiceJournalDir());
+		List<InvoiceEntry> entries;
+		try {
+			if (number != null) {
+				InvoiceEntry entry = reader.readEntry(number);
+				entries = entry != null ? List.of(entry) : List.of();
+			}
+			else if (date != null) {
+				String[] range = date.split("\\.\\.");
+				entries = reader.readEntriesByDate(LocalDate.parse(range[0]), LocalDate.parse(range[range.length - 1]));
+			}
+			else if (vehicleID != null) {
+				entries = reader.readEntriesByVehicle(vehicleID);
+			}
+			else {
+				entries = reader.readAllEntries();
+			}
+		}
+		catch (DateTimeParseException e) {
+			System.out.println("Invalid argument: " + e.getMessage());
+			printUsage();
+			return;
+		}
+		if (vehicleID != null) {
+			String id = vehicleID;
+			entries = entries.stream().filter(entry -> entry.getVehicleID().equals(id)).toList();
+		}
+		System.out.println("Exported " + export(entries, new File(outputDir)) + " invoices to " + outputDir);
+	}
+	
+	/**
+	 * Writes the text of every invoice to its own file in the output directory.
+	 *
+	 * @param entries the invoices to be exported.
+	 * @param outputDir the output directory.
+	 * @return the number of exported invoices.
+	 */
+	public static int export(List<InvoiceEntry> entries, File outputDir) {
+		if (!outputDir.exists()) {
+			outputDir.mkdirs();
+		}
+		int exported = 0;
+		for (InvoiceEntry entry : entries) {
+			try {
+				Files.write(new File(outputDir, entry.getFileName()).toPath(), entry.toText().getBytes(Charset.defaultCharset()));
+				exported++;
+			}
+			catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+		return exported;
+	}
+	
+	/**
+	 * Prints the usage of the tool.
+	 */
+	private static void printUsage() {
+		System.out.println("Usage: InvoiceExport [--date yyyy-MM-dd[..yyyy-MM-dd]] [--vehicle ID] [--number N] [--out directory]");
+	}
+}
@@ -0,0 +1,326 @@
+package epj2.util;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+import epj2.service.InvoiceEntry;
+import epj2.service.InvoiceJournal;
+import epj2.service.InvoiceRecord;
+
+/**
+ * Reads the segments of an {@link InvoiceJournal} by mapping them into memory, so records are decoded directly
+ * from the page cache without copying whole files into the heap.
+ * Queries by date and by vehicle use the sidecar index of a segment to visit only the matching records it covers;
+ * records appended after the index was written, or all records of a segment without an index (such as the segment
+ * of a run that did not shut down cleanly), are checked one by one. A partially written record at the end of a segment is ignored.
+ * The journal holds the invoices of every run; invoices are not deduplicated, so a run that replayed the same rentals
+ * into the same journal is read twice (see {@link epj2.service.InvoiceSequence}).
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public class InvoiceJournalReader {
+	/** The segments of the journal, in the order in which they were written. */
+	private final List<File> segments;
+
+	/**
+	 * Constructs a reader for the journal in the specified directory.
+	 *
+	 * @param directoryPath the path to the directory of the journal.
+	 */
+	public InvoiceJournalReader(String directoryPath) {
+		this.segments = InvoiceJournal.listSegments(new File(directoryPath));
+	}
+
+	/**
+	 * Reads the report records of all invoices in the journal.
+	 *
+	 * @return the records, in the order in which they were appended.
+	 */
+	public List<InvoiceRecord> readAllRecords() {
+		List<InvoiceRecord> records = new ArrayList<>();
+		for (File segment : segments) {
+			MappedByteBuffer buffer = map(segment);
+			if (buffer != null) {
+				int count = getRecordCount(buffer);
+				for (int record = 0; record < count; record++) {
+					records.add(InvoiceJournal.decodeRecord(buffer, getOffset(record)));
+				}
+			}
+		}
+		return records;
+	}
+
+	/**
+	 * Reads the complete invoices of all records in the journal.
+	 *
+	 * @return the invoices, in the order in which they were appended.
+	 */
+	public List<InvoiceEntry> readAllEntries() {
+		return readEntries(null, (buffer, offset) -> true);
+	}
+
+	/**
+	 * Reads the complete invoices issued between two dates.
+	 *
+	 * @param from the first date (inclusive).
+	 * @param to the last date (inclusive).
+	 * @return the invoices, in the order in which they were appended.
+	 */
+	public List<InvoiceEntry> readEntriesByDate(LocalDate from, LocalDate to) {
+		return readEntries(index -> index.findByDate(from.toEpochDay(), to.toEpochDay()), (buffer, offset) -> {
+			LocalDate date = InvoiceJournal.getIssueDate(buffer, offset).toLocalDate();
+			return !date.isBefore(from) && !date.isAfter(to);
+		});
+	}
+
+	/**
+	 * Reads the complete invoices of the vehicle with the specified ID.
+	 *
+	 * @param vehicleID the ID of the vehicle.
+	 * @return the invoices, in the order in which they were appended.
+	 */
+	public List<InvoiceEntry> readEntriesByVehicle(String vehicleID) {
+		return readEntries(index -> index.findByVehicle(vehicleID),
+				(buffer, offset) -> InvoiceJournal.getVehicleID(buffer, offset).equals(vehicleID));
+	}
+
+	/**
+	 * Reads the complete invoice with the specified number.
+	 *
+	 * @param invoiceNumber the number of the invoice, including its prefix.
+	 * @return the invoice, or {@code null} if there is no such invoice.
+	 */
+	public InvoiceEntry readEntry(String invoiceNumber) {
+		for (File segment : segments) {
+			MappedByteBuffer buffer = map(segment);
+			if (buffer != null) {
+				int count = getRecordCount(buffer);
+				for (int record = 0; record < count; record++) {
+					if (InvoiceJournal.getInvoiceNumber(buffer, getOffset(record)).equals(invoiceNumber)) {
+						return InvoiceJournal.decode(buffer, getOffset(record));
+					}
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Reads the complete invoices selected by the index of every segment.
+	 * The records that the index does not cover, or all records of a segment without an index, are checked with the filter instead.
+	 *
+	 * @param query the query of a segment index, or {@code null} to read all records.
+	 * @param filter the filter of a record, given the mapped segment and the offset of the record.
+	 * @return the invoices, in the order in which they were appended.
+	 */
+	private List<InvoiceEntry> readEntries(Function<SegmentIndex, int[]> query, BiPredicate<MappedByteBuffer, Integer> filter) {
+		List<InvoiceEntry> entries = new ArrayList<>();
+		for (File segment : segments) {
+			MappedByteBuffer buffer = map(segment);
+			if (buffer == null) {
+				continue;
+			}
+			int count = getRecordCount(buffer);
+			SegmentIndex index = query != null ? SegmentIndex.read(InvoiceJournal.getIndexFile(segment)) : null;
+			int indexed = 0;
+			if (index != null) {
+				indexed = Math.min(index.recordCount, count);
+				for (int record : query.apply(index)) {
+					if (record < indexed) {
+						entries.add(InvoiceJournal.decode(buffer, getOffset(record)));
+					}
+				}
+			}
+			for (int record = indexed; record < count; record++) {
+				if (filter.test(buffer, getOffset(record))) {
+					entries.add(InvoiceJournal.decode(buffer, getOffset(record)));
+				}
+			}
+		}
+		return entries;
+	}
+
+	/**
+	 * Maps a segment into memory and checks its header.
+	 *
+	 * @param segment the segment file.
+	 * @return the mapped segment, or {@code null} if it cannot be read or is not a valid segment.
+	 */
+	private static MappedByteBuffer map(File segment) {
+		try (FileChannel channel = FileChannel.open(segment.toPath(), StandardOpenOption.READ)) {
+			if (channel.size() < InvoiceJournal.HEADER_SIZE) {
+				return null;
+			}
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.getInt(0) != InvoiceJournal.SEGMENT_MAGIC || buffer.getInt(4) != InvoiceJournal.VERSION
+					|| buffer.getInt(8) != InvoiceJournal.RECORD_SIZE) {
+				System.out.println("Skipping invalid journal segment " + segment.getName());
+				return null;
+			}
+			return buffer;
+		}
+		catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the number of complete records in a mapped segment.
+	 *
+	 * @param buffer the mapped segment.
+	 * @return the number of records.
+	 */
+	private static int getRecordCount(MappedByteBuffer buffer) {
+		return (buffer.capacity() - InvoiceJournal.HEADER_SIZE) / InvoiceJournal.RECORD_SIZE;
+	}
+
+	/**
+	 * Returns the offset of a record in a segment.
+	 *
+	 * @param record the number of the record.
+	 * @return the offset of the record.
+	 */
+	private static int getOffset(int record) {
+		return InvoiceJournal.HEADER_SIZE + record * InvoiceJournal.RECORD_SIZE;
+	}
+
+	/**
+	 * The sidecar index of a segment, with the record numbers by date and by vehicle ID.
+	 */
+	private static final class SegmentIndex {
+		/** The number of records of the segment that the index covers. */
+		private final int recordCount;
+		/** The dates (epoch days) of the index, in ascending order. */
+		private final long[] dates;
+		/** The record numbers of every date. */
+		private final int[][] recordsByDate;
+		/** The vehicle IDs of the index. */
+		private final String[] vehicleIDs;
+		/** The record numbers of every vehicle. */
+		private final int[][] recordsByVehicle;
+
+		/**
+		 * Constructs a segment index.
+		 *
+		 * @param recordCount the number of records of the segment that the index covers.
+		 * @param dates the dates of the index, in ascending order.
+		 * @param recordsByDate the record numbers of every date.
+		 * @param vehicleIDs the vehicle IDs of the index.
+		 * @param recordsByVehicle the record numbers of every vehicle.
+		 */
+		private SegmentIndex(int recordCount, long[] dates, int[][] recordsByDate, String[] vehicleIDs, int[][] recordsByVehicle) {
+			this.recordCount = recordCount;
+			this.dates = dates;
+			this.recordsByDate = recordsByDate;
+			this.vehicleIDs = vehicleIDs;
+			this.recordsByVehicle = recordsByVehicle;
+		}
+
+		/**
+		 * Reads the index from a file.
+		 *
+		 * @param file the index file.
+		 * @return the index, or {@code null} if the file does not exist or is not valid.
+		 */
+		private static SegmentIndex read(File file) {
+			if (!file.exists()) {
+				return null;
+			}
+			try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+				if (in.readInt() != InvoiceJournal.INDEX_MAGIC || in.readInt() != InvoiceJournal.VERSION) {
+					return null;
+				}
+				int recordCount = in.readInt();
+				int dateCount = in.readInt();
+				long[] dates = new long[dateCount];
+				int[][] recordsByDate = new int[dateCount][];
+				for (int i = 0; i < dateCount; i++) {
+					dates[i] = in.readLong();
+					recordsByDate[i] = readRecords(in);
+				}
+				int vehicleCount = in.readInt();
+				String[] vehicleIDs = new String[vehicleCount];
+				int[][] recordsByVehicle = new int[vehicleCount][];
+				for (int i = 0; i < vehicleCount; i++) {
+					vehicleIDs[i] = in.readUTF();
+					recordsByVehicle[i] = readRecords(in);
+				}
+				return new SegmentIndex(recordCount, dates, recordsByDate, vehicleIDs, recordsByVehicle);
+			}
+			catch (IOException e) {
+				e.printStackTrace();
+				return null;
+			}
+		}
+
+		/**
+		 * Reads a list of record numbers.
+		 *
+		 * @param in the index stream.
+		 * @return the record numbers.
+		 * @throws IOException if the index cannot be read.
+		 */
+		private static int[] readRecords(DataInputStream in) throws IOException {
+			int[] records = new int[in.readInt()];
+			for (int i = 0; i < records.length; i++) {
+				records[i] = in.readInt();
+			}
+			return records;
+		}
+
+		/**
+		 * Finds the records of all dates in a range, in the order in which they were appended.
+		 *
+		 * @param from the first date (inclusive) as an epoch day.
+		 * @param to the last date (inclusive) as an epoch day.
+		 * @return the record numbers.
+		 */
+		private int[] findByDate(long from, long to) {
+			List<int[]> matches = new ArrayList<>();
+			int size = 0;
+			for (int i = 0; i < dates.length; i++) {
+				if (dates[i] >= from && dates[i] <= to) {
+					matches.add(recordsByDate[i]);
+					size += recordsByDate[i].length;
+				}
+			}
+			int[] records = new int[size];
+			int position = 0;
+			for (int[] match : matches) {
+				System.arraycopy(match, 0, records, position, match.length);
+				position += match.length;
+			}
+			Arrays.sort(records);
+			return records;
+		}
+
+		/**
+		 * Finds the records of a vehicle.
+		 *
+		 * @param vehicleID the ID of the vehicle.
+		 * @return the record numbers.
+		 */
+		private int[] findByVehicle(String vehicleID) {
+			for (int i = 0; i < vehicleIDs.length; i++) {
+				if (vehicleIDs[i].equals(vehicleID)) {
+					return recordsByVehicle[i];
+				}
+			}
+			return new int[0];
+		}
+	}
+}
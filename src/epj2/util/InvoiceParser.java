@@ -1,26 +1,44 @@
 package epj2.util;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import epj2.config.AppConfig;
+import epj2.config.FileConfig;
+import epj2.service.InvoiceRecord;
 
 /**
  * This class is responsible for parsing invoice data from txt files.
  * It extracts and processes only the information relevant for analyzing business performance.
+ * During the simulation, reports are based on the {@link InvoiceRecord}s published when invoices are issued; 
+ * this class is used to analyze invoice files written by earlier runs (see {@link #toRecord()}), 
+ * or the binary invoice journal with {@link #parseJournal()}, which does not need one file per invoice.
+ * Invoice files are parsed in parallel on a pool of {@code INVOICE_PARSER_THREADS} threads (all available processors if
+ * the value is 0 or missing). Every file is read at once and scanned line by line a single time; the line is
+ * dispatched on its first character and prefix, and the fixed-width issue date is parsed by hand.
  * 
  * @author Jelena Maletić
  * @version 29.8.2024.
  */
 public class InvoiceParser {
-	/**
-	 * Manages the properties file used by the InvoiceParser class.
-	 * This instance is used to load invoices file path.
-	 */
-	private static PropertiesManager propertiesManager;
+	/** The format of the issue date on the invoice, used if the date does not have the fixed width. */
+	private static final DateTimeFormatter ISSUE_DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy/HH-mm");
+	/** The width of an issue date in the format {@code dd.MM.yyyy/HH-mm}. */
+	private static final int ISSUE_DATE_WIDTH = 16;
+	/** The smallest number of invoice files parsed by one task. */
+	private static final int MIN_FILES_PER_TASK = 256;
 	/**
      * The total amount to be paid, as calculated from the invoice.
      */
@@ -53,11 +71,6 @@ public class InvoiceParser {
      */
     private boolean hasFault = false;
     
-    // Static block to initialize propertiesManager
-    static {
-    	propertiesManager = new PropertiesManager("filePaths.properties");
-    }
-    
     /**
      * Constructs an InvoiceParser instance and parses the invoice data from the specified file.
      *
@@ -69,37 +82,25 @@ public class InvoiceParser {
     
     /**
      * Parses the invoice data from the specified file.
-     * The method reads the file line by line and extracts relevant information for business analysis.
-     * It looks for specific keywords to identify and parse the required data
+     * The whole file is read at once and every line is scanned a single time. A line is dispatched on its first character,
+     * and only the labels starting with that character are compared, so most lines are skipped after one comparison.
      * 
      * @param filePath the path to the file containing the invoice data.
      */
     private void parseInvoiceData(String filePath) {
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.contains("Total price:")) {
-                    this.totalAmount = Double.parseDouble(line.split(":")[1].trim().replace("EUR", ""));
-                } 
-                else if (line.contains("Rented vehicle:")) {
-                	this.vehicleID = line.split(",")[1].trim();
-                } 
-                else if (line.contains("Promotion:")) {
-                    this.promotionAmount = Double.parseDouble(line.split("\\(")[1].replace("EUR)", "").trim());
-                } 
-                else if (line.contains("Discount:")) {
-                    this.discountAmount = Double.parseDouble(line.split("\\(")[1].replace("EUR)", "").trim());
-                } 
-                else if (line.contains("City zone:")) {
-                    this.cityZone = line.split(":")[1].trim();
-                } 
-                else if (line.contains("Date and time:")) {
-                    String dateStr = line.split(":")[1].trim();
-                    this.issueDate = LocalDateTime.parse(dateStr, DateTimeFormatter.ofPattern("dd.MM.yyyy/HH-mm"));
+        try {
+            String text = new String(Files.readAllBytes(Path.of(filePath)), Charset.defaultCharset());
+            int start = 0;
+            while (start < text.length()) {
+                int end = text.indexOf('\n', start);
+                if (end < 0) {
+                	end = text.length();
                 }
-                else if (line.contains("Fault:")) {
-                	this.hasFault = true;
+                int lineEnd = end > start && text.charAt(end - 1) == '\r' ? end - 1 : end;
+                if (lineEnd > start) {
+                	parseLine(text, start, lineEnd);
                 }
+                start = end + 1;
             }
         }
         catch(Exception ex) {
@@ -107,30 +108,196 @@ public class InvoiceParser {
         }
     }
     
+    /**
+     * Extracts the relevant information from a single line of an invoice, if the line contains any.
+     * 
+     * @param text the text of the invoice.
+     * @param start the index of the first character of the line.
+     * @param end the index after the last character of the line.
+     */
+    private void parseLine(String text, int start, int end) {
+    	switch (text.charAt(start)) {
+    		case 'T':
+    			if (text.startsWith("Total price:", start)) {
+    				this.totalAmount = Double.parseDouble(text.substring(start + "Total price:".length(), end).replace("EUR", "").trim());
+    			}
+    			break;
+    		case 'R':
+    			if (text.startsWith("Rented vehicle:", start)) {
+    				int comma = text.indexOf(',', start);
+    				if (comma >= 0 && comma < end) {
+    					int next = text.indexOf(',', comma + 1);
+    					this.vehicleID = text.substring(comma + 1, next >= 0 && next < end ? next : end).trim();
+    				}
+    			}
+    			break;
+    		case 'P':
+    			if (text.startsWith("Promotion:", start)) {
+    				this.promotionAmount = parseAmountInParentheses(text, start, end);
+    			}
+    			break;
+    		case 'D':
+    			if (text.startsWith("Discount:", start)) {
+    				this.discountAmount = parseAmountInParentheses(text, start, end);
+    			}
+    			else if (text.startsWith("Date and time:", start)) {
+    				this.issueDate = parseIssueDate(text.substring(start + "Date and time:".length(), end).trim());
+    			}
+    			break;
+    		case 'C':
+    			if (text.startsWith("City zone:", start)) {
+    				this.cityZone = text.substring(start + "City zone:".length(), end).trim();
+    			}
+    			break;
+    		case 'F':
+    			if (text.startsWith("Fault:", start)) {
+    				this.hasFault = true;
+    			}
+    			break;
+    		default:
+    			break;
+    	}
+    }
+    
+    /**
+     * Parses an amount written in parentheses, as in {@code "Discount: 10.0% (1.5 EUR)"}.
+     * 
+     * @param text the text of the invoice.
+     * @param start the index of the first character of the line.
+     * @param end the index after the last character of the line.
+     * @return the amount.
+     */
+    private static double parseAmountInParentheses(String text, int start, int end) {
+    	int open = text.indexOf('(', start);
+    	if (open < 0 || open >= end) {
+    		throw new NumberFormatException("No amount in " + text.substring(start, end));
+    	}
+    	return Double.parseDouble(text.substring(open + 1, end).replace("EUR)", "").trim());
+    }
+    
+    /**
+     * Parses the issue date of an invoice.
+     * A date of the fixed width {@code dd.MM.yyyy/HH-mm} is parsed by hand; any other date is parsed with the cached formatter.
+     * 
+     * @param date the issue date.
+     * @return the date and time.
+     */
+    private static LocalDateTime parseIssueDate(String date) {
+    	if (date.length() == ISSUE_DATE_WIDTH && date.charAt(2) == '.' && date.charAt(5) == '.' && date.charAt(10) == '/'
+    			&& date.charAt(13) == '-') {
+    		int day = parseDigits(date, 0, 2);
+    		int month = parseDigits(date, 3, 5);
+    		int year = parseDigits(date, 6, 10);
+    		int hour = parseDigits(date, 11, 13);
+    		int minute = parseDigits(date, 14, 16);
+    		if (day >= 0 && month >= 0 && year >= 0 && hour >= 0 && minute >= 0) {
+    			return LocalDateTime.of(year, month, day, hour, minute);
+    		}
+    	}
+    	return LocalDateTime.parse(date, ISSUE_DATE_FORMAT);
+    }
+    
+    /**
+     * Parses a non-negative decimal number made up only of digits.
+     * 
+     * @param text the text containing the number.
+     * @param start the index of the first digit.
+     * @param end the index after the last digit.
+     * @return the number, or -1 if a character is not a digit.
+     */
+    private static int parseDigits(String text, int start, int end) {
+    	int value = 0;
+    	for (int i = start; i < end; i++) {
+    		char c = text.charAt(i);
+    		if (c < '0' || c > '9') {
+    			return -1;
+    		}
+    		value = value * 10 + (c - '0');
+    	}
+    	return value;
+    }
+    
     /**
       * Parses all invoice files in the specified directory and returns a list of {@link InvoiceParser} objects.
       * 
       * The method searches the specified directory for all text files (files with a ".txt" extension),
       * then creates an {@link InvoiceParser} instance for each file and adds it to a list.
+      * The files are split into slices that are parsed in parallel on a fixed pool of {@code INVOICE_PARSER_THREADS} threads,
+      * and the results are returned in the order in which the directory listed the files.
       * If no files are found in the directory, a message is printed to the console. 
+      * Every file in the directory is parsed, including the invoices of earlier runs; invoices are not deduplicated,
+      * so a run that replayed the same rentals into the same directory is read twice.
+      * The simulation does not call this method; it is an entry point for analyzing the text invoices of earlier runs,
+      * for example with {@link epj2.service.report.ReportAggregate#aggregate(java.util.Map, List)} over their {@link #toRecord()} records.
       * @return A list of {@link InvoiceParser} objects, each representing an invoice parsed from a file.
       */
-    @SuppressWarnings("unused")
 	public static List<InvoiceParser> parseAllInvoices() {
         List<InvoiceParser> invoices = new ArrayList<>();
-        File folder = new File(propertiesManager.getProperty("INVOICES_DIR"));
+        FileConfig fileConfig = AppConfig.get().getFiles();
+        File folder = new File(fileConfig.getInvoicesDir());
         File[] files = folder.listFiles((dir, name) -> name.endsWith(".txt"));
-        if (files != null) {
-            for (File file : files) {
-                InvoiceParser parser = new InvoiceParser(file.getPath());
-                invoices.add(parser);
-            }
-        } else {
-            System.out.println("No files in the directory " + propertiesManager.getProperty("INVOICES_DIR"));
+        if (files == null) {
+            System.out.println("No files in the directory " + fileConfig.getInvoicesDir());
+            return invoices;
+        }
+        int threads = fileConfig.getInvoiceParserThreads();
+        if (threads == 1 || files.length <= MIN_FILES_PER_TASK) {
+        	for (File file : files) {
+        		invoices.add(new InvoiceParser(file.getPath()));
+        	}
+        	return invoices;
+        }
+        int filesPerTask = Math.max(MIN_FILES_PER_TASK, (files.length + threads * 4 - 1) / (threads * 4));
+        List<Callable<List<InvoiceParser>>> tasks = new ArrayList<>();
+        for (int first = 0; first < files.length; first += filesPerTask) {
+        	int from = first;
+        	int to = Math.min(files.length, first + filesPerTask);
+        	tasks.add(() -> {
+        		List<InvoiceParser> slice = new ArrayList<>(to - from);
+        		for (int i = from; i < to; i++) {
+        			slice.add(new InvoiceParser(files[i].getPath()));
+        		}
+        		return slice;
+        	});
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, tasks.size()));
+        try {
+        	for (Future<List<InvoiceParser>> future : pool.invokeAll(tasks)) {
+        		invoices.addAll(future.get());
+        	}
+        }
+        catch (ExecutionException e) {
+        	e.getCause().printStackTrace();
+        }
+        catch (InterruptedException e) {
+        	Thread.currentThread().interrupt();
+        }
+        finally {
+        	pool.shutdown();
         }
         return invoices;
     }
     
+    /**
+     * Reads the records of all invoices stored in the invoice journal ({@code INVOICE_JOURNAL_DIR}).
+     * The journal segments are mapped into memory by an {@link InvoiceJournalReader}, so no invoice text files are opened.
+     * Like {@link #parseAllInvoices()}, it is not called by the simulation and is kept for analyzing earlier runs.
+     * 
+     * @return the records of all invoices in the journal, in the order in which they were issued.
+     */
+    public static List<InvoiceRecord> parseJournal() {
+    	return new InvoiceJournalReader(AppConfig.get().getFiles().getInvoiceJournalDir()).readAllRecords();
+    }
+    
+    /**
+     * Converts the parsed invoice data into an {@link InvoiceRecord}, so it can be used for generating reports.
+     * 
+     * @return the record of the parsed invoice.
+     */
+    public InvoiceRecord toRecord() {
+    	return new InvoiceRecord(totalAmount, discountAmount, promotionAmount, cityZone, vehicleID, issueDate, hasFault);
+    }
+    
     /**
      * Returns the total amount to be paid, as parsed from the invoice.
      *
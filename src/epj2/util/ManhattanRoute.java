@@ -0,0 +1,73 @@
+package epj2.util;
+
+/**
+ * A route that first moves horizontally from the starting x-coordinate to the ending x-coordinate,
+ * and then vertically from the starting y-coordinate to the ending y-coordinate.
+ * The coordinates of every cell are calculated from its index, so the route only stores its start and end
+ * location, regardless of its length, and with the default zone layout its zone is decided in constant time
+ * (see {@link MapUtil#isPathInWideArea(int, int, int, int)}).
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public final class ManhattanRoute implements Route {
+	/** The x-coordinate of the start location. */
+	private final int startX;
+	/** The y-coordinate of the start location. */
+	private final int startY;
+	/** The x-coordinate of the end location. */
+	private final int endX;
+	/** The y-coordinate of the end location. */
+	private final int endY;
+	/** The number of horizontal steps. */
+	private final int horizontalSteps;
+	/** The number of vertical steps. */
+	private final int verticalSteps;
+
+	/**
+	 * Constructs a route between the specified locations.
+	 *
+	 * @param startX the x-coordinate of the start location.
+	 * @param startY the y-coordinate of the start location.
+	 * @param endX the x-coordinate of the end location.
+	 * @param endY the y-coordinate of the end location.
+	 */
+	public ManhattanRoute(int startX, int startY, int endX, int endY) {
+		this.startX = startX;
+		this.startY = startY;
+		this.endX = endX;
+		this.endY = endY;
+		this.horizontalSteps = Math.abs(endX - startX);
+		this.verticalSteps = Math.abs(endY - startY);
+	}
+
+	@Override
+	public int length() {
+		return horizontalSteps + verticalSteps + 1;
+	}
+
+	@Override
+	public int x(int index) {
+		return index < horizontalSteps ? startX + index * Integer.signum(endX - startX) : endX;
+	}
+
+	@Override
+	public int y(int index) {
+		return index < horizontalSteps ? startY : startY + (index - horizontalSteps) * Integer.signum(endY - startY);
+	}
+
+	@Override
+	public int zone() {
+		return MapUtil.zoneOfPath(startX, startY, endX, endY);
+	}
+
+	@Override
+	public boolean isInWideArea() {
+		return MapUtil.isPathInWideArea(startX, startY, endX, endY);
+	}
+
+	@Override
+	public int countNarrowAreaCells() {
+		return MapUtil.countNarrowAreaCells(startX, startY, endX, endY);
+	}
+}
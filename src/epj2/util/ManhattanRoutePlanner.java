@@ -0,0 +1,18 @@
+package epj2.util;
+
+import epj2.model.vehicle.Vehicle;
+
+/**
+ * The default route planner, which ignores obstacles and always returns a {@link ManhattanRoute}:
+ * first horizontally to the ending x-coordinate, then vertically to the ending y-coordinate.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public class ManhattanRoutePlanner implements RoutePlanner {
+
+	@Override
+	public Route plan(int startX, int startY, int endX, int endY, Class<? extends Vehicle> vehicleType) {
+		return new ManhattanRoute(startX, startY, endX, endY);
+	}
+}
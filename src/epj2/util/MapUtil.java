@@ -1,6 +1,9 @@
 package epj2.util;
 
-import java.util.List;
+import java.io.IOException;
+
+import epj2.config.AppConfig;
+import epj2.config.MapConfig;
 
 /**
  * A utility class for map of the city
@@ -9,16 +12,13 @@ import java.util.List;
  * is everything outside of these boundaries.
  * This class provides methods to check whether a specific location or path is within
  * the wide area of the city map.
+ * Zones are loaded once into a {@link ZoneMap} with one byte per cell, which also supports maps with more than
+ * two zones; the wide area is the default zone of the map.
  * 
  * @author Jelena Maletić
  * @version 8.9.2024.
  */
 public class MapUtil {
-	/**
-	 * Manages the properties file used by the MapUtil class.
-	 * This instance is used to load configurations.
-	 */
-	private static PropertiesManager propertiesManager;
 	/** Size of the city map (number of rows and columns) */
     private static int MAP_SIZE = 20;
     /** Index of the row representing the start of the narrow part of the city */
@@ -29,15 +29,86 @@ public class MapUtil {
     private static int NARROW_START_COL = 5;
     /** Index of the column representing the end of the narrow part of the city */
     private static int NARROW_END_COL = 14;
+    /** The zones of all cells of the city map. */
+    private static ZoneMap zoneMap;
+    /** Indicates whether the map has only the wide area and a single narrow rectangle, so paths can be classified in constant time. */
+    private static boolean isSingleRectangle;
+    /** The route planner configured for the city map. */
+    private static RoutePlanner routePlanner;
     
-    // Static block to initialize propertiesManager
+    // Static block to initialize the map dimensions, zoneMap and routePlanner from the map configuration
     static {
-    	propertiesManager = new PropertiesManager("mapDimensions.properties");
-    	MAP_SIZE = propertiesManager.getPropertyAsInt("MAP_SIZE");
-    	NARROW_START_ROW = propertiesManager.getPropertyAsInt("NARROW_START_ROW");
-    	NARROW_END_ROW = propertiesManager.getPropertyAsInt("NARROW_END_ROW");
-    	NARROW_START_COL = propertiesManager.getPropertyAsInt("NARROW_START_COL");
-    	NARROW_END_COL = propertiesManager.getPropertyAsInt("NARROW_END_COL");
+    	MapConfig mapConfig = AppConfig.get().getMap();
+    	int[] narrowBounds = mapConfig.getNarrowBounds();
+    	MAP_SIZE = mapConfig.getMapSize();
+    	NARROW_START_ROW = narrowBounds[0];
+    	NARROW_START_COL = narrowBounds[1];
+    	NARROW_END_ROW = narrowBounds[2];
+    	NARROW_END_COL = narrowBounds[3];
+    	zoneMap = ZoneMap.load(mapConfig);
+    	int[] rectangle = zoneMap.getSingleRectangle();
+    	isSingleRectangle = rectangle != null;
+    	if (isSingleRectangle) {
+    		NARROW_START_ROW = rectangle[0];
+    		NARROW_START_COL = rectangle[1];
+    		NARROW_END_ROW = rectangle[2];
+    		NARROW_END_COL = rectangle[3];
+    	}
+    	routePlanner = createRoutePlanner(mapConfig);
+    }
+    
+    /**
+     * Creates the route planner of the map configuration.
+     * With {@code ROUTE_PLANNER=ASTAR} routes are planned around the obstacles of the grid in {@code ROUTE_MAP_FILE},
+     * and the last {@code ROUTE_CACHE_SIZE} routes are cached (0 disables the cache).
+     * Otherwise, or if the grid cannot be loaded, vehicles use Manhattan routes.
+     * 
+     * @param mapConfig the map configuration.
+     * @return the route planner.
+     */
+    private static RoutePlanner createRoutePlanner(MapConfig mapConfig) {
+    	if (!mapConfig.isAStarRoutePlanner()) {
+    		return new ManhattanRoutePlanner();
+    	}
+    	try {
+    		RoutePlanner planner = new AStarRoutePlanner(GridMap.load(mapConfig.getRouteMapFile()));
+    		int cacheSize = mapConfig.getRouteCacheSize();
+    		return cacheSize > 0 ? new CachingRoutePlanner(planner, cacheSize) : planner;
+    	}
+    	catch (IOException | IllegalArgumentException e) {
+    		System.out.println("Error loading the route map. Using Manhattan routes.");
+    		e.printStackTrace();
+    		return new ManhattanRoutePlanner();
+    	}
+    }
+    
+    /**
+     * Gets the route planner configured for the city map.
+     * 
+     * @return the route planner.
+     */
+    public static RoutePlanner getRoutePlanner() {
+    	return routePlanner;
+    }
+    
+    /**
+     * Gets the zones of all cells of the city map.
+     * 
+     * @return the zone map.
+     */
+    public static ZoneMap getZoneMap() {
+    	return zoneMap;
+    }
+    
+    /**
+     * Returns the zone of the specified location, with a single lookup in the zone map.
+     * 
+     * @param x the x-coordinate of the location.
+     * @param y the y-coordinate of the location.
+     * @return the index of the zone in the zone map.
+     */
+    public static int zoneOf(int x, int y) {
+    	return zoneMap.zoneOf(x, y);
     }
     
     /**
@@ -93,14 +164,14 @@ public class MapUtil {
 	
 	/**
      * Determines if a given location is in the wide area of the city map.
-     * The wide area is defined as any location that falls outside of the narrow area boundaries.
+     * The wide area is defined as any location that does not fall into any other zone.
      * 
      * @param x the x-coordinate of the location.
      * @param y the y-coordinate of the location.
      * @return {@code true} if the location is in the wide area, {@code false} otherwise.
      */
     public static boolean isInWideArea(int x, int y) {
-        return x < NARROW_START_ROW || x > NARROW_END_ROW || y < NARROW_START_COL || y > NARROW_END_COL;
+        return zoneMap.zoneOf(x, y) == ZoneMap.DEFAULT_ZONE;
     }
     
     /**
@@ -109,13 +180,109 @@ public class MapUtil {
      * @param path the path being checked to determine if it is in the wide area
      * @return {@code true} if the path is within the wide area, {@code false} otherwise
      */
-    public static boolean isPathInWideArea(List<int[]> path) {
-        for (int[] location : path) {
-            if (isInWideArea(location[0], location[1])) {
-                return true;
-            }
+    public static boolean isPathInWideArea(Route path) {
+        return path.isInWideArea();
+    }
+    
+    /**
+     * Checks in constant time if any point on the L-shaped path from the start to the end location 
+     * (first horizontally, then vertically, see {@link ManhattanRoute}) is in the wide area of the city.
+     * If the narrow area is a single rectangle, a straight segment lies in it if and only if both of its ends do.
+     * The path therefore stays in the narrow area if and only if its start, its corner and its end are in the narrow area.
+     * For other zone layouts, the cells of the path are looked up in the zone map.
+     * 
+     * @param startX the x-coordinate of the start location.
+     * @param startY the y-coordinate of the start location.
+     * @param endX the x-coordinate of the end location.
+     * @param endY the y-coordinate of the end location.
+     * @return {@code true} if the path is within the wide area, {@code false} otherwise
+     */
+    public static boolean isPathInWideArea(int startX, int startY, int endX, int endY) {
+        if (!isSingleRectangle) {
+        	return zoneOfPath(startX, startY, endX, endY) == ZoneMap.DEFAULT_ZONE;
+        }
+        return isInWideArea(startX, startY) || isInWideArea(endX, startY) || isInWideArea(endX, endY);
+    }
+    
+    /**
+     * Returns the zone of the L-shaped path from the start to the end location (see {@link ManhattanRoute}),
+     * which is the first zone, in order of priority, that the path enters.
+     * If the narrow area is a single rectangle, the zone is decided in constant time.
+     * 
+     * @param startX the x-coordinate of the start location.
+     * @param startY the y-coordinate of the start location.
+     * @param endX the x-coordinate of the end location.
+     * @param endY the y-coordinate of the end location.
+     * @return the index of the zone of the path in the zone map.
+     */
+    public static int zoneOfPath(int startX, int startY, int endX, int endY) {
+        if (isSingleRectangle) {
+        	return isPathInWideArea(startX, startY, endX, endY) ? ZoneMap.DEFAULT_ZONE : 1;
         }
-        return false;
+        return zoneMap.zoneOf(new ManhattanRoute(startX, startY, endX, endY));
+    }
+    
+    /**
+     * Counts in constant time the cells of the L-shaped path from the start to the end location 
+     * (first horizontally, then vertically, see {@link ManhattanRoute}) that are in the narrow area of the city.
+     * The horizontal part of the path (without the corner) and the vertical part (with the corner) are intervals
+     * of a single row and a single column, so their narrow cells are the overlaps of those intervals with the narrow area.
+     * For zone layouts other than a single narrow rectangle, every cell that is not in the wide area is counted.
+     * 
+     * @param startX the x-coordinate of the start location.
+     * @param startY the y-coordinate of the start location.
+     * @param endX the x-coordinate of the end location.
+     * @param endY the y-coordinate of the end location.
+     * @return the number of cells of the path in the narrow area.
+     */
+    public static int countNarrowAreaCells(int startX, int startY, int endX, int endY) {
+        int cells = 0;
+        if (!isSingleRectangle) {
+        	Route path = new ManhattanRoute(startX, startY, endX, endY);
+        	for (int i = 0; i < path.length(); i++) {
+        		if (!isInWideArea(path.x(i), path.y(i))) {
+        			cells++;
+        		}
+        	}
+        	return cells;
+        }
+        if (startX != endX && startY >= NARROW_START_COL && startY <= NARROW_END_COL) {
+            int from = startX < endX ? startX : endX + 1;
+            int to = startX < endX ? endX - 1 : startX;
+            cells += overlap(from, to, NARROW_START_ROW, NARROW_END_ROW);
+        }
+        if (endX >= NARROW_START_ROW && endX <= NARROW_END_ROW) {
+            cells += overlap(Math.min(startY, endY), Math.max(startY, endY), NARROW_START_COL, NARROW_END_COL);
+        }
+        return cells;
+    }
+    
+    /**
+     * Counts in constant time the cells of the L-shaped path from the start to the end location 
+     * (first horizontally, then vertically, see {@link ManhattanRoute}) that are in the wide area of the city.
+     * 
+     * @param startX the x-coordinate of the start location.
+     * @param startY the y-coordinate of the start location.
+     * @param endX the x-coordinate of the end location.
+     * @param endY the y-coordinate of the end location.
+     * @return the number of cells of the path in the wide area.
+     */
+    public static int countWideAreaCells(int startX, int startY, int endX, int endY) {
+        int length = Math.abs(endX - startX) + Math.abs(endY - startY) + 1;
+        return length - countNarrowAreaCells(startX, startY, endX, endY);
+    }
+    
+    /**
+     * Returns the number of integers in both of the specified closed intervals.
+     * 
+     * @param from1 the start of the first interval.
+     * @param to1 the end of the first interval.
+     * @param from2 the start of the second interval.
+     * @param to2 the end of the second interval.
+     * @return the number of integers in both intervals, or 0 if they do not overlap.
+     */
+    private static int overlap(int from1, int to1, int from2, int to2) {
+        return Math.max(0, Math.min(to1, to2) - Math.max(from1, from2) + 1);
     }
     
     
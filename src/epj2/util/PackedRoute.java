@@ -0,0 +1,52 @@
+package epj2.util;
+
+/**
+ * A route stored as a single array of packed cells, used for routes that do not have a fixed shape,
+ * such as routes around obstacles. Every cell takes one {@code int}: the x-coordinate in the upper
+ * and the y-coordinate in the lower 16 bits, so maps of up to 65536 rows and columns are supported.
+ * A packed route is immutable and can be shared between rentals.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public final class PackedRoute implements Route {
+	/** The largest coordinate that can be packed. */
+	public static final int MAX_COORDINATE = 0xFFFF;
+	/** The packed cells of the route, from the start to the end location. */
+	private final int[] cells;
+
+	/**
+	 * Constructs a route from already packed cells. The array is not copied.
+	 *
+	 * @param cells the packed cells of the route, from the start to the end location.
+	 */
+	PackedRoute(int[] cells) {
+		this.cells = cells;
+	}
+
+	/**
+	 * Packs the coordinates of a cell into a single {@code int}.
+	 *
+	 * @param x the x-coordinate of the cell.
+	 * @param y the y-coordinate of the cell.
+	 * @return the packed cell.
+	 */
+	static int pack(int x, int y) {
+		return (x << 16) | y;
+	}
+
+	@Override
+	public int length() {
+		return cells.length;
+	}
+
+	@Override
+	public int x(int index) {
+		return cells[index] >>> 16;
+	}
+
+	@Override
+	public int y(int index) {
+		return cells[index] & MAX_COORDINATE;
+	}
+}
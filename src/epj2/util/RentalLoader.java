@@ -4,6 +4,11 @@ import java.io.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import epj2.config.AppConfig;
+import epj2.config.FileConfig;
 import epj2.model.user.*;
 import epj2.model.vehicle.*;
 import epj2.service.Rental;
@@ -12,16 +17,13 @@ import epj2.service.Rental;
  * A utility class for loading rentals from a CSV file.
  * This class provides methods to read rental data from a CSV file and create
  * {@link Rental} objects. The CSV file should have specific columns for rental attributes.
+ * Lines are split with a hand-written, quote-aware {@link CsvTokenizer}, and rentals can either be
+ * loaded into a sorted list or streamed lazily.
  * 
  * @author Jelena Maletić
  * @version 1.9.2024.
  */
 public class RentalLoader {
-	/**
-	 * Manages the properties file used by the RentalLoader class.
-	 * This instance is used to load rentals file path.
-	 */
-	private static PropertiesManager propertiesManager;
 	/** Formatter for parsing and formatting date and time in the format "d.M.yyyy HH:mm". */
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("d.M.yyyy HH:mm");
     /**
@@ -37,11 +39,6 @@ public class RentalLoader {
     /** Random number generator used for creating random users. */
     private static final Random RANDOM = new Random();
     
-    // Static block to initialize propertiesManager
-    static {
-    	propertiesManager = new PropertiesManager("filePaths.properties");
-    }
-    
     /** 
      * Loads vehicles from a CSV file into a list
      * This method processes each line in the file, extracts the necessary details, 
@@ -58,13 +55,12 @@ public class RentalLoader {
      * -Information about whether a promotion exists
      * 
      * This method performs the following:
-     * - Initializes data structures for users, rentals, and processed rentals.
-     * - Reads and parses each line from the CSV file, skipping incorrect lines 
+     * - Reads and parses each line from the CSV file (see {@link RentalLineParser} and {@link RentalMerger}), skipping incorrect lines 
      *  (those with incorrect arguments, non-existent vehicles, already rented vehicles, 
      *  invalid start and end location coordinates).
-     * - Validates and processes each component, including date, username, vehicle ID, locations, duration, fault presence, and promotion applicability.
-     * - Creates vehicle copies and simulates faults as needed.
-     * - Retrieves or creates users.
+     * - If {@code LOADER_MODE} is set to {@code PARALLEL}, the file is memory-mapped and its lines are parsed in chunks on 
+     *  several threads (see {@link ChunkedCsvReader}); parsed lines are then merged in file order, so users, skipped lines
+     *  and messages are the same as in the sequential mode.
      * - Adds valid rentals to the list, sorts them by date and time, and updates user rental counts.
  	 * 
      * 
@@ -74,117 +70,110 @@ public class RentalLoader {
      *         date and time.
      */
     public static List<Rental> loadRentals(Map<String, Vehicle> vehicles) {
-    	Map<String, User> users = new HashMap<>();
     	List<Rental> rentals = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(propertiesManager.getProperty("RENTALS_FILE_PATH")))) {
-            String line;
-            boolean isFirstLine = true;
-            while ((line = reader.readLine()) != null) {
-                if (isFirstLine) {
-                    isFirstLine = false;
-                    continue;
-                }
-                String[] parts = line.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)");
-                if (parts.length != 8) {
-                    System.out.println("Skipped line (incorrect number of columns): " + line);
-                    continue;
-                }
-                try {
-                    LocalDateTime dateTime = LocalDateTime.parse(parts[0], DATE_TIME_FORMATTER);
-                    String username = parts[1];
-                    String vehicleId = parts[2];
-                    int[] startLocation = parseCoordinate(parts[3]);
-                    int[] endLocation = parseCoordinate(parts[4]);
-                    double duration = Double.parseDouble(parts[5]);
-                    boolean hasFault = "yes".equalsIgnoreCase(parts[6]);
-                    boolean hasPromotion = "yes".equalsIgnoreCase(parts[7]);
-                    if (startLocation == null || endLocation == null) {
-                        System.out.println("Skipped line (invalid coordinates): " + line);
-                        continue;
-                    }
-                    Vehicle vehicle = vehicles.get(vehicleId);
-                    if (vehicle == null) {
-                        System.out.println("Skipped line (vehicle not found): " + line);
-                        continue;
-                    }
-                    
-                    boolean isRented = rentals.stream().anyMatch(rental -> rental.getVehicle().getID().equals(vehicleId) && rental.getDateTime().equals(dateTime));
-                    if (isRented) {
-                        System.out.println("Skipped line (vehicle is already rented): " + line);
-                        continue;
-                    }
-                    
-                    Vehicle vehicleCopy = vehicle.clone();
-                    if (hasFault) { 
-                        vehicleCopy.simulateFault();
-                    }
-                    User user = users.computeIfAbsent(username, RentalLoader::createRandomUser);
-                    Rental rental = new Rental(dateTime, user, vehicleCopy, startLocation, endLocation, duration, hasPromotion);
-                    rentals.add(rental);
-                } 
-                catch (CloneNotSupportedException e) {
-                	System.out.println("Cloning failed " + line);
-                    e.printStackTrace(); 
-                }
-                catch (Exception e) {
-                    System.out.println("Skipped line (data parsing error): " + line);
-                    e.printStackTrace();
-                }
-            }
-        } 
-        catch (IOException e) {
-            e.printStackTrace();
-        }
+    	FileConfig fileConfig = AppConfig.get().getFiles();
+    	if (fileConfig.isParallelLoader()) {
+    		RentalMerger merger = new RentalMerger();
+    		try {
+    			long chunkSize = fileConfig.getLoaderChunkSize();
+    			for (RentalLine rentalLine : ChunkedCsvReader.parseLines(fileConfig.getRentalsFilePath(), chunkSize, () -> new RentalLineParser(vehicles))) {
+    				Rental rental = merger.merge(rentalLine);
+    				if (rental != null) {
+    					rentals.add(rental);
+    				}
+    			}
+    		}
+    		catch (IOException e) {
+    			e.printStackTrace();
+    		}
+    	}
+    	else {
+    		try (RentalIterator iterator = new RentalIterator(vehicles)) {
+    			while (iterator.hasNext()) {
+    				rentals.add(iterator.next());
+    			}
+    		}
+    	}
         rentals.sort(Comparator.comparing(Rental::getDateTime));
-        updateNumberOfRentals(rentals, users);
+        updateNumberOfRentals(rentals);
         return rentals;
     }
     
+    /**
+     * Streams rentals from the CSV file without loading the whole file into memory.
+     * Lines are parsed lazily, with the same validation as in {@link #loadRentals(Map)}, and rentals
+     * are returned in the order in which they appear in the file. User rental counts (and therefore discounts)
+     * are updated in the same order, so the results match {@link #loadRentals(Map)} only if the file
+     * is sorted by date and time.
+     * The returned stream should be closed after use, to release the underlying file.
+     * 
+     * @param vehicles A map of vehicle IDs to Vehicle objects used for looking up vehicles based on 
+     *                 their ID.
+     * @return A stream of Rental objects parsed from the file, in file order.
+     */
+    public static Stream<Rental> streamRentals(Map<String, Vehicle> vehicles) {
+    	RentalIterator iterator = new RentalIterator(vehicles);
+    	return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+    			.peek(RentalLoader::countRental)
+    			.onClose(iterator::close);
+    }
+    
     /**
      * Updates the number of rentals for each user and replaces the user in the rental with a cloned copy.
-     * This method iterates over the list of rentals, increments the rental count for each user, updates
-     * the user information in the map, and sets a cloned user object in each rental.
+     * This method iterates over the list of rentals, increments the rental count for each user 
+     * and sets a cloned user object in each rental.
      * 
      * @param rentals A list of Rental objects that needs to be processed.
-     * @param users A map of user names to `User` objects.
      */
-    private static void updateNumberOfRentals(List<Rental> rentals, Map<String, User> users) {
+    private static void updateNumberOfRentals(List<Rental> rentals) {
         for (Rental rental : rentals) {
-            User user = rental.getUser();
-            user.setNumberOfRentals(user.getNumberOfRentals()+1);
-            users.put(user.getName(), user);
-            try {
-                User userCopy = user.clone();
-                rental.setUser(userCopy);
-            } catch (CloneNotSupportedException e) {
-                e.printStackTrace(); 
-                throw new RuntimeException("Cloning failed", e);
-            }
+            countRental(rental);
         }
     }
     
     /**
-     * Parses a coordinate string and converts it to an integer array.
-     * The coordinate string should be in the format "x,y". The method trims any quotes and spaces,
-     * splits the string by the comma, and parses the x and y values. The coordinate values are checked
-     * to ensure they are within the defined bounds.
+     * Increments the rental count of the user of the specified rental and sets a cloned copy of the user in the rental,
+     * so that the rental keeps the rental count (and discount) that was valid at the time of the rental.
      * 
-     * @param coordinate A string representing the coordinate in the format "x,y".
+     * @param rental the rental to be counted.
+     */
+    private static void countRental(Rental rental) {
+        User user = rental.getUser();
+        user.setNumberOfRentals(user.getNumberOfRentals()+1);
+        try {
+            User userCopy = user.clone();
+            rental.setUser(userCopy);
+        } catch (CloneNotSupportedException e) {
+            e.printStackTrace(); 
+            throw new RuntimeException("Cloning failed", e);
+        }
+    }
+    
+    /**
+     * Parses a coordinate field and converts it to an integer array.
+     * The coordinate field should be quoted and in the format "x,y". The method skips any spaces,
+     * splits the field by the comma, and parses the x and y values without creating intermediate strings.
+     * The coordinate values are checked to ensure they are within the defined bounds.
+     * 
+     * @param tokenizer the tokenizer that holds the current line.
+     * @param index the index of the coordinate field.
      * @return An integer array containing the x and y values if the format is correct and values are within bounds,
      *         or null if the format is invalid or values are out of bounds.
      */
-    private static int[] parseCoordinate(String coordinate) {
+    private static int[] parseCoordinate(CsvTokenizer tokenizer, int index) {
         try {
-        	if (!coordinate.startsWith("\"") || !coordinate.endsWith("\"")) {
-                return null;
-            }
-            coordinate = coordinate.replace("\"", "").trim();
-            String[] parts = coordinate.split(",");
-            if (parts.length != 2) {
+        	if (!tokenizer.isQuoted(index)) {
                 return null;
             }
-            int x = Integer.parseInt(parts[0].trim());
-            int y = Integer.parseInt(parts[1].trim());
+        	String line = tokenizer.getLine();
+        	int start = tokenizer.getStart(index);
+        	int end = tokenizer.getEnd(index);
+        	int comma = line.indexOf(',', start);
+        	if (comma < 0 || comma >= end || line.indexOf(',', comma + 1) >= 0 && line.indexOf(',', comma + 1) < end) {
+        		return null;
+        	}
+            int x = parseInt(line, start, comma);
+            int y = parseInt(line, comma + 1, end);
             if (x >= COORDINATE_MIN && x <= COORDINATE_MAX && y >= COORDINATE_MIN && y <= COORDINATE_MAX) {
                 return new int[]{x, y};
             } 
@@ -197,6 +186,25 @@ public class RentalLoader {
         }
     }
     
+    /**
+     * Parses an integer from a part of a line, ignoring leading and trailing spaces.
+     * 
+     * @param line the line that contains the integer.
+     * @param from the start index (inclusive) of the part.
+     * @param to the end index (exclusive) of the part.
+     * @return the parsed integer.
+     * @throws NumberFormatException if the part does not contain a valid integer.
+     */
+    private static int parseInt(String line, int from, int to) {
+    	while (from < to && line.charAt(from) == ' ') {
+    		from++;
+    	}
+    	while (to > from && line.charAt(to - 1) == ' ') {
+    		to--;
+    	}
+    	return Integer.parseInt(line, from, to, 10);
+    }
+    
     /**
      * Creates a random `User` object based on the provided username.
      * The method randomly decides whether to create a `DomesticUser` or a `ForeignUser`.
@@ -211,6 +219,266 @@ public class RentalLoader {
             return new ForeignUser(username);
         }
     }
+    
+    /**
+     * Identifies a rental by the vehicle ID and the date and time of the rental.
+     * It is used as a hash key for detecting vehicles that are already rented at the same date and time.
+     */
+    private static final class RentalKey {
+    	/** The ID of the rented vehicle. */
+    	private final String vehicleId;
+    	/** The date and time of the rental. */
+    	private final LocalDateTime dateTime;
+    	
+    	/**
+    	 * Constructs a key for the specified vehicle ID and date and time.
+    	 * 
+    	 * @param vehicleId the ID of the rented vehicle.
+    	 * @param dateTime the date and time of the rental.
+    	 */
+    	private RentalKey(String vehicleId, LocalDateTime dateTime) {
+    		this.vehicleId = vehicleId;
+    		this.dateTime = dateTime;
+    	}
+    	
+    	@Override
+    	public boolean equals(Object other) {
+    		if (!(other instanceof RentalKey)) {
+    			return false;
+    		}
+    		RentalKey key = (RentalKey) other;
+    		return vehicleId.equals(key.vehicleId) && dateTime.equals(key.dateTime);
+    	}
+    	
+    	@Override
+    	public int hashCode() {
+    		return 31 * vehicleId.hashCode() + dateTime.hashCode();
+    	}
+    }
+    
+    /**
+     * The result of parsing a single line of the CSV file, before it is checked against other lines.
+     * A line is either skipped (with a message and, for parsing errors, the exception that caused it)
+     * or holds all values needed to create a rental.
+     */
+    private static class RentalLine {
+    	/** The message printed if the line is skipped, or {@code null} if the line was parsed. */
+    	private String skipMessage;
+    	/** The exception printed after the skip message, or {@code null} if there is none. */
+    	private Exception error;
+    	/** The parsed line. */
+    	private String line;
+    	/** The date and time of the rental. */
+    	private LocalDateTime dateTime;
+    	/** The name of the user who rented a vehicle. */
+    	private String username;
+    	/** The ID of the rented vehicle. */
+    	private String vehicleId;
+    	/** The copy of the rented vehicle used in the rental. */
+    	private Vehicle vehicleCopy;
+    	/** The start location of the rental. */
+    	private int[] startLocation;
+    	/** The end location of the rental. */
+    	private int[] endLocation;
+    	/** The duration of the rental in seconds. */
+    	private double duration;
+    	/** Indicates whether a promotion applies to the rental. */
+    	private boolean hasPromotion;
+    	
+    	/**
+    	 * Creates the result of a skipped line.
+    	 * 
+    	 * @param skipMessage the message printed for the skipped line.
+    	 * @param error the exception printed after the message, or {@code null} if there is none.
+    	 * @return the result of the skipped line.
+    	 */
+    	private static RentalLine skipped(String skipMessage, Exception error) {
+    		RentalLine rentalLine = new RentalLine();
+    		rentalLine.skipMessage = skipMessage;
+    		rentalLine.error = error;
+    		return rentalLine;
+    	}
+    }
+    
+    /**
+     * Parses single lines of the CSV file independently of other lines, so that lines can be parsed on several threads.
+     * For every line, the parser performs the following:
+     * - Splits the line with a reusable {@link CsvTokenizer}.
+     * - Validates and processes each component, including date, username, vehicle ID, locations, duration, fault presence, and promotion applicability.
+     * - Creates vehicle copies and simulates faults as needed.
+     * 
+     * A parser is not thread-safe, so every thread should use its own parser.
+     */
+    private static class RentalLineParser implements Function<String, RentalLine> {
+    	/** A map of vehicle IDs to Vehicle objects used for looking up vehicles. */
+    	private final Map<String, Vehicle> vehicles;
+    	/** The tokenizer reused for all lines. */
+    	private final CsvTokenizer tokenizer = new CsvTokenizer();
+    	
+    	/**
+    	 * Constructs a parser that looks up vehicles in the specified map.
+    	 * 
+    	 * @param vehicles A map of vehicle IDs to Vehicle objects used for looking up vehicles.
+    	 */
+    	private RentalLineParser(Map<String, Vehicle> vehicles) {
+    		this.vehicles = vehicles;
+    	}
+    	
+    	/**
+    	 * Parses a single line of the CSV file.
+    	 * 
+    	 * @param line the line to be parsed.
+    	 * @return the parsed line.
+    	 */
+    	@Override
+    	public RentalLine apply(String line) {
+    		if (tokenizer.tokenize(line) != 8) {
+                return RentalLine.skipped("Skipped line (incorrect number of columns): " + line, null);
+            }
+            try {
+            	RentalLine rentalLine = new RentalLine();
+            	rentalLine.line = line;
+                rentalLine.dateTime = LocalDateTime.parse(tokenizer.getField(0), DATE_TIME_FORMATTER);
+                rentalLine.username = tokenizer.getField(1);
+                rentalLine.vehicleId = tokenizer.getField(2);
+                rentalLine.startLocation = parseCoordinate(tokenizer, 3);
+                rentalLine.endLocation = parseCoordinate(tokenizer, 4);
+                rentalLine.duration = Double.parseDouble(tokenizer.getField(5));
+                boolean hasFault = tokenizer.fieldEqualsIgnoreCase(6, "yes");
+                rentalLine.hasPromotion = tokenizer.fieldEqualsIgnoreCase(7, "yes");
+                if (rentalLine.startLocation == null || rentalLine.endLocation == null) {
+                    return RentalLine.skipped("Skipped line (invalid coordinates): " + line, null);
+                }
+                Vehicle vehicle = vehicles.get(rentalLine.vehicleId);
+                if (vehicle == null) {
+                    return RentalLine.skipped("Skipped line (vehicle not found): " + line, null);
+                }
+                rentalLine.vehicleCopy = vehicle.clone();
+                if (hasFault) { 
+                	rentalLine.vehicleCopy.simulateFault();
+                }
+                return rentalLine;
+            } 
+            catch (CloneNotSupportedException e) {
+            	return RentalLine.skipped("Cloning failed " + line, e);
+            }
+            catch (Exception e) {
+                return RentalLine.skipped("Skipped line (data parsing error): " + line, e);
+            }
+    	}
+    }
+    
+    /**
+     * Turns parsed lines into rentals, in file order.
+     * The merger prints the messages of skipped lines, skips lines for vehicles that are already rented
+     * at the same date and time (using a hash set of (vehicle ID, date and time) keys) and retrieves or creates users.
+     * User rental counts are not updated by the merger.
+     */
+    private static class RentalMerger {
+    	/** A map of user names to users. */
+    	private final Map<String, User> users = new HashMap<>();
+    	/** The keys of all rentals merged so far, used to detect vehicles that are already rented. */
+    	private final Set<RentalKey> rentedVehicles = new HashSet<>();
+    	
+    	/**
+    	 * Turns a parsed line into a rental.
+    	 * 
+    	 * @param rentalLine the parsed line.
+    	 * @return the rental, or {@code null} if the line is skipped.
+    	 */
+    	private Rental merge(RentalLine rentalLine) {
+    		if (rentalLine.skipMessage != null) {
+    			System.out.println(rentalLine.skipMessage);
+    			if (rentalLine.error != null) {
+    				rentalLine.error.printStackTrace();
+    			}
+    			return null;
+    		}
+    		if (!rentedVehicles.add(new RentalKey(rentalLine.vehicleId, rentalLine.dateTime))) {
+                System.out.println("Skipped line (vehicle is already rented): " + rentalLine.line);
+                return null;
+            }
+    		User user = users.computeIfAbsent(rentalLine.username, RentalLoader::createRandomUser);
+    		return new Rental(rentalLine.dateTime, user, rentalLine.vehicleCopy, rentalLine.startLocation, rentalLine.endLocation, rentalLine.duration, rentalLine.hasPromotion);
+    	}
+    }
+    
+    /**
+     * Reads rentals from the CSV file one line at a time, parsing and merging every line as it is read.
+     */
+    private static class RentalIterator implements Iterator<Rental>, AutoCloseable {
+    	/** The parser of single lines. */
+    	private final RentalLineParser parser;
+    	/** The merger of parsed lines. */
+    	private final RentalMerger merger = new RentalMerger();
+    	/** The reader of the CSV file, or {@code null} if the file could not be opened. */
+    	private BufferedReader reader;
+    	/** The next rental to be returned, or {@code null} if it has not been read yet. */
+    	private Rental next;
+    	
+    	/**
+    	 * Opens the CSV file and skips the header line.
+    	 * 
+    	 * @param vehicles A map of vehicle IDs to Vehicle objects used for looking up vehicles.
+    	 */
+    	private RentalIterator(Map<String, Vehicle> vehicles) {
+    		this.parser = new RentalLineParser(vehicles);
+    		try {
+    			reader = new BufferedReader(new FileReader(AppConfig.get().getFiles().getRentalsFilePath()));
+    			reader.readLine();
+    		}
+    		catch (IOException e) {
+    			e.printStackTrace();
+    			close();
+    		}
+    	}
+    	
+    	@Override
+    	public boolean hasNext() {
+    		while (next == null && reader != null) {
+    			try {
+    				String line = reader.readLine();
+    				if (line == null) {
+    					close();
+    				}
+    				else {
+    					next = merger.merge(parser.apply(line));
+    				}
+    			}
+    			catch (IOException e) {
+    				e.printStackTrace();
+    				close();
+    			}
+    		}
+    		return next != null;
+    	}
+    	
+    	@Override
+    	public Rental next() {
+    		if (!hasNext()) {
+    			throw new NoSuchElementException();
+    		}
+    		Rental rental = next;
+    		next = null;
+    		return rental;
+    	}
+    	
+    	/**
+    	 * Closes the CSV file. 
+    	 */
+    	@Override
+    	public void close() {
+    		if (reader != null) {
+    			try {
+    				reader.close();
+    			}
+    			catch (IOException e) {
+    				e.printStackTrace();
+    			}
+    			reader = null;
+    		}
+    	}
+    }
 }
 
 
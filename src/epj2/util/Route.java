@@ -0,0 +1,79 @@
+package epj2.util;
+
+/**
+ * A route of a vehicle through the cells of the city map.
+ * The cells of a route are accessed by index, from the start location (index 0) to the end location
+ * (index {@code length() - 1}), so iterating over a route does not require an object per cell.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public interface Route {
+
+	/**
+	 * Returns the number of cells in the route, including the start and the end location.
+	 *
+	 * @return the number of cells in the route.
+	 */
+	int length();
+
+	/**
+	 * Returns the x-coordinate of the cell with the specified index.
+	 *
+	 * @param index the index of the cell in the route.
+	 * @return the x-coordinate of the cell.
+	 */
+	int x(int index);
+
+	/**
+	 * Returns the y-coordinate of the cell with the specified index.
+	 *
+	 * @param index the index of the cell in the route.
+	 * @return the y-coordinate of the cell.
+	 */
+	int y(int index);
+
+	/**
+	 * Returns the zone of the route, which is the first zone, in order of priority, that the route enters (see {@link ZoneMap}).
+	 * The default implementation looks up every cell; routes with a known shape can decide it without walking the route.
+	 *
+	 * @return the index of the zone of the route.
+	 */
+	default int zone() {
+		return MapUtil.getZoneMap().zoneOf(this);
+	}
+
+	/**
+	 * Checks if any cell of the route is in the wide area of the city.
+	 *
+	 * @return {@code true} if the route is within the wide area, {@code false} otherwise.
+	 */
+	default boolean isInWideArea() {
+		return zone() == ZoneMap.DEFAULT_ZONE;
+	}
+
+	/**
+	 * Counts the cells of the route that are in the narrow area of the city.
+	 * The default implementation checks every cell; routes with a known shape can count them without walking the route.
+	 *
+	 * @return the number of cells in the narrow area.
+	 */
+	default int countNarrowAreaCells() {
+		int cells = 0;
+		for (int i = 0; i < length(); i++) {
+			if (!MapUtil.isInWideArea(x(i), y(i))) {
+				cells++;
+			}
+		}
+		return cells;
+	}
+
+	/**
+	 * Counts the cells of the route that are in the wide area of the city.
+	 *
+	 * @return the number of cells in the wide area.
+	 */
+	default int countWideAreaCells() {
+		return length() - countNarrowAreaCells();
+	}
+}
@@ -0,0 +1,26 @@
+package epj2.util;
+
+import epj2.model.vehicle.Vehicle;
+
+/**
+ * Plans the route of a vehicle between two locations on the city map.
+ * Implementations decide which cells a vehicle may use, so the same locations can produce different routes
+ * for different types of vehicles. A planner may be called from several rental threads at the same time.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public interface RoutePlanner {
+
+	/**
+	 * Plans a route from the start location to the end location.
+	 *
+	 * @param startX the x-coordinate of the start location.
+	 * @param startY the y-coordinate of the start location.
+	 * @param endX the x-coordinate of the end location.
+	 * @param endY the y-coordinate of the end location.
+	 * @param vehicleType the type of the vehicle that travels the route.
+	 * @return the route from the start to the end location, including both locations.
+	 */
+	Route plan(int startX, int startY, int endX, int endY, Class<? extends Vehicle> vehicleType);
+}
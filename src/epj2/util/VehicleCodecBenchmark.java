@@ -0,0 +1,188 @@
+package epj2.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import epj2.model.vehicle.Vehicle;
+import epj2.model.vehicle.VehicleCodec;
+
+/**
+ * Compares the size and latency of the binary {@link VehicleCodec} with Java serialization, which top vehicle
+ * reports used before. The vehicles from the vehicles file are copied with unique IDs and their own strings until the
+ * list has the requested size, so Java serialization cannot write them as references to earlier objects, and the whole
+ * list is written and read back several times with both formats.
+ *
+ * Usage: {@code VehicleCodecBenchmark [vehicleCount] [rounds]} (by default 100000 vehicles and 10 rounds).
+ * The first rounds warm up the JIT compiler; the best round of each format is printed.
+ * Vehicles are benchmarked without faults, because {@link epj2.model.vehicle.Fault} is not serializable.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public class VehicleCodecBenchmark {
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args the number of vehicles and the number of rounds (optional).
+	 */
+	public static void main(String[] args) {
+		int vehicleCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+		int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+		Map<String, Vehicle> loaded = VehicleLoader.loadVehiclesFromCSV();
+		if (loaded.isEmpty()) {
+			System.out.println("No vehicles to benchmark");
+			return;
+		}
+		List<Vehicle> source = new ArrayList<>(loaded.values());
+		ArrayList<Vehicle> vehicles = new ArrayList<>(vehicleCount);
+		try {
+			for (int i = 0; i < vehicleCount; i++) {
+				Vehicle vehicle = source.get(i % source.size()).clone();
+				vehicle.setID(vehicle.getID() + "-" + i);
+				vehicle.setProducer(new String(vehicle.getProducer()));
+				vehicle.setModel(new String(vehicle.getModel()));
+				vehicle.setFault(null);
+				vehicles.add(vehicle);
+			}
+			long[] serialization = {Long.MAX_VALUE, Long.MAX_VALUE, 0};
+			long[] codec = {Long.MAX_VALUE, Long.MAX_VALUE, 0};
+			for (int round = 0; round < rounds; round++) {
+				measure(serialization, () -> serialize(vehicles), VehicleCodecBenchmark::deserialize);
+				measure(codec, () -> encode(vehicles), VehicleCodecBenchmark::decode);
+			}
+			print("Java serialization", serialization, vehicleCount);
+			print("VehicleCodec", codec, vehicleCount);
+		}
+		catch (IOException | ClassNotFoundException | CloneNotSupportedException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Writes and reads the vehicles once and keeps the best times.
+	 *
+	 * @param result the best write time, the best read time (in nanoseconds) and the size in bytes.
+	 * @param writer writes the vehicles.
+	 * @param reader reads the vehicles back.
+	 * @throws IOException if the vehicles cannot be written or read.
+	 * @throws ClassNotFoundException if a serialized class cannot be found.
+	 */
+	private static void measure(long[] result, Writer writer, Reader reader) throws IOException, ClassNotFoundException {
+		long start = System.nanoTime();
+		byte[] data = writer.write();
+		long written = System.nanoTime();
+		int count = reader.read(data);
+		long read = System.nanoTime();
+		if (count <= 0) {
+			throw new IOException("No vehicles read");
+		}
+		result[0] = Math.min(result[0], written - start);
+		result[1] = Math.min(result[1], read - written);
+		result[2] = data.length;
+	}
+
+	/**
+	 * Prints the result of a format.
+	 *
+	 * @param name the name of the format.
+	 * @param result the best write time, the best read time (in nanoseconds) and the size in bytes.
+	 * @param vehicleCount the number of vehicles.
+	 */
+	private static void print(String name, long[] result, int vehicleCount) {
+		System.out.printf("%-20s size=%d B (%.1f B/vehicle) write=%.2f ms read=%.2f ms%n", name, result[2],
+				(double) result[2] / vehicleCount, result[0] / 1e6, result[1] / 1e6);
+	}
+
+	/**
+	 * Writes the vehicles with Java serialization.
+	 *
+	 * @param vehicles the vehicles.
+	 * @return the serialized vehicles.
+	 * @throws IOException if the vehicles cannot be written.
+	 */
+	private static byte[] serialize(ArrayList<Vehicle> vehicles) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(vehicles);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Reads vehicles written with Java serialization.
+	 *
+	 * @param data the serialized vehicles.
+	 * @return the number of vehicles read.
+	 * @throws IOException if the vehicles cannot be read.
+	 * @throws ClassNotFoundException if a serialized class cannot be found.
+	 */
+	private static int deserialize(byte[] data) throws IOException, ClassNotFoundException {
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+			return ((List<?>) in.readObject()).size();
+		}
+	}
+
+	/**
+	 * Writes the vehicles with the binary codec.
+	 *
+	 * @param vehicles the vehicles.
+	 * @return the encoded vehicles.
+	 * @throws IOException if the vehicles cannot be written.
+	 */
+	private static byte[] encode(List<Vehicle> vehicles) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			VehicleCodec.writeVehicles(out, vehicles);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Reads vehicles written with the binary codec.
+	 *
+	 * @param data the encoded vehicles.
+	 * @return the number of vehicles read.
+	 * @throws IOException if the vehicles cannot be read.
+	 */
+	private static int decode(byte[] data) throws IOException {
+		return VehicleCodec.readVehicles(new DataInputStream(new ByteArrayInputStream(data)), VehicleCodec.VERSION).size();
+	}
+
+	/**
+	 * Writes the vehicles in one of the formats.
+	 */
+	@FunctionalInterface
+	private interface Writer {
+		/**
+		 * Writes the vehicles.
+		 *
+		 * @return the written vehicles.
+		 * @throws IOException if the vehicles cannot be written.
+		 */
+		byte[] write() throws IOException;
+	}
+
+	/**
+	 * Reads the vehicles in one of the formats.
+	 */
+	@FunctionalInterface
+	private interface Reader {
+		/**
+		 * Reads the vehicles.
+		 *
+		 * @param data the written vehicles.
+		 * @return the number of vehicles read.
+		 * @throws IOException if the vehicles cannot be read.
+		 * @throws ClassNotFoundException if a serialized class cannot be found.
+		 */
+		int read(byte[] data) throws IOException, ClassNotFoundException;
+	}
+}
@@ -5,9 +5,13 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import epj2.config.AppConfig;
+import epj2.config.FileConfig;
 import epj2.model.vehicle.*;
 
 /**
@@ -19,19 +23,9 @@ import epj2.model.vehicle.*;
  * @version 27.8.2024.
  */
 public class VehicleLoader {
-	/**
-	 * Manages the properties file used by the VehicleLoader class.
-	 * This instance is used to load  vehicles file path.
-	 */
-	private static PropertiesManager propertiesManager;
 	/** Date format for parsing dates in the CSV file. */
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("d.M.yyyy.");
     
-    // Static block to initialize propertiesManager
-    static {
-    	propertiesManager = new PropertiesManager("filePaths.properties");
-    }
-    
     /**
      * Loads vehicles from a CSV file into a map 
      * where the keys are vehicle IDs and the values are {@link Vehicle} objects..
@@ -49,96 +43,141 @@ public class VehicleLoader {
 	 *
      * If a line in the CSV file is not in the expected format or if the vehicle type
      * is unknown, it is skipped. Duplicate IDs are not accepted and lines containing such IDs are also skipped.
+     * If {@code LOADER_MODE} is set to {@code PARALLEL}, the file is memory-mapped and parsed in chunks
+     * on several threads (see {@link ChunkedCsvReader}); the parsed lines are then merged in file order,
+     * with the same messages and the same handling of duplicate IDs as in the sequential mode.
      *
      * @return a map where the keys are vehicle IDs and the values are {@link Vehicle} objects.
      */
     public static Map<String, Vehicle> loadVehiclesFromCSV() {
         Map<String, Vehicle> vehicles = new HashMap<>();
-        boolean isFirstLine = true;
-        try (BufferedReader br = new BufferedReader(new FileReader(propertiesManager.getProperty("VEHICLES_FILE_PATH")))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (isFirstLine) {
-                    isFirstLine = false;
-                    continue;
-                }
-                String[] parts = line.split(",");
-                if (parts.length < 8) {
-                    System.out.println("Skipped line (incorrect number of columns): " + line);
-                    continue;
-                }
-                String id = parts[0].trim();
-                if (vehicles.containsKey(id)) {
-                    System.out.println("Skipped line (duplicate ID): " + id);
-                    continue;
-                }
-                String producer = parts[1].trim();
-                String model = parts[2].trim();
-                double purchasePrice;
+        FileConfig fileConfig = AppConfig.get().getFiles();
+        String filePath = fileConfig.getVehiclesFilePath();
+        try {
+        	if (fileConfig.isParallelLoader()) {
+        		long chunkSize = fileConfig.getLoaderChunkSize();
+        		for (VehicleLine vehicleLine : ChunkedCsvReader.parseLines(filePath, chunkSize, () -> VehicleLoader::parseLine)) {
+        			addVehicle(vehicles, vehicleLine);
+        		}
+        	}
+        	else {
+        		try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
+        			String line = br.readLine();
+        			while ((line = br.readLine()) != null) {
+        				addVehicle(vehicles, parseLine(line));
+        			}
+        		}
+        	}
+        } 
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+        return vehicles;
+    }
+    
+    /**
+     * Adds a parsed line to the map of vehicles, printing the messages for skipped lines.
+     * Lines with an ID that is already in the map are skipped.
+     * 
+     * @param vehicles the map of vehicles loaded so far.
+     * @param vehicleLine the parsed line.
+     */
+    private static void addVehicle(Map<String, Vehicle> vehicles, VehicleLine vehicleLine) {
+    	if (vehicleLine.id == null) {
+    		System.out.println(vehicleLine.skipMessage);
+    		return;
+    	}
+    	if (vehicles.containsKey(vehicleLine.id)) {
+            System.out.println("Skipped line (duplicate ID): " + vehicleLine.id);
+            return;
+        }
+    	if (vehicleLine.vehicle == null) {
+    		System.out.println(vehicleLine.skipMessage);
+    		return;
+    	}
+    	for (String warning : vehicleLine.warnings) {
+    		System.out.println(warning);
+    	}
+    	vehicles.put(vehicleLine.id, vehicleLine.vehicle);
+    }
+    
+    /**
+     * Parses a single line of the CSV file into a vehicle.
+     * The line is parsed independently of other lines, so that lines can be parsed on several threads;
+     * duplicate IDs are detected when the parsed lines are added to the map of vehicles.
+     * 
+     * @param line the line to be parsed.
+     * @return the parsed line, which holds either a vehicle or the reason why the line is skipped.
+     */
+    private static VehicleLine parseLine(String line) {
+    	VehicleLine vehicleLine = new VehicleLine();
+        String[] parts = line.split(",");
+        if (parts.length < 8) {
+        	vehicleLine.skipMessage = "Skipped line (incorrect number of columns): " + line;
+            return vehicleLine;
+        }
+        String id = parts[0].trim();
+        vehicleLine.id = id;
+        String producer = parts[1].trim();
+        String model = parts[2].trim();
+        double purchasePrice;
+        try {
+            String purchasePriceStr = parts[4].trim();
+            if (purchasePriceStr.isEmpty()) {
+            	vehicleLine.skipMessage = "Skipped line (purchase price not specified): " + line;
+                return vehicleLine;
+            }
+            purchasePrice = Double.parseDouble(purchasePriceStr);
+        } 
+        catch (NumberFormatException e) {
+        	vehicleLine.skipMessage = "Skipped line (invalid purchase price): " + line;
+            return vehicleLine;
+        }
+        switch (parts[8].trim().toLowerCase()) {
+            case "car":
+                LocalDate purchaseDate = parseDate(parts[3].trim());
+                String description = parts[7].trim().isEmpty()? "No description available":parts[7].trim();
+                vehicleLine.vehicle = new Car(id, producer, purchasePrice, model, purchaseDate, description);
+                break;
+            case "bike":
+            	int range;
                 try {
-                    String purchasePriceStr = parts[4].trim();
-                    if (purchasePriceStr.isEmpty()) {
-                        System.out.println("Skipped line (purchase price not specified): " + line);
-                        continue;
+                    String maxSpeedStr = parts[5].trim();
+                    if (maxSpeedStr.isEmpty()) {
+                    	vehicleLine.warnings.add("Range not specified (set to 0): " + line);
+                        range = 0;
+                    } else {
+                        range = Integer.parseInt(maxSpeedStr);
                     }
-                    purchasePrice = Double.parseDouble(purchasePriceStr);
                 } 
                 catch (NumberFormatException e) {
-                    System.out.println("Skipped line (invalid purchase price): " + line);
-                    continue;
+                	vehicleLine.warnings.add("Invalid range (set to 0): " + line);
+                    range = 0;
                 }
-                Vehicle vehicle = null;
-                switch (parts[8].trim().toLowerCase()) {
-                    case "car":
-                        LocalDate purchaseDate = parseDate(parts[3].trim());
-                        String description = parts[7].trim().isEmpty()? "No description available":parts[7].trim();
-                        vehicle = new Car(id, producer, purchasePrice, model, purchaseDate, description);
-                        break;
-                    case "bike":
-                    	int range;
-                        try {
-                            String maxSpeedStr = parts[5].trim();
-                            if (maxSpeedStr.isEmpty()) {
-                                System.out.println("Range not specified (set to 0): " + line);
-                                range = 0;
-                            } else {
-                                range = Integer.parseInt(maxSpeedStr);
-                            }
-                        } 
-                        catch (NumberFormatException e) {
-                            System.out.println("Invalid range (set to 0): " + line);
-                            range = 0;
-                        }
-                        vehicle = new Bike(id, producer, purchasePrice, model, range);
-                        break;
-                    case "scooter":
-                        int maxSpeed;
-                        try {
-                            String maxSpeedStr = parts[6].trim();
-                            if (maxSpeedStr.isEmpty()) {
-                                System.out.println("Maximum speed not specified (set to 0): " + line);
-                                maxSpeed = 0;
-                            } else {
-                                maxSpeed = Integer.parseInt(maxSpeedStr);
-                            }
-                        } 
-                        catch (NumberFormatException e) {
-                            System.out.println("Invalid maximum speed (set to 0): " + line);
-                            maxSpeed = 0;
-                        }
-                        vehicle = new Scooter(id, producer, purchasePrice, model, maxSpeed);
-                        break;
-                    default:
-                        System.out.println("Skipped line (unknown vehicle type): " + line);
-                        continue;
+                vehicleLine.vehicle = new Bike(id, producer, purchasePrice, model, range);
+                break;
+            case "scooter":
+                int maxSpeed;
+                try {
+                    String maxSpeedStr = parts[6].trim();
+                    if (maxSpeedStr.isEmpty()) {
+                    	vehicleLine.warnings.add("Maximum speed not specified (set to 0): " + line);
+                        maxSpeed = 0;
+                    } else {
+                        maxSpeed = Integer.parseInt(maxSpeedStr);
+                    }
+                } 
+                catch (NumberFormatException e) {
+                	vehicleLine.warnings.add("Invalid maximum speed (set to 0): " + line);
+                    maxSpeed = 0;
                 }
-                vehicles.put(id, vehicle);
-            }
-        } 
-        catch (IOException e) {
-            e.printStackTrace();
+                vehicleLine.vehicle = new Scooter(id, producer, purchasePrice, model, maxSpeed);
+                break;
+            default:
+            	vehicleLine.skipMessage = "Skipped line (unknown vehicle type): " + line;
+                break;
         }
-        return vehicles;
+        return vehicleLine;
     }
 
     /**
@@ -157,6 +196,22 @@ public class VehicleLoader {
             return null;
         }
     }
+    
+    /**
+     * The result of parsing a single line of the CSV file.
+     * A line without an ID is skipped because of an incorrect number of columns,
+     * and a line with an ID but without a vehicle is skipped for the reason given in the skip message.
+     */
+    private static class VehicleLine {
+    	/** The ID of the vehicle, or {@code null} if the line has an incorrect number of columns. */
+    	private String id;
+    	/** The parsed vehicle, or {@code null} if the line is skipped. */
+    	private Vehicle vehicle;
+    	/** The message printed if the line is skipped. */
+    	private String skipMessage;
+    	/** The messages printed if the vehicle is added with default values. */
+    	private final List<String> warnings = new ArrayList<>();
+    }
 }
 
 
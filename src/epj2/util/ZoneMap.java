@@ -0,0 +1,181 @@
+package epj2.util;
+
+import java.util.Arrays;
+
+import epj2.config.MapConfig;
+
+/**
+ * A precomputed map of the city zones, with one byte per cell.
+ * Zones are listed in the {@code ZONES} property, in order of priority, and parsed once into the {@link MapConfig}. The first zone is the default zone of every cell
+ * (the wide area of the city), and every other zone is painted over it from the rectangles in its {@code ZONE_<NAME>}
+ * property, in the form {@code startRow,startCol,endRow,endCol;startRow,startCol,endRow,endCol...}, with inclusive bounds.
+ * If the {@code NARROW} zone has no rectangles of its own, it is taken from the {@code NARROW_START_ROW..NARROW_END_COL} properties.
+ *
+ * The zone of a cell is found with a single array lookup. A route is in the first zone (in the order of {@code ZONES})
+ * that it enters, so with the default configuration a route that enters the wide area is in the wide area.
+ *
+ * @author Jelena Maletić
+ * @version 14.10.2026.
+ */
+public class ZoneMap {
+	/** The index of the default zone, which contains every cell that is not in any other zone. */
+	public static final int DEFAULT_ZONE = 0;
+	/** The largest number of zones that fit into one byte per cell. */
+	private static final int MAX_ZONES = 128;
+	/** The size of the map (number of rows and columns). */
+	private final int mapSize;
+	/** The names of the zones, in order of priority. */
+	private final String[] zoneNames;
+	/** The zone of every cell, stored row by row. */
+	private final byte[] cells;
+	/** The only rectangle of a map with exactly two zones, or {@code null} if the map has another layout. */
+	private final int[] singleRectangle;
+
+	/**
+	 * Constructs a zone map.
+	 *
+	 * @param mapSize the size of the map (number of rows and columns).
+	 * @param zoneNames the names of the zones, in order of priority.
+	 * @param cells the zone of every cell, stored row by row.
+	 * @param singleRectangle the only rectangle of a map with exactly two zones, or {@code null}.
+	 */
+	private ZoneMap(int mapSize, String[] zoneNames, byte[] cells, int[] singleRectangle) {
+		this.mapSize = mapSize;
+		this.zoneNames = zoneNames;
+		this.cells = cells;
+		this.singleRectangle = singleRectangle;
+	}
+
+	/**
+	 * Builds a zone map from the zones and rectangles of the map configuration.
+	 *
+	 * @param mapConfig the map configuration.
+	 * @return the zone map.
+	 * @throws IllegalArgumentException if there are too many zones.
+	 */
+	public static ZoneMap load(MapConfig mapConfig) {
+		int mapSize = mapConfig.getMapSize();
+		String[] zoneNames = mapConfig.getZoneNames();
+		if (zoneNames.length > MAX_ZONES) {
+			throw new IllegalArgumentException("Too many zones: " + zoneNames.length);
+		}
+		byte[] cells = new byte[mapSize * mapSize];
+		int[] lastRectangle = null;
+		int rectangleCount = 0;
+		for (int zone = 0; zone < zoneNames.length; zone++) {
+			if (zone == DEFAULT_ZONE) {
+				continue;
+			}
+			for (int[] rectangle : mapConfig.getZoneRectangles(zone)) {
+				for (int row = Math.max(0, rectangle[0]); row <= Math.min(mapSize - 1, rectangle[2]); row++) {
+					for (int col = Math.max(0, rectangle[1]); col <= Math.min(mapSize - 1, rectangle[3]); col++) {
+						cells[row * mapSize + col] = (byte) zone;
+					}
+				}
+				lastRectangle = rectangle;
+				rectangleCount++;
+			}
+		}
+		boolean isSingleRectangle = zoneNames.length == 2 && rectangleCount == 1;
+		return new ZoneMap(mapSize, zoneNames, cells, isSingleRectangle ? lastRectangle : null);
+	}
+
+	/**
+	 * Returns the zone of the specified cell. Cells outside of the map are in the default zone.
+	 *
+	 * @param x the x-coordinate (row) of the cell.
+	 * @param y the y-coordinate (column) of the cell.
+	 * @return the index of the zone.
+	 */
+	public int zoneOf(int x, int y) {
+		if (x < 0 || y < 0 || x >= mapSize || y >= mapSize) {
+			return DEFAULT_ZONE;
+		}
+		return cells[x * mapSize + y];
+	}
+
+	/**
+	 * Returns the zone of a route, which is the zone with the lowest index among the zones of its cells.
+	 *
+	 * @param route the route.
+	 * @return the index of the zone of the route.
+	 */
+	public int zoneOf(Route route) {
+		int zone = Integer.MAX_VALUE;
+		for (int i = 0; i < route.length() && zone != DEFAULT_ZONE; i++) {
+			zone = Math.min(zone, zoneOf(route.x(i), route.y(i)));
+		}
+		return zone;
+	}
+
+	/**
+	 * Returns the only rectangle of a map with exactly two zones, which allows routes to be classified in constant time.
+	 *
+	 * @return a copy of the {startRow, startCol, endRow, endCol} bounds, or {@code null} if the map has another layout.
+	 */
+	public int[] getSingleRectangle() {
+		return singleRectangle == null ? null : singleRectangle.clone();
+	}
+
+	/**
+	 * Returns the number of zones.
+	 *
+	 * @return the number of zones.
+	 */
+	public int getZoneCount() {
+		return zoneNames.length;
+	}
+
+	/**
+	 * Returns the name of the specified zone, as listed in the {@code ZONES} property.
+	 *
+	 * @param zone the index of the zone.
+	 * @return the name of the zone.
+	 */
+	public String getZoneName(int zone) {
+		return zoneNames[zone];
+	}
+
+	/**
+	 * Returns the index of the zone with the specified name.
+	 *
+	 * @param zoneName the name of the zone (case-insensitive).
+	 * @return the index of the zone, or -1 if there is no such zone.
+	 */
+	public int getZoneIndex(String zoneName) {
+		return Arrays.asList(zoneNames).indexOf(zoneName.toUpperCase());
+	}
+
+	/**
+	 * Returns the index of the narrow area of the city: the zone named {@code NARROW}, or the second zone if there is no such zone.
+	 *
+	 * @return the index of the narrow zone, or the default zone if the map has only one zone.
+	 */
+	public int getNarrowZone() {
+		int zone = getZoneIndex("NARROW");
+		if (zone >= 0) {
+			return zone;
+		}
+		return zoneNames.length > 1 ? 1 : DEFAULT_ZONE;
+	}
+
+	/**
+	 * Returns the label of the specified zone used on invoices and in reports, for example {@code "wide city area"}.
+	 *
+	 * @param zone the index of the zone.
+	 * @return the label of the zone.
+	 */
+	public String getCityAreaLabel(int zone) {
+		return toCityAreaLabel(zoneNames[zone]);
+	}
+
+	/**
+	 * Returns the label of the zone with the specified name, for example {@code "wide city area"} for {@code WIDE}.
+	 *
+	 * @param zoneName the name of the zone.
+	 * @return the label of the zone.
+	 */
+	public static String toCityAreaLabel(String zoneName) {
+		return zoneName.toLowerCase() + " city area";
+	}
+}